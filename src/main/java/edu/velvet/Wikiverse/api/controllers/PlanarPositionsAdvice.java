@@ -0,0 +1,49 @@
+package edu.velvet.Wikiverse.api.controllers;
+
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.requests.Request;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes the JSON response of a request laid out on a plane with the
+ * {@link Point3D.Planar} view, leaving out the z-coordinate of every position.
+ *
+ * <p>
+ * Whether z is sent depends on the request rather than on the position:
+ * <ul>
+ * <li>Requests whose layout settings prefer 3D (and requests without a layout)
+ * are written as before, with z on every position, including positions at
+ * z=0 such as the locked origin</li>
+ * <li>Requests which are {@link Request#isPlanar()} leave z out of every
+ * position, clients should read the missing z as 0</li>
+ * </ul>
+ * The other properties are still written under the view, as the
+ * {@code spring.jackson.mapper.default-view-inclusion} property is set.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see Point3D.Planar
+ */
+@RestControllerAdvice
+public class PlanarPositionsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+	@Override
+	protected void beforeBodyWriteInternal(
+		MappingJacksonValue bodyContainer,
+		MediaType contentType,
+		MethodParameter returnType,
+		ServerHttpRequest request,
+		ServerHttpResponse response
+	) {
+		if (bodyContainer.getValue() instanceof Request body && body.isPlanar()) {
+			bodyContainer.setSerializationView(Point3D.Planar.class);
+		}
+	}
+}
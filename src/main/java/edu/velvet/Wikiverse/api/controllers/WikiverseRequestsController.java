@@ -1,13 +1,25 @@
 package edu.velvet.Wikiverse.api.controllers;
 
 import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.requests.ClickTargetRequest;
 import edu.velvet.Wikiverse.api.models.requests.GraphsetRequest;
+import edu.velvet.Wikiverse.api.models.requests.LayoutJobRequest;
 import edu.velvet.Wikiverse.api.models.requests.LayoutRequest;
 import edu.velvet.Wikiverse.api.models.requests.Request;
 import edu.velvet.Wikiverse.api.models.requests.SearchRequest;
 import edu.velvet.Wikiverse.api.models.requests.StatusRequest;
+import edu.velvet.Wikiverse.api.services.layout.ClickTargetIndex;
+import edu.velvet.Wikiverse.api.services.layout.FR3DLayout;
+import edu.velvet.Wikiverse.api.services.layout.LayoutBinaryWriter;
+import edu.velvet.Wikiverse.api.services.layout.LayoutCache;
+import edu.velvet.Wikiverse.api.services.layout.LayoutScheduler;
+import edu.velvet.Wikiverse.api.services.layout.LayoutService;
+import edu.velvet.Wikiverse.api.services.layout.LayoutStreamService;
+import edu.velvet.Wikiverse.api.services.layout.LayoutTelemetry;
 import edu.velvet.Wikiverse.api.services.wikidata.WikidataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +27,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin
 @RestController
@@ -23,6 +37,24 @@ public class WikiverseRequestsController {
 	@Autowired
 	private WikidataService wikidata;
 
+	@Autowired
+	private LayoutService layouts;
+
+	@Autowired
+	private LayoutCache layoutCache;
+
+	@Autowired
+	private LayoutScheduler layoutScheduler;
+
+	@Autowired
+	private LayoutStreamService layoutStreams;
+
+	@Autowired
+	private LayoutTelemetry layoutTelemetry;
+
+	@Autowired
+	private ClickTargetIndex clickTargets;
+
 	/**
 	 * Retrieves the current status of the Wikiverse service and its dependencies.
 	 * This endpoint provides health check information for the application and
@@ -171,7 +203,12 @@ public class WikiverseRequestsController {
 	 */
 	@PostMapping("api/graphset/initialize-data")
 	public ResponseEntity<Request> postGraphsetInitialData(@RequestBody GraphsetRequest request) {
-		return buildRequestResponse(request.initializeData(wikidata));
+		return buildRequestResponse(
+			request
+				.withTelemetry(layoutTelemetry)
+				.initializeData(wikidata, layoutCache, layoutScheduler)
+				.indexClickTargets(clickTargets)
+		);
 	}
 
 	/**
@@ -202,10 +239,198 @@ public class WikiverseRequestsController {
 	 */
 	@PostMapping("api/layout/refresh")
 	public ResponseEntity<Request> refreshLayout(@RequestBody LayoutRequest request) {
-		return buildRequestResponse(request.updateLayout());
+		return buildRequestResponse(
+			request
+				.withTelemetry(layoutTelemetry)
+				.updateLayout(layoutCache, layoutScheduler)
+				.indexClickTargets(clickTargets)
+		);
+	}
+
+	/**
+	 * Refreshes the layout of a graphset like {@link #refreshLayout(LayoutRequest)},
+	 * but responds with only the laid out positions in the binary format of the
+	 * {@link LayoutBinaryWriter} rather than the whole request as JSON.
+	 *
+	 * <p>
+	 * Meant for the largest graphsets, where serializing every position as JSON
+	 * numbers costs about as much as the layout itself:
+	 * <ul>
+	 * <li>Positions are written as float32 when the layout settings select the
+	 * float32 precision, otherwise as float64</li>
+	 * <li>The layout stats are sent in the {@code X-Layout-Engine},
+	 * {@code X-Layout-Stop-Reason}, {@code X-Layout-Iterations} and
+	 * {@code X-Layout-Cached} headers</li>
+	 * <li>The key the positions are indexed under for resolving clicks is sent
+	 * in the {@code X-Click-Target-Key} header</li>
+	 * <li>Errors are returned as the JSON LayoutRequest, as they are by
+	 * {@link #refreshLayout(LayoutRequest)}</li>
+	 * </ul>
+	 *
+	 * @param request the LayoutRequest containing graphset and layout settings to
+	 *                refresh
+	 * @return ResponseEntity streaming the binary positions, or the LayoutRequest
+	 *         and its error
+	 * @see LayoutBinaryWriter
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@PostMapping("api/layout/refresh-binary")
+	public ResponseEntity<?> refreshLayoutBinary(@RequestBody LayoutRequest request) {
+		request
+			.withTelemetry(layoutTelemetry)
+			.updateLayout(layoutCache, layoutScheduler)
+			.indexClickTargets(clickTargets);
+		if (request.errored()) {
+			return buildRequestResponse(request);
+		}
+
+		LayoutStats stats = request.getLayoutStats();
+		boolean singlePrecision = FR3DLayout.FLOAT32_PRECISION.equals(
+			request.getMetadata().getLayoutSettings().getLayoutPrecision()
+		);
+		StreamingResponseBody body = out -> LayoutBinaryWriter.write(request.getGraphset(), singlePrecision, out);
+		return ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(LayoutBinaryWriter.MEDIA_TYPE))
+			.header("X-Layout-Engine", stats.getEngine())
+			.header("X-Layout-Stop-Reason", String.valueOf(stats.getStopReason()))
+			.header("X-Layout-Iterations", String.valueOf(stats.getIterations()))
+			.header("X-Layout-Cached", String.valueOf(stats.isCached()))
+			.header("X-Click-Target-Key", String.valueOf(request.getClickTargetKey()))
+			.body(body);
+	}
+
+	/**
+	 * Submits a layout to run in the background, returning a job ID straight away
+	 * instead of holding the request thread until the layout finishes.
+	 *
+	 * <p>
+	 * The submitted job can then be followed with:
+	 * <ul>
+	 * <li>{@link #getLayoutJobStatus(String)} - poll the status and progress
+	 * (iteration, temperature, energy) of the job</li>
+	 * <li>{@link #getLayoutJobResult(String)} - fetch the laid out graphset once
+	 * the job has completed</li>
+	 * </ul>
+	 * If every layout worker is busy and the queue is full the job is turned away
+	 * with a 503 response.
+	 *
+	 * @param request the LayoutRequest containing graphset and layout settings to
+	 *                lay out
+	 * @return ResponseEntity with the LayoutJobRequest holding the queued job and
+	 *         its ID, or any errors
+	 * @see LayoutJobRequest
+	 * @see LayoutService
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@PostMapping("api/layout/jobs")
+	public ResponseEntity<Request> submitLayoutJob(@RequestBody LayoutRequest request) {
+		return buildRequestResponse(new LayoutJobRequest().submit(request.withTelemetry(layoutTelemetry), layouts));
+	}
+
+	/**
+	 * Retrieves the status and latest progress of a layout job, without its
+	 * graphset.
+	 *
+	 * @param jobID the ID returned when the job was submitted
+	 * @return ResponseEntity with the LayoutJobRequest holding the job, or a 404
+	 *         response if there is no such job or its result has expired
+	 * @see LayoutJobRequest
+	 * @see LayoutService
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@GetMapping("api/layout/jobs/status")
+	public ResponseEntity<Request> getLayoutJobStatus(@RequestParam String jobID) {
+		return buildRequestResponse(new LayoutJobRequest().checkStatus(jobID, layouts));
+	}
+
+	/**
+	 * Retrieves the laid out LayoutRequest of a completed layout job.
+	 *
+	 * <p>
+	 * Completed results are kept for a limited time (see
+	 * {@code wikiverse.api.layout.jobs.result-ttl-seconds}), after which the job
+	 * can no longer be found. A job which is still queued or running returns a
+	 * 409 response, poll {@link #getLayoutJobStatus(String)} until it completes.
+	 *
+	 * @param jobID the ID returned when the job was submitted
+	 * @return ResponseEntity with the completed LayoutRequest, or the
+	 *         LayoutJobRequest and the error explaining why there is no result
+	 * @see LayoutJobRequest#fetchResult(String, LayoutService)
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@GetMapping("api/layout/jobs/result")
+	public ResponseEntity<Request> getLayoutJobResult(@RequestParam String jobID) {
+		return buildRequestResponse(new LayoutJobRequest().fetchResult(jobID, layouts));
+	}
+
+	/**
+	 * Streams a layout as Server-Sent Events while it runs, so the client can
+	 * animate the layout converging rather than waiting for it to finish.
+	 *
+	 * <p>
+	 * The stream sends:
+	 * <ul>
+	 * <li>{@code frame} events every few iterations (throttled to a maximum frame
+	 * rate), the first holding every vertex and each later one only the vertices
+	 * which moved since</li>
+	 * <li>A {@code complete} event with the final positions and layout stats</li>
+	 * <li>An {@code error} event if the layout couldn't be queued or failed</li>
+	 * </ul>
+	 * If the client disconnects the layout is cancelled.
+	 *
+	 * @param request the LayoutRequest containing graphset and layout settings to
+	 *                lay out
+	 * @return the emitter the layout's events are streamed to
+	 * @see LayoutStreamService
+	 * @see edu.velvet.Wikiverse.api.models.core.LayoutFrame
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@PostMapping(value = "api/layout/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamLayout(@RequestBody LayoutRequest request) {
+		return layoutStreams.stream(request.withTelemetry(layoutTelemetry));
+	}
+
+	/**
+	 * Resolves a click on a laid out graphset to the vertex it landed on, without
+	 * the client having to search every vertex position itself.
+	 *
+	 * <p>
+	 * The request names the graphset by the click target key returned with its
+	 * last layout, and asks for either:
+	 * <ul>
+	 * <li>The vertex nearest a {@code point}, optionally within a
+	 * {@code radius}</li>
+	 * <li>The vertex first hit by the ray from {@code rayOrigin} along
+	 * {@code rayDirection}, passing within {@code radius} of it</li>
+	 * </ul>
+	 * A key which was never issued or has since expired is answered with a 404,
+	 * after which the graphset needs laying out again to be re-indexed.
+	 *
+	 * @param request the ClickTargetRequest holding the click target key and the
+	 *                point or ray clicked
+	 * @return ResponseEntity with the ClickTargetRequest holding the vertex
+	 *         clicked, if any, and any errors
+	 * @see ClickTargetRequest
+	 * @see ClickTargetIndex
+	 * @author The Wikiverse Team
+	 * @version 1.0
+	 * @since 1.0
+	 */
+	@PostMapping("api/graphset/get-click-target-data")
+	public ResponseEntity<Request> getClickTargetData(@RequestBody ClickTargetRequest request) {
+		return buildRequestResponse(request.findTarget(clickTargets));
 	}
 
-	// TODO: PostMapping("/api/graphset/get-click-target-data")
 	// TODO: PostMapping("/api/layout/update-dimensions")
 
 	// !PRIVATE ============================================================>
@@ -22,11 +22,13 @@ import java.time.Instant;
  * </ul>
  *
  * <p>
- * The error hierarchy is organized into two main categories:
+ * The error hierarchy is organized into three main categories:
  * <ul>
  * <li>{@link ServiceFault} - Generic service-level errors</li>
  * <li>{@link WikidataServiceErr} - Specific errors related to Wikidata service
  * operations</li>
+ * <li>{@link LayoutServiceError} - Specific errors related to asynchronous
+ * layout jobs</li>
  * </ul>
  *
  * <p>
@@ -39,9 +41,11 @@ import java.time.Instant;
  * @since 1.0
  * @see ServiceFault
  * @see WikidataServiceErr
+ * @see LayoutServiceError
  */
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-public sealed interface WikiverseError permits WikiverseError.ServiceFault, WikiverseError.WikidataServiceError {
+public sealed interface WikiverseError
+	permits WikiverseError.ServiceFault, WikiverseError.WikidataServiceError, WikiverseError.LayoutServiceError {
 	/**
 	 * Provides a descriptive error message that helps with debugging and
 	 * troubleshooting.
@@ -332,4 +336,262 @@ public sealed interface WikiverseError permits WikiverseError.ServiceFault, Wiki
 			}
 		}
 	}
+
+	/**
+	 * Represents errors specific to asynchronous layout jobs run by the layout
+	 * service.
+	 *
+	 * <p>
+	 * Common scenarios include:
+	 * <ul>
+	 * <li>The job queue is full</li>
+	 * <li>No job exists for an ID (or its result has expired)</li>
+	 * <li>A result is requested before the job has finished</li>
+	 * <li>The layout itself failed</li>
+	 * <li>No click target index exists for a key (or it has expired)</li>
+	 * </ul>
+	 *
+	 * @author @horaciovelvetine
+	 * @version 1.0
+	 * @since 1.0
+	 * @see LayoutQueueFull
+	 * @see LayoutJobNotFound
+	 * @see LayoutJobNotCompleted
+	 * @see LayoutJobFailed
+	 * @see ClickTargetIndexNotFound
+	 */
+	sealed interface LayoutServiceError extends WikiverseError {
+		/**
+		 * Represents an error that occurs when a layout job is submitted while every
+		 * worker is busy and the job queue is full.
+		 *
+		 * @param message        a descriptive error message
+		 * @param source         the location where the job was submitted
+		 * @param timestamp      the instant when the error occurred
+		 * @param category       the error category for classification
+		 * @param httpStatusCode the HTTP status code for this error
+		 * @param stackTrace     the stack trace for debugging
+		 *
+		 * @author @horaciovelvetine
+		 * @version 1.0
+		 * @since 1.0
+		 */
+		record LayoutQueueFull(
+			String message,
+			String source,
+			Instant timestamp,
+			ErrorCategory category,
+			Integer httpStatusCode,
+			StackTraceElement[] stackTrace
+		) implements LayoutServiceError {
+			/**
+			 * Convenience constructor with minimal required parameters.
+			 * Uses default values for timestamp, category, HTTP status code, and stack
+			 * trace.
+			 *
+			 * @param message a descriptive error message
+			 * @param source  the location where the job was submitted
+			 */
+			public LayoutQueueFull(String message, String source) {
+				this(message, source, Instant.now(), ErrorCategory.RATE_LIMITED, 503, new StackTraceElement[0]);
+			}
+		}
+
+		/**
+		 * Represents an error that occurs when no layout job exists for an ID, either
+		 * because it was never submitted or because its result has expired.
+		 *
+		 * @param jobID          the ID which was looked up
+		 * @param timestamp      the instant when the error occurred
+		 * @param category       the error category for classification
+		 * @param httpStatusCode the HTTP status code for this error
+		 * @param stackTrace     the stack trace for debugging
+		 *
+		 * @author @horaciovelvetine
+		 * @version 1.0
+		 * @since 1.0
+		 */
+		record LayoutJobNotFound(
+			String jobID,
+			Instant timestamp,
+			ErrorCategory category,
+			Integer httpStatusCode,
+			StackTraceElement[] stackTrace
+		) implements LayoutServiceError {
+			/**
+			 * Convenience constructor with minimal required parameters.
+			 * Uses default values for timestamp, category, HTTP status code, and stack
+			 * trace.
+			 *
+			 * @param jobID the ID which was looked up
+			 */
+			public LayoutJobNotFound(String jobID) {
+				this(jobID, Instant.now(), ErrorCategory.NOT_FOUND, 404, new StackTraceElement[0]);
+			}
+
+			/**
+			 * Returns the default source location for this error type.
+			 *
+			 * @return the source location where the job was looked up
+			 */
+			@Override
+			public String source() {
+				return "LayoutService.java";
+			}
+
+			/**
+			 * Constructs and returns a descriptive error message using the job ID.
+			 *
+			 * @return a formatted error message indicating no job was found
+			 */
+			@Override
+			public String message() {
+				return "No layout job found for: " + jobID;
+			}
+		}
+
+		/**
+		 * Represents an error that occurs when the result of a layout job is
+		 * requested before the job has finished.
+		 *
+		 * @param jobID          the ID of the unfinished job
+		 * @param timestamp      the instant when the error occurred
+		 * @param category       the error category for classification
+		 * @param httpStatusCode the HTTP status code for this error
+		 * @param stackTrace     the stack trace for debugging
+		 *
+		 * @author @horaciovelvetine
+		 * @version 1.0
+		 * @since 1.0
+		 */
+		record LayoutJobNotCompleted(
+			String jobID,
+			Instant timestamp,
+			ErrorCategory category,
+			Integer httpStatusCode,
+			StackTraceElement[] stackTrace
+		) implements LayoutServiceError {
+			/**
+			 * Convenience constructor with minimal required parameters.
+			 * Uses default values for timestamp, category, HTTP status code, and stack
+			 * trace.
+			 *
+			 * @param jobID the ID of the unfinished job
+			 */
+			public LayoutJobNotCompleted(String jobID) {
+				this(jobID, Instant.now(), ErrorCategory.VALIDATION, 409, new StackTraceElement[0]);
+			}
+
+			/**
+			 * Returns the default source location for this error type.
+			 *
+			 * @return the source location where the job was looked up
+			 */
+			@Override
+			public String source() {
+				return "LayoutService.java";
+			}
+
+			/**
+			 * Constructs and returns a descriptive error message using the job ID.
+			 *
+			 * @return a formatted error message indicating the job hasn't finished
+			 */
+			@Override
+			public String message() {
+				return "Layout job has not completed: " + jobID;
+			}
+		}
+
+		/**
+		 * Represents an error that occurs when a layout job throws while it runs.
+		 *
+		 * @param message        a descriptive error message explaining why the layout
+		 *                       failed
+		 * @param source         the location where the layout was run
+		 * @param timestamp      the instant when the error occurred
+		 * @param category       the error category for classification
+		 * @param httpStatusCode the HTTP status code for this error
+		 * @param stackTrace     the stack trace for debugging
+		 *
+		 * @author @horaciovelvetine
+		 * @version 1.0
+		 * @since 1.0
+		 */
+		record LayoutJobFailed(
+			String message,
+			String source,
+			Instant timestamp,
+			ErrorCategory category,
+			Integer httpStatusCode,
+			StackTraceElement[] stackTrace
+		) implements LayoutServiceError {
+			/**
+			 * Convenience constructor with minimal required parameters.
+			 * Uses default values for timestamp, category and HTTP status code.
+			 *
+			 * @param message    a descriptive error message explaining why the layout
+			 *                   failed
+			 * @param source     the location where the layout was run
+			 * @param stackTrace the stack trace for debugging
+			 */
+			public LayoutJobFailed(String message, String source, StackTraceElement[] stackTrace) {
+				this(message, source, Instant.now(), ErrorCategory.PROCESSING, 500, stackTrace);
+			}
+		}
+
+		/**
+		 * Represents an error that occurs when a click target is requested for a key
+		 * which has no index, either because no layout was indexed under it or
+		 * because the index has expired.
+		 *
+		 * @param key            the click target key which was looked up
+		 * @param timestamp      the instant when the error occurred
+		 * @param category       the error category for classification
+		 * @param httpStatusCode the HTTP status code for this error
+		 * @param stackTrace     the stack trace for debugging
+		 *
+		 * @author @horaciovelvetine
+		 * @version 1.0
+		 * @since 1.0
+		 */
+		record ClickTargetIndexNotFound(
+			String key,
+			Instant timestamp,
+			ErrorCategory category,
+			Integer httpStatusCode,
+			StackTraceElement[] stackTrace
+		) implements LayoutServiceError {
+			/**
+			 * Convenience constructor with minimal required parameters.
+			 * Uses default values for timestamp, category, HTTP status code, and stack
+			 * trace.
+			 *
+			 * @param key the click target key which was looked up
+			 */
+			public ClickTargetIndexNotFound(String key) {
+				this(key, Instant.now(), ErrorCategory.NOT_FOUND, 404, new StackTraceElement[0]);
+			}
+
+			/**
+			 * Returns the default source location for this error type.
+			 *
+			 * @return the source location where the index was looked up
+			 */
+			@Override
+			public String source() {
+				return "ClickTargetIndex.java";
+			}
+
+			/**
+			 * Constructs and returns a descriptive error message using the key.
+			 *
+			 * @return a formatted error message indicating no index was found
+			 */
+			@Override
+			public String message() {
+				return "No click target index found for: " + key;
+			}
+		}
+	}
 }
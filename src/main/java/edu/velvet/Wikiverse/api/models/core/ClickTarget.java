@@ -0,0 +1,23 @@
+package edu.velvet.Wikiverse.api.models.core;
+
+/**
+ * The vertex a click landed on, resolved against the laid out positions of a
+ * graphset.
+ *
+ * <p>
+ * The distance depends on how the click was given:
+ * <ul>
+ * <li>For a point, how far the vertex is from the point</li>
+ * <li>For a ray cast from the camera, how far along the ray the vertex is</li>
+ * </ul>
+ *
+ * @param vertexID the QID of the vertex which was clicked
+ * @param position the laid out position of the vertex
+ * @param distance how far the vertex is from the point, or along the ray
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see Vertex
+ */
+public record ClickTarget(String vertexID, Point3D position, double distance) {}
@@ -0,0 +1,102 @@
+package edu.velvet.Wikiverse.api.models.core;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.List;
+
+/**
+ * A frame of a streamed layout, holding the positions of the vertices which
+ * have moved since the previous frame so clients can animate the layout as it
+ * converges.
+ *
+ * <p>
+ * Each frame includes:
+ * <ul>
+ * <li>The {@link LayoutProgress} of the iteration the frame was taken
+ * after</li>
+ * <li>Whether the frame is a keyframe, holding every vertex, or a delta
+ * against the previous frame, holding only the vertices which moved</li>
+ * <li>The position of each included vertex</li>
+ * <li>The {@link LayoutStats} of the finished layout, only on the final
+ * frame</li>
+ * </ul>
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutProgress
+ * @see LayoutStats
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class LayoutFrame {
+
+	/**
+	 * The position of a single vertex in a frame.
+	 *
+	 * @param id the QID of the vertex
+	 * @param x  the x position
+	 * @param y  the y position
+	 * @param z  the z position, left out of the JSON when written with the
+	 *           {@link Point3D.Planar} view
+	 */
+	public record VertexPosition(String id, double x, double y, @JsonView(Point3D.Spatial.class) double z) {}
+
+	private final LayoutProgress progress;
+	private final boolean keyframe;
+	private final List<VertexPosition> vertices;
+	private final LayoutStats stats;
+
+	/**
+	 * Creates a frame of a streamed layout.
+	 *
+	 * @param progress the progress of the iteration the frame was taken after,
+	 *                 or {@code null} for the final frame
+	 * @param keyframe whether the frame holds every vertex
+	 * @param vertices the positions of the vertices in the frame
+	 * @param stats    the stats of the finished layout, or {@code null} unless
+	 *                 this is the final frame
+	 */
+	public LayoutFrame(LayoutProgress progress, boolean keyframe, List<VertexPosition> vertices, LayoutStats stats) {
+		this.progress = progress;
+		this.keyframe = keyframe;
+		this.vertices = vertices;
+		this.stats = stats;
+	}
+
+	/**
+	 * Gets the progress of the iteration this frame was taken after.
+	 *
+	 * @return the layout progress, or {@code null} for the final frame
+	 */
+	public LayoutProgress getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Checks whether this frame holds every vertex rather than only those which
+	 * moved since the previous frame.
+	 *
+	 * @return {@code true} for a keyframe
+	 */
+	public boolean isKeyframe() {
+		return keyframe;
+	}
+
+	/**
+	 * Gets the positions of the vertices in this frame.
+	 *
+	 * @return the vertex positions
+	 */
+	public List<VertexPosition> getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * Gets the stats of the finished layout.
+	 *
+	 * @return the layout stats, or {@code null} unless this is the final frame
+	 */
+	public LayoutStats getStats() {
+		return stats;
+	}
+}
@@ -0,0 +1,38 @@
+package edu.velvet.Wikiverse.api.models.core;
+
+/**
+ * A snapshot of a running layout, taken after each iteration so clients can
+ * follow a long layout while it runs.
+ *
+ * <p>
+ * Each snapshot includes:
+ * <ul>
+ * <li>The engine running the layout</li>
+ * <li>The iteration just completed, and the most iterations the current pass
+ * may run</li>
+ * <li>The temperature (the furthest a vertex may move) for the next
+ * iteration</li>
+ * <li>The system energy (sum of squared vertex movement) and the largest
+ * single vertex movement of the iteration</li>
+ * </ul>
+ *
+ * @param engine          the name of the engine running the layout
+ * @param iteration       the number of iterations completed so far
+ * @param maxIterations   the most iterations the current pass may run
+ * @param temperature     the temperature of the next iteration
+ * @param energy          the sum of squared vertex movement of the iteration
+ * @param maxDisplacement the largest vertex movement of the iteration
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutStats
+ */
+public record LayoutProgress(
+	String engine,
+	int iteration,
+	int maxIterations,
+	double temperature,
+	double energy,
+	double maxDisplacement
+) {}
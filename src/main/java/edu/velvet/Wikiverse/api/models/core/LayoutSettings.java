@@ -7,6 +7,54 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class LayoutSettings {
 
+	/** Default opening angle for the Barnes-Hut approximation. */
+	public static final double DEFAULT_BARNES_HUT_THETA = 0.8;
+
+	/** Default vertex count at which the Barnes-Hut approximation is used. */
+	public static final int DEFAULT_BARNES_HUT_THRESHOLD = 250;
+
+	/** Default parallelism, layouts are single-threaded unless opted in. */
+	public static final int DEFAULT_LAYOUT_PARALLELISM = 1;
+
+	/** Default vertex count at which parallel repulsion is used. */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 2000;
+
+	/** Default for whether the vectorized force kernel is used. */
+	public static final boolean DEFAULT_VECTORIZED_FORCES = false;
+
+	/** Default layout engine, a single FR3DLayout run. */
+	public static final String DEFAULT_LAYOUT_ENGINE = "fr";
+
+	/** Default for whether expansions are laid out incrementally. */
+	public static final boolean DEFAULT_INCREMENTAL_LAYOUT = true;
+
+	/** Default distance below which an iteration's movement counts as converged. */
+	public static final double DEFAULT_CONVERGENCE_THRESHOLD = 0.01;
+
+	/** Default number of consecutive converged iterations needed to stop early. */
+	public static final int DEFAULT_CONVERGENCE_ITERATIONS = 10;
+
+	/** Default layout time budget, 0 leaves the layout unbounded. */
+	public static final int DEFAULT_LAYOUT_TIME_BUDGET_MILLIS = 0;
+
+	/** Default repulsion mode, exact or Barnes-Hut depending on the graph size. */
+	public static final String DEFAULT_REPULSION_MODE = "barnes-hut";
+
+	/** Default layout seed, identical requests lay out identically. */
+	public static final long DEFAULT_SEED = 0L;
+
+	/** Default initial placement, unlocked vertices start at random positions. */
+	public static final String DEFAULT_INITIAL_PLACEMENT = "random";
+
+	/** Default layout precision, full double precision. */
+	public static final String DEFAULT_LAYOUT_PRECISION = "double";
+
+	/** Default hops moved around the changed vertices of a localized relayout. */
+	public static final int DEFAULT_LOCAL_LAYOUT_HOPS = 2;
+
+	/** Default leaves every vertex on the shared global cooling curve. */
+	public static final boolean DEFAULT_ADAPTIVE_TEMPERATURES = false;
+
 	private Number attractionMultiplier;
 
 	private Number repulsionMultiplier;
@@ -21,6 +69,102 @@ public class LayoutSettings {
 
 	private final boolean prefers3D;
 
+	/**
+	 * Opening angle (theta) used by the Barnes-Hut repulsion approximation, a value
+	 * of 0 disables the approximation entirely.
+	 */
+	private final Number barnesHutTheta;
+
+	/**
+	 * Minimum number of vertices before the Barnes-Hut approximation is used,
+	 * smaller graphs use the exact pairwise repulsion.
+	 */
+	private final Number barnesHutThreshold;
+
+	/**
+	 * Number of worker threads used for the repulsion phase, 1 keeps the layout
+	 * single-threaded and any value below 1 uses every available processor.
+	 */
+	private final Number layoutParallelism;
+
+	/**
+	 * Minimum number of vertices before the repulsion phase is split across worker
+	 * threads.
+	 */
+	private final Number parallelThreshold;
+
+	/**
+	 * Whether exact repulsion should use the SIMD force kernel, when the
+	 * jdk.incubator.vector module is available
+	 */
+	private final boolean vectorizedForces;
+
+	/**
+	 * Which layout engine arranges the graphset, either fr (a single
+	 * Fruchterman-Reingold run) or multilevel (coarsen, lay out, then refine)
+	 */
+	private final String layoutEngine;
+
+	/**
+	 * Whether expanding an already laid out graphset only places the new vertices
+	 * (warm start) instead of laying out every vertex again
+	 */
+	private final boolean incrementalLayout;
+
+	/**
+	 * The distance (in layout units) every vertex must move less than during an
+	 * iteration for that iteration to count toward convergence
+	 */
+	private final Number convergenceThreshold;
+
+	/**
+	 * The number of consecutive converged iterations after which the layout stops
+	 * early, 0 disables convergence detection
+	 */
+	private final Number convergenceIterations;
+
+	/**
+	 * Wall clock time in milliseconds a layout may run for before it stops and
+	 * returns the best positions reached so far, 0 leaves the layout unbounded
+	 */
+	private final Number layoutTimeBudgetMillis;
+
+	/**
+	 * How vertices repel each other, either barnes-hut (exact for small graphs,
+	 * approximated by a tree for larger ones) or grid (only vertices within a
+	 * cutoff radius, found through a uniform grid)
+	 */
+	private final String repulsionMode;
+
+	/**
+	 * Seeds every random choice a layout makes, the same graphset and settings
+	 * always produce the same layout
+	 */
+	private final Number seed;
+
+	/**
+	 * Where unlocked vertices start a full layout, either random (anywhere within
+	 * the layout dimensions) or pivot-mds (an embedding of their graph distances
+	 * to a few pivot vertices)
+	 */
+	private final String initialPlacement;
+
+	/**
+	 * Precision of the exact repulsion, either double or float32 (single precision
+	 * positions and force math, halving the memory read by the pairwise loop at a
+	 * small cost in accuracy)
+	 */
+	private final String layoutPrecision;
+
+	/**
+	 * Hops around the changed vertices of a localized relayout which are moved,
+	 * every vertex further away stays fixed and only repels
+	 */
+	private final Number localLayoutHops;
+
+	/** Whether each vertex keeps its own temperature, adapted to how it moves. */
+	private final boolean adaptiveTemperatures;
+
 	public LayoutSettings(String prefers3D) {
 		this.attractionMultiplier = 0.5;
 		this.repulsionMultiplier = 0.5;
@@ -29,6 +173,22 @@ public class LayoutSettings {
 		this.maxLayoutIterations = 250;
 		this.temperatureCurveMultiplier = 30;
 		this.prefers3D = "True".equals(prefers3D);
+		this.barnesHutTheta = DEFAULT_BARNES_HUT_THETA;
+		this.barnesHutThreshold = DEFAULT_BARNES_HUT_THRESHOLD;
+		this.layoutParallelism = DEFAULT_LAYOUT_PARALLELISM;
+		this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+		this.vectorizedForces = DEFAULT_VECTORIZED_FORCES;
+		this.layoutEngine = DEFAULT_LAYOUT_ENGINE;
+		this.incrementalLayout = DEFAULT_INCREMENTAL_LAYOUT;
+		this.convergenceThreshold = DEFAULT_CONVERGENCE_THRESHOLD;
+		this.convergenceIterations = DEFAULT_CONVERGENCE_ITERATIONS;
+		this.layoutTimeBudgetMillis = DEFAULT_LAYOUT_TIME_BUDGET_MILLIS;
+		this.repulsionMode = DEFAULT_REPULSION_MODE;
+		this.seed = DEFAULT_SEED;
+		this.initialPlacement = DEFAULT_INITIAL_PLACEMENT;
+		this.layoutPrecision = DEFAULT_LAYOUT_PRECISION;
+		this.localLayoutHops = DEFAULT_LOCAL_LAYOUT_HOPS;
+		this.adaptiveTemperatures = DEFAULT_ADAPTIVE_TEMPERATURES;
 	}
 
 	/**
@@ -43,6 +203,41 @@ public class LayoutSettings {
 	 * @param maxLayoutIterations        the maximum number of layout iterations
 	 * @param maxIterationMovement       the maximum movement allowed per iteration
 	 * @param temperatureCurveMultiplier the temperature curve multiplier value
+	 * @param barnesHutTheta             the Barnes-Hut opening angle, defaults when
+	 *                                   null
+	 * @param barnesHutThreshold         the vertex count at which Barnes-Hut is
+	 *                                   used, defaults when null
+	 * @param layoutParallelism          the number of repulsion worker threads,
+	 *                                   defaults when null
+	 * @param parallelThreshold          the vertex count at which repulsion runs in
+	 *                                   parallel, defaults when null
+	 * @param vectorizedForces           whether to use the vectorized force kernel
+	 *                                   (defaults to false)
+	 * @param layoutEngine               the layout engine to use, fr, fr-exact,
+	 *                                   fr-barnes-hut, fr-2d, multilevel or auto
+	 *                                   (picked by the graph's size), defaults
+	 *                                   when null
+	 * @param incrementalLayout          whether expansions warm start from existing
+	 *                                   positions, defaults to true
+	 * @param convergenceThreshold       the per-iteration movement below which the
+	 *                                   layout counts as converging, defaults when
+	 *                                   null
+	 * @param convergenceIterations      the consecutive converged iterations needed to
+	 *                                   stop early, defaults when null
+	 * @param layoutTimeBudgetMillis     the time in milliseconds a layout may run for,
+	 *                                   0 for no limit
+	 * @param repulsionMode              how vertices repel each other, barnes-hut or
+	 *                                   grid, defaults when null
+	 * @param seed                       the seed random choices are derived from,
+	 *                                   defaults when null
+	 * @param initialPlacement           where unlocked vertices start, random or
+	 *                                   pivot-mds, defaults when null
+	 * @param layoutPrecision            the precision of the exact repulsion, double
+	 *                                   or float32, defaults when null
+	 * @param localLayoutHops            how many hops around the changed vertices a
+	 *                                   localized relayout moves, defaults when null
+	 * @param adaptiveTemperatures       whether each vertex adapts its own
+	 *                                   temperature, defaults when null
 	 */
 	@JsonCreator
 	public LayoutSettings(
@@ -52,7 +247,23 @@ public class LayoutSettings {
 		@JsonProperty("vertexDensity") Number vertexDensity,
 		@JsonProperty("maxLayoutIterations") Number maxLayoutIterations,
 		@JsonProperty("maxIterationMovement") Number maxIterationMovement,
-		@JsonProperty("temperatureCurveMultiplier") Number temperatureCurveMultiplier
+		@JsonProperty("temperatureCurveMultiplier") Number temperatureCurveMultiplier,
+		@JsonProperty("barnesHutTheta") Number barnesHutTheta,
+		@JsonProperty("barnesHutThreshold") Number barnesHutThreshold,
+		@JsonProperty("layoutParallelism") Number layoutParallelism,
+		@JsonProperty("parallelThreshold") Number parallelThreshold,
+		@JsonProperty("vectorizedForces") Boolean vectorizedForces,
+		@JsonProperty("layoutEngine") String layoutEngine,
+		@JsonProperty("incrementalLayout") Boolean incrementalLayout,
+		@JsonProperty("convergenceThreshold") Number convergenceThreshold,
+		@JsonProperty("convergenceIterations") Number convergenceIterations,
+		@JsonProperty("layoutTimeBudgetMillis") Number layoutTimeBudgetMillis,
+		@JsonProperty("repulsionMode") String repulsionMode,
+		@JsonProperty("seed") Number seed,
+		@JsonProperty("initialPlacement") String initialPlacement,
+		@JsonProperty("layoutPrecision") String layoutPrecision,
+		@JsonProperty("localLayoutHops") Number localLayoutHops,
+		@JsonProperty("adaptiveTemperatures") Boolean adaptiveTemperatures
 	) {
 		this.prefers3D = prefers3D;
 		this.attractionMultiplier = attractionMultiplier;
@@ -61,6 +272,22 @@ public class LayoutSettings {
 		this.maxLayoutIterations = maxLayoutIterations;
 		this.maxIterationMovement = maxIterationMovement;
 		this.temperatureCurveMultiplier = temperatureCurveMultiplier;
+		this.barnesHutTheta = barnesHutTheta != null ? barnesHutTheta : DEFAULT_BARNES_HUT_THETA;
+		this.barnesHutThreshold = barnesHutThreshold != null ? barnesHutThreshold : DEFAULT_BARNES_HUT_THRESHOLD;
+		this.layoutParallelism = layoutParallelism != null ? layoutParallelism : DEFAULT_LAYOUT_PARALLELISM;
+		this.parallelThreshold = parallelThreshold != null ? parallelThreshold : DEFAULT_PARALLEL_THRESHOLD;
+		this.vectorizedForces = vectorizedForces != null ? vectorizedForces : DEFAULT_VECTORIZED_FORCES;
+		this.layoutEngine = layoutEngine != null ? layoutEngine : DEFAULT_LAYOUT_ENGINE;
+		this.incrementalLayout = incrementalLayout != null ? incrementalLayout : DEFAULT_INCREMENTAL_LAYOUT;
+		this.convergenceThreshold = convergenceThreshold != null ? convergenceThreshold : DEFAULT_CONVERGENCE_THRESHOLD;
+		this.convergenceIterations = convergenceIterations != null ? convergenceIterations : DEFAULT_CONVERGENCE_ITERATIONS;
+		this.layoutTimeBudgetMillis = layoutTimeBudgetMillis != null ? layoutTimeBudgetMillis : DEFAULT_LAYOUT_TIME_BUDGET_MILLIS;
+		this.repulsionMode = repulsionMode != null ? repulsionMode : DEFAULT_REPULSION_MODE;
+		this.seed = seed != null ? seed : DEFAULT_SEED;
+		this.initialPlacement = initialPlacement != null ? initialPlacement : DEFAULT_INITIAL_PLACEMENT;
+		this.layoutPrecision = layoutPrecision != null ? layoutPrecision : DEFAULT_LAYOUT_PRECISION;
+		this.localLayoutHops = localLayoutHops != null ? localLayoutHops : DEFAULT_LOCAL_LAYOUT_HOPS;
+		this.adaptiveTemperatures = adaptiveTemperatures != null ? adaptiveTemperatures : DEFAULT_ADAPTIVE_TEMPERATURES;
 	}
 
 	/**
@@ -125,4 +352,169 @@ public class LayoutSettings {
 	public boolean isPrefers3D() {
 		return prefers3D;
 	}
+
+	/**
+	 * Gets the opening angle (theta) used by the Barnes-Hut repulsion
+	 * approximation.
+	 *
+	 * @return the opening angle, 0 when the approximation is disabled
+	 */
+	public Number getBarnesHutTheta() {
+		return barnesHutTheta;
+	}
+
+	/**
+	 * Gets the minimum number of vertices before the Barnes-Hut approximation is
+	 * used in place of the exact pairwise repulsion.
+	 *
+	 * @return the vertex count threshold
+	 */
+	public Number getBarnesHutThreshold() {
+		return barnesHutThreshold;
+	}
+
+	/**
+	 * Gets the number of worker threads used for the repulsion phase of the
+	 * layout.
+	 *
+	 * @return the layout parallelism, 1 when single-threaded
+	 */
+	public Number getLayoutParallelism() {
+		return layoutParallelism;
+	}
+
+	/**
+	 * Gets the minimum number of vertices before the repulsion phase is split
+	 * across worker threads.
+	 *
+	 * @return the vertex count threshold for parallel repulsion
+	 */
+	public Number getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Gets whether the exact repulsion should use the vectorized force kernel. The
+	 * layout falls back to the scalar kernel when the jdk.incubator.vector module
+	 * is not available.
+	 *
+	 * @return true if the vectorized kernel is requested
+	 */
+	public boolean isVectorizedForces() {
+		return vectorizedForces;
+	}
+
+	/**
+	 * Gets the name of the layout engine used to arrange the graphset.
+	 *
+	 * @return the layout engine name
+	 */
+	public String getLayoutEngine() {
+		return layoutEngine;
+	}
+
+	/**
+	 * Gets whether expanding an already laid out graphset should warm start from
+	 * the existing positions, placing new vertices near their neighbours and
+	 * running a short, cool layout.
+	 *
+	 * @return true if expansions are laid out incrementally
+	 */
+	public boolean isIncrementalLayout() {
+		return incrementalLayout;
+	}
+
+	/**
+	 * Gets the distance every vertex must move less than during an iteration for
+	 * the iteration to count toward convergence.
+	 *
+	 * @return the convergence threshold
+	 */
+	public Number getConvergenceThreshold() {
+		return convergenceThreshold;
+	}
+
+	/**
+	 * Gets the number of consecutive converged iterations after which the layout
+	 * stops early, 0 disables convergence detection.
+	 *
+	 * @return the required number of consecutive converged iterations
+	 */
+	public Number getConvergenceIterations() {
+		return convergenceIterations;
+	}
+
+	/**
+	 * Gets the wall clock time in milliseconds a layout may run for before it
+	 * stops early and returns the positions reached so far, 0 leaves the layout
+	 * unbounded.
+	 *
+	 * @return the layout time budget in milliseconds
+	 */
+	public Number getLayoutTimeBudgetMillis() {
+		return layoutTimeBudgetMillis;
+	}
+
+	/**
+	 * Gets how vertices repel each other, either barnes-hut or grid.
+	 *
+	 * @return the repulsion mode name
+	 */
+	public String getRepulsionMode() {
+		return repulsionMode;
+	}
+
+	/**
+	 * Gets the seed every random choice a layout makes is derived from, so the
+	 * same graphset laid out with the same settings always produces the same
+	 * positions.
+	 *
+	 * @return the layout seed
+	 */
+	public Number getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets where unlocked vertices start a full layout, either random or
+	 * pivot-mds. A pivot-mds start is already close to the final layout, so only a
+	 * short, cool refinement is run from it.
+	 *
+	 * @return the initial placement name
+	 */
+	public String getInitialPlacement() {
+		return initialPlacement;
+	}
+
+	/**
+	 * Gets the precision the exact repulsion between vertices is computed in.
+	 *
+	 * @return the layout precision, double or float32
+	 */
+	public String getLayoutPrecision() {
+		return layoutPrecision;
+	}
+
+	/**
+	 * Gets how many hops around the changed vertices a localized relayout moves.
+	 * Every vertex further away keeps its position, but still repels the vertices
+	 * which move.
+	 *
+	 * @return the hops moved around the changed vertices
+	 */
+	public Number getLocalLayoutHops() {
+		return localLayoutHops;
+	}
+
+	/**
+	 * Checks whether each vertex keeps its own temperature, cooled when it
+	 * oscillates or rotates and warmed when it keeps moving the same way, rather
+	 * than every vertex sharing the one global cooling curve. Each vertex then
+	 * moves its full displacement up to its temperature on every iteration.
+	 *
+	 * @return true if vertex temperatures adapt to their movement
+	 */
+	public boolean isAdaptiveTemperatures() {
+		return adaptiveTemperatures;
+	}
 }
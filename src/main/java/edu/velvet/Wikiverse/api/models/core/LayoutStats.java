@@ -0,0 +1,183 @@
+package edu.velvet.Wikiverse.api.models.core;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+/**
+ * Summarizes how a layout run finished, returned alongside the laid out
+ * graphset so clients can tell why a layout stopped.
+ *
+ * <p>
+ * The stats include:
+ * <ul>
+ * <li>The engine which produced the layout</li>
+ * <li>The reason the layout stopped, see {@link StopReason}</li>
+ * <li>Whether the layout is partial, i.e. stopped by
+ * {@link LayoutSettings#getLayoutTimeBudgetMillis()} or cancelled before it
+ * finished</li>
+ * <li>Whether the positions were served from the layout cache rather than
+ * laid out for this request</li>
+ * <li>The number of iterations used</li>
+ * <li>The system energy (sum of squared vertex movement) and the largest
+ * single vertex movement of the final iteration</li>
+ * </ul>
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutSettings
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class LayoutStats {
+
+	/**
+	 * Why a layout stopped iterating.
+	 */
+	public enum StopReason {
+		/** Vertex movement stayed below the convergence threshold. */
+		CONVERGED,
+		/** The maximum number of iterations was reached. */
+		MAX_ITERATIONS,
+		/** The layout cooled to its minimum temperature. */
+		MIN_TEMPERATURE,
+		/**
+		 * The layout ran out of its time budget, the positions are the best reached so
+		 * far.
+		 */
+		TIME_BUDGET,
+		/**
+		 * The thread running the layout was interrupted, e.g. because the client
+		 * streaming it disconnected.
+		 */
+		CANCELLED,
+	}
+
+	private final String engine;
+	private final StopReason stopReason;
+	private final boolean partial;
+	private final boolean cached;
+	private final int iterations;
+	private final double energy;
+	private final double maxDisplacement;
+
+	/**
+	 * Creates the stats for a finished layout.
+	 *
+	 * @param engine          the name of the engine which produced the layout
+	 * @param stopReason      why the layout stopped
+	 * @param iterations      the number of iterations used
+	 * @param energy          the sum of squared vertex movement in the final
+	 *                        iteration
+	 * @param maxDisplacement the largest vertex movement in the final iteration
+	 */
+	public LayoutStats(String engine, StopReason stopReason, int iterations, double energy, double maxDisplacement) {
+		this(engine, stopReason, iterations, energy, maxDisplacement, false);
+	}
+
+	private LayoutStats(
+		String engine,
+		StopReason stopReason,
+		int iterations,
+		double energy,
+		double maxDisplacement,
+		boolean cached
+	) {
+		this.engine = engine;
+		this.stopReason = stopReason;
+		this.partial = stopReason == StopReason.TIME_BUDGET || stopReason == StopReason.CANCELLED;
+		this.cached = cached;
+		this.iterations = iterations;
+		this.energy = energy;
+		this.maxDisplacement = maxDisplacement;
+	}
+
+	/**
+	 * Creates a copy of these stats for a layout served from the layout cache,
+	 * describing the run which originally produced the cached positions.
+	 *
+	 * @return the cached copy of these stats
+	 */
+	public LayoutStats asCached() {
+		return new LayoutStats(engine, stopReason, iterations, energy, maxDisplacement, true);
+	}
+
+	/**
+	 * Gets the name of the engine which produced the layout.
+	 *
+	 * @return the engine name
+	 */
+	public String getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Gets why the layout stopped.
+	 *
+	 * @return the stop reason
+	 */
+	public StopReason getStopReason() {
+		return stopReason;
+	}
+
+	/**
+	 * Checks whether the layout stopped because it ran out of its time budget or
+	 * was cancelled, in which case the positions are the best reached so far
+	 * rather than a finished layout.
+	 *
+	 * @return {@code true} if the layout is partial
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+
+	/**
+	 * Checks whether the positions were served from the layout cache rather than
+	 * laid out for this request.
+	 *
+	 * @return {@code true} if the layout was a cache hit
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * Gets the number of iterations used.
+	 *
+	 * @return the iteration count
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Gets the sum of squared vertex movement in the final iteration.
+	 *
+	 * @return the final system energy
+	 */
+	public double getEnergy() {
+		return energy;
+	}
+
+	/**
+	 * Gets the largest distance any vertex moved in the final iteration.
+	 *
+	 * @return the final maximum displacement
+	 */
+	public double getMaxDisplacement() {
+		return maxDisplacement;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("LayoutStats{");
+		sb.append("engine=").append(engine).append(", ");
+		sb.append("stopReason=").append(stopReason).append(", ");
+		sb.append("partial=").append(partial).append(", ");
+		sb.append("cached=").append(cached).append(", ");
+		sb.append("iterations=").append(iterations).append(", ");
+		sb.append("energy=").append(energy).append(", ");
+		sb.append("maxDisplacement=").append(maxDisplacement);
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -1,6 +1,7 @@
 package edu.velvet.Wikiverse.api.models.core;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonView;
 import java.awt.geom.Point2D;
 
 /**
@@ -29,6 +30,24 @@ import java.awt.geom.Point2D;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class Point3D extends Point2D.Double {
 
+	/**
+	 * JSON view for the positions of a 2D layout, leaving out the z-coordinate
+	 * (always 0 on the plane). Responses are only written with this view when
+	 * their layout is planar, see {@link Spatial}.
+	 */
+	public interface Planar {}
+
+	/**
+	 * JSON view of the z-coordinate, included whenever no view is active or the
+	 * active view isn't {@link Planar}.
+	 */
+	public interface Spatial {}
+
+	/**
+	 * The z-coordinate, left out of the JSON when written with the
+	 * {@link Planar} view.
+	 */
+	@JsonView(Spatial.class)
 	public double z;
 
 	/**
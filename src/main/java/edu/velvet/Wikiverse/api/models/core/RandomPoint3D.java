@@ -16,7 +16,8 @@ import java.util.Random;
  *   <li>X and Y coordinates are bounded by the provided width and height dimensions</li>
  *   <li>Z coordinates are bounded by the maximum of width and height (application convention)</li>
  *   <li>All coordinates are centered around the origin (0,0,0) with symmetric ranges</li>
- *   <li>Random generation uses the current system time as seed for reproducibility</li>
+ *   <li>Random generation uses either the current system time, or a fixed seed and a key
+ *   per input so the same input always maps to the same point</li>
  * </ul>
  *
  * <p>This class is particularly useful for:
@@ -26,9 +27,12 @@ import java.util.Random;
  *   <li>Creating test data with controlled spatial distribution</li>
  * </ul>
  *
- * <p>The random number generator is seeded with the current time to ensure different
+ * <p>An unseeded generator is seeded with the current time to ensure different
  * coordinate sets are generated across different instances, while maintaining
- * deterministic behavior within a single instance.
+ * deterministic behavior within a single instance. A seeded generator instead draws
+ * each point from its own stream derived from the seed and the input's key (e.g. a
+ * vertex's QID), so a point depends only on the seed and its input, never on how
+ * many points were generated before it or on which thread.
  *
  * @param <V> the type of input that will be mapped to Point3D coordinates
  * @author @horaciovelvetine
@@ -47,6 +51,12 @@ public class RandomPoint3D<V> implements Function<V, Point3D> {
 	/** The dimensional bounds for the 3D space. */
 	private Dimension dimensions;
 
+	/** The layout seed, only used when {@code key} is provided. */
+	private long seed;
+
+	/** Maps each input to the key its random stream is derived from, null when unseeded. */
+	private Function<V, String> key;
+
 	/**
 	 * Constructs a new RandomPoint3D generator with the specified dimensional bounds.
 	 * The random number generator is initialized with the current system time as seed.
@@ -62,6 +72,45 @@ public class RandomPoint3D<V> implements Function<V, Point3D> {
 		this.random = new Random(new Date().getTime());
 	}
 
+	/**
+	 * Constructs a new seeded RandomPoint3D generator, which maps each input to a
+	 * point drawn from a stream derived from the seed and the input's key.
+	 *
+	 * @param dim  the dimensional bounds for the 3D space, cannot be null
+	 * @param seed the seed every point is derived from
+	 * @param key  maps an input to the key of its random stream, cannot be null
+	 * @throws IllegalArgumentException if dim or key is null
+	 */
+	public RandomPoint3D(Dimension dim, long seed, Function<V, String> key) {
+		this(dim);
+		if (key == null) {
+			throw new IllegalArgumentException("Key cannot be null");
+		}
+		this.seed = seed;
+		this.key = key;
+	}
+
+	/**
+	 * Creates the random stream for a key, derived from the seed. The same seed
+	 * and key always produce the same stream, and different keys produce
+	 * independent streams.
+	 *
+	 * @param seed the seed the stream is derived from
+	 * @param key  the key identifying the stream, e.g. a vertex's QID
+	 * @return a new random number generator for the stream
+	 */
+	public static Random streamFor(long seed, String key) {
+		// FNV-1a over the key, mixed with the seed by the SplitMix64 finalizer
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+		}
+		long mixed = hash ^ (seed * 0x9e3779b97f4a7c15L);
+		mixed = (mixed ^ (mixed >>> 30)) * 0xbf58476d1ce4e5b9L;
+		mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+		return new Random(mixed ^ (mixed >>> 31));
+	}
+
 	/**
 	 * Generates random 3D coordinates for the given input within the specified space.
 	 *
@@ -75,11 +124,13 @@ public class RandomPoint3D<V> implements Function<V, Point3D> {
 	 * <p>This method implements the Function interface, allowing it to be used
 	 * with Guava's functional programming utilities and collections.
 	 *
-	 * @param input the input object to map to coordinates (unused in generation)
+	 * @param input the input object to map to coordinates, only used to find the
+	 *              stream of a seeded generator
 	 * @return a new Point3D object with randomly generated coordinates
 	 */
 	@Override
 	public Point3D apply(V input) {
+		Random random = key != null ? streamFor(seed, key.apply(input)) : this.random;
 		double max = Math.max(dimensions.width, dimensions.height);
 		return new Point3D(
 			(random.nextDouble() - 0.5) * 2 * dimensions.width,
@@ -0,0 +1,127 @@
+package edu.velvet.Wikiverse.api.models.requests;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.ClickTarget;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.services.layout.ClickTargetIndex;
+import io.vavr.control.Either;
+import java.time.Instant;
+
+/**
+ * Represents a request to resolve a click on a laid out graphset to the vertex
+ * it targets. This class extends the base Request class and carries the click,
+ * and the {@link ClickTarget} it resolved to.
+ *
+ * <p>
+ * A click is given in one of two ways:
+ * <ul>
+ * <li>A {@code point}, resolved to the nearest vertex, optionally no further
+ * than {@code radius} from it</li>
+ * <li>A ray, from {@code rayOrigin} in {@code rayDirection}, resolved to the
+ * first vertex it passes within {@code radius} of</li>
+ * </ul>
+ * Either way the click is resolved against the index kept under
+ * {@code clickTargetKey}, the key returned with the graphset's layout, rather
+ * than a graphset sent with the click.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see Request
+ * @see ClickTargetIndex
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class ClickTargetRequest extends Request {
+
+	/** The key the graphset's positions were indexed under. */
+	private final String clickTargetKey;
+
+	/** The position which was clicked, {@code null} when a ray is given. */
+	private final Point3D point;
+
+	/** The position the ray is cast from, {@code null} when a point is given. */
+	private final Point3D rayOrigin;
+
+	/** The direction of the ray, {@code null} when a point is given. */
+	private final Point3D rayDirection;
+
+	/** The furthest the target may be from the point or ray. */
+	private final Double radius;
+
+	/** The vertex the click landed on, {@code null} if it landed on none. */
+	private ClickTarget target;
+
+	@JsonCreator
+	public ClickTargetRequest(
+		@JsonProperty("clickTargetKey") String clickTargetKey,
+		@JsonProperty("point") Point3D point,
+		@JsonProperty("rayOrigin") Point3D rayOrigin,
+		@JsonProperty("rayDirection") Point3D rayDirection,
+		@JsonProperty("radius") Double radius
+	) {
+		this.clickTargetKey = clickTargetKey;
+		this.point = point;
+		this.rayOrigin = rayOrigin;
+		this.rayDirection = rayDirection;
+		this.radius = radius;
+	}
+
+	/**
+	 * Gets the vertex the click landed on.
+	 *
+	 * @return the click target, or null if the click landed on no vertex
+	 */
+	public ClickTarget getTarget() {
+		return target;
+	}
+
+	/**
+	 * Resolves the click to the vertex it targets.
+	 *
+	 * <p>
+	 * Errors when:
+	 * <ul>
+	 * <li>ServiceFault - neither a point nor a ray (with its radius) is
+	 * given</li>
+	 * <li>ClickTargetIndexNotFound - no graphset is indexed under the key, or its
+	 * index has expired</li>
+	 * </ul>
+	 *
+	 * @param clickTargets the index of laid out graphsets
+	 * @return this ClickTargetRequest, holding the target or an error
+	 */
+	@JsonIgnore
+	public ClickTargetRequest findTarget(ClickTargetIndex clickTargets) {
+		Either<WikiverseError, ClickTarget> result;
+		if (rayOrigin != null && rayDirection != null && radius != null) {
+			result = clickTargets.pick(clickTargetKey, rayOrigin, rayDirection, radius);
+		} else if (point != null) {
+			result = clickTargets.nearest(clickTargetKey, point, radius != null ? radius : Double.POSITIVE_INFINITY);
+		} else {
+			this.setError(
+				new WikiverseError.ServiceFault(
+					"A click target needs a point, or a ray origin, direction and radius",
+					"ClickTargetRequest.java",
+					Instant.now(),
+					WikiverseError.ErrorCategory.VALIDATION,
+					400,
+					new StackTraceElement[0]
+				)
+			);
+			return this;
+		}
+
+		result.fold(
+			error -> {
+				this.setError(error);
+				return null;
+			},
+			found -> this.target = found
+		);
+		return this;
+	}
+}
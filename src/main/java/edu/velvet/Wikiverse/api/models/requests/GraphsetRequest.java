@@ -3,7 +3,10 @@ package edu.velvet.Wikiverse.api.models.requests;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.wikidata.wdtk.datamodel.interfaces.EntityDocument;
 import org.wikidata.wdtk.datamodel.interfaces.ItemDocument;
@@ -17,10 +20,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.velvet.Wikiverse.api.models.WikiverseError;
 import edu.velvet.Wikiverse.api.models.core.Edge;
 import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
 import edu.velvet.Wikiverse.api.models.core.Metadata;
 import edu.velvet.Wikiverse.api.models.core.Property;
 import edu.velvet.Wikiverse.api.models.core.Vertex;
-import edu.velvet.Wikiverse.api.services.layout.FR3DLayout;
+import edu.velvet.Wikiverse.api.services.layout.ClickTargetIndex;
+import edu.velvet.Wikiverse.api.services.layout.ComponentLayout;
+import edu.velvet.Wikiverse.api.services.layout.IncrementalLayout;
+import edu.velvet.Wikiverse.api.services.layout.LayoutCache;
+import edu.velvet.Wikiverse.api.services.layout.LayoutScheduler;
+import edu.velvet.Wikiverse.api.services.layout.LayoutTelemetry;
 import edu.velvet.Wikiverse.api.services.logging.WikidataDocumentLogger;
 import edu.velvet.Wikiverse.api.services.wikidata.WikidataService;
 import io.vavr.control.Either;
@@ -33,6 +43,21 @@ public class GraphsetRequest extends Request {
 
 	private final Metadata metadata;
 	private final Graphset graphset;
+	private LayoutStats layoutStats;
+
+	/**
+	 * Key the laid out positions are indexed under for resolving clicks, sent
+	 * back by the client so the same index is updated after each layout (see
+	 * {@link ClickTargetIndex})
+	 */
+	private String clickTargetKey;
+
+	/**
+	 * Receives the sampled iterations and runs of this request's layouts, never
+	 * part of the JSON (see {@link #withTelemetry(LayoutTelemetry)})
+	 */
+	@JsonIgnore
+	private LayoutTelemetry telemetry;
 
 	/**
 	 * Constructs a new {@code GraphsetRequest} for initializing the origin graph
@@ -86,6 +111,62 @@ public class GraphsetRequest extends Request {
 		return this.graphset;
 	}
 
+	/**
+	 * Gets how the most recent layout of this request finished, including why it
+	 * stopped and the iterations it used.
+	 *
+	 * @return the layout stats, or {@code null} if no layout has run
+	 */
+	public LayoutStats getLayoutStats() {
+		return this.layoutStats;
+	}
+
+	@Override
+	@JsonIgnore
+	public boolean isPlanar() {
+		return metadata != null && metadata.getLayoutSettings() != null && !metadata.getLayoutSettings().isPrefers3D();
+	}
+
+	/**
+	 * Gets the key the laid out positions of this request are indexed under.
+	 *
+	 * @return the click target key, or {@code null} if the positions haven't
+	 *         been indexed
+	 */
+	public String getClickTargetKey() {
+		return this.clickTargetKey;
+	}
+
+	/**
+	 * Publishes the layouts this request runs to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this GraphsetRequest
+	 */
+	@JsonIgnore
+	public GraphsetRequest withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry;
+		return this;
+	}
+
+	/**
+	 * Indexes the laid out positions of the graphset so clicks on it can be
+	 * resolved, updating the index under the request's click target key when it
+	 * still exists. Nothing is indexed when the request errored.
+	 *
+	 * @param clickTargets the index of laid out graphsets, or {@code null} to not
+	 *                     index the positions
+	 * @return this GraphsetRequest
+	 */
+	@JsonIgnore
+	public GraphsetRequest indexClickTargets(ClickTargetIndex clickTargets) {
+		if (clickTargets != null && !errored()) {
+			this.clickTargetKey = clickTargets.index(clickTargetKey, graphset);
+		}
+		return this;
+	}
+
 	/**
 	 * Initializes the origin of the graphset by fetching the Wikidata entity
 	 * corresponding
@@ -135,7 +216,11 @@ public class GraphsetRequest extends Request {
 	 * !! WORKING HERE WORKING HERE WORKING HERE WORKING HERE WORKING HERE WORKING
 	 */
 	@JsonIgnore
-	public GraphsetRequest initializeData(WikidataService wikidata) {
+	public GraphsetRequest initializeData(
+		WikidataService wikidata,
+		LayoutCache layoutCache,
+		LayoutScheduler layoutScheduler
+	) {
 		// ? Setup queue, retry count, and fetched document list
 		AtomicInteger failedRequestCount = new AtomicInteger(0);
 		List<String> fetchQueue = this.graphset.getUnfetchedEntityList();
@@ -166,13 +251,29 @@ public class GraphsetRequest extends Request {
 							});
 		}
 
+		// ? Note which vertices were laid out before this expansion
+		Set<String> placedIDs = this.graphset.getVertices().stream().map(Vertex::getId).collect(Collectors.toSet());
+		boolean hasPlacedVertices = this.graphset.getVertices().stream().anyMatch(vertex -> !vertex.isLocked());
+
 		// ? Ingest/Process documents
 		fetchedDocs.forEach(entDoc -> {
 			ingestFetchedDocumentResult(entDoc, wikidata);
 		});
 
-		// ? Run the Layout Algorithm
-		new FR3DLayout(this.getGraphset(), this.metadata.getLayoutSettings()).runLayout(graphset);
+		// ? Run the Layout Algorithm, warm starting from the existing layout when there is one
+		LayoutSettings settings = this.metadata.getLayoutSettings();
+		if (settings.isIncrementalLayout() && hasPlacedVertices) {
+			IncrementalLayout layout = new IncrementalLayout(graphset, settings, placedIDs).withTelemetry(telemetry);
+			this.layoutStats = schedule(layoutScheduler, layout.estimateCost(), () -> {
+				layout.runLayout(graphset);
+				return layout.getStats();
+			});
+		} else {
+			// ? A full layout of a graph already laid out with these settings is reused
+			long cost = LayoutScheduler.estimateCost(graphset, settings);
+			Supplier<LayoutStats> layout = () -> schedule(layoutScheduler, cost, () -> runFullLayout(settings));
+			this.layoutStats = layoutCache != null ? layoutCache.layout(graphset, settings, layout) : layout.get();
+		}
 
 		return this;
 	}
@@ -180,6 +281,33 @@ public class GraphsetRequest extends Request {
 	// !PRIVATE ============================================================>
 	// !PRIVATE ============================================================>
 
+	/**
+	 * Runs a layout through the scheduler, waiting for a free slot, or straight
+	 * away when there is no scheduler.
+	 *
+	 * @param scheduler the layout scheduler, or {@code null}
+	 * @param cost      the estimated cost of the layout, see
+	 *                  {@link LayoutScheduler#estimateCost(Graphset, LayoutSettings)}
+	 * @param layout    runs the layout
+	 * @return the stats of the finished layout
+	 */
+	private LayoutStats schedule(LayoutScheduler scheduler, long cost, Supplier<LayoutStats> layout) {
+		return scheduler != null ? scheduler.run(cost, layout) : layout.get();
+	}
+
+	/**
+	 * Lays out the whole graphset from scratch, each connected component on its
+	 * own with the engine selected in the layout settings.
+	 *
+	 * @param settings the layout settings of the request
+	 * @return the stats of the finished layout
+	 */
+	private LayoutStats runFullLayout(LayoutSettings settings) {
+		ComponentLayout layout = new ComponentLayout(graphset, settings).withTelemetry(telemetry);
+		layout.runLayout(graphset);
+		return layout.getStats();
+	}
+
 	/**
 	 * Handles the processing of a single fetched {@link EntityDocument} and updates
 	 * the graphset accordingly.
@@ -0,0 +1,132 @@
+package edu.velvet.Wikiverse.api.models.requests;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.services.layout.LayoutJob;
+import edu.velvet.Wikiverse.api.services.layout.LayoutService;
+import io.vavr.control.Either;
+
+/**
+ * Represents a request to submit, or poll, a layout running in the background.
+ * This class extends the base Request class and carries the {@link LayoutJob}
+ * being tracked, with its status and latest progress.
+ *
+ * <p>
+ * This class provides methods to:
+ * <ul>
+ * <li>Submit a {@link LayoutRequest} as a new job</li>
+ * <li>Check the status and progress of an existing job</li>
+ * <li>Fetch the laid out {@link LayoutRequest} once the job has completed</li>
+ * </ul>
+ *
+ * <p>
+ * The job's graphset is never included in this response, only in the result
+ * of {@link #fetchResult(String, LayoutService)}, keeping status polls small.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see Request
+ * @see LayoutService
+ * @see LayoutJob
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class LayoutJobRequest extends Request {
+
+	/** The job this request submitted or looked up. */
+	private LayoutJob job;
+
+	/**
+	 * Gets the job this request submitted or looked up.
+	 *
+	 * @return the layout job, or null if it couldn't be submitted or found
+	 */
+	public LayoutJob getJob() {
+		return job;
+	}
+
+	/**
+	 * Submits the layout request to run in the background.
+	 *
+	 * @param request       the layout request to run
+	 * @param layoutService the service to run the layout on
+	 * @return this LayoutJobRequest, holding the queued job or a LayoutQueueFull
+	 *         error
+	 */
+	@JsonIgnore
+	public LayoutJobRequest submit(LayoutRequest request, LayoutService layoutService) {
+		applyJob(layoutService.submit(request));
+		return this;
+	}
+
+	/**
+	 * Looks up the status and latest progress of a job.
+	 *
+	 * @param jobID         the ID returned when the job was submitted
+	 * @param layoutService the service running the layout
+	 * @return this LayoutJobRequest, holding the job or a LayoutJobNotFound error
+	 */
+	@JsonIgnore
+	public LayoutJobRequest checkStatus(String jobID, LayoutService layoutService) {
+		applyJob(layoutService.getJob(jobID));
+		return this;
+	}
+
+	/**
+	 * Fetches the result of a completed job.
+	 *
+	 * <p>
+	 * When the job has completed its {@link LayoutRequest} is returned, with the
+	 * laid out graphset and layout stats. Otherwise this request is returned with
+	 * the job (if any) and the error explaining why there is no result:
+	 * <ul>
+	 * <li>LayoutJobNotFound - no such job, or its result has expired</li>
+	 * <li>LayoutJobNotCompleted - the job is still queued or running</li>
+	 * <li>LayoutJobFailed - the layout threw before it finished</li>
+	 * </ul>
+	 *
+	 * @param jobID         the ID returned when the job was submitted
+	 * @param layoutService the service running the layout
+	 * @return the completed LayoutRequest, or this LayoutJobRequest with an error
+	 */
+	@JsonIgnore
+	public Request fetchResult(String jobID, LayoutService layoutService) {
+		if (!applyJob(layoutService.getJob(jobID))) {
+			return this;
+		}
+
+		switch (job.getStatus()) {
+			case COMPLETED:
+				return job.getRequest();
+			case FAILED:
+				this.setError(job.getError());
+				return this;
+			default:
+				this.setError(new WikiverseError.LayoutServiceError.LayoutJobNotCompleted(jobID));
+				return this;
+		}
+	}
+
+	// !PRIVATE ============================================================>
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Stores the job, or the error in its place.
+	 *
+	 * @param result the outcome of submitting or looking up the job
+	 * @return true if a job was stored, false if an error was
+	 */
+	private boolean applyJob(Either<WikiverseError, LayoutJob> result) {
+		return result.fold(
+			error -> {
+				this.setError(error);
+				return false;
+			},
+			found -> {
+				this.job = found;
+				return true;
+			}
+		);
+	}
+}
@@ -1,25 +1,244 @@
 package edu.velvet.Wikiverse.api.models.requests;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
 import edu.velvet.Wikiverse.api.models.core.Metadata;
-import edu.velvet.Wikiverse.api.services.layout.FR3DLayout;
+import edu.velvet.Wikiverse.api.services.layout.ClickTargetIndex;
+import edu.velvet.Wikiverse.api.services.layout.ComponentLayout;
+import edu.velvet.Wikiverse.api.services.layout.LayoutCache;
+import edu.velvet.Wikiverse.api.services.layout.LayoutProgressListener;
+import edu.velvet.Wikiverse.api.services.layout.LayoutScheduler;
+import edu.velvet.Wikiverse.api.services.layout.LayoutTelemetry;
+import edu.velvet.Wikiverse.api.services.layout.LocalLayout;
+import java.util.List;
+import java.util.function.Supplier;
 
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class LayoutRequest extends Request {
 
 	private final Metadata metadata;
 	private final Graphset graphset;
+	private LayoutStats layoutStats;
 
-	public LayoutRequest(@JsonProperty("metadata") Metadata data, @JsonProperty("graphset") Graphset graph) {
+	/**
+	 * Key the laid out positions are indexed under for resolving clicks, sent
+	 * back by the client so the same index is updated after each layout (see
+	 * {@link ClickTargetIndex})
+	 */
+	private String clickTargetKey;
+
+	/**
+	 * Receives the sampled iterations and runs of this request's layouts, never
+	 * part of the JSON (see {@link #withTelemetry(LayoutTelemetry)})
+	 */
+	@JsonIgnore
+	private LayoutTelemetry telemetry;
+
+	/**
+	 * IDs of the vertices which changed since the graphset was last laid out, when
+	 * set only their neighbourhood is laid out again (see {@link LocalLayout})
+	 */
+	private final List<String> changedIDs;
+
+	public LayoutRequest(Metadata data, Graphset graph) {
+		this(data, graph, null);
+	}
+
+	@JsonCreator
+	public LayoutRequest(
+		@JsonProperty("metadata") Metadata data,
+		@JsonProperty("graphset") Graphset graph,
+		@JsonProperty("changedIDs") List<String> changedIDs
+	) {
 		this.metadata = data;
 		this.graphset = graph;
+		this.changedIDs = changedIDs != null ? changedIDs : List.of();
 	}
 
 	@JsonIgnore
 	public LayoutRequest updateLayout() {
-		new FR3DLayout(graphset, this.metadata.getLayoutSettings()).runLayout(graphset);
+		return updateLayout(null, null, null);
+	}
+
+	/**
+	 * Lays out the graphset, reusing an identical earlier layout from the cache
+	 * when there is one.
+	 *
+	 * @param layoutCache the cache of finished layouts, or {@code null} to always
+	 *                    run the layout
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest updateLayout(LayoutCache layoutCache) {
+		return updateLayout(layoutCache, null, null);
+	}
+
+	/**
+	 * Lays out each connected component of the graphset with the engine selected
+	 * in the layout settings, reporting the progress of each iteration to the
+	 * listener. A layout served from the cache runs no iterations, so reports no
+	 * progress. When the request names the vertices which changed, only they and
+	 * their neighbourhood are laid out again, starting from the current
+	 * positions, which bypasses the cache.
+	 *
+	 * @param layoutCache      the cache of finished layouts, or {@code null} to
+	 *                         always run the layout
+	 * @param progressListener notified after each iteration, or {@code null} to
+	 *                         not report progress
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest updateLayout(LayoutCache layoutCache, LayoutProgressListener progressListener) {
+		return updateLayout(layoutCache, null, progressListener);
+	}
+
+	/**
+	 * Lays out the graphset like {@link #updateLayout(LayoutCache)}, waiting for
+	 * the scheduler to start the layout. A layout served from the cache doesn't
+	 * wait.
+	 *
+	 * @param layoutCache     the cache of finished layouts, or {@code null} to
+	 *                        always run the layout
+	 * @param layoutScheduler limits how many layouts run at once, or {@code null}
+	 *                        to start the layout straight away
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest updateLayout(LayoutCache layoutCache, LayoutScheduler layoutScheduler) {
+		return updateLayout(layoutCache, layoutScheduler, null);
+	}
 
+	/**
+	 * Lays out the graphset like
+	 * {@link #updateLayout(LayoutCache, LayoutProgressListener)}, waiting for the
+	 * scheduler to start the layout. A layout served from the cache doesn't wait.
+	 *
+	 * @param layoutCache      the cache of finished layouts, or {@code null} to
+	 *                         always run the layout
+	 * @param layoutScheduler  limits how many layouts run at once, or
+	 *                         {@code null} to start the layout straight away
+	 * @param progressListener notified after each iteration, or {@code null} to
+	 *                         not report progress
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest updateLayout(
+		LayoutCache layoutCache,
+		LayoutScheduler layoutScheduler,
+		LayoutProgressListener progressListener
+	) {
+		LayoutSettings settings = this.metadata.getLayoutSettings();
+		if (!changedIDs.isEmpty()) {
+			LocalLayout local = new LocalLayout(graphset, settings, changedIDs)
+				.withProgressListener(progressListener)
+				.withTelemetry(telemetry);
+			this.layoutStats = schedule(layoutScheduler, local.estimateCost(), () -> {
+				local.runLayout(graphset);
+				return local.getStats();
+			});
+			return this;
+		}
+		long cost = LayoutScheduler.estimateCost(graphset, settings);
+		Supplier<LayoutStats> layout = () ->
+			schedule(layoutScheduler, cost, () -> runLayout(settings, progressListener));
+		this.layoutStats = layoutCache != null ? layoutCache.layout(graphset, settings, layout) : layout.get();
 		return this;
 	}
+
+	/**
+	 * Publishes the layouts this request runs to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry;
+		return this;
+	}
+
+	public Metadata getMetadata() {
+		return this.metadata;
+	}
+
+	public Graphset getGraphset() {
+		return this.graphset;
+	}
+
+	/**
+	 * Gets the IDs of the vertices which changed since the graphset was last laid
+	 * out.
+	 *
+	 * @return the changed vertex IDs, empty to lay out the whole graphset
+	 */
+	public List<String> getChangedIDs() {
+		return this.changedIDs;
+	}
+
+	/**
+	 * Gets how the most recent layout of this request finished, including why it
+	 * stopped and the iterations it used.
+	 *
+	 * @return the layout stats, or {@code null} if no layout has run
+	 */
+	public LayoutStats getLayoutStats() {
+		return this.layoutStats;
+	}
+
+	@Override
+	@JsonIgnore
+	public boolean isPlanar() {
+		return metadata != null && metadata.getLayoutSettings() != null && !metadata.getLayoutSettings().isPrefers3D();
+	}
+
+	/**
+	 * Gets the key the laid out positions of this request are indexed under.
+	 *
+	 * @return the click target key, or {@code null} if the positions haven't
+	 *         been indexed
+	 */
+	public String getClickTargetKey() {
+		return this.clickTargetKey;
+	}
+
+	/**
+	 * Indexes the laid out positions of the graphset so clicks on it can be
+	 * resolved, updating the index under the request's click target key when it
+	 * still exists. Nothing is indexed when the request errored.
+	 *
+	 * @param clickTargets the index of laid out graphsets, or {@code null} to not
+	 *                     index the positions
+	 * @return this LayoutRequest
+	 */
+	@JsonIgnore
+	public LayoutRequest indexClickTargets(ClickTargetIndex clickTargets) {
+		if (clickTargets != null && !errored()) {
+			this.clickTargetKey = clickTargets.index(clickTargetKey, graphset);
+		}
+		return this;
+	}
+
+	// !PRIVATE ============================================================>
+	// !PRIVATE ============================================================>
+
+	private LayoutStats runLayout(LayoutSettings settings, LayoutProgressListener progressListener) {
+		ComponentLayout layout = new ComponentLayout(graphset, settings)
+			.withProgressListener(progressListener)
+			.withTelemetry(telemetry);
+		layout.runLayout(graphset);
+		return layout.getStats();
+	}
+
+	/**
+	 * Runs the layout through the scheduler, or straight away without one.
+	 */
+	private LayoutStats schedule(LayoutScheduler scheduler, long cost, Supplier<LayoutStats> layout) {
+		return scheduler != null ? scheduler.run(cost, layout) : layout.get();
+	}
 }
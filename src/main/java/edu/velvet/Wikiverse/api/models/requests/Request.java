@@ -126,6 +126,19 @@ public class Request {
 		return this;
 	}
 
+	/**
+	 * Checks whether the positions in this request were laid out on a plane, in
+	 * which case the response is written with the
+	 * {@link edu.velvet.Wikiverse.api.models.core.Point3D.Planar} view and
+	 * leaves out every z-coordinate. Requests without a layout are never planar.
+	 *
+	 * @return true if the request's layout settings don't prefer 3D
+	 */
+	@JsonIgnore
+	public boolean isPlanar() {
+		return false;
+	}
+
 	/**
 	 * Checks if this request has encountered an error.
 	 *
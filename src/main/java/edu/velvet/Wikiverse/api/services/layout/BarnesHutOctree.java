@@ -0,0 +1,362 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import java.util.Arrays;
+
+/**
+ * A Barnes-Hut octree used to approximate the repulsive forces between
+ * vertices during a force-directed layout.
+ *
+ * <p>
+ * The tree recursively splits the layout volume into eight octants until each
+ * leaf holds a single body. Every node tracks the total weight and weighted
+ * center of mass of the bodies beneath it, which allows a distant group of
+ * vertices to be treated as one aggregate body when the ratio of the node's
+ * width to its distance from the query point falls below the opening angle
+ * (theta). This reduces the cost of a full repulsion pass from O(n²) to
+ * O(n log n).
+ *
+ * <p>
+ * The tree is intended to be rebuilt once per layout iteration:
+ * <ul>
+ * <li>{@link #reset(double, double, double, double, double, double)} clears the
+ * tree and sizes the root cell to the current layout bounds</li>
+ * <li>{@link #insert(int, double, double, double, double)} adds each body by
+ * its caller assigned index</li>
+ * <li>{@link #accumulateRepulsion(int, double, double, double, double, double, double[])}
+ * sums the approximate repulsion acting on a single body</li>
+ * </ul>
+ *
+ * <p>
+ * Nodes and bodies are stored in flat primitive arrays which are reused across
+ * rebuilds to avoid allocating per iteration. Queries do not modify the tree
+ * and can safely be run from multiple threads once all bodies are inserted.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ */
+public class BarnesHutOctree {
+
+	/** Maximum subdivision depth, coincident bodies past this depth share a leaf. */
+	private static final int MAX_DEPTH = 32;
+
+	/** Size of the traversal stack needed to walk a tree of {@code MAX_DEPTH}. */
+	private static final int STACK_SIZE = MAX_DEPTH * 8 + 8;
+
+	/** Marker for an empty body slot or the end of a leaf's body chain. */
+	private static final int NONE = -1;
+
+	/** Minimum squared distance used to prevent 0/div errors. */
+	private final double epsilon;
+
+	// Body storage, indexed by the caller assigned body index
+	private double[] bodyX;
+	private double[] bodyY;
+	private double[] bodyZ;
+	private double[] bodyWeight;
+	private int[] nextBody;
+
+	// Node storage, the root is always node 0
+	private double[] nodeCenterX;
+	private double[] nodeCenterY;
+	private double[] nodeCenterZ;
+	private double[] nodeHalfSize;
+	private double[] nodeMass;
+	private double[] nodeMassX;
+	private double[] nodeMassY;
+	private double[] nodeMassZ;
+	private int[] nodeFirstChild;
+	private int[] nodeBody;
+	private int[] nodeDepth;
+	private int nodeCount;
+
+	/**
+	 * Constructs an empty octree sized for the expected number of bodies.
+	 *
+	 * @param expectedBodies the number of bodies expected to be inserted, used to
+	 *                       size the initial storage
+	 * @param epsilon        the minimum squared distance used when computing
+	 *                       forces to prevent 0/div errors
+	 */
+	public BarnesHutOctree(int expectedBodies, double epsilon) {
+		this.epsilon = epsilon;
+		allocateBodies(Math.max(1, expectedBodies));
+		allocateNodes(Math.max(8, expectedBodies * 2));
+	}
+
+	/**
+	 * Clears the tree and sizes the root cell to a cube enclosing the provided
+	 * bounds.
+	 *
+	 * @param minX the minimum x-coordinate of any body to be inserted
+	 * @param minY the minimum y-coordinate of any body to be inserted
+	 * @param minZ the minimum z-coordinate of any body to be inserted
+	 * @param maxX the maximum x-coordinate of any body to be inserted
+	 * @param maxY the maximum y-coordinate of any body to be inserted
+	 * @param maxZ the maximum z-coordinate of any body to be inserted
+	 */
+	public void reset(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		double extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+		// Pad the root so bodies on the boundary always fall inside a child cell
+		double halfSize = Math.max(1.0, extent) * 0.5 + 1.0;
+
+		nodeCount = 0;
+		initializeNode((minX + maxX) * 0.5, (minY + maxY) * 0.5, (minZ + maxZ) * 0.5, halfSize, 0);
+	}
+
+	/**
+	 * Inserts a body into the tree.
+	 *
+	 * @param body   the caller assigned index of the body, used to exclude the
+	 *               body from its own force calculations
+	 * @param x      the x-coordinate of the body
+	 * @param y      the y-coordinate of the body
+	 * @param z      the z-coordinate of the body
+	 * @param weight the weight (mass) the body contributes to repulsion
+	 */
+	public void insert(int body, double x, double y, double z, double weight) {
+		ensureBodyCapacity(body + 1);
+		bodyX[body] = x;
+		bodyY[body] = y;
+		bodyZ[body] = z;
+		bodyWeight[body] = weight;
+		nextBody[body] = NONE;
+
+		int node = 0;
+		while (true) {
+			accumulateMass(node, x, y, z, weight);
+
+			if (nodeFirstChild[node] != NONE) {
+				node = childContaining(node, x, y, z);
+				continue;
+			}
+
+			int resident = nodeBody[node];
+			if (resident == NONE) {
+				nodeBody[node] = body;
+				return;
+			}
+
+			if (nodeDepth[node] >= MAX_DEPTH) {
+				// Coincident (or nearly) bodies, chain them in this leaf instead of splitting
+				nextBody[body] = resident;
+				nodeBody[node] = body;
+				return;
+			}
+
+			// Split the leaf and move the resident body down into its child octant
+			subdivide(node);
+			nodeBody[node] = NONE;
+			int residentChild = childContaining(node, bodyX[resident], bodyY[resident], bodyZ[resident]);
+			accumulateMass(residentChild, bodyX[resident], bodyY[resident], bodyZ[resident], bodyWeight[resident]);
+			nodeBody[residentChild] = resident;
+
+			node = childContaining(node, x, y, z);
+		}
+	}
+
+	/**
+	 * Accumulates the approximate repulsive displacement acting on a point into
+	 * the provided output array.
+	 * <p>
+	 * Each body contributes {@code weight * forceSq / d²} along the unit vector
+	 * pointing from the body to the query point, matching the exact pairwise
+	 * Fruchterman-Reingold repulsion. Nodes which are far enough away (per the
+	 * opening angle) contribute their aggregate weight from their center of mass.
+	 * </p>
+	 *
+	 * @param self    the index of the body at the query point, excluded from the
+	 *                sum, or a negative value to include every body
+	 * @param x       the x-coordinate of the query point
+	 * @param y       the y-coordinate of the query point
+	 * @param z       the z-coordinate of the query point
+	 * @param theta   the opening angle, smaller values are more accurate
+	 * @param forceSq the squared repulsion force constant
+	 * @param out     an array of length 3, the x, y, z displacement is added to
+	 *                its contents
+	 */
+	public void accumulateRepulsion(int self, double x, double y, double z, double theta, double forceSq, double[] out) {
+		if (nodeCount == 0 || nodeMass[0] == 0.0) {
+			return;
+		}
+
+		final double thetaSq = theta * theta;
+		int[] stack = new int[STACK_SIZE];
+		int top = 0;
+		stack[top++] = 0;
+
+		while (top > 0) {
+			int node = stack[--top];
+			double mass = nodeMass[node];
+			if (mass == 0.0) {
+				continue;
+			}
+
+			if (nodeFirstChild[node] == NONE) {
+				// Leaf, evaluate each resident body exactly
+				for (int b = nodeBody[node]; b != NONE; b = nextBody[b]) {
+					if (b != self) {
+						addRepulsion(x, y, z, bodyX[b], bodyY[b], bodyZ[b], bodyWeight[b], forceSq, out);
+					}
+				}
+				continue;
+			}
+
+			double comX = nodeMassX[node] / mass;
+			double comY = nodeMassY[node] / mass;
+			double comZ = nodeMassZ[node] / mass;
+			double width = nodeHalfSize[node] * 2.0;
+
+			if (width * width < thetaSq * Point3D.distanceSq(x, y, z, comX, comY, comZ)) {
+				// Far enough away to be treated as a single aggregate body
+				addRepulsion(x, y, z, comX, comY, comZ, mass, forceSq, out);
+			} else {
+				int firstChild = nodeFirstChild[node];
+				for (int c = 0; c < 8; c++) {
+					stack[top++] = firstChild + c;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of nodes currently allocated in the tree.
+	 *
+	 * @return the node count, including the root
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Adds the repulsion from a single (possibly aggregate) body to the output.
+	 */
+	private void addRepulsion(
+		double x,
+		double y,
+		double z,
+		double sourceX,
+		double sourceY,
+		double sourceZ,
+		double weight,
+		double forceSq,
+		double[] out
+	) {
+		double deltaDistanceSq = Math.max(epsilon, Point3D.distanceSq(x, y, z, sourceX, sourceY, sourceZ));
+		double deltaDistance = Math.sqrt(deltaDistanceSq);
+		double scaledForce = (weight * forceSq) / (deltaDistanceSq * deltaDistance);
+
+		out[0] += (x - sourceX) * scaledForce;
+		out[1] += (y - sourceY) * scaledForce;
+		out[2] += (z - sourceZ) * scaledForce;
+	}
+
+	private void accumulateMass(int node, double x, double y, double z, double weight) {
+		nodeMass[node] += weight;
+		nodeMassX[node] += x * weight;
+		nodeMassY[node] += y * weight;
+		nodeMassZ[node] += z * weight;
+	}
+
+	/**
+	 * Finds which of the eight children of the given node contains the point.
+	 */
+	private int childContaining(int node, double x, double y, double z) {
+		int octant = 0;
+		if (x >= nodeCenterX[node]) octant |= 1;
+		if (y >= nodeCenterY[node]) octant |= 2;
+		if (z >= nodeCenterZ[node]) octant |= 4;
+		return nodeFirstChild[node] + octant;
+	}
+
+	/**
+	 * Allocates the eight (contiguous) children of the given leaf node.
+	 */
+	private void subdivide(int node) {
+		ensureNodeCapacity(nodeCount + 8);
+		double quarter = nodeHalfSize[node] * 0.5;
+		int depth = nodeDepth[node] + 1;
+		int firstChild = nodeCount;
+
+		for (int octant = 0; octant < 8; octant++) {
+			double cx = nodeCenterX[node] + ((octant & 1) != 0 ? quarter : -quarter);
+			double cy = nodeCenterY[node] + ((octant & 2) != 0 ? quarter : -quarter);
+			double cz = nodeCenterZ[node] + ((octant & 4) != 0 ? quarter : -quarter);
+			initializeNode(cx, cy, cz, quarter, depth);
+		}
+		nodeFirstChild[node] = firstChild;
+	}
+
+	private void initializeNode(double cx, double cy, double cz, double halfSize, int depth) {
+		ensureNodeCapacity(nodeCount + 1);
+		int node = nodeCount++;
+		nodeCenterX[node] = cx;
+		nodeCenterY[node] = cy;
+		nodeCenterZ[node] = cz;
+		nodeHalfSize[node] = halfSize;
+		nodeMass[node] = 0.0;
+		nodeMassX[node] = 0.0;
+		nodeMassY[node] = 0.0;
+		nodeMassZ[node] = 0.0;
+		nodeFirstChild[node] = NONE;
+		nodeBody[node] = NONE;
+		nodeDepth[node] = depth;
+	}
+
+	private void allocateBodies(int capacity) {
+		bodyX = new double[capacity];
+		bodyY = new double[capacity];
+		bodyZ = new double[capacity];
+		bodyWeight = new double[capacity];
+		nextBody = new int[capacity];
+	}
+
+	private void ensureBodyCapacity(int required) {
+		if (required <= bodyX.length) {
+			return;
+		}
+		int capacity = Math.max(required, bodyX.length * 2);
+		bodyX = Arrays.copyOf(bodyX, capacity);
+		bodyY = Arrays.copyOf(bodyY, capacity);
+		bodyZ = Arrays.copyOf(bodyZ, capacity);
+		bodyWeight = Arrays.copyOf(bodyWeight, capacity);
+		nextBody = Arrays.copyOf(nextBody, capacity);
+	}
+
+	private void allocateNodes(int capacity) {
+		nodeCenterX = new double[capacity];
+		nodeCenterY = new double[capacity];
+		nodeCenterZ = new double[capacity];
+		nodeHalfSize = new double[capacity];
+		nodeMass = new double[capacity];
+		nodeMassX = new double[capacity];
+		nodeMassY = new double[capacity];
+		nodeMassZ = new double[capacity];
+		nodeFirstChild = new int[capacity];
+		nodeBody = new int[capacity];
+		nodeDepth = new int[capacity];
+	}
+
+	private void ensureNodeCapacity(int required) {
+		if (required <= nodeCenterX.length) {
+			return;
+		}
+		int capacity = Math.max(required, nodeCenterX.length * 2);
+		nodeCenterX = Arrays.copyOf(nodeCenterX, capacity);
+		nodeCenterY = Arrays.copyOf(nodeCenterY, capacity);
+		nodeCenterZ = Arrays.copyOf(nodeCenterZ, capacity);
+		nodeHalfSize = Arrays.copyOf(nodeHalfSize, capacity);
+		nodeMass = Arrays.copyOf(nodeMass, capacity);
+		nodeMassX = Arrays.copyOf(nodeMassX, capacity);
+		nodeMassY = Arrays.copyOf(nodeMassY, capacity);
+		nodeMassZ = Arrays.copyOf(nodeMassZ, capacity);
+		nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+		nodeBody = Arrays.copyOf(nodeBody, capacity);
+		nodeDepth = Arrays.copyOf(nodeDepth, capacity);
+	}
+}
@@ -0,0 +1,335 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * The 2D counterpart of the {@link BarnesHutOctree}, used to approximate the
+ * repulsive forces between vertices of a planar layout.
+ *
+ * <p>
+ * The tree recursively splits the layout area into four quadrants until each
+ * leaf holds a single body. Every node tracks the total weight and weighted
+ * center of mass of the bodies beneath it, and a node whose width is small
+ * relative to its distance from the query point (per the opening angle, theta)
+ * is treated as one aggregate body. With no z axis each node only has four
+ * children and each body only two coordinates, so a rebuild and every query
+ * touch roughly half the memory of the octree.
+ *
+ * <p>
+ * The tree is rebuilt once per layout iteration, the same as the octree:
+ * <ul>
+ * <li>{@link #reset(double, double, double, double)} clears the tree and sizes
+ * the root cell to the current layout bounds</li>
+ * <li>{@link #insert(int, double, double, double)} adds each body by its caller
+ * assigned index</li>
+ * <li>{@link #accumulateRepulsion(int, double, double, double, double, double[])}
+ * sums the approximate repulsion acting on a single body</li>
+ * </ul>
+ *
+ * <p>
+ * Nodes and bodies are stored in flat primitive arrays which are reused across
+ * rebuilds to avoid allocating per iteration. Queries do not modify the tree
+ * and can safely be run from multiple threads once all bodies are inserted.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see BarnesHutOctree
+ * @see FR3DLayout
+ */
+public class BarnesHutQuadtree {
+
+	/** Maximum subdivision depth, coincident bodies past this depth share a leaf. */
+	private static final int MAX_DEPTH = 32;
+
+	/** Size of the traversal stack needed to walk a tree of {@code MAX_DEPTH}. */
+	private static final int STACK_SIZE = MAX_DEPTH * 4 + 4;
+
+	/** Marker for an empty body slot or the end of a leaf's body chain. */
+	private static final int NONE = -1;
+
+	/** Minimum squared distance used to prevent 0/div errors. */
+	private final double epsilon;
+
+	// Body storage, indexed by the caller assigned body index
+	private double[] bodyX;
+	private double[] bodyY;
+	private double[] bodyWeight;
+	private int[] nextBody;
+
+	// Node storage, the root is always node 0
+	private double[] nodeCenterX;
+	private double[] nodeCenterY;
+	private double[] nodeHalfSize;
+	private double[] nodeMass;
+	private double[] nodeMassX;
+	private double[] nodeMassY;
+	private int[] nodeFirstChild;
+	private int[] nodeBody;
+	private int[] nodeDepth;
+	private int nodeCount;
+
+	/**
+	 * Constructs an empty quadtree sized for the expected number of bodies.
+	 *
+	 * @param expectedBodies the number of bodies expected to be inserted, used to
+	 *                       size the initial storage
+	 * @param epsilon        the minimum squared distance used when computing
+	 *                       forces to prevent 0/div errors
+	 */
+	public BarnesHutQuadtree(int expectedBodies, double epsilon) {
+		this.epsilon = epsilon;
+		allocateBodies(Math.max(1, expectedBodies));
+		allocateNodes(Math.max(4, expectedBodies * 2));
+	}
+
+	/**
+	 * Clears the tree and sizes the root cell to a square enclosing the provided
+	 * bounds.
+	 *
+	 * @param minX the minimum x-coordinate of any body to be inserted
+	 * @param minY the minimum y-coordinate of any body to be inserted
+	 * @param maxX the maximum x-coordinate of any body to be inserted
+	 * @param maxY the maximum y-coordinate of any body to be inserted
+	 */
+	public void reset(double minX, double minY, double maxX, double maxY) {
+		double extent = Math.max(maxX - minX, maxY - minY);
+		// Pad the root so bodies on the boundary always fall inside a child cell
+		double halfSize = Math.max(1.0, extent) * 0.5 + 1.0;
+
+		nodeCount = 0;
+		initializeNode((minX + maxX) * 0.5, (minY + maxY) * 0.5, halfSize, 0);
+	}
+
+	/**
+	 * Inserts a body into the tree.
+	 *
+	 * @param body   the caller assigned index of the body, used to exclude the
+	 *               body from its own force calculations
+	 * @param x      the x-coordinate of the body
+	 * @param y      the y-coordinate of the body
+	 * @param weight the weight (mass) the body contributes to repulsion
+	 */
+	public void insert(int body, double x, double y, double weight) {
+		ensureBodyCapacity(body + 1);
+		bodyX[body] = x;
+		bodyY[body] = y;
+		bodyWeight[body] = weight;
+		nextBody[body] = NONE;
+
+		int node = 0;
+		while (true) {
+			accumulateMass(node, x, y, weight);
+
+			if (nodeFirstChild[node] != NONE) {
+				node = childContaining(node, x, y);
+				continue;
+			}
+
+			int resident = nodeBody[node];
+			if (resident == NONE) {
+				nodeBody[node] = body;
+				return;
+			}
+
+			if (nodeDepth[node] >= MAX_DEPTH) {
+				// Coincident (or nearly) bodies, chain them in this leaf instead of splitting
+				nextBody[body] = resident;
+				nodeBody[node] = body;
+				return;
+			}
+
+			// Split the leaf and move the resident body down into its child quadrant
+			subdivide(node);
+			nodeBody[node] = NONE;
+			int residentChild = childContaining(node, bodyX[resident], bodyY[resident]);
+			accumulateMass(residentChild, bodyX[resident], bodyY[resident], bodyWeight[resident]);
+			nodeBody[residentChild] = resident;
+
+			node = childContaining(node, x, y);
+		}
+	}
+
+	/**
+	 * Accumulates the approximate repulsive displacement acting on a point into
+	 * the provided output array, see
+	 * {@link BarnesHutOctree#accumulateRepulsion(int, double, double, double, double, double, double[])}.
+	 *
+	 * @param self    the index of the body at the query point, excluded from the
+	 *                sum, or a negative value to include every body
+	 * @param x       the x-coordinate of the query point
+	 * @param y       the y-coordinate of the query point
+	 * @param theta   the opening angle, smaller values are more accurate
+	 * @param forceSq the squared repulsion force constant
+	 * @param out     an array of at least length 2, the x, y displacement is
+	 *                added to its contents
+	 */
+	public void accumulateRepulsion(int self, double x, double y, double theta, double forceSq, double[] out) {
+		if (nodeCount == 0 || nodeMass[0] == 0.0) {
+			return;
+		}
+
+		final double thetaSq = theta * theta;
+		int[] stack = new int[STACK_SIZE];
+		int top = 0;
+		stack[top++] = 0;
+
+		while (top > 0) {
+			int node = stack[--top];
+			double mass = nodeMass[node];
+			if (mass == 0.0) {
+				continue;
+			}
+
+			if (nodeFirstChild[node] == NONE) {
+				// Leaf, evaluate each resident body exactly
+				for (int b = nodeBody[node]; b != NONE; b = nextBody[b]) {
+					if (b != self) {
+						addRepulsion(x, y, bodyX[b], bodyY[b], bodyWeight[b], forceSq, out);
+					}
+				}
+				continue;
+			}
+
+			double comX = nodeMassX[node] / mass;
+			double comY = nodeMassY[node] / mass;
+			double width = nodeHalfSize[node] * 2.0;
+
+			if (width * width < thetaSq * Point2D.distanceSq(x, y, comX, comY)) {
+				// Far enough away to be treated as a single aggregate body
+				addRepulsion(x, y, comX, comY, mass, forceSq, out);
+			} else {
+				int firstChild = nodeFirstChild[node];
+				for (int c = 0; c < 4; c++) {
+					stack[top++] = firstChild + c;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of nodes currently allocated in the tree.
+	 *
+	 * @return the node count, including the root
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Adds the repulsion from a single (possibly aggregate) body to the output.
+	 */
+	private void addRepulsion(
+		double x,
+		double y,
+		double sourceX,
+		double sourceY,
+		double weight,
+		double forceSq,
+		double[] out
+	) {
+		double deltaDistanceSq = Math.max(epsilon, Point2D.distanceSq(x, y, sourceX, sourceY));
+		double deltaDistance = Math.sqrt(deltaDistanceSq);
+		double scaledForce = (weight * forceSq) / (deltaDistanceSq * deltaDistance);
+
+		out[0] += (x - sourceX) * scaledForce;
+		out[1] += (y - sourceY) * scaledForce;
+	}
+
+	private void accumulateMass(int node, double x, double y, double weight) {
+		nodeMass[node] += weight;
+		nodeMassX[node] += x * weight;
+		nodeMassY[node] += y * weight;
+	}
+
+	/**
+	 * Finds which of the four children of the given node contains the point.
+	 */
+	private int childContaining(int node, double x, double y) {
+		int quadrant = 0;
+		if (x >= nodeCenterX[node]) quadrant |= 1;
+		if (y >= nodeCenterY[node]) quadrant |= 2;
+		return nodeFirstChild[node] + quadrant;
+	}
+
+	/**
+	 * Allocates the four (contiguous) children of the given leaf node.
+	 */
+	private void subdivide(int node) {
+		ensureNodeCapacity(nodeCount + 4);
+		double quarter = nodeHalfSize[node] * 0.5;
+		int depth = nodeDepth[node] + 1;
+		int firstChild = nodeCount;
+
+		for (int quadrant = 0; quadrant < 4; quadrant++) {
+			double cx = nodeCenterX[node] + ((quadrant & 1) != 0 ? quarter : -quarter);
+			double cy = nodeCenterY[node] + ((quadrant & 2) != 0 ? quarter : -quarter);
+			initializeNode(cx, cy, quarter, depth);
+		}
+		nodeFirstChild[node] = firstChild;
+	}
+
+	private void initializeNode(double cx, double cy, double halfSize, int depth) {
+		ensureNodeCapacity(nodeCount + 1);
+		int node = nodeCount++;
+		nodeCenterX[node] = cx;
+		nodeCenterY[node] = cy;
+		nodeHalfSize[node] = halfSize;
+		nodeMass[node] = 0.0;
+		nodeMassX[node] = 0.0;
+		nodeMassY[node] = 0.0;
+		nodeFirstChild[node] = NONE;
+		nodeBody[node] = NONE;
+		nodeDepth[node] = depth;
+	}
+
+	private void allocateBodies(int capacity) {
+		bodyX = new double[capacity];
+		bodyY = new double[capacity];
+		bodyWeight = new double[capacity];
+		nextBody = new int[capacity];
+	}
+
+	private void ensureBodyCapacity(int required) {
+		if (required <= bodyX.length) {
+			return;
+		}
+		int capacity = Math.max(required, bodyX.length * 2);
+		bodyX = Arrays.copyOf(bodyX, capacity);
+		bodyY = Arrays.copyOf(bodyY, capacity);
+		bodyWeight = Arrays.copyOf(bodyWeight, capacity);
+		nextBody = Arrays.copyOf(nextBody, capacity);
+	}
+
+	private void allocateNodes(int capacity) {
+		nodeCenterX = new double[capacity];
+		nodeCenterY = new double[capacity];
+		nodeHalfSize = new double[capacity];
+		nodeMass = new double[capacity];
+		nodeMassX = new double[capacity];
+		nodeMassY = new double[capacity];
+		nodeFirstChild = new int[capacity];
+		nodeBody = new int[capacity];
+		nodeDepth = new int[capacity];
+	}
+
+	private void ensureNodeCapacity(int required) {
+		if (required <= nodeCenterX.length) {
+			return;
+		}
+		int capacity = Math.max(required, nodeCenterX.length * 2);
+		nodeCenterX = Arrays.copyOf(nodeCenterX, capacity);
+		nodeCenterY = Arrays.copyOf(nodeCenterY, capacity);
+		nodeHalfSize = Arrays.copyOf(nodeHalfSize, capacity);
+		nodeMass = Arrays.copyOf(nodeMass, capacity);
+		nodeMassX = Arrays.copyOf(nodeMassX, capacity);
+		nodeMassY = Arrays.copyOf(nodeMassY, capacity);
+		nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+		nodeBody = Arrays.copyOf(nodeBody, capacity);
+		nodeDepth = Arrays.copyOf(nodeDepth, capacity);
+	}
+}
@@ -0,0 +1,279 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.ClickTarget;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.vavr.control.Either;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service keeping a {@link VertexOctree} over the final vertex positions of
+ * each laid out graphset, so a click can be resolved to the vertex it targets
+ * without scanning {@link Graphset#getVertices()}.
+ *
+ * <p>
+ * Each index is kept under a click target key, handed back to the client with
+ * its layout:
+ * <ul>
+ * <li>Indexing a graphset without a key (or with one which has expired) builds
+ * a new index under a new key</li>
+ * <li>Indexing a graphset under an existing key updates the index in place,
+ * only touching the vertices which were added, removed or moved since it was
+ * last indexed, so indexing after a localized relayout costs a pass over the
+ * positions plus the few moved vertices</li>
+ * <li>A click is resolved with the key, either to the vertex nearest a point
+ * or to the first vertex along a ray cast from the camera</li>
+ * </ul>
+ *
+ * <p>
+ * At most {@code wikiverse.api.layout.click-targets.max-size} indexes are
+ * kept, evicting the least recently used first, and an index expires once it
+ * hasn't been used for {@code wikiverse.api.layout.click-targets.ttl-seconds}.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see VertexOctree
+ */
+@Service
+public class ClickTargetIndex {
+
+	private final Cache<String, Targets> indexes;
+
+	/**
+	 * Creates a click target index from the
+	 * {@code wikiverse.api.layout.click-targets.*} application properties.
+	 *
+	 * @param maxSize    the most graphsets indexed at once
+	 * @param ttlSeconds the seconds an index is kept after it was last used
+	 */
+	public ClickTargetIndex(
+		@Value("${wikiverse.api.layout.click-targets.max-size:256}") long maxSize,
+		@Value("${wikiverse.api.layout.click-targets.ttl-seconds:1800}") long ttlSeconds
+	) {
+		this.indexes = CacheBuilder.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterAccess(ttlSeconds, TimeUnit.SECONDS)
+			.build();
+	}
+
+	/**
+	 * Indexes the positions of a laid out graphset, updating the existing index
+	 * under the key when there is one.
+	 *
+	 * @param key   the key the graphset was last indexed under, or {@code null}
+	 *              if it hasn't been
+	 * @param graph the laid out graphset
+	 * @return the key the graphset is indexed under, a new key when {@code key}
+	 *         had no index
+	 */
+	public String index(String key, Graphset graph) {
+		Targets targets = key != null ? indexes.getIfPresent(key) : null;
+		if (targets == null) {
+			key = UUID.randomUUID().toString();
+			targets = new Targets(graph.getVertexCount());
+			indexes.put(key, targets);
+		}
+		targets.update(graph);
+		return key;
+	}
+
+	/**
+	 * Finds the vertex nearest a point.
+	 *
+	 * @param key         the key the graphset was indexed under
+	 * @param point       the position which was clicked
+	 * @param maxDistance the furthest the vertex may be from the point
+	 * @return Either a ClickTargetIndexNotFound error, or the nearest vertex
+	 *         ({@code null} if none is within {@code maxDistance})
+	 */
+	public Either<WikiverseError, ClickTarget> nearest(String key, Point3D point, double maxDistance) {
+		Targets targets = key != null ? indexes.getIfPresent(key) : null;
+		if (targets == null) {
+			return Either.left(new WikiverseError.LayoutServiceError.ClickTargetIndexNotFound(key));
+		}
+		return Either.right(targets.nearest(point, maxDistance));
+	}
+
+	/**
+	 * Finds the first vertex along a ray cast from the camera.
+	 *
+	 * @param key       the key the graphset was indexed under
+	 * @param origin    the position the ray starts from
+	 * @param direction the direction of the ray
+	 * @param radius    the furthest a vertex may be from the ray
+	 * @return Either a ClickTargetIndexNotFound error, or the first vertex along
+	 *         the ray ({@code null} if the ray passes none within {@code radius})
+	 */
+	public Either<WikiverseError, ClickTarget> pick(String key, Point3D origin, Point3D direction, double radius) {
+		Targets targets = key != null ? indexes.getIfPresent(key) : null;
+		if (targets == null) {
+			return Either.left(new WikiverseError.LayoutServiceError.ClickTargetIndexNotFound(key));
+		}
+		return Either.right(targets.pick(origin, direction, radius));
+	}
+
+	/**
+	 * Gets the number of graphsets currently indexed.
+	 *
+	 * @return the index count
+	 */
+	public long size() {
+		return indexes.size();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * The octree over one graphset's vertices, with the QID held at each point
+	 * index. Updates take the write lock, so clicks are never resolved against a
+	 * half updated tree.
+	 */
+	private static final class Targets {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private final VertexOctree octree;
+		private final Map<String, Integer> pointsByID = new HashMap<>();
+		private final List<Integer> freePoints = new ArrayList<>();
+		private String[] ids;
+		private double[] positions;
+
+		/** The update each point was last seen in, points not seen are removed. */
+		private int[] seenIn;
+		private int updates = 0;
+
+		Targets(int expectedVertices) {
+			this.octree = new VertexOctree(expectedVertices);
+			this.ids = new String[Math.max(16, expectedVertices)];
+			this.positions = new double[ids.length * 3];
+			this.seenIn = new int[ids.length];
+		}
+
+		void update(Graphset graph) {
+			lock.writeLock().lock();
+			try {
+				int update = ++updates;
+				for (Vertex vertex : graph.getVertices()) {
+					Point3D position = vertex.getPosition();
+					if (position == null) {
+						continue;
+					}
+					Integer point = pointsByID.get(vertex.getId());
+					if (point == null) {
+						point = allocate(vertex.getId());
+						store(point, position);
+						octree.insert(point, position.getX(), position.getY(), position.getZ());
+					} else if (moved(point, position)) {
+						store(point, position);
+						octree.move(point, position.getX(), position.getY(), position.getZ());
+					}
+					seenIn[point] = update;
+				}
+
+				// Drop the vertices which are no longer in the graphset
+				pointsByID
+					.entrySet()
+					.removeIf(entry -> {
+						int point = entry.getValue();
+						if (seenIn[point] == update) {
+							return false;
+						}
+						octree.remove(point);
+						ids[point] = null;
+						freePoints.add(point);
+						return true;
+					});
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		ClickTarget nearest(Point3D point, double maxDistance) {
+			lock.readLock().lock();
+			try {
+				int found = octree.nearest(point.getX(), point.getY(), point.getZ(), maxDistance);
+				return found < 0 ? null : target(found, point(found).distance(point));
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		ClickTarget pick(Point3D origin, Point3D direction, double radius) {
+			lock.readLock().lock();
+			try {
+				int found = octree.pick(
+					origin.getX(),
+					origin.getY(),
+					origin.getZ(),
+					direction.getX(),
+					direction.getY(),
+					direction.getZ(),
+					radius
+				);
+				if (found < 0) {
+					return null;
+				}
+				Point3D position = point(found);
+				double length = direction.distance(new Point3D());
+				double along =
+					((position.getX() - origin.getX()) * direction.getX() +
+						(position.getY() - origin.getY()) * direction.getY() +
+						(position.getZ() - origin.getZ()) * direction.getZ()) /
+					length;
+				return target(found, along);
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		private ClickTarget target(int point, double distance) {
+			return new ClickTarget(ids[point], point(point), distance);
+		}
+
+		private Point3D point(int point) {
+			return new Point3D(positions[3 * point], positions[3 * point + 1], positions[3 * point + 2]);
+		}
+
+		private int allocate(String id) {
+			int point = freePoints.isEmpty() ? pointsByID.size() : freePoints.remove(freePoints.size() - 1);
+			if (point >= ids.length) {
+				int capacity = Math.max(point + 1, ids.length * 2);
+				ids = Arrays.copyOf(ids, capacity);
+				positions = Arrays.copyOf(positions, capacity * 3);
+				seenIn = Arrays.copyOf(seenIn, capacity);
+			}
+			ids[point] = id;
+			pointsByID.put(id, point);
+			return point;
+		}
+
+		private boolean moved(int point, Point3D position) {
+			return (
+				positions[3 * point] != position.getX() ||
+				positions[3 * point + 1] != position.getY() ||
+				positions[3 * point + 2] != position.getZ()
+			);
+		}
+
+		private void store(int point, Point3D position) {
+			positions[3 * point] = position.getX();
+			positions[3 * point + 1] = position.getY();
+			positions[3 * point + 2] = position.getZ();
+		}
+	}
+}
@@ -0,0 +1,596 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lays out each connected component of a graphset on its own, then packs the
+ * finished components together so none of them overlap.
+ *
+ * <p>
+ * Once vertices without sitelinks are pruned a graphset often falls apart into
+ * several disconnected islands. Laid out together, every island repels every
+ * other one (the quadratic part of the work) and, with no edge holding them
+ * together, the small islands drift off to the edge of the layout. This engine
+ * instead:
+ * <ul>
+ * <li><b>Splits</b> the graphset into its connected components, largest
+ * first</li>
+ * <li><b>Lays out</b> each component with the engine selected in the settings
+ * (see {@link LayoutEngines}), so with {@value LayoutEngines#AUTO} each
+ * component gets the engine suited to its own size,
+ * running components of at least {@link #MIN_PARALLEL_COMPONENT_SIZE} vertices
+ * side by side when {@link LayoutSettings#getLayoutParallelism()} allows it,
+ * and all of them under the one time budget</li>
+ * <li><b>Packs</b> the components around the anchored ones (those holding a
+ * locked vertex, or the largest when none do), placing each one on the nearest
+ * shell (or ring, in 2D) around the anchor where it doesn't overlap any
+ * component already placed, then scaling the packed result back within the
+ * layout volume of the whole graphset should it reach past it</li>
+ * </ul>
+ *
+ * <p>
+ * A graphset with a single component is laid out exactly as the selected
+ * engine would lay it out alone. Progress is reported for the first anchored
+ * component only, as it is the one which stays in place when the components
+ * are packed.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutEngines
+ */
+public class ComponentLayout {
+
+	/** Engine reported in the stats of a layout of several components. */
+	public static final String ENGINE_NAME = "components";
+
+	/** Components with fewer vertices are always laid out on the calling thread. */
+	static final int MIN_PARALLEL_COMPONENT_SIZE = 64;
+
+	/** Smallest gap left between two packed components. */
+	private static final double MIN_COMPONENT_GAP = 10.0;
+
+	/** Fraction of the two components' radii added to the gap between them. */
+	private static final double COMPONENT_GAP_SCALE = 0.1;
+
+	/** Upper bound on the candidate directions tried on each packing shell. */
+	private static final int MAX_PACKING_DIRECTIONS = 4096;
+
+	/** Upper bound on the shells tried before a component is placed past the rest. */
+	private static final int MAX_PACKING_SHELLS = 256;
+
+	/** Angle between successive points of a Fibonacci sphere. */
+	private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+	private final ProcessLogger logger = new ProcessLogger("ComponentLayout.log");
+
+	private final LayoutSettings layoutSettings;
+	private final int parallelism;
+
+	/** Whether the layout is 2D, so components are packed in the plane. */
+	private final boolean planar;
+
+	/** Deadline shared by the layout of every component. */
+	private final long deadlineNanos;
+
+	/**
+	 * Furthest a vertex can be from the middle of the layout on any axis, the
+	 * bound FR3DLayout keeps the whole graphset within
+	 */
+	private final double layoutBound;
+
+	/** Each connected component of the graphset, largest first. */
+	private final List<Graphset> components;
+
+	/**
+	 * Notified after each iteration of the first anchored component, {@code null}
+	 * when nothing is listening
+	 */
+	private LayoutProgressListener progressListener;
+
+	/** Receives the sampled iterations and the run of this layout. */
+	private LayoutTelemetry telemetry = LayoutTelemetry.DISABLED;
+
+	/** How the layout finished, {@code null} until the layout has run. */
+	private LayoutStats stats;
+
+	public ComponentLayout(Graphset graph, LayoutSettings layoutSettings) {
+		this.layoutSettings = layoutSettings;
+		this.parallelism = FR3DLayout.resolveParallelism(layoutSettings.getLayoutParallelism().intValue());
+		this.planar = LayoutEngines.select(layoutSettings, graph).isPlanar(layoutSettings);
+		this.deadlineNanos = FR3DLayout.calculateDeadline(layoutSettings);
+		this.layoutBound = FR3DLayout.calculateLayoutDimensions(
+			graph.getVertexCount(),
+			layoutSettings.getVertexDensity().doubleValue()
+		).getHeight();
+		this.components = findComponents(graph);
+	}
+
+	/**
+	 * Executes the layout for the provided graph, laying out each component and
+	 * packing them together.
+	 * <p>
+	 * After completing the layout, all unlocked vertex positions in the given
+	 * {@link Graphset} are updated to their final computed locations, and the
+	 * run is recorded by the {@link LayoutTelemetry}.
+	 * </p>
+	 *
+	 * @param graph the {@link Graphset} to arrange; must be the graphset this
+	 *              layout was constructed with
+	 */
+	public void runLayout(Graphset graph) {
+		long start = System.nanoTime();
+		if (components.size() <= 1) {
+			stats = runEngine(graph, progressListener);
+			telemetry.recordRun(stats, graph.getVertexCount(), System.nanoTime() - start);
+			return;
+		}
+
+		boolean[] anchored = new boolean[components.size()];
+		int reported = -1;
+		for (int c = 0; c < components.size(); c++) {
+			anchored[c] = components.get(c).getVertices().stream().anyMatch(Vertex::isLocked);
+			if (anchored[c] && reported < 0) {
+				reported = c;
+			}
+		}
+		if (reported < 0) {
+			anchored[0] = true;
+			reported = 0;
+		}
+
+		LayoutStats[] results = layoutComponents(reported);
+		packComponents(anchored, reported);
+		stats = combineStats(results);
+		telemetry.recordRun(stats, graph.getVertexCount(), System.nanoTime() - start);
+		logger.logInfo(this.toString());
+	}
+
+	/**
+	 * Reports the progress of the first anchored component to the listener after
+	 * each of its iterations.
+	 *
+	 * @param progressListener the listener to notify, or {@code null} to stop
+	 *                         reporting progress
+	 * @return this layout
+	 */
+	public ComponentLayout withProgressListener(LayoutProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Publishes the run of this layout, and the sampled iterations of each component, to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this layout
+	 */
+	public ComponentLayout withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry != null ? telemetry : LayoutTelemetry.DISABLED;
+		return this;
+	}
+
+	/**
+	 * Gets the stats describing how this layout finished. With several components
+	 * the iterations and displacement are the most of any component, the energy
+	 * is their sum and the stop reason is that of the largest component, unless
+	 * any component was cancelled or ran out of time.
+	 *
+	 * @return the layout stats, or {@code null} if the layout hasn't run
+	 */
+	public LayoutStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Gets the number of connected components found in the graphset.
+	 *
+	 * @return the component count
+	 */
+	public int getComponentCount() {
+		return components.size();
+	}
+
+	/**
+	 * Splits a graphset into its connected components, each holding the same
+	 * {@link Vertex} instances as the graphset so laying out a component updates
+	 * the graphset. Edges to vertices outside the graphset are ignored.
+	 *
+	 * @param graph the graphset to split
+	 * @return each component, largest first (ties in the QID order of their first
+	 *         vertex)
+	 */
+	static List<Graphset> findComponents(Graphset graph) {
+		Vertex[] vertices = graph.getVertices().toArray(new Vertex[0]);
+		Arrays.sort(vertices, Comparator.comparing(Vertex::getId));
+		Map<String, Integer> indexByID = new HashMap<>(vertices.length * 2);
+		for (int i = 0; i < vertices.length; i++) {
+			indexByID.put(vertices[i].getId(), i);
+		}
+
+		int[] parent = new int[vertices.length];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+		}
+		for (Edge edge : graph.getEdges()) {
+			Integer source = indexByID.get(edge.getSourceID());
+			Integer target = indexByID.get(edge.getTargetID());
+			if (source != null && target != null) {
+				parent[findRoot(parent, source)] = findRoot(parent, target);
+			}
+		}
+
+		// Components of the same size keep the QID order of their first vertex
+		Map<Integer, Graphset> componentByRoot = new LinkedHashMap<>();
+		for (int i = 0; i < vertices.length; i++) {
+			componentByRoot.computeIfAbsent(findRoot(parent, i), root -> new Graphset()).getVertices().add(vertices[i]);
+		}
+		for (Edge edge : graph.getEdges()) {
+			Integer source = indexByID.get(edge.getSourceID());
+			if (source != null && indexByID.containsKey(edge.getTargetID())) {
+				componentByRoot.get(findRoot(parent, source)).getEdges().add(edge);
+			}
+		}
+
+		List<Graphset> components = new ArrayList<>(componentByRoot.values());
+		components.sort(Comparator.comparingInt(Graphset::getVertexCount).reversed());
+		return components;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("ComponentLayout{");
+		sb.append("components=").append(components.size()).append(", ");
+		sb.append("largest=").append(components.isEmpty() ? 0 : components.get(0).getVertexCount()).append(", ");
+		sb.append("parallelism=").append(parallelism).append(", ");
+		sb.append("stats=").append(stats);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Finds the root of a vertex's set, halving the path to it along the way.
+	 */
+	private static int findRoot(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Lays out every component, handing the large ones to a pool of workers when
+	 * there is more than one of them and the settings allow more than one thread.
+	 * When the calling thread is interrupted the workers are interrupted too, so
+	 * every component stops as cancelled.
+	 *
+	 * @param reported the index of the component whose progress is reported
+	 * @return the stats of each component, {@code null} for single vertices
+	 */
+	private LayoutStats[] layoutComponents(int reported) {
+		LayoutStats[] results = new LayoutStats[components.size()];
+		long large = components.stream().filter(c -> c.getVertexCount() >= MIN_PARALLEL_COMPONENT_SIZE).count();
+		ExecutorService pool = parallelism > 1 && large > 1
+			? Executors.newFixedThreadPool(
+				(int) Math.min(parallelism, large),
+				new ThreadFactoryBuilder().setNameFormat("layout-component-%d").setDaemon(true).build()
+			)
+			: null;
+
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int c = 0; c < components.size(); c++) {
+				int index = c;
+				Graphset component = components.get(c);
+				LayoutProgressListener listener = c == reported ? progressListener : null;
+				if (pool != null && component.getVertexCount() >= MIN_PARALLEL_COMPONENT_SIZE) {
+					futures.add(pool.submit(() -> results[index] = layoutComponent(component, listener)));
+				} else {
+					results[index] = layoutComponent(component, listener);
+				}
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			// Stop the workers and wait for them to write their (cancelled) positions
+			if (pool != null) {
+				pool.shutdownNow();
+				Uninterruptibles.awaitTerminationUninterruptibly(pool);
+			}
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Lays out a single component with the engine selected in the settings. A
+	 * lone vertex has nothing to be laid out against, so is only moved to the
+	 * origin (if unlocked) ready to be packed.
+	 *
+	 * @return the stats of the layout, or {@code null} for a single vertex
+	 */
+	private LayoutStats layoutComponent(Graphset component, LayoutProgressListener listener) {
+		if (component.getVertexCount() == 1) {
+			Vertex vertex = component.getVertices().iterator().next();
+			if (!vertex.isLocked()) {
+				vertex.getPosition().setLocation(0, 0, 0);
+			}
+			return null;
+		}
+		return runEngine(component, listener);
+	}
+
+	/**
+	 * Lays out a graphset with the engine the {@link LayoutEngines} registry
+	 * selects for it, under the shared deadline.
+	 *
+	 * @return the stats of the layout
+	 */
+	private LayoutStats runEngine(Graphset component, LayoutProgressListener listener) {
+		return LayoutEngines.select(layoutSettings, component).layout(
+			component,
+			layoutSettings,
+			deadlineNanos,
+			listener,
+			telemetry
+		);
+	}
+
+	/**
+	 * Packs the laid out components together. Anchored components stay where they
+	 * were laid out, every other component (largest first) is moved onto the
+	 * nearest shell around the reported component where it clears every component
+	 * already placed. The shells grow as far as the components need, so the
+	 * packed result is then scaled back within the layout bound, see
+	 * {@link #scaleWithinBound()}.
+	 *
+	 * @param anchored whether each component stays in place
+	 * @param reported the index of the component shells are centred on
+	 */
+	private void packComponents(boolean[] anchored, int reported) {
+		List<double[]> placed = new ArrayList<>();
+		double[][] bounds = new double[components.size()][];
+		for (int c = 0; c < components.size(); c++) {
+			bounds[c] = boundingSphere(components.get(c));
+			if (anchored[c]) {
+				placed.add(bounds[c]);
+			}
+		}
+
+		double[] origin = bounds[reported];
+		for (int c = 0; c < components.size(); c++) {
+			if (anchored[c]) {
+				continue;
+			}
+			double[] sphere = bounds[c];
+			double[] center = findPlacement(placed, origin, sphere[3], planar);
+			double ox = center[0] - sphere[0];
+			double oy = center[1] - sphere[1];
+			double oz = center[2] - sphere[2];
+			for (Vertex vertex : components.get(c).getVertices()) {
+				Point3D position = vertex.getPosition();
+				position.setLocation(position.getX() + ox, position.getY() + oy, position.getZ() + oz);
+			}
+			placed.add(new double[] { center[0], center[1], center[2], sphere[3] });
+		}
+		scaleWithinBound();
+	}
+
+	/**
+	 * Scales every unlocked vertex towards the middle of the layout, by the same
+	 * factor, until the furthest of them is back within the layout bound. A
+	 * uniform scale keeps the packed components clear of each other, and locked
+	 * vertices stay where they are.
+	 */
+	private void scaleWithinBound() {
+		double extent = 0;
+		for (Graphset component : components) {
+			for (Vertex vertex : component.getVertices()) {
+				if (!vertex.isLocked()) {
+					Point3D position = vertex.getPosition();
+					extent = Math.max(extent, Math.abs(position.getX()));
+					extent = Math.max(extent, Math.abs(position.getY()));
+					extent = Math.max(extent, Math.abs(position.getZ()));
+				}
+			}
+		}
+		if (extent <= layoutBound) {
+			return;
+		}
+
+		double scale = layoutBound / extent;
+		for (Graphset component : components) {
+			for (Vertex vertex : component.getVertices()) {
+				if (!vertex.isLocked()) {
+					Point3D position = vertex.getPosition();
+					position.setLocation(position.getX() * scale, position.getY() * scale, position.getZ() * scale);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the centre of a component's bounding sphere (its centroid) and the
+	 * distance to its furthest vertex. Positions are summed in QID order so the
+	 * centroid doesn't depend on the order the graphset holds its vertices in.
+	 *
+	 * @return the sphere as {x, y, z, radius}
+	 */
+	private static double[] boundingSphere(Graphset component) {
+		List<Vertex> vertices = component.getVertices().stream().sorted(Comparator.comparing(Vertex::getId)).toList();
+		double cx = 0;
+		double cy = 0;
+		double cz = 0;
+		for (Vertex vertex : vertices) {
+			cx += vertex.getPosition().getX();
+			cy += vertex.getPosition().getY();
+			cz += vertex.getPosition().getZ();
+		}
+		int count = Math.max(1, vertices.size());
+		cx /= count;
+		cy /= count;
+		cz /= count;
+
+		double radiusSq = 0;
+		for (Vertex vertex : vertices) {
+			radiusSq = Math.max(radiusSq, vertex.getPosition().distanceSq(cx, cy, cz));
+		}
+		return new double[] { cx, cy, cz, Math.sqrt(radiusSq) };
+	}
+
+	/**
+	 * Finds the nearest free spot for a sphere of the given radius, trying evenly
+	 * spread directions (a Fibonacci sphere, or a circle in 2D) on successively
+	 * larger shells around the origin until one clears every sphere already
+	 * placed.
+	 *
+	 * @param placed the spheres already placed, as {x, y, z, radius}
+	 * @param origin the sphere the shells are centred on
+	 * @param radius the radius of the sphere to place
+	 * @param planar whether to keep the sphere in the origin's plane
+	 * @return the centre to place the sphere at
+	 */
+	private static double[] findPlacement(List<double[]> placed, double[] origin, double radius, boolean planar) {
+		double gap = componentGap(radius, origin[3]);
+		double distance = origin[3] + radius + gap;
+		double step = 2 * radius + MIN_COMPONENT_GAP;
+		for (int shell = 0; shell < MAX_PACKING_SHELLS; shell++, distance += step) {
+			double spacing = radius + gap;
+			double ratio = distance / spacing;
+			int directions = (int) Math.min(
+				MAX_PACKING_DIRECTIONS,
+				Math.max(8, Math.ceil(planar ? 2 * Math.PI * ratio : 4 * ratio * ratio))
+			);
+			for (int i = 0; i < directions; i++) {
+				double[] center = planar ? planarDirection(i, directions) : sphericalDirection(i, directions);
+				for (int axis = 0; axis < 3; axis++) {
+					center[axis] = origin[axis] + distance * center[axis];
+				}
+				if (isClear(placed, center, radius)) {
+					return center;
+				}
+			}
+		}
+
+		// Every shell tried is full, so place it past the furthest sphere
+		double furthest = 0;
+		for (double[] sphere : placed) {
+			double reach = Point3D.distance(sphere[0], sphere[1], sphere[2], origin[0], origin[1], origin[2]) + sphere[3];
+			furthest = Math.max(furthest, reach);
+		}
+		return new double[] { origin[0] + furthest + radius + gap, origin[1], origin[2] };
+	}
+
+	/**
+	 * The {@code i}th of {@code count} unit vectors spread evenly over a sphere
+	 * (a Fibonacci sphere).
+	 */
+	private static double[] sphericalDirection(int i, int count) {
+		double y = 1 - (2 * (i + 0.5)) / count;
+		double ring = Math.sqrt(1 - y * y);
+		double theta = GOLDEN_ANGLE * i;
+		return new double[] { ring * Math.cos(theta), y, ring * Math.sin(theta) };
+	}
+
+	/**
+	 * The {@code i}th of {@code count} unit vectors spread evenly around a circle
+	 * in the x-y plane.
+	 */
+	private static double[] planarDirection(int i, int count) {
+		double theta = (2 * Math.PI * i) / count;
+		return new double[] { Math.cos(theta), Math.sin(theta), 0 };
+	}
+
+	/**
+	 * Checks whether a sphere at the centre clears every placed sphere by at least
+	 * their gap. The most recently placed spheres are checked first, being the
+	 * most likely to overlap.
+	 */
+	private static boolean isClear(List<double[]> placed, double[] center, double radius) {
+		for (int p = placed.size() - 1; p >= 0; p--) {
+			double[] sphere = placed.get(p);
+			double clearance = radius + sphere[3] + componentGap(radius, sphere[3]);
+			double distanceSq = Point3D.distanceSq(center[0], center[1], center[2], sphere[0], sphere[1], sphere[2]);
+			if (distanceSq < clearance * clearance) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The gap left between two components, growing with their size so large
+	 * components are clearly separated.
+	 */
+	private static double componentGap(double radiusA, double radiusB) {
+		return MIN_COMPONENT_GAP + COMPONENT_GAP_SCALE * (radiusA + radiusB);
+	}
+
+	/**
+	 * Combines the stats of every component laid out into the stats of the whole
+	 * layout, see {@link #getStats()}.
+	 */
+	private LayoutStats combineStats(LayoutStats[] results) {
+		StopReason stopReason = null;
+		int iterations = 0;
+		double energy = 0;
+		double maxDisplacement = 0;
+		for (LayoutStats result : results) {
+			if (result == null) {
+				continue;
+			}
+			if (stopReason == null || result.getStopReason() == StopReason.CANCELLED) {
+				stopReason = result.getStopReason();
+			} else if (result.getStopReason() == StopReason.TIME_BUDGET && stopReason != StopReason.CANCELLED) {
+				stopReason = StopReason.TIME_BUDGET;
+			}
+			iterations = Math.max(iterations, result.getIterations());
+			energy += result.getEnergy();
+			maxDisplacement = Math.max(maxDisplacement, result.getMaxDisplacement());
+		}
+		return new LayoutStats(
+			ENGINE_NAME,
+			// Nothing but single vertices, which have nothing to move
+			stopReason != null ? stopReason : StopReason.CONVERGED,
+			iterations,
+			energy,
+			maxDisplacement
+		);
+	}
+}
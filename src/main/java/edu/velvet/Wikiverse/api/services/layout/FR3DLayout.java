@@ -1,23 +1,69 @@
 package edu.velvet.Wikiverse.api.services.layout;
 
-import com.google.common.base.Function;
-import com.google.common.base.Functions;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import edu.velvet.Wikiverse.api.models.core.Edge;
 import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
 import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
-import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
 import edu.velvet.Wikiverse.api.models.core.RandomPoint3D;
 import edu.velvet.Wikiverse.api.models.core.Vertex;
 import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
-import io.vavr.Tuple2;
 import java.awt.Dimension;
-import javax.annotation.Nonnull;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class FR3DLayout {
 
+	/** Name used to select this engine with {@link LayoutSettings#getLayoutEngine()}. */
+	public static final String ENGINE_NAME = "fr";
+
+	/** Name used to select grid repulsion with {@link LayoutSettings#getRepulsionMode()}. */
+	public static final String GRID_REPULSION = "grid";
+
+	/** Name used to select single precision repulsion with {@link LayoutSettings#getLayoutPrecision()}. */
+	public static final String FLOAT32_PRECISION = "float32";
+
+	/**
+	 * Cutoff radius of grid repulsion, as a multiple of the layout's force
+	 * constant (the ideal edge length)
+	 */
+	private static final double GRID_CUTOFF_SCALE = 2.0;
+
+	/**
+	 * Iterations run, and the factor applied to the starting temperature, when the
+	 * layout starts from a {@link PivotMDS} placement, which only needs refining
+	 * rather than untangling
+	 */
+	static final int PIVOT_MDS_ITERATIONS = 30;
+	private static final double PIVOT_MDS_TEMPERATURE_SCALE = 0.1;
+
+	/**
+	 * GEM sensitivities of the adaptive vertex temperatures, how strongly a
+	 * vertex is warmed or cooled by the angle between its last two moves
+	 * (oscillation) and by how consistently it has been turning (rotation)
+	 */
+	private static final double OSCILLATION_SENSITIVITY = 0.5;
+	private static final double ROTATION_SENSITIVITY = 0.5;
+
+	/**
+	 * How the repulsion between vertices is computed, either as the settings
+	 * select it or pinned by a {@link LayoutEngine}
+	 */
+	enum Repulsion {
+		/** Grid, Barnes-Hut or exact, as selected by the settings. */
+		SETTINGS,
+		/** Exact pairwise repulsion, whatever the graph's size. */
+		EXACT,
+		/** Barnes-Hut approximation, whatever the graph's size. */
+		BARNES_HUT,
+	}
+
 	private final ProcessLogger logger = new ProcessLogger("FR3DLayout.log");
 
 	private final double EPSILON = 0.000001D; // Prevent 0/div errors
@@ -28,75 +74,456 @@ public class FR3DLayout {
 	private final double vertexDensity;
 	private final double repulsionForce;
 	private final double attractionForce;
+
+	/**
+	 * The ideal edge length, {@code sqrt(area / vertices)}, which the attraction
+	 * and repulsion forces are scaled from
+	 */
+	private final double forceConstant;
 	private final int temperatureCurveMultiplier;
 	private final int lockedVertexForceScaler = 2;
 
 	private final Dimension dimensions;
 
 	/**
-	 * Stores the accumulated offset used to find the new position on each iterative
-	 * step through the layout process
+	 * Movement below which an iteration counts as converged, and the number of
+	 * consecutive converged iterations after which the layout stops early (0
+	 * disables convergence detection)
+	 */
+	private final double convergenceThreshold;
+	private final int convergenceIterations;
+	private int convergedIterationCount = 0;
+
+	/**
+	 * Sum of squared vertex movement, and the largest single vertex movement, of
+	 * the most recent iteration
+	 */
+	private double energy = 0.0;
+	private double maxDisplacement = 0.0;
+
+	/**
+	 * Position of each Vertex (by index) after the iteration with the lowest
+	 * energy so far, with that energy and largest movement, returned in place of
+	 * the last positions when the layout stops early, {@code null} until the
+	 * first iteration
+	 */
+	private double[] lowestEnergyX;
+	private double[] lowestEnergyY;
+	private double[] lowestEnergyZ;
+	private double lowestEnergy = Double.POSITIVE_INFINITY;
+	private double lowestEnergyDisplacement = 0.0;
+
+	/**
+	 * {@link System#nanoTime()} after which the layout stops with the best
+	 * positions reached so far, {@link Long#MAX_VALUE} when the layout has no time
+	 * budget
+	 */
+	private long deadlineNanos;
+
+	/**
+	 * Notified after each iteration, {@code null} when nothing is listening
+	 */
+	private LayoutProgressListener progressListener;
+
+	/**
+	 * Name the progress, stats and sampled iterations are reported under
+	 */
+	private String engineName = ENGINE_NAME;
+
+	/**
+	 * Receives sampled iterations, and decides whether each iteration is traced
+	 * to the log
+	 */
+	private LayoutTelemetry telemetry = LayoutTelemetry.DISABLED;
+
+	/**
+	 * Why the layout stopped, {@code null} until it has
+	 */
+	private StopReason stopReason;
+
+	/**
+	 * Barnes-Hut opening angle, and the vertex count at which the approximation
+	 * replaces the exact pairwise repulsion
+	 */
+	private final double barnesHutTheta;
+	private final int barnesHutThreshold;
+
+	/**
+	 * Whether the layout is 2D (when the settings don't prefer 3D), dropping the
+	 * z axis from the positions, forces and clamping
+	 */
+	private final boolean planar;
+
+	/**
+	 * Rebuilt once per iteration when the Barnes-Hut approximation is in use, the
+	 * octree for 3D layouts and the quadtree for 2D layouts (the other is
+	 * {@code null})
+	 */
+	private final BarnesHutOctree octree;
+	private final BarnesHutQuadtree quadtree;
+
+	/**
+	 * Rebuilt once per iteration when grid repulsion is selected, in place of
+	 * either tree, otherwise {@code null}
+	 */
+	private final UniformGrid grid;
+
+	/**
+	 * Number of worker threads used for the repulsion phase, and the movable
+	 * vertex count at which the parallel path is used (smaller graphs stay
+	 * single-threaded)
+	 */
+	private final int parallelism;
+	private final int parallelThreshold;
+
+	/**
+	 * Minimum number of vertices each parallel repulsion task is responsible for
+	 */
+	private static final int MIN_PARALLEL_CHUNK_SIZE = 64;
+
+	/**
+	 * Computes the exact pairwise repulsion, either the scalar or vectorized kernel
+	 * depending on the settings and what the running JVM supports
+	 */
+	private final ForceKernel forceKernel;
+
+	/**
+	 * Single precision copy of the positions and repulsion weights, refreshed at
+	 * the start of each iteration, which the exact repulsion reads when the
+	 * float32 precision is selected (otherwise {@code null})
+	 */
+	private final float[] singleX;
+	private final float[] singleY;
+	private final float[] singleZ;
+	private final float[] singleWeights;
+
+	/**
+	 * Repulsion weight of each Vertex (by index), locked vertices push harder by
+	 * {@code lockedVertexForceScaler}
+	 */
+	private final double[] repulsionWeights;
+
+	/**
+	 * Temperature, unit direction of the last move, and rotation skew of each
+	 * Vertex (by index) when adaptive temperatures are selected (otherwise
+	 * {@code null}), see {@link #adaptVertexTemperature(int, double, double, double)}
+	 */
+	private final double[] vertexTemperatures;
+	private final double[] lastMoveX;
+	private final double[] lastMoveY;
+	private final double[] lastMoveZ;
+	private final double[] rotationSkew;
+
+	/** Highest temperature an adaptive vertex can warm back up to. */
+	private double maxVertexTemperature;
+
+	/**
+	 * Whether each Vertex moves its full displacement capped at its temperature,
+	 * rather than the classic min(sqrt(m), T) / m step, always so with adaptive
+	 * temperatures, see {@link #withDisplacementSteps()}
 	 */
-	LoadingCache<String, Point3D> offsets;
+	private boolean displacementSteps;
 
 	/**
-	 * Stores the position of each Vertex (by QID) in the layout
+	 * Stores the position and accumulated offset of each Vertex (by index) used to
+	 * find the new position on each iterative step through the layout process
 	 */
-	LoadingCache<Vertex, Point3D> locations;
+	final LayoutState state;
 
 	public FR3DLayout(Graphset graph, LayoutSettings layoutSettings) {
+		this(graph, layoutSettings, !layoutSettings.isPrefers3D(), Repulsion.SETTINGS);
+	}
+
+	/**
+	 * Creates a layout of the graphset which overrides how the settings would lay
+	 * it out, used by the {@link LayoutEngines} which pin the plane or the
+	 * repulsion.
+	 *
+	 * @param graph          the graphset to lay out
+	 * @param layoutSettings the settings to lay out with
+	 * @param planar         whether to lay the graphset out in 2D
+	 * @param repulsion      how to compute the repulsion between vertices
+	 */
+	FR3DLayout(Graphset graph, LayoutSettings layoutSettings, boolean planar, Repulsion repulsion) {
+		this(
+			layoutSettings,
+			graph.getVertexCount(),
+			dimensions ->
+				new LayoutState(
+					graph,
+					new RandomPoint3D<>(dimensions, layoutSettings.getSeed().longValue(), Vertex::getId),
+					planar
+				),
+			repulsion
+		);
+		if (PivotMDS.PLACEMENT_NAME.equals(layoutSettings.getInitialPlacement())) {
+			placeByPivotMDS(layoutSettings.getSeed().longValue());
+		}
+	}
+
+	/**
+	 * Creates a layout over an existing {@link LayoutState}, starting from the
+	 * positions it already holds. Used by engines which seed the starting positions
+	 * themselves, e.g. each refinement level of the {@link MultilevelLayout}. The
+	 * layout is 2D if the state is planar.
+	 *
+	 * @param state          the state to lay out, updated in place
+	 * @param layoutSettings the settings to lay out with
+	 */
+	FR3DLayout(LayoutState state, LayoutSettings layoutSettings) {
+		this(state, layoutSettings, Repulsion.SETTINGS);
+	}
+
+	/**
+	 * Creates a layout over an existing {@link LayoutState} which overrides how
+	 * the settings would compute its repulsion, e.g. for a {@link LocalLayout}
+	 * moving too few vertices for a Barnes-Hut tree to pay off.
+	 *
+	 * @param state          the state to lay out, updated in place
+	 * @param layoutSettings the settings to lay out with
+	 * @param repulsion      how to compute the repulsion between vertices
+	 */
+	FR3DLayout(LayoutState state, LayoutSettings layoutSettings, Repulsion repulsion) {
+		this(layoutSettings, state.size, dimensions -> state, repulsion);
+	}
+
+	private FR3DLayout(
+		LayoutSettings layoutSettings,
+		int vertexCount,
+		Function<Dimension, LayoutState> stateFactory,
+		Repulsion repulsion
+	) {
 		// Only update to maxIterations restriction less than 300...
 		if (layoutSettings.getMaxLayoutIterations().intValue() < 300) {
 			this.maxLayoutIterations = layoutSettings.getMaxLayoutIterations().intValue();
 		}
 		this.temperatureCurveMultiplier = layoutSettings.getTemperatureCurveMultiplier().intValue();
 		this.vertexDensity = layoutSettings.getVertexDensity().doubleValue();
+		double theta = layoutSettings.getBarnesHutTheta().doubleValue();
+		this.barnesHutTheta = repulsion == Repulsion.BARNES_HUT && theta <= 0.0
+			? LayoutSettings.DEFAULT_BARNES_HUT_THETA
+			: theta;
+		this.barnesHutThreshold = layoutSettings.getBarnesHutThreshold().intValue();
+		this.parallelism = resolveParallelism(layoutSettings.getLayoutParallelism().intValue());
+		this.parallelThreshold = layoutSettings.getParallelThreshold().intValue();
+		this.convergenceThreshold = layoutSettings.getConvergenceThreshold().doubleValue();
+		this.convergenceIterations = layoutSettings.getConvergenceIterations().intValue();
+		this.deadlineNanos = calculateDeadline(layoutSettings);
 
 		// Initialize computed values (or values which rely on calc/computation)
-		int vertexCount = graph.getVertexCount();
-		this.dimensions = calculateLayoutDimensions(vertexCount);
-		this.offsets = buildOffsetCache();
-		this.locations = buildLocationCache();
+		this.dimensions = calculateLayoutDimensions(vertexCount, vertexDensity);
+		this.state = stateFactory.apply(dimensions);
+		this.planar = state.planar;
+		boolean gridRepulsion =
+			repulsion == Repulsion.SETTINGS && GRID_REPULSION.equals(layoutSettings.getRepulsionMode());
+		boolean barnesHut = switch (repulsion) {
+			case EXACT -> false;
+			case BARNES_HUT -> true;
+			case SETTINGS -> !gridRepulsion && usesBarnesHut(vertexCount);
+		};
+		this.octree = !planar && barnesHut ? new BarnesHutOctree(vertexCount, EPSILON) : null;
+		this.quadtree = planar && barnesHut ? new BarnesHutQuadtree(vertexCount, EPSILON) : null;
+		this.forceKernel = ForceKernel.select(layoutSettings.isVectorizedForces());
+		this.repulsionWeights = new double[state.size];
+		for (int i = 0; i < state.size; i++) {
+			repulsionWeights[i] = state.locked[i] ? lockedVertexForceScaler : 1;
+		}
 
 		// PHYSICAL FORCE THINGS
 		// Initialize temperature based on dimension size, ensuring it's large enough
 		// to allow meaningful movement in early iterations
 		this.temperature = Math.max(dimensions.getHeight() / this.temperatureCurveMultiplier, 10.0);
-		double forceConstant = Math.sqrt((dimensions.getHeight() * dimensions.getWidth()) / vertexCount);
+		this.forceConstant = Math.sqrt((dimensions.getHeight() * dimensions.getWidth()) / vertexCount);
 		this.attractionForce = forceConstant * layoutSettings.getAttractionMultiplier().doubleValue();
 		this.repulsionForce = forceConstant * layoutSettings.getRepulsionMultiplier().doubleValue();
+		this.grid = gridRepulsion
+			? new UniformGrid(vertexCount, forceConstant * GRID_CUTOFF_SCALE, planar, EPSILON)
+			: null;
+
+		// Only the exact repulsion streams every position, so only it reads floats
+		boolean singlePrecision =
+			FLOAT32_PRECISION.equals(layoutSettings.getLayoutPrecision()) && !barnesHut && !gridRepulsion;
+		this.singleX = singlePrecision ? new float[state.size] : null;
+		this.singleY = singlePrecision ? new float[state.size] : null;
+		this.singleZ = singlePrecision && !planar ? new float[state.size] : null;
+		this.singleWeights = singlePrecision ? new float[state.size] : null;
+		if (singlePrecision) {
+			for (int i = 0; i < state.size; i++) {
+				singleWeights[i] = (float) repulsionWeights[i];
+			}
+		}
+
+		boolean adaptive = layoutSettings.isAdaptiveTemperatures();
+		this.vertexTemperatures = adaptive ? new double[state.size] : null;
+		this.lastMoveX = adaptive ? new double[state.size] : null;
+		this.lastMoveY = adaptive ? new double[state.size] : null;
+		this.lastMoveZ = adaptive && !planar ? new double[state.size] : null;
+		this.rotationSkew = adaptive ? new double[state.size] : null;
+		this.displacementSteps = adaptive;
 	}
 
 	/**
 	 * Executes the full 3D force-directed layout for the provided graph.
 	 * <p>
 	 * This method repeatedly applies one layout step by calling
-	 * {@link #stepLayout(Graphset)} until either the layout converges or the
+	 * {@link #stepLayout(ForkJoinPool)} until either the layout converges or the
 	 * maximum
 	 * number of iterations is reached, as defined by {@link #layoutCompleted()}.
 	 * </p>
 	 * <p>
-	 * After completing the layout, all vertex positions in the given
+	 * After completing the layout, all unlocked vertex positions in the given
 	 * {@link Graphset}
-	 * are updated to their final computed locations.
+	 * are updated to their final computed locations, this is the only point at
+	 * which {@link Vertex#getPosition()} is written to.
 	 * </p>
 	 *
 	 * @param graph the {@link Graphset} to arrange; must be non-null and populated
 	 *              with vertices
 	 */
 	public void runLayout(Graphset graph) {
-		while (!layoutCompleted()) {
-			stepLayout(graph);
+		run();
+		state.writePositions();
+	}
+
+	/**
+	 * Gets the stats describing how this layout finished.
+	 *
+	 * @return the layout stats, with a {@code null} stop reason if the layout
+	 *         hasn't run
+	 */
+	public LayoutStats getStats() {
+		return new LayoutStats(engineName, stopReason, iterationCount, energy, maxDisplacement);
+	}
+
+	/**
+	 * Limits this layout to a short, cooler run, used to refine positions which
+	 * are already close to their final location instead of laying out from
+	 * scratch.
+	 *
+	 * @param iterations       the maximum number of iterations to run
+	 * @param temperatureScale the factor applied to the starting temperature
+	 * @return this layout
+	 */
+	FR3DLayout refine(int iterations, double temperatureScale) {
+		this.maxLayoutIterations = Math.min(maxLayoutIterations, iterations);
+		this.temperature *= temperatureScale;
+		return this;
+	}
+
+	/**
+	 * Moves every unlocked vertex to its {@link PivotMDS} position, then limits the
+	 * layout to a short, cool run so it refines the placement instead of
+	 * scattering it. Graphs too small to embed keep their random positions and
+	 * run a full layout.
+	 *
+	 * @param seed the seed the embedding is derived from
+	 */
+	private void placeByPivotMDS(long seed) {
+		if (new PivotMDS(state, PivotMDS.DEFAULT_PIVOTS, seed).place(forceConstant)) {
+			refine(PIVOT_MDS_ITERATIONS, PIVOT_MDS_TEMPERATURE_SCALE);
 		}
+	}
 
-		graph
-			.getVertices()
-			.forEach((Vertex v) -> {
-				Point3D newPosition = locations.getIfPresent(v);
-				if (newPosition != null) {
-					v.getPosition().setLocation(locations.getIfPresent(v));
-				}
-			});
+	/**
+	 * Reports the progress of this layout to the listener after each iteration.
+	 *
+	 * @param progressListener the listener to notify, or {@code null} to stop
+	 *                         reporting progress
+	 * @return this layout
+	 */
+	public FR3DLayout withProgressListener(LayoutProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Reports this layout under the name of the engine running it, in its
+	 * progress, stats and sampled iterations, rather than as {@value #ENGINE_NAME}.
+	 *
+	 * @param engineName the name of the engine running this layout
+	 * @return this layout
+	 */
+	FR3DLayout withEngineName(String engineName) {
+		this.engineName = engineName;
+		return this;
+	}
+
+	/**
+	 * Moves each Vertex by its full displacement, capped at the global
+	 * temperature, the step rule adaptive temperatures use. Lets the benchmarks
+	 * tell the gain of the step rule apart from that of the temperatures.
+	 *
+	 * @return this layout
+	 */
+	FR3DLayout withDisplacementSteps() {
+		this.displacementSteps = true;
+		return this;
+	}
+
+	/**
+	 * Publishes the sampled iterations of this layout to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this layout
+	 */
+	FR3DLayout withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry != null ? telemetry : LayoutTelemetry.DISABLED;
+		return this;
+	}
+
+	/**
+	 * Shares a deadline with other layouts, used by engines which run several
+	 * layouts under the one time budget.
+	 *
+	 * @param deadlineNanos the {@link System#nanoTime()} after which to stop
+	 * @return this layout
+	 */
+	FR3DLayout withDeadline(long deadlineNanos) {
+		this.deadlineNanos = deadlineNanos;
+		return this;
+	}
+
+	/**
+	 * Calculates the deadline of a layout starting now from the time budget in the
+	 * settings.
+	 *
+	 * @param layoutSettings the settings holding the time budget
+	 * @return the {@link System#nanoTime()} after which the layout should stop, or
+	 *         {@link Long#MAX_VALUE} when there is no time budget
+	 */
+	static long calculateDeadline(LayoutSettings layoutSettings) {
+		long budgetMillis = layoutSettings.getLayoutTimeBudgetMillis().longValue();
+		if (budgetMillis <= 0) {
+			return Long.MAX_VALUE;
+		}
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+	}
+
+	/**
+	 * Runs the layout to completion, leaving the result in the {@link LayoutState}
+	 * without writing it back to the vertices.
+	 */
+	void run() {
+		if (vertexTemperatures != null) {
+			// Every vertex starts from, and never warms above, the (possibly refined)
+			// global temperature
+			Arrays.fill(vertexTemperatures, temperature);
+			maxVertexTemperature = temperature;
+		}
+		ForkJoinPool pool = usesParallelRepulsion() ? new ForkJoinPool(parallelism) : null;
+		try {
+			while (!layoutCompleted()) {
+				stepLayout(pool);
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		if (stopReason == StopReason.TIME_BUDGET || stopReason == StopReason.CANCELLED) {
+			restoreLowestEnergyPositions();
+		}
 	}
 
 	@Override
@@ -106,14 +533,24 @@ public class FR3DLayout {
 		sb.append("iterationCount=").append(iterationCount).append(", ");
 		sb.append("maxLayoutIterations=").append(maxLayoutIterations).append(", ");
 		sb.append("temperature=").append(temperature).append(", ");
+		sb.append("adaptiveTemperatures=").append(vertexTemperatures != null).append(", ");
+		sb.append("energy=").append(energy).append(", ");
+		sb.append("maxDisplacement=").append(maxDisplacement).append(", ");
+		sb.append("convergedIterations=").append(convergedIterationCount).append(", ");
 		sb.append("vertexDensity=").append(vertexDensity).append(", ");
 		sb.append("repulsionForce=").append(repulsionForce).append(", ");
 		sb.append("attractionForce=").append(attractionForce).append(", ");
 		sb.append("temperatureCurveMultiplier=").append(temperatureCurveMultiplier).append(", ");
 		sb.append("lockedVertexForceScaler=").append(lockedVertexForceScaler).append(", ");
 		sb.append("dimensions=").append(dimensions).append(", ");
-		sb.append("offsets size=").append(offsets != null ? offsets.size() : "null").append(", ");
-		sb.append("locations size=").append(locations != null ? locations.size() : "null");
+		sb.append("planar=").append(planar).append(", ");
+		boolean barnesHut = octree != null || quadtree != null;
+		sb.append("barnesHut=").append(barnesHut ? "theta=" + barnesHutTheta : "off").append(", ");
+		sb.append("grid=").append(grid != null ? "cutoff=" + grid.getCellSize() : "off").append(", ");
+		sb.append("forceKernel=").append(forceKernel.getName()).append(", ");
+		sb.append("precision=").append(singleX != null ? FLOAT32_PRECISION : "double").append(", ");
+		sb.append("parallelism=").append(usesParallelRepulsion() ? parallelism : 1).append(", ");
+		sb.append("vertexCount=").append(state.size());
 		sb.append("}");
 		return sb.toString();
 	}
@@ -144,52 +581,48 @@ public class FR3DLayout {
 	 * temperature thresholds.
 	 * </p>
 	 *
+	 * @param vertexCount   the number of vertices being laid out
+	 * @param vertexDensity the configured vertex density
 	 * @return a {@link Dimension} object representing the calculated width and
 	 *         height for
 	 *         the layout space.
 	 */
-	private Dimension calculateLayoutDimensions(int vertexCount) {
+	static Dimension calculateLayoutDimensions(int vertexCount, double vertexDensity) {
 		// Use a default size in cases which would otherwise cause bad calculations
 		if (vertexCount <= 1) {
 			return new Dimension(300, 300);
 		}
 
-		double targetArea = Math.pow(vertexCount, 3) / this.vertexDensity;
+		double targetArea = Math.pow(vertexCount, 3) / vertexDensity;
 		int sideLength = ((int) Math.sqrt(targetArea));
 
 		return new Dimension(sideLength, sideLength);
 	}
 
 	/**
-	 * Updates the offset of the given vertex by applying the specified deltas in
-	 * each dimension,
-	 * scaled by the provided factor.
+	 * Updates the offset of the vertex at the given index by applying the specified
+	 * deltas in each dimension, scaled by the provided factor.
 	 *
 	 * <p>
-	 * This method modifies the current offset position of the vertex in
-	 * three-dimensional space.
 	 * The deltas {@code dx}, {@code dy}, and {@code dz} are each multiplied by the
-	 * {@code scale}
-	 * factor, and the results are added to the current X, Y, and Z coordinates of
-	 * the vertex's offset,
-	 * respectively. The updated offset is set in-place.
+	 * {@code scale} factor, and the results are added to the vertex's accumulated
+	 * displacement. Locked vertices are never offset.
 	 * </p>
 	 *
-	 * @param v     the vertex whose offset is to be updated
+	 * @param i     the layout index of the vertex whose offset is to be updated
 	 * @param dx    the change in the X coordinate (before scaling)
 	 * @param dy    the change in the Y coordinate (before scaling)
 	 * @param dz    the change in the Z coordinate (before scaling)
 	 * @param scale the factor by which to scale the deltas before applying
 	 */
-	private void updateOffset(Vertex v, double dx, double dy, double dz, double scale) {
-		if (!v.isLocked()) {
+	private void updateOffset(int i, double dx, double dy, double dz, double scale) {
+		if (!state.locked[i]) {
 			// Only update the offset if the provided Vertex is not locked...
-			Point3D currentOffset = offsets.getUnchecked(v.getId());
-			double nX = currentOffset.getX() + (scale * dx);
-			double nY = currentOffset.getY() + (scale * dy);
-			double nZ = currentOffset.getZ() + (scale * dz);
-
-			currentOffset.setLocation(nX, nY, nZ);
+			state.dx[i] += scale * dx;
+			state.dy[i] += scale * dy;
+			if (!planar) {
+				state.dz[i] += scale * dz;
+			}
 		}
 	}
 
@@ -217,83 +650,65 @@ public class FR3DLayout {
 	}
 
 	/**
-	 * Initializes the offset cache for vertices in the layout.
-	 * <p>
-	 * This method constructs a Guava Cache that maps vertex IDs (as Strings) to
-	 * their current
-	 * offset values (as {@link Point3D} objects). The cache loader returns a new
-	 * {@code Point3D}
-	 * object for each previously unseen vertex ID. This structure is used
-	 * throughout the layout
-	 * algorithm to efficiently retrieve and update each vertex's offset from its
-	 * initial position,
-	 * enabling incremental position adjustments during force-directed iterations.
-	 * </p>
-	 *
-	 * @return
+	 * Copies the positions reached by the last iteration when its energy is the
+	 * lowest so far, to be returned should the layout stop early.
 	 */
-	private LoadingCache<String, Point3D> buildOffsetCache() {
-		return CacheBuilder.newBuilder().build(
-				new CacheLoader<String, Point3D>() {
-					@Override
-					public Point3D load(@Nonnull String QID) {
-						return new Point3D();
-					}
-				}
-			);
+	private void keepLowestEnergyPositions() {
+		if (energy >= lowestEnergy) {
+			return;
+		}
+		if (lowestEnergyX == null) {
+			lowestEnergyX = new double[state.size];
+			lowestEnergyY = new double[state.size];
+			lowestEnergyZ = planar ? null : new double[state.size];
+		}
+		System.arraycopy(state.x, 0, lowestEnergyX, 0, state.size);
+		System.arraycopy(state.y, 0, lowestEnergyY, 0, state.size);
+		if (!planar) {
+			System.arraycopy(state.z, 0, lowestEnergyZ, 0, state.size);
+		}
+		lowestEnergy = energy;
+		lowestEnergyDisplacement = maxDisplacement;
 	}
 
 	/**
-	 * Initializes the location cache for all vertices in the layout.
-	 * <p>
-	 * This method constructs a Guava LoadingCache that maps each {@link Vertex} to
-	 * its current
-	 * {@link Point3D} position in the layout. Positions are generated as follows:
-	 * <ul>
-	 * <li>If a vertex is locked and has a predefined position, that position is
-	 * used.</li>
-	 * <li>Otherwise, a new random position is generated for the vertex within the
-	 * layout's
-	 * dimensions using {@link RandomPoint3D}.</li>
-	 * </ul>
-	 * The returned positions are defensive clones to ensure immutability for cache
-	 * retrievals.
-	 * <p>
-	 * This cache structure is essential to efficiently initialize, access, and
-	 * reuse positions
-	 * for all vertices across layout steps, supporting both deterministic and
-	 * randomly seeded
-	 * initial configurations.
-	 * </p>
-	 *
-	 * @return
-	 */
-	private LoadingCache<Vertex, Point3D> buildLocationCache() {
-		Function<Vertex, Point3D> pointRandomizer = new RandomPoint3D<>(dimensions);
-		Function<Vertex, Point3D> chain = Functions.<Vertex, Point3D, Point3D>compose(
-			(Point3D input) -> (Point3D) input.clone(),
-			(Vertex v) -> {
-				if (v.isLocked() && v.getPosition() != null) {
-					return v.getPosition();
-				} else {
-					return pointRandomizer.apply(v);
-				}
-			}
-		);
-		return CacheBuilder.newBuilder().build(CacheLoader.from(chain));
+	 * Puts back the positions of the lowest-energy iteration when the layout
+	 * stopped on its time budget or was cancelled, as a cut short cooling curve
+	 * can leave the last iteration further from settled than an earlier one. The
+	 * stats then report the energy and largest movement of that iteration.
+	 */
+	private void restoreLowestEnergyPositions() {
+		if (lowestEnergyX == null || lowestEnergy >= energy) {
+			return;
+		}
+		System.arraycopy(lowestEnergyX, 0, state.x, 0, state.size);
+		System.arraycopy(lowestEnergyY, 0, state.y, 0, state.size);
+		if (!planar) {
+			System.arraycopy(lowestEnergyZ, 0, state.z, 0, state.size);
+		}
+		energy = lowestEnergy;
+		maxDisplacement = lowestEnergyDisplacement;
 	}
 
 	/**
 	 * Determines whether the layout algorithm has completed its execution.
 	 * <p>
-	 * The layout is considered complete if the number of iterations exceeds the
+	 * The layout is considered complete if no vertex has moved more than
+	 * {@code convergenceThreshold} for {@code convergenceIterations} consecutive
+	 * iterations, if the number of iterations exceeds the
 	 * maximum allowed
 	 * ({@code maxLayoutIterations}), or if the current temperature has cooled down
 	 * below
 	 * a minimal threshold. The threshold is set to a small fixed value (0.01) to
 	 * ensure
 	 * the layout runs for a reasonable number of iterations regardless of dimension
-	 * size.
+	 * size. Finally a layout with a time budget stops once its deadline has
+	 * passed, and any layout stops once its thread has been interrupted, leaving
+	 * the positions of the lowest-energy iteration so far (see
+	 * {@link #restoreLowestEnergyPositions()}).
+	 * </p>
+	 * <p>
+	 * Once complete, the reason is recorded in {@code stopReason}.
 	 * </p>
 	 *
 	 * @return {@code true} if the layout is finished, {@code false} otherwise.
@@ -302,7 +717,18 @@ public class FR3DLayout {
 		// Use a fixed small threshold instead of dimension-based threshold
 		// to prevent premature convergence with small dimensions
 		final double MIN_TEMPERATURE_THRESHOLD = 0.01;
-		return iterationCount > maxLayoutIterations || temperature <= MIN_TEMPERATURE_THRESHOLD;
+		if (convergenceIterations > 0 && convergedIterationCount >= convergenceIterations) {
+			stopReason = StopReason.CONVERGED;
+		} else if (iterationCount > maxLayoutIterations) {
+			stopReason = StopReason.MAX_ITERATIONS;
+		} else if (temperature <= MIN_TEMPERATURE_THRESHOLD) {
+			stopReason = StopReason.MIN_TEMPERATURE;
+		} else if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0) {
+			stopReason = StopReason.TIME_BUDGET;
+		} else if (Thread.currentThread().isInterrupted()) {
+			stopReason = StopReason.CANCELLED;
+		}
+		return stopReason != null;
 	}
 
 	/**
@@ -313,75 +739,115 @@ public class FR3DLayout {
 	 * <ol>
 	 * <li><b>Repulsion Calculation:</b> For each vertex in the graph that is not
 	 * locked and has been fetched,
-	 * computes the repulsive force offsets from all other vertices.</li>
+	 * computes the repulsive force offsets from all other vertices. Larger graphs
+	 * rebuild the {@link BarnesHutOctree} (or {@link BarnesHutQuadtree} in 2D)
+	 * first and approximate distant
+	 * vertices, while grid repulsion rebuilds the {@link UniformGrid} and skips
+	 * vertices past the cutoff radius. Either is split across the {@code pool}
+	 * when one is provided.</li>
 	 * <li><b>Attraction Calculation:</b> For each edge in the graph, computes the
 	 * attractive force offsets
-	 * between connected vertices.</li>
+	 * between connected vertices, walking the edge index resolved when the layout
+	 * was constructed.</li>
 	 * <li><b>Position Update:</b> For each vertex that is not locked and has been
 	 * fetched, updates its
 	 * accumulated position offset according to the previously calculated forces and
-	 * current temperature.</li>
+	 * current temperature, tracking the energy and largest movement of the step
+	 * for convergence detection, and keeping the positions should this be the
+	 * lowest-energy step so far.</li>
 	 * <li><b>Temperature Cooling:</b> Updates the layout temperature to gradually
-	 * reduce movement over iterations.</li>
+	 * reduce movement over iterations. With adaptive temperatures each vertex is
+	 * also warmed or cooled by how it moved, see
+	 * {@link #adaptVertexTemperature(int, double, double, double)}.</li>
 	 * </ol>
-	 * Steps are executed in retries to ensure resilient processing in the event of
-	 * transient exceptions;
-	 * exceptions during each phase are caught and re-tried until success within
-	 * their respective loops.
+	 * All reads and writes go through the {@link LayoutState} arrays, which are
+	 * indexed once when the layout is constructed.
 	 * <p>
-	 * The {@code iterationCount} is incremented at the start of each step.
+	 * The {@code iterationCount} is incremented at the start of each step, and the
+	 * {@code progressListener} (if any) is notified at the end. Sampled iterations,
+	 * with the time spent in each phase, are recorded by the {@link LayoutTelemetry},
+	 * and the full state of the layout is only logged when it is tracing.
 	 *
-	 * @param graph the graph whose vertices and edges are to be laid out in the
-	 *              current iteration
+	 * @param pool  the pool to run the repulsion phase on, or {@code null} to run
+	 *              it on the calling thread
 	 */
-	private void stepLayout(Graphset graph) {
+	private void stepLayout(ForkJoinPool pool) {
+		long stepStart = System.nanoTime();
 		iterationCount++;
+		state.clearDisplacements();
 
 		// Repulsion Calc's
-		while (true) {
-			try {
-				for (Vertex v : graph.getVertices()) {
-					if (v.isLocked() || !v.isFetched()) {
-						// Vertex is either locked or unfetched, and shouldn't be included
-						continue;
-					}
-					calculateRepulsionOffsets(v, graph);
+		if (octree != null) {
+			rebuildOctree();
+		} else if (quadtree != null) {
+			rebuildQuadtree();
+		} else if (grid != null) {
+			grid.rebuild(state.x, state.y, state.z, repulsionWeights, state.size);
+		} else if (singleX != null) {
+			copySinglePrecisionPositions();
+		}
+		if (pool != null) {
+			calculateParallelRepulsionOffsets(pool);
+		} else {
+			double[] displacement = new double[3];
+			for (int i = 0; i < state.size; i++) {
+				if (!state.movable[i]) {
+					// Vertex is either locked or unfetched, and shouldn't be included
+					continue;
 				}
-				break;
-			} catch (Exception e) {
-				// Ignore and continue...
+				calculateRepulsion(i, displacement);
+				updateOffset(i, displacement[0], displacement[1], displacement[2], 1);
 			}
 		}
 
 		// Attraction Calc's
-		while (true) {
-			try {
-				for (Edge e : graph.getEdges()) {
-					calculateAttractionOffsets(e, graph);
-				}
-				break;
-			} catch (Exception e) {
-				// Ignore and continue...
-			}
+		long attractionStart = System.nanoTime();
+		for (int e = 0; e < state.edgeCount; e++) {
+			calculateAttractionOffsets(state.edges[2 * e], state.edges[2 * e + 1]);
 		}
 
 		// Position Updates
-		while (true) {
-			try {
-				for (Vertex v : graph.getVertices()) {
-					if (v.isLocked() || !v.isFetched()) {
-						// Vertex is locked or unfetched, shouldn't be updated...
-						continue;
-					}
-					accumulatePositionOffsets(v);
-				}
-				break;
-			} catch (Exception e) {
-				// Ignore and continue
+		long positionStart = System.nanoTime();
+		energy = 0.0;
+		maxDisplacement = 0.0;
+		for (int i = 0; i < state.size; i++) {
+			if (!state.movable[i]) {
+				// Vertex is locked or unfetched, shouldn't be updated...
+				continue;
 			}
+			accumulatePositionOffsets(i);
 		}
+		convergedIterationCount = maxDisplacement < convergenceThreshold ? convergedIterationCount + 1 : 0;
+		keepLowestEnergyPositions();
 		updateLayoutTemperature();
-		logger.logInfo(this.toString());
+		long stepEnd = System.nanoTime();
+
+		if (telemetry.isTracing()) {
+			logger.logInfo(this.toString());
+		}
+		boolean sampled = telemetry.isSampled(iterationCount);
+		if (progressListener == null && !sampled) {
+			return;
+		}
+		LayoutProgress progress = new LayoutProgress(
+			engineName,
+			iterationCount,
+			maxLayoutIterations,
+			temperature,
+			energy,
+			maxDisplacement
+		);
+		if (sampled) {
+			telemetry.recordIteration(
+				progress,
+				attractionStart - stepStart,
+				positionStart - attractionStart,
+				stepEnd - positionStart
+			);
+		}
+		if (progressListener != null) {
+			progressListener.onProgress(progress, state);
+		}
 	}
 
 	/**
@@ -427,63 +893,385 @@ public class FR3DLayout {
 	// *===========================================================================>
 	// *===========================================================================>
 
-	private void calculateRepulsionOffsets(Vertex v1, Graphset graph) {
-		Point3D offset = offsets.getUnchecked(v1.getId());
-		offset.reset(); // Reset offset to 0 at top of calculations...
+	/**
+	 * Calculates the repulsion acting on a single vertex into {@code out}, using
+	 * the octree (or quadtree) when the Barnes-Hut approximation is in use, or the
+	 * grid when grid repulsion is selected. This
+	 * only reads the shared layout state, so it can safely be called from any
+	 * repulsion worker.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion for
+	 * @param out an array of length 3, overwritten with the x, y, z displacement
+	 *            (z is always 0 in 2D)
+	 */
+	private void calculateRepulsion(int v1, double[] out) {
+		out[0] = 0.0;
+		out[1] = 0.0;
+		out[2] = 0.0;
+		if (octree != null) {
+			calculateApproximateRepulsionOffsets(v1, out);
+		} else if (quadtree != null) {
+			calculateApproximatePlanarRepulsionOffsets(v1, out);
+		} else if (grid != null) {
+			calculateGridRepulsionOffsets(v1, out);
+		} else {
+			calculateRepulsionOffsets(v1, out);
+		}
+	}
 
+	/**
+	 * Sums the exact repulsion acting on the vertex from every other vertex using
+	 * the configured {@link ForceKernel}.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion offset
+	 *            for
+	 * @param out an array of length 3, the x, y, z displacement is added to its
+	 *            contents
+	 */
+	private void calculateRepulsionOffsets(int v1, double[] out) {
+		if (singleX != null) {
+			calculateSinglePrecisionRepulsionOffsets(v1, out);
+			return;
+		}
 		try {
-			for (Vertex v2 : graph.getVertices()) {
-				if (v1.equals(v2)) {
-					// Do not evaluate against self...
-					continue;
-				}
+			if (planar) {
+				forceKernel.accumulatePlanarRepulsion(
+					state.x,
+					state.y,
+					repulsionWeights,
+					state.size,
+					v1,
+					repulsionForce * repulsionForce,
+					EPSILON,
+					out
+				);
+				return;
+			}
+			forceKernel.accumulateRepulsion(
+				state.x,
+				state.y,
+				state.z,
+				repulsionWeights,
+				state.size,
+				v1,
+				repulsionForce * repulsionForce,
+				EPSILON,
+				out
+			);
+		} catch (Exception e) {
+			logger.logError("calculateRepulsionOffsets()", e);
+		}
+	}
+
+	/**
+	 * Sums the exact repulsion acting on the vertex from every other vertex in
+	 * single precision, reading the positions copied at the start of the
+	 * iteration.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion offset
+	 *            for
+	 * @param out an array of length 3, the x, y, z displacement is added to its
+	 *            contents
+	 */
+	private void calculateSinglePrecisionRepulsionOffsets(int v1, double[] out) {
+		float forceSq = (float) (repulsionForce * repulsionForce);
+		try {
+			if (planar) {
+				forceKernel.accumulatePlanarRepulsion(
+					singleX,
+					singleY,
+					singleWeights,
+					state.size,
+					v1,
+					forceSq,
+					(float) EPSILON,
+					out
+				);
+				return;
+			}
+			forceKernel.accumulateRepulsion(
+				singleX,
+				singleY,
+				singleZ,
+				singleWeights,
+				state.size,
+				v1,
+				forceSq,
+				(float) EPSILON,
+				out
+			);
+		} catch (Exception e) {
+			logger.logError("calculateSinglePrecisionRepulsionOffsets()", e);
+		}
+	}
+
+	/**
+	 * Copies the current positions into the single precision arrays read by the
+	 * float32 exact repulsion.
+	 */
+	private void copySinglePrecisionPositions() {
+		for (int i = 0; i < state.size; i++) {
+			singleX[i] = (float) state.x[i];
+			singleY[i] = (float) state.y[i];
+			if (singleZ != null) {
+				singleZ[i] = (float) state.z[i];
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the Barnes-Hut approximation should be used for a graph
+	 * of the given size, small graphs (or a theta of 0) use the exact pairwise
+	 * repulsion.
+	 *
+	 * @param vertexCount the number of vertices being laid out
+	 * @return {@code true} if repulsion should be approximated
+	 */
+	private boolean usesBarnesHut(int vertexCount) {
+		return barnesHutTheta > 0.0 && vertexCount >= barnesHutThreshold;
+	}
 
-				Point3D p1 = locations.getUnchecked(v1);
-				Point3D p2 = locations.getUnchecked(v2);
+	/**
+	 * Rebuilds the {@link BarnesHutOctree} from the current vertex positions. Each
+	 * vertex is inserted using its layout index, and locked vertices are weighted
+	 * by {@code lockedVertexForceScaler} to match the exact repulsion.
+	 */
+	private void rebuildOctree() {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
 
-				double deltaDistanceSq = Math.max(EPSILON, p1.distanceSq(p2));
-				double deltaDistance = Math.sqrt(deltaDistanceSq);
+		for (int i = 0; i < state.size; i++) {
+			minX = Math.min(minX, state.x[i]);
+			minY = Math.min(minY, state.y[i]);
+			minZ = Math.min(minZ, state.z[i]);
+			maxX = Math.max(maxX, state.x[i]);
+			maxY = Math.max(maxY, state.y[i]);
+			maxZ = Math.max(maxZ, state.z[i]);
+		}
 
-				double force = (repulsionForce * repulsionForce) / deltaDistanceSq;
+		octree.reset(minX, minY, minZ, maxX, maxY, maxZ);
+		for (int i = 0; i < state.size; i++) {
+			octree.insert(i, state.x[i], state.y[i], state.z[i], repulsionWeights[i]);
+		}
+	}
 
-				if (Double.isNaN(force)) {
-					throw new RuntimeException("calculateRepulsionOffsets() found NaN value for: force");
-				}
+	/**
+	 * Rebuilds the {@link BarnesHutQuadtree} from the current vertex positions, the
+	 * 2D counterpart of {@link #rebuildOctree()}.
+	 */
+	private void rebuildQuadtree() {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
 
-				// Calculate normalized direction vector from v2 to v1 (repulsion pushes v1 away
-				// from v2)
-				double xDisplacement = ((p1.getX() - p2.getX()) / deltaDistance) * force;
-				double yDisplacement = ((p1.getY() - p2.getY()) / deltaDistance) * force;
-				double zDisplacement = ((p1.getZ() - p2.getZ()) / deltaDistance) * force;
+		for (int i = 0; i < state.size; i++) {
+			minX = Math.min(minX, state.x[i]);
+			minY = Math.min(minY, state.y[i]);
+			maxX = Math.max(maxX, state.x[i]);
+			maxY = Math.max(maxY, state.y[i]);
+		}
+
+		quadtree.reset(minX, minY, maxX, maxY);
+		for (int i = 0; i < state.size; i++) {
+			quadtree.insert(i, state.x[i], state.y[i], repulsionWeights[i]);
+		}
+	}
+
+	/**
+	 * Barnes-Hut counterpart to {@link #calculateRepulsionOffsets(int, double[])}
+	 * which sums the repulsion acting on the vertex using the octree built at the
+	 * top of this iteration.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion offset
+	 *            for
+	 * @param out an array of length 3, the x, y, z displacement is added to its
+	 *            contents
+	 */
+	private void calculateApproximateRepulsionOffsets(int v1, double[] out) {
+		try {
+			octree.accumulateRepulsion(
+				v1,
+				state.x[v1],
+				state.y[v1],
+				state.z[v1],
+				barnesHutTheta,
+				repulsionForce * repulsionForce,
+				out
+			);
 
-				// If other Vertex is locked push harder...
-				int updateScaler = v2.isLocked() ? lockedVertexForceScaler : 1;
-				updateOffset(v1, xDisplacement, yDisplacement, zDisplacement, updateScaler);
+			if (Double.isNaN(out[0]) || Double.isNaN(out[1]) || Double.isNaN(out[2])) {
+				throw new RuntimeException("calculateApproximateRepulsionOffsets() found NaN value for: displacement");
 			}
 		} catch (Exception e) {
-			logger.logError("calculateRepulsionOffsets()", e);
-			// Redo Calculation ?
-			// calculateRepulsionOffsets(v1, graph);
+			logger.logError("calculateApproximateRepulsionOffsets()", e);
 		}
 	}
 
-	// *===========================================================================>
-	// *===========================================================================>
-	private void calculateAttractionOffsets(Edge e, Graphset graph) {
-		Tuple2<Vertex, Vertex> endpoints = graph.getEndpoints(e);
-		Vertex sV = endpoints._1();
-		Vertex tV = endpoints._2();
+	/**
+	 * 2D counterpart to {@link #calculateApproximateRepulsionOffsets(int, double[])}
+	 * using the quadtree built at the top of this iteration.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion offset
+	 *            for
+	 * @param out an array of length 3, the x, y displacement is added to its
+	 *            contents
+	 */
+	private void calculateApproximatePlanarRepulsionOffsets(int v1, double[] out) {
+		try {
+			quadtree.accumulateRepulsion(
+				v1,
+				state.x[v1],
+				state.y[v1],
+				barnesHutTheta,
+				repulsionForce * repulsionForce,
+				out
+			);
 
-		// Skip if either endpoint is null...
-		if (sV == null || tV == null) {
-			return;
+			if (Double.isNaN(out[0]) || Double.isNaN(out[1])) {
+				throw new RuntimeException(
+					"calculateApproximatePlanarRepulsionOffsets() found NaN value for: displacement"
+				);
+			}
+		} catch (Exception e) {
+			logger.logError("calculateApproximatePlanarRepulsionOffsets()", e);
 		}
+	}
 
+	/**
+	 * Grid counterpart to {@link #calculateRepulsionOffsets(int, double[])} which
+	 * only sums the repulsion from the vertices within the cutoff radius, found
+	 * through the grid built at the top of this iteration.
+	 *
+	 * @param v1  the layout index of the vertex to calculate the repulsion offset
+	 *            for
+	 * @param out an array of length 3, the x, y, z displacement is added to its
+	 *            contents
+	 */
+	private void calculateGridRepulsionOffsets(int v1, double[] out) {
 		try {
-			Point3D p1 = locations.getUnchecked(sV);
-			Point3D p2 = locations.getUnchecked(tV);
+			grid.accumulateRepulsion(
+				v1,
+				state.x[v1],
+				state.y[v1],
+				state.getZ(v1),
+				repulsionForce * repulsionForce,
+				out
+			);
+
+			if (Double.isNaN(out[0]) || Double.isNaN(out[1]) || Double.isNaN(out[2])) {
+				throw new RuntimeException("calculateGridRepulsionOffsets() found NaN value for: displacement");
+			}
+		} catch (Exception e) {
+			logger.logError("calculateGridRepulsionOffsets()", e);
+		}
+	}
+
+	/**
+	 * Resolves the requested parallelism, where any value below 1 uses every
+	 * available processor.
+	 *
+	 * @param requested the requested number of worker threads
+	 * @return the number of worker threads to use, at least 1
+	 */
+	static int resolveParallelism(int requested) {
+		return requested < 1 ? Runtime.getRuntime().availableProcessors() : requested;
+	}
+
+	/**
+	 * Determines whether the repulsion phase should be split across a
+	 * {@link ForkJoinPool}, only layouts moving at least the parallel threshold of
+	 * vertices with a parallelism greater than 1 are. Vertices which don't move
+	 * have no repulsion calculated for them, so a large graph with only a few
+	 * movable vertices (e.g. a {@link LocalLayout}) stays single-threaded.
+	 *
+	 * @return {@code true} if repulsion should run in parallel
+	 */
+	private boolean usesParallelRepulsion() {
+		return parallelism > 1 && state.size >= parallelThreshold && state.movableCount() >= parallelThreshold;
+	}
+
+	/**
+	 * Splits the repulsion phase into contiguous chunks of vertices and runs each
+	 * as a {@link RepulsionTask} on the provided pool. Each task accumulates into
+	 * its own displacement buffer, once every task has finished the buffers are
+	 * reduced into the layout state on the calling thread, before
+	 * {@link #accumulatePositionOffsets(int)} reads them.
+	 *
+	 * @param pool the pool to run the repulsion tasks on
+	 */
+	private void calculateParallelRepulsionOffsets(ForkJoinPool pool) {
+		int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, state.size / (parallelism * 4) + 1);
+		List<RepulsionTask> tasks = new ArrayList<>();
+		for (int from = 0; from < state.size; from += chunkSize) {
+			RepulsionTask task = new RepulsionTask(from, Math.min(state.size, from + chunkSize));
+			tasks.add(task);
+			pool.execute(task);
+		}
+
+		for (RepulsionTask task : tasks) {
+			task.join();
+			task.reduce();
+		}
+	}
+
+	/**
+	 * Calculates the repulsion for a contiguous range of vertex indices into a
+	 * displacement buffer owned by the task, so workers never write to the shared
+	 * layout state.
+	 */
+	private final class RepulsionTask extends RecursiveAction {
 
-			double deltaDistanceSq = Math.max(EPSILON, p1.distanceSq(p2));
+		private final int from;
+		private final int to;
+		private final double[] buffer;
+
+		RepulsionTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+			this.buffer = new double[(to - from) * 3];
+		}
+
+		@Override
+		protected void compute() {
+			double[] displacement = new double[3];
+			for (int i = from; i < to; i++) {
+				if (!state.movable[i]) {
+					continue;
+				}
+				calculateRepulsion(i, displacement);
+				int offset = (i - from) * 3;
+				buffer[offset] = displacement[0];
+				buffer[offset + 1] = displacement[1];
+				buffer[offset + 2] = displacement[2];
+			}
+		}
+
+		/**
+		 * Adds this task's displacement buffer into the layout state.
+		 */
+		void reduce() {
+			for (int i = from; i < to; i++) {
+				int offset = (i - from) * 3;
+				updateOffset(i, buffer[offset], buffer[offset + 1], buffer[offset + 2], 1);
+			}
+		}
+	}
+
+	// *===========================================================================>
+	// *===========================================================================>
+	/**
+	 * Calculates the attraction between the two endpoints of an edge, pulling each
+	 * toward the other.
+	 *
+	 * @param s the layout index of the edge's source vertex
+	 * @param t the layout index of the edge's target vertex
+	 */
+	private void calculateAttractionOffsets(int s, int t) {
+		try {
+			double deltaZ = planar ? 0.0 : state.z[t] - state.z[s];
+			double deltaDistanceSq = Math.max(
+				EPSILON,
+				Point2D.distanceSq(state.x[s], state.y[s], state.x[t], state.y[t]) + deltaZ * deltaZ
+			);
 			double deltaDistance = Math.sqrt(deltaDistanceSq);
 			double force = (deltaDistanceSq) / attractionForce;
 
@@ -493,21 +1281,21 @@ public class FR3DLayout {
 
 			// Calculate normalized direction vector from p1 to p2 (attraction pulls
 			// vertices together)
-			double xDirection = (p2.getX() - p1.getX()) / deltaDistance;
-			double yDirection = (p2.getY() - p1.getY()) / deltaDistance;
-			double zDirection = (p2.getZ() - p1.getZ()) / deltaDistance;
+			double xDirection = (state.x[t] - state.x[s]) / deltaDistance;
+			double yDirection = (state.y[t] - state.y[s]) / deltaDistance;
+			double zDirection = deltaZ / deltaDistance;
 
 			double xDisplacement = xDirection * force;
 			double yDisplacement = yDirection * force;
 			double zDisplacement = zDirection * force;
 
 			// If other Vertex is locked, pull harder on the moving vertex...
-			int sourceScaler = tV.isLocked() ? lockedVertexForceScaler : 1;
-			int targetScaler = sV.isLocked() ? lockedVertexForceScaler : 1;
+			int sourceScaler = state.locked[t] ? lockedVertexForceScaler : 1;
+			int targetScaler = state.locked[s] ? lockedVertexForceScaler : 1;
 
 			// Apply attraction: source moves toward target, target moves toward source
-			updateOffset(sV, xDisplacement, yDisplacement, zDisplacement, sourceScaler);
-			updateOffset(tV, -xDisplacement, -yDisplacement, -zDisplacement, targetScaler);
+			updateOffset(s, xDisplacement, yDisplacement, zDisplacement, sourceScaler);
+			updateOffset(t, -xDisplacement, -yDisplacement, -zDisplacement, targetScaler);
 		} catch (Exception exception) {
 			logger.logError("calculateAttractionOffsets()", exception);
 		}
@@ -516,23 +1304,31 @@ public class FR3DLayout {
 	// *===========================================================================>
 	// *===========================================================================>
 
-	private void accumulatePositionOffsets(Vertex v) {
-		Point3D offset = offsets.getUnchecked(v.getId());
-		Point3D location = locations.getUnchecked(v);
+	private void accumulatePositionOffsets(int i) {
+		final double offsetX = state.dx[i];
+		final double offsetY = state.dy[i];
+		final double offsetZ = planar ? 0.0 : state.dz[i];
 
 		try {
-			double magnitude = Math.max(
-				EPSILON,
-				offset.getX() * offset.getX() + offset.getY() * offset.getY() + offset.getZ() * offset.getZ()
-			);
+			double magnitude = Math.max(EPSILON, offsetX * offsetX + offsetY * offsetY + offsetZ * offsetZ);
 
 			// Calculate the scaled offset for each axis: normalize the offset vector and
 			// multiply
 			// it by the lesser of sqrt(magnitude) and the current temperature (limits
 			// per-iteration movement)
-			double xOffset = (offset.getX() / magnitude) * Math.min(Math.sqrt(magnitude), temperature);
-			double yOffset = (offset.getY() / magnitude) * Math.min(Math.sqrt(magnitude), temperature);
-			double zOffset = (offset.getZ() / magnitude) * Math.min(Math.sqrt(magnitude), temperature);
+			double cap = vertexTemperatures != null ? vertexTemperatures[i] : temperature;
+			double scale;
+			if (displacementSteps) {
+				// Move the full displacement, capped at the temperature, so the temperature
+				// (with adaptive temperatures, the vertex's own) decides how far it moves
+				double length = Math.sqrt(magnitude);
+				scale = Math.min(length, cap) / length;
+			} else {
+				scale = Math.min(Math.sqrt(magnitude), cap) / magnitude;
+			}
+			double xOffset = offsetX * scale;
+			double yOffset = offsetY * scale;
+			double zOffset = offsetZ * scale;
 
 			// Check for NaN in offsets
 			if (Double.isNaN(xOffset) || Double.isNaN(yOffset) || Double.isNaN(zOffset)) {
@@ -540,15 +1336,85 @@ public class FR3DLayout {
 			}
 
 			// Update locations with clamps to dimensions...
-			double newX = clampPositionToDimensions(location.getX() + xOffset);
-			double newY = clampPositionToDimensions(location.getY() + yOffset);
-			double newZ = clampPositionToDimensions(location.getZ() + zOffset);
+			double nX = clampPositionToDimensions(state.x[i] + xOffset);
+			double nY = clampPositionToDimensions(state.y[i] + yOffset);
+
+			// Track how far the vertex actually moved for convergence...
+			double movedSq = Point2D.distanceSq(state.x[i], state.y[i], nX, nY);
+			if (!planar) {
+				double nZ = clampPositionToDimensions(state.z[i] + zOffset);
+				movedSq += (nZ - state.z[i]) * (nZ - state.z[i]);
+				state.z[i] = nZ;
+			}
+			energy += movedSq;
+			maxDisplacement = Math.max(maxDisplacement, Math.sqrt(movedSq));
 
-			location.setLocation(newX, newY, newZ);
+			state.x[i] = nX;
+			state.y[i] = nY;
+			if (vertexTemperatures != null) {
+				adaptVertexTemperature(i, offsetX, offsetY, offsetZ);
+			}
 		} catch (Exception e) {
 			logger.logError("accumulatePositionOffsets()", e);
 		}
 	}
 
+	/**
+	 * Adapts the temperature of a vertex to how it moved, following the GEM
+	 * (Frick, Ludwig and Mehldau) local temperature scheme.
+	 *
+	 * <p>
+	 * The direction of this move is compared with the direction of the last:
+	 * <ul>
+	 * <li><b>Oscillation:</b> the temperature is scaled by
+	 * {@code 1 + OSCILLATION_SENSITIVITY * cos}, a vertex moving back the way it
+	 * came cools while one moving on in the same direction warms</li>
+	 * <li><b>Rotation:</b> the sine of the turn is folded into a running skew,
+	 * and the temperature scaled by {@code 1 - ROTATION_SENSITIVITY * |skew|}, so
+	 * a vertex which keeps turning the same way (circling its rest position)
+	 * cools. A 3D turn has no sign, so any turning which persists counts</li>
+	 * </ul>
+	 * The temperature stays between the minimum temperature and the temperature
+	 * the layout started at. Unlike the global temperature it can warm back up,
+	 * while the global temperature still cools on its usual curve and decides
+	 * when the layout stops.
+	 *
+	 * @param i  the layout index of the vertex
+	 * @param dx the x displacement of the move
+	 * @param dy the y displacement of the move
+	 * @param dz the z displacement of the move (0 in 2D)
+	 */
+	private void adaptVertexTemperature(int i, double dx, double dy, double dz) {
+		double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		if (length < EPSILON) {
+			return;
+		}
+		double ux = dx / length;
+		double uy = dy / length;
+		double uz = dz / length;
+		double lx = lastMoveX[i];
+		double ly = lastMoveY[i];
+		double lz = planar ? 0.0 : lastMoveZ[i];
+
+		// No last move (the first iteration) leaves the temperature as it is
+		if (lx != 0.0 || ly != 0.0 || lz != 0.0) {
+			double cos = ux * lx + uy * ly + uz * lz;
+			double sin = planar ? lx * uy - ly * ux : Math.sqrt(Math.max(0.0, 1.0 - cos * cos));
+			double skew = (1.0 - ROTATION_SENSITIVITY) * rotationSkew[i] + ROTATION_SENSITIVITY * sin;
+			rotationSkew[i] = skew;
+
+			double adapted = vertexTemperatures[i] * (1.0 + OSCILLATION_SENSITIVITY * cos);
+			adapted *= 1.0 - ROTATION_SENSITIVITY * Math.abs(skew);
+			final double minTemperature = 0.01;
+			vertexTemperatures[i] = Math.max(minTemperature, Math.min(maxVertexTemperature, adapted));
+		}
+
+		lastMoveX[i] = ux;
+		lastMoveY[i] = uy;
+		if (!planar) {
+			lastMoveZ[i] = uz;
+		}
+	}
+
 	// End FR3DLayout...
 }
@@ -0,0 +1,176 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+/**
+ * Computes the exact pairwise repulsion acting on a single vertex of a
+ * force-directed layout.
+ *
+ * <p>
+ * Implementations read positions from flat coordinate arrays (see
+ * {@link LayoutState}) and add the summed displacement into the provided
+ * output array. Each vertex {@code j} pushes the queried vertex away with a
+ * force of {@code weights[j] * forceSq / d²}, where {@code d} is the distance
+ * between the two and {@code d²} is clamped to {@code epsilon} to prevent 0/div
+ * errors. Planar (2D) layouts have no z-coordinates, and use
+ * {@link #accumulatePlanarRepulsion} instead.
+ *
+ * <p>
+ * Two implementations are available:
+ * <ul>
+ * <li>{@link ScalarForceKernel} evaluates one pair at a time, and is always
+ * available</li>
+ * <li>{@link VectorForceKernel} evaluates several pairs per instruction using
+ * the JDK Vector API, and requires the {@code jdk.incubator.vector} module to
+ * be present at runtime</li>
+ * </ul>
+ * Use {@link #select(boolean)} to choose between them. Each also has a single
+ * precision ({@code float}) form, used by the float32 layout precision, which
+ * reads half the memory per vertex and (in the vectorized kernel) evaluates
+ * twice as many pairs per instruction.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ */
+public interface ForceKernel {
+	/** Name of the incubator module the vectorized kernel depends on. */
+	String VECTOR_MODULE = "jdk.incubator.vector";
+
+	/**
+	 * Adds the exact repulsion acting on vertex {@code self} from every other
+	 * vertex into {@code out}.
+	 *
+	 * @param xs      the x-coordinate of each vertex
+	 * @param ys      the y-coordinate of each vertex
+	 * @param zs      the z-coordinate of each vertex
+	 * @param weights the repulsion weight of each vertex
+	 * @param size    the number of vertices to evaluate against
+	 * @param self    the index of the vertex being pushed
+	 * @param forceSq the squared repulsion force constant
+	 * @param epsilon the minimum squared distance between two vertices
+	 * @param out     an array of length 3, the x, y, z displacement is added to
+	 *                its contents
+	 */
+	void accumulateRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] zs,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	);
+
+	/**
+	 * Adds the exact repulsion acting on vertex {@code self} from every other
+	 * vertex of a planar (2D) layout into {@code out}.
+	 *
+	 * @param xs      the x-coordinate of each vertex
+	 * @param ys      the y-coordinate of each vertex
+	 * @param weights the repulsion weight of each vertex
+	 * @param size    the number of vertices to evaluate against
+	 * @param self    the index of the vertex being pushed
+	 * @param forceSq the squared repulsion force constant
+	 * @param epsilon the minimum squared distance between two vertices
+	 * @param out     an array of at least length 2, the x, y displacement is
+	 *                added to its contents
+	 */
+	void accumulatePlanarRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	);
+
+	/**
+	 * Adds the exact repulsion acting on vertex {@code self} from every other
+	 * vertex into {@code out}, reading single precision positions and computing
+	 * in single precision.
+	 *
+	 * @param xs      the x-coordinate of each vertex
+	 * @param ys      the y-coordinate of each vertex
+	 * @param zs      the z-coordinate of each vertex
+	 * @param weights the repulsion weight of each vertex
+	 * @param size    the number of vertices to evaluate against
+	 * @param self    the index of the vertex being pushed
+	 * @param forceSq the squared repulsion force constant
+	 * @param epsilon the minimum squared distance between two vertices
+	 * @param out     an array of length 3, the x, y, z displacement is added to
+	 *                its contents
+	 */
+	void accumulateRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] zs,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	);
+
+	/**
+	 * Adds the exact repulsion acting on vertex {@code self} from every other
+	 * vertex of a planar (2D) layout into {@code out}, reading single precision
+	 * positions and computing in single precision.
+	 *
+	 * @param xs      the x-coordinate of each vertex
+	 * @param ys      the y-coordinate of each vertex
+	 * @param weights the repulsion weight of each vertex
+	 * @param size    the number of vertices to evaluate against
+	 * @param self    the index of the vertex being pushed
+	 * @param forceSq the squared repulsion force constant
+	 * @param epsilon the minimum squared distance between two vertices
+	 * @param out     an array of at least length 2, the x, y displacement is
+	 *                added to its contents
+	 */
+	void accumulatePlanarRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	);
+
+	/**
+	 * Gets a short name for this kernel, used in logging.
+	 *
+	 * @return the kernel name
+	 */
+	String getName();
+
+	/**
+	 * Checks whether the {@code jdk.incubator.vector} module was added to the
+	 * running JVM (via {@code --add-modules jdk.incubator.vector}).
+	 *
+	 * @return {@code true} if the vectorized kernel can be used
+	 */
+	static boolean isVectorAvailable() {
+		return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+	}
+
+	/**
+	 * Selects the kernel to use for a layout, falling back to the
+	 * {@link ScalarForceKernel} when the vectorized kernel was not requested or is
+	 * not available in this JVM.
+	 *
+	 * @param vectorized whether the vectorized kernel was requested
+	 * @return the kernel to use
+	 */
+	static ForceKernel select(boolean vectorized) {
+		if (vectorized && isVectorAvailable()) {
+			return new VectorForceKernel();
+		}
+		return new ScalarForceKernel();
+	}
+}
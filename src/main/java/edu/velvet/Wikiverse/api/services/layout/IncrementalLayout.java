@@ -0,0 +1,267 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.RandomPoint3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
+import java.awt.Dimension;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Warm-start layout for a graphset which has just been expanded with new
+ * vertices.
+ *
+ * <p>
+ * Rather than throwing away every existing position and laying the whole graph
+ * out again, this layout:
+ * <ul>
+ * <li>Seeds every previously placed vertex from its current
+ * {@link Vertex#getPosition()}</li>
+ * <li>Places each new vertex at the average position of its already placed
+ * neighbours (spread by a fraction of the ideal edge length), working outward
+ * so vertices only connected to other new vertices are placed next to
+ * them</li>
+ * <li>Places any new vertex with no path to a placed vertex randomly, as a full
+ * layout would</li>
+ * <li>Runs a short, low temperature {@link FR3DLayout} pass to settle the new
+ * vertices in and nudge their neighbours</li>
+ * </ul>
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ * @see LayoutSettings#isIncrementalLayout()
+ */
+public class IncrementalLayout {
+
+	/** Name reported in the {@link LayoutStats} of an incremental layout. */
+	public static final String ENGINE_NAME = "incremental";
+
+	/** Iterations run once the new vertices have been placed. */
+	private static final int INCREMENTAL_ITERATIONS = 30;
+
+	/** Factor applied to the starting temperature of the incremental pass. */
+	private static final double INCREMENTAL_TEMPERATURE_SCALE = 0.1;
+
+	/** Fraction of the ideal edge length used to spread new vertices apart. */
+	private static final double PLACEMENT_SPREAD = 0.5;
+
+	/** Prefix of the random stream keys used to spread new vertices apart. */
+	private static final String SPREAD_STREAM = "spread:";
+
+	private final ProcessLogger logger = new ProcessLogger("IncrementalLayout.log");
+
+	private final LayoutSettings layoutSettings;
+	private final LayoutState state;
+	private final int newVertexCount;
+	private final long deadlineNanos;
+
+	/** Notified after each iteration, {@code null} when nothing is listening. */
+	private LayoutProgressListener progressListener;
+
+	/** Receives the sampled iterations and the run of this layout. */
+	private LayoutTelemetry telemetry = LayoutTelemetry.DISABLED;
+
+	/** How the layout finished, {@code null} until it has run. */
+	private LayoutStats stats;
+
+	/**
+	 * Creates an incremental layout for the graph, where the vertices with an ID
+	 * in {@code placedIDs} (and any locked vertex) keep their current position.
+	 *
+	 * @param graph          the expanded graphset to lay out
+	 * @param layoutSettings the settings to lay out with
+	 * @param placedIDs      the IDs of the vertices which were already laid out
+	 *                       before the graphset was expanded
+	 */
+	public IncrementalLayout(Graphset graph, LayoutSettings layoutSettings, Set<String> placedIDs) {
+		this.layoutSettings = layoutSettings;
+		this.deadlineNanos = FR3DLayout.calculateDeadline(layoutSettings);
+		this.state = new LayoutState(
+			graph,
+			v -> placedIDs.contains(v.getId()) ? v.getPosition() : new Point3D(),
+			!layoutSettings.isPrefers3D()
+		);
+
+		boolean[] placed = new boolean[state.size];
+		int unplaced = 0;
+		for (int i = 0; i < state.size; i++) {
+			placed[i] = state.locked[i] || placedIDs.contains(state.vertices[i].getId());
+			unplaced += placed[i] ? 0 : 1;
+		}
+		this.newVertexCount = unplaced;
+		placeNewVertices(state, placed, layoutSettings);
+	}
+
+	/**
+	 * Executes the incremental layout for the provided graph.
+	 * <p>
+	 * After completing the layout, all unlocked vertex positions in the given
+	 * {@link Graphset} are updated to their final computed locations.
+	 * </p>
+	 *
+	 * @param graph the {@link Graphset} to arrange; must be the graphset this
+	 *              layout was constructed with
+	 */
+	public void runLayout(Graphset graph) {
+		long start = System.nanoTime();
+		FR3DLayout layout = new FR3DLayout(state, layoutSettings)
+			.withDeadline(deadlineNanos)
+			.withEngineName(ENGINE_NAME)
+			.withProgressListener(progressListener)
+			.withTelemetry(telemetry)
+			.refine(INCREMENTAL_ITERATIONS, INCREMENTAL_TEMPERATURE_SCALE);
+		layout.run();
+
+		stats = layout.getStats();
+		state.writePositions();
+		telemetry.recordRun(stats, state.size, System.nanoTime() - start);
+		logger.logInfo(this.toString());
+	}
+
+	/**
+	 * Reports the progress of this layout to the listener after each iteration.
+	 *
+	 * @param progressListener the listener to notify, or {@code null} to stop
+	 *                         reporting progress
+	 * @return this layout
+	 */
+	public IncrementalLayout withProgressListener(LayoutProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Publishes the sampled iterations and the run of this layout to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this layout
+	 */
+	public IncrementalLayout withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry != null ? telemetry : LayoutTelemetry.DISABLED;
+		return this;
+	}
+
+	/**
+	 * Gets the stats describing how this layout finished.
+	 *
+	 * @return the layout stats, or {@code null} if the layout hasn't run
+	 */
+	public LayoutStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Estimates the cost of this layout for the {@link LayoutScheduler}, a short
+	 * refinement of every unlocked vertex rather than a layout from scratch.
+	 *
+	 * @return the estimated cost of the layout
+	 */
+	public long estimateCost() {
+		int iterations = Math.min(layoutSettings.getMaxLayoutIterations().intValue(), INCREMENTAL_ITERATIONS);
+		return LayoutScheduler.estimateCost(state.movableCount(), state.size, iterations);
+	}
+
+	/**
+	 * Gets the number of vertices which were not placed before this layout.
+	 *
+	 * @return the new vertex count
+	 */
+	public int getNewVertexCount() {
+		return newVertexCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("IncrementalLayout{");
+		sb.append("vertexCount=").append(state.size).append(", ");
+		sb.append("newVertexCount=").append(newVertexCount);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	/**
+	 * Places every vertex which isn't already placed, one ring of neighbours at a
+	 * time. On each round a vertex with at least one placed neighbour is moved to
+	 * the average of their positions, vertices placed in a round only count as
+	 * placed from the next round on so the result doesn't depend on vertex order.
+	 * Vertices with no path to a placed vertex are placed randomly. Also used by
+	 * the {@link LocalLayout} for vertices added around an expanded vertex.
+	 *
+	 * @param state          the layout state to place the vertices of
+	 * @param placed         whether each vertex already has a position, updated
+	 *                       as vertices are placed
+	 * @param layoutSettings the settings the spread and random stream derive from
+	 */
+	static void placeNewVertices(LayoutState state, boolean[] placed, LayoutSettings layoutSettings) {
+		long seed = layoutSettings.getSeed().longValue();
+		int[][] adjacency = state.buildAdjacency();
+		Dimension dimensions = FR3DLayout.calculateLayoutDimensions(
+			state.size,
+			layoutSettings.getVertexDensity().doubleValue()
+		);
+		double spread =
+			PLACEMENT_SPREAD * Math.sqrt((dimensions.getHeight() * dimensions.getWidth()) / Math.max(1, state.size));
+
+		boolean[] placedThisRound = new boolean[state.size];
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			for (int i = 0; i < state.size; i++) {
+				if (placed[i]) {
+					continue;
+				}
+
+				double sumX = 0, sumY = 0, sumZ = 0;
+				int count = 0;
+				for (int neighbour : adjacency[i]) {
+					if (placed[neighbour]) {
+						sumX += state.x[neighbour];
+						sumY += state.y[neighbour];
+						sumZ += state.getZ(neighbour);
+						count++;
+					}
+				}
+				if (count == 0) {
+					continue;
+				}
+
+				Random random = RandomPoint3D.streamFor(seed, SPREAD_STREAM + state.vertices[i].getId());
+				state.x[i] = sumX / count + (random.nextDouble() - 0.5) * spread;
+				state.y[i] = sumY / count + (random.nextDouble() - 0.5) * spread;
+				if (!state.planar) {
+					state.z[i] = sumZ / count + (random.nextDouble() - 0.5) * spread;
+				}
+				placedThisRound[i] = true;
+				progress = true;
+			}
+
+			for (int i = 0; i < state.size; i++) {
+				if (placedThisRound[i]) {
+					placed[i] = true;
+					placedThisRound[i] = false;
+				}
+			}
+		}
+
+		// Anything left has no path to a placed vertex
+		RandomPoint3D<Vertex> randomPoint = new RandomPoint3D<>(dimensions, seed, Vertex::getId);
+		for (int i = 0; i < state.size; i++) {
+			if (!placed[i]) {
+				Point3D start = randomPoint.apply(state.vertices[i]);
+				state.x[i] = start.getX();
+				state.y[i] = start.getY();
+				if (!state.planar) {
+					state.z[i] = start.getZ();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the positions of a laid out graphset in a compact binary format, an
+ * alternative to serializing every {@link Point3D} as JSON numbers for the
+ * largest layouts.
+ *
+ * <p>
+ * The format is little-endian, so the client can view the positions directly
+ * as a {@code Float32Array} or {@code Float64Array}:
+ * <ul>
+ * <li><b>Header</b> (12 bytes) - the magic {@code "WVLB"}, the format
+ * {@link #VERSION} (1 byte), the bytes per coordinate (1 byte, 4 or 8), 2
+ * reserved bytes and the vertex count (4 bytes)</li>
+ * <li><b>QIDs</b> - for each vertex, the length of its UTF-8 QID (2 bytes)
+ * followed by the QID, written back to back with no padding between them</li>
+ * <li><b>Padding</b> - zeros after the last QID, up to the next multiple of 8
+ * bytes from the start of the payload, so the positions are aligned</li>
+ * <li><b>Positions</b> - the x, y, z of each vertex in the order of the QIDs,
+ * as float32 or float64</li>
+ * </ul>
+ *
+ * <p>
+ * The response is built in a direct (off-heap) buffer of
+ * {@link #CHUNK_BYTES}, reused by each thread, and flushed to the output stream
+ * every time it fills, so the whole payload is never held in memory and no
+ * garbage is created per vertex.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see edu.velvet.Wikiverse.api.models.requests.LayoutRequest
+ */
+public final class LayoutBinaryWriter {
+
+	/** The first 4 bytes of every payload, in ASCII. */
+	public static final String MAGIC = "WVLB";
+
+	/** The version of the format written. */
+	public static final byte VERSION = 1;
+
+	/** The media type the payload is served as. */
+	public static final String MEDIA_TYPE = "application/vnd.wikiverse.layout";
+
+	/** Size of the buffer the payload is built in before each flush. */
+	static final int CHUNK_BYTES = 128 * 1024;
+
+	/** The positions start on a multiple of this many bytes. */
+	private static final int POSITION_ALIGNMENT = 8;
+
+	/**
+	 * The {@link #MAGIC} bytes, written one by one so the byte order of the
+	 * buffer doesn't reverse them
+	 */
+	private static final byte[] MAGIC_BYTES = MAGIC.getBytes(StandardCharsets.US_ASCII);
+
+	private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() ->
+		ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+	);
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/** Bytes written so far, flushed or still in the buffer. */
+	private long written = 0;
+
+	private LayoutBinaryWriter(OutputStream out) {
+		this.channel = Channels.newChannel(out);
+		this.buffer = BUFFERS.get().clear();
+	}
+
+	/**
+	 * Writes the position of every vertex of the graphset to the output stream.
+	 *
+	 * @param graph           the laid out graphset
+	 * @param singlePrecision whether to write float32 rather than float64
+	 *                        coordinates
+	 * @param out             the stream to write to, flushed but left open
+	 * @throws IOException if writing to the stream fails
+	 */
+	public static void write(Graphset graph, boolean singlePrecision, OutputStream out) throws IOException {
+		Vertex[] vertices = graph.getVertices().toArray(new Vertex[0]);
+		new LayoutBinaryWriter(out).writeLayout(vertices, singlePrecision);
+		out.flush();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	private void writeLayout(Vertex[] vertices, boolean singlePrecision) throws IOException {
+		reserve(12);
+		buffer.put(MAGIC_BYTES);
+		buffer.put(VERSION);
+		buffer.put((byte) (singlePrecision ? Float.BYTES : Double.BYTES));
+		buffer.putShort((short) 0);
+		buffer.putInt(vertices.length);
+		written += 12;
+
+		for (Vertex vertex : vertices) {
+			byte[] id = vertex.getId().getBytes(StandardCharsets.UTF_8);
+			if (id.length > 0xFFFF) {
+				throw new IllegalArgumentException("QID longer than 65535 bytes: " + vertex.getId().substring(0, 32));
+			}
+			reserve(2 + id.length);
+			buffer.putShort((short) id.length);
+			buffer.put(id);
+			written += 2 + id.length;
+		}
+
+		int padding = (int) ((POSITION_ALIGNMENT - written % POSITION_ALIGNMENT) % POSITION_ALIGNMENT);
+		reserve(padding);
+		for (int i = 0; i < padding; i++) {
+			buffer.put((byte) 0);
+		}
+		written += padding;
+
+		int stride = 3 * (singlePrecision ? Float.BYTES : Double.BYTES);
+		for (Vertex vertex : vertices) {
+			Point3D position = vertex.getPosition();
+			reserve(stride);
+			if (singlePrecision) {
+				buffer.putFloat((float) position.getX());
+				buffer.putFloat((float) position.getY());
+				buffer.putFloat((float) position.getZ());
+			} else {
+				buffer.putDouble(position.getX());
+				buffer.putDouble(position.getY());
+				buffer.putDouble(position.getZ());
+			}
+			written += stride;
+		}
+		flush();
+	}
+
+	/**
+	 * Flushes the buffer to the channel if it has less than {@code bytes} left.
+	 */
+	private void reserve(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,178 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for caching the results of full layouts, so the same
+ * graph laid out with the same settings (e.g. a popular origin opened by many
+ * users) is only simulated once.
+ *
+ * <p>
+ * Results are keyed by the {@link LayoutFingerprint} of the graphset and
+ * settings. On a hit the stored positions are copied onto the graphset's
+ * unlocked vertices without running the layout. On a miss the layout runs and
+ * its result is stored, unless it is partial (stopped by its time budget or
+ * cancelled), so an unfinished layout is never served in place of a complete
+ * one.
+ *
+ * <p>
+ * The cache holds at most {@code wikiverse.api.layout.cache.max-size} results,
+ * evicting the least recently used first, and is registered with Micrometer as
+ * the {@code layout} cache, exposing its hit/miss counts (e.g.
+ * {@code cache.gets{cache=layout,result=hit}}), size and evictions through the
+ * actuator metrics endpoint.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutFingerprint
+ */
+@Service
+public class LayoutCache {
+
+	/** Name the cache's metrics are tagged with. */
+	public static final String CACHE_NAME = "layout";
+
+	private final boolean enabled;
+	private final Cache<String, CachedLayout> results;
+
+	/**
+	 * Creates a layout cache from the {@code wikiverse.api.cache.enabled} and
+	 * {@code wikiverse.api.layout.cache.*} application properties.
+	 *
+	 * @param enabled  whether layouts are cached at all
+	 * @param maxSize  the most layouts kept at once
+	 * @param registry the registry the cache's metrics are bound to, or
+	 *                 {@code null} to not record metrics
+	 */
+	public LayoutCache(
+		@Value("${wikiverse.api.cache.enabled:true}") boolean enabled,
+		@Value("${wikiverse.api.layout.cache.max-size:128}") long maxSize,
+		MeterRegistry registry
+	) {
+		this.enabled = enabled;
+		this.results = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+		if (registry != null) {
+			GuavaCacheMetrics.monitor(registry, results, CACHE_NAME);
+		}
+	}
+
+	/**
+	 * Lays out the graphset, or copies the positions of an identical earlier
+	 * layout onto it.
+	 *
+	 * @param graph    the graphset to lay out, updated in place
+	 * @param settings the settings to lay out with
+	 * @param layout   runs the layout on a miss, returning its stats
+	 * @return the stats of the layout, marked as cached on a hit
+	 */
+	public LayoutStats layout(Graphset graph, LayoutSettings settings, Supplier<LayoutStats> layout) {
+		if (!enabled) {
+			return layout.get();
+		}
+
+		String fingerprint = LayoutFingerprint.of(graph, settings);
+		CachedLayout hit = results.getIfPresent(fingerprint);
+		if (hit != null) {
+			hit.applyTo(graph);
+			return hit.stats.asCached();
+		}
+
+		LayoutStats stats = layout.get();
+		if (stats != null && !stats.isPartial()) {
+			results.put(fingerprint, CachedLayout.of(graph, stats));
+		}
+		return stats;
+	}
+
+	/**
+	 * Gets the number of layouts currently cached.
+	 *
+	 * @return the cache size
+	 */
+	public long size() {
+		return results.size();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * The positions of every unlocked vertex of a finished layout, by QID, and
+	 * the stats of the run which produced them.
+	 */
+	private static final class CachedLayout {
+
+		private final String[] ids;
+		private final double[] positions;
+		private final LayoutStats stats;
+
+		private CachedLayout(String[] ids, double[] positions, LayoutStats stats) {
+			this.ids = ids;
+			this.positions = positions;
+			this.stats = stats;
+		}
+
+		static CachedLayout of(Graphset graph, LayoutStats stats) {
+			int count = 0;
+			for (Vertex vertex : graph.getVertices()) {
+				count += isPlaced(vertex) ? 1 : 0;
+			}
+
+			String[] ids = new String[count];
+			double[] positions = new double[count * 3];
+			int i = 0;
+			for (Vertex vertex : graph.getVertices()) {
+				if (!isPlaced(vertex)) {
+					continue;
+				}
+				Point3D position = vertex.getPosition();
+				ids[i] = vertex.getId();
+				positions[3 * i] = position.getX();
+				positions[3 * i + 1] = position.getY();
+				positions[3 * i + 2] = position.getZ();
+				i++;
+			}
+			return new CachedLayout(ids, positions, stats);
+		}
+
+		/**
+		 * Checks whether the layout placed the vertex, i.e. it is unlocked and has a
+		 * position.
+		 */
+		private static boolean isPlaced(Vertex vertex) {
+			return !vertex.isLocked() && vertex.getPosition() != null;
+		}
+
+		/**
+		 * Copies the cached positions onto the graph's vertices of the same QID, a
+		 * single pass over the graph rather than a {@link Graphset#getVertexByID}
+		 * scan per cached vertex.
+		 */
+		void applyTo(Graphset graph) {
+			Map<String, Integer> indexByID = new HashMap<>(ids.length * 2);
+			for (int i = 0; i < ids.length; i++) {
+				indexByID.put(ids[i], i);
+			}
+			for (Vertex vertex : graph.getVertices()) {
+				Integer i = indexByID.get(vertex.getId());
+				if (i != null && vertex.getPosition() != null) {
+					vertex.getPosition().setLocation(positions[3 * i], positions[3 * i + 1], positions[3 * i + 2]);
+				}
+			}
+		}
+	}
+}
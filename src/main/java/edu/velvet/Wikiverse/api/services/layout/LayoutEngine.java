@@ -0,0 +1,64 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+
+/**
+ * A layout algorithm which arranges a single connected graphset, selected by
+ * name with {@link LayoutSettings#getLayoutEngine()}.
+ *
+ * <p>
+ * Engines are looked up in the {@link LayoutEngines} registry, which holds the
+ * built in engines and any engine listed as a
+ * {@code META-INF/services/edu.velvet.Wikiverse.api.services.layout.LayoutEngine}
+ * provider on the classpath, so a new engine can be rolled out without
+ * changing the requests which lay out a graphset. An engine is shared between
+ * every layout, so must not hold state between calls.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutEngines
+ * @see ComponentLayout
+ */
+public interface LayoutEngine {
+	/**
+	 * Gets the name used to select this engine.
+	 *
+	 * @return the engine name
+	 */
+	String getName();
+
+	/**
+	 * Gets whether this engine lays graphsets out in 2D, so the components of a
+	 * graphset are packed in the plane.
+	 *
+	 * @param layoutSettings the settings to lay out with
+	 * @return {@code true} if every vertex is kept on the plane
+	 */
+	default boolean isPlanar(LayoutSettings layoutSettings) {
+		return !layoutSettings.isPrefers3D();
+	}
+
+	/**
+	 * Lays out the graphset, updating the position of every unlocked vertex once
+	 * the layout has finished.
+	 *
+	 * @param graph            the connected graphset to arrange
+	 * @param layoutSettings   the settings to lay out with
+	 * @param deadlineNanos    the {@link System#nanoTime()} after which to stop
+	 *                         with the positions reached so far
+	 * @param progressListener notified after each iteration, or {@code null}
+	 * @param telemetry        receives the sampled iterations of the layout, or
+	 *                         {@code null} to publish nothing
+	 * @return the stats describing how the layout finished
+	 */
+	LayoutStats layout(
+		Graphset graph,
+		LayoutSettings layoutSettings,
+		long deadlineNanos,
+		LayoutProgressListener progressListener,
+		LayoutTelemetry telemetry
+	);
+}
@@ -0,0 +1,257 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.services.layout.FR3DLayout.Repulsion;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of {@link LayoutEngine}s, which picks the engine a graphset is
+ * laid out with from {@link LayoutSettings#getLayoutEngine()}.
+ *
+ * <p>
+ * The built in engines are:
+ * <ul>
+ * <li><b>{@value FR3DLayout#ENGINE_NAME}</b> - a {@link FR3DLayout} computing
+ * repulsion as the settings select it (exact below the Barnes-Hut threshold,
+ * approximated above it, or grid)</li>
+ * <li><b>{@value #FR_EXACT}</b> - a {@link FR3DLayout} with exact pairwise
+ * repulsion, whatever the graph's size</li>
+ * <li><b>{@value #FR_BARNES_HUT}</b> - a {@link FR3DLayout} with Barnes-Hut
+ * repulsion, whatever the graph's size</li>
+ * <li><b>{@value #FR_2D}</b> - a {@link FR3DLayout} kept in the plane, even when
+ * the settings prefer 3D</li>
+ * <li><b>{@value MultilevelLayout#ENGINE_NAME}</b> - a
+ * {@link MultilevelLayout}</li>
+ * <li><b>{@value #AUTO}</b> - picks one of the above by the graph's size, see
+ * {@link #select(LayoutSettings, Graphset)}</li>
+ * </ul>
+ * Further engines are loaded with {@link ServiceLoader}, replacing a built in
+ * engine of the same name, or can be added with {@link #register(LayoutEngine)}.
+ * An unknown name falls back to {@value LayoutSettings#DEFAULT_LAYOUT_ENGINE}.
+ *
+ * <p>
+ * The {@value #AUTO} thresholds were calibrated with the
+ * {@code LayoutEngineBenchmark} (see {@code ./mvnw test -Pbenchmark}). Exact
+ * repulsion is as quick as Barnes-Hut below
+ * {@link #AUTO_EXACT_MAX_VERTICES} vertices, and 3-4x slower by 1k. From there
+ * the multilevel engine is the only one which untangles sparse graphs (grids
+ * and trees), at about twice the time of Barnes-Hut, while on denser graphs
+ * (more than {@link #AUTO_MULTILEVEL_MAX_EDGES_PER_VERTEX} edges per vertex)
+ * its coarsening gains nothing, so Barnes-Hut is used.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutEngine
+ * @see ComponentLayout
+ */
+public final class LayoutEngines {
+
+	/** Name of the engine with exact pairwise repulsion. */
+	public static final String FR_EXACT = "fr-exact";
+
+	/** Name of the engine with Barnes-Hut repulsion. */
+	public static final String FR_BARNES_HUT = "fr-barnes-hut";
+
+	/** Name of the engine kept in the plane. */
+	public static final String FR_2D = "fr-2d";
+
+	/** Name of the engine which picks another engine by the graph's size. */
+	public static final String AUTO = "auto";
+
+	/** Graphs with fewer vertices are laid out with {@value #FR_EXACT} by auto. */
+	static final int AUTO_EXACT_MAX_VERTICES = 500;
+
+	/** Larger graphs with more edges per vertex are laid out with Barnes-Hut by auto. */
+	static final double AUTO_MULTILEVEL_MAX_EDGES_PER_VERTEX = 3.0;
+
+	private static final Map<String, LayoutEngine> ENGINES = new ConcurrentHashMap<>();
+
+	static {
+		register(new FREngine(FR3DLayout.ENGINE_NAME, null, Repulsion.SETTINGS));
+		register(new FREngine(FR_EXACT, null, Repulsion.EXACT));
+		register(new FREngine(FR_BARNES_HUT, null, Repulsion.BARNES_HUT));
+		register(new FREngine(FR_2D, true, Repulsion.SETTINGS));
+		register(new MultilevelEngine());
+		register(new AutoEngine());
+		for (LayoutEngine engine : ServiceLoader.load(LayoutEngine.class)) {
+			register(engine);
+		}
+	}
+
+	private LayoutEngines() {}
+
+	/**
+	 * Adds an engine to the registry, replacing any engine of the same name.
+	 *
+	 * @param engine the engine to add
+	 */
+	public static void register(LayoutEngine engine) {
+		ENGINES.put(engine.getName(), engine);
+	}
+
+	/**
+	 * Gets the engine registered under a name.
+	 *
+	 * @param name the engine name
+	 * @return the engine, or {@code null} when none is registered under the name
+	 */
+	public static LayoutEngine get(String name) {
+		return name != null ? ENGINES.get(name) : null;
+	}
+
+	/**
+	 * Gets the name of every registered engine.
+	 *
+	 * @return the engine names, in alphabetical order
+	 */
+	public static Set<String> getNames() {
+		return new TreeSet<>(ENGINES.keySet());
+	}
+
+	/**
+	 * Picks the engine the settings select for a graphset. The {@value #AUTO}
+	 * engine is resolved to the engine it would run, so the stats name the engine
+	 * which actually laid the graphset out:
+	 * <ul>
+	 * <li>Fewer than {@link #AUTO_EXACT_MAX_VERTICES} vertices:
+	 * {@value #FR_EXACT}</li>
+	 * <li>Otherwise, at most {@link #AUTO_MULTILEVEL_MAX_EDGES_PER_VERTEX} edges
+	 * per vertex: {@value MultilevelLayout#ENGINE_NAME}</li>
+	 * <li>Otherwise: {@value #FR_BARNES_HUT}</li>
+	 * </ul>
+	 *
+	 * @param layoutSettings the settings naming the engine
+	 * @param graph          the graphset to lay out
+	 * @return the engine to lay the graphset out with
+	 */
+	public static LayoutEngine select(LayoutSettings layoutSettings, Graphset graph) {
+		LayoutEngine engine = get(layoutSettings.getLayoutEngine());
+		if (engine == null) {
+			return ENGINES.get(LayoutSettings.DEFAULT_LAYOUT_ENGINE);
+		}
+		if (engine instanceof AutoEngine) {
+			return ENGINES.get(selectBySize(graph.getVertexCount(), graph.getEdgeCount()));
+		}
+		return engine;
+	}
+
+	/**
+	 * Finds the name of the engine {@value #AUTO} picks for a graph of the given
+	 * size, see {@link #select(LayoutSettings, Graphset)}.
+	 *
+	 * @param vertexCount the number of vertices in the graph
+	 * @param edgeCount   the number of edges in the graph
+	 * @return the name of the engine to lay the graph out with
+	 */
+	static String selectBySize(int vertexCount, int edgeCount) {
+		if (vertexCount < AUTO_EXACT_MAX_VERTICES) {
+			return FR_EXACT;
+		}
+		if (edgeCount <= AUTO_MULTILEVEL_MAX_EDGES_PER_VERTEX * vertexCount) {
+			return MultilevelLayout.ENGINE_NAME;
+		}
+		return FR_BARNES_HUT;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Runs a {@link FR3DLayout}, optionally pinning it to the plane and pinning
+	 * how it computes repulsion.
+	 *
+	 * @param name      the engine name, reported in the stats
+	 * @param planar    whether to lay out in 2D, {@code null} to follow the
+	 *                  settings
+	 * @param repulsion how the layout computes repulsion
+	 */
+	private record FREngine(String name, Boolean planar, Repulsion repulsion) implements LayoutEngine {
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean isPlanar(LayoutSettings layoutSettings) {
+			return planar != null ? planar : !layoutSettings.isPrefers3D();
+		}
+
+		@Override
+		public LayoutStats layout(
+			Graphset graph,
+			LayoutSettings layoutSettings,
+			long deadlineNanos,
+			LayoutProgressListener progressListener,
+			LayoutTelemetry telemetry
+		) {
+			FR3DLayout layout = new FR3DLayout(graph, layoutSettings, isPlanar(layoutSettings), repulsion)
+				.withEngineName(name)
+				.withDeadline(deadlineNanos)
+				.withProgressListener(progressListener)
+				.withTelemetry(telemetry);
+			layout.runLayout(graph);
+			return layout.getStats();
+		}
+	}
+
+	/**
+	 * Runs a {@link MultilevelLayout}.
+	 */
+	private record MultilevelEngine() implements LayoutEngine {
+		@Override
+		public String getName() {
+			return MultilevelLayout.ENGINE_NAME;
+		}
+
+		@Override
+		public LayoutStats layout(
+			Graphset graph,
+			LayoutSettings layoutSettings,
+			long deadlineNanos,
+			LayoutProgressListener progressListener,
+			LayoutTelemetry telemetry
+		) {
+			MultilevelLayout layout = new MultilevelLayout(graph, layoutSettings)
+				.withDeadline(deadlineNanos)
+				.withProgressListener(progressListener)
+				.withTelemetry(telemetry);
+			layout.runLayout(graph);
+			return layout.getStats();
+		}
+	}
+
+	/**
+	 * Runs the engine picked by the graph's size, only reached when the engine is
+	 * fetched by name rather than through {@link #select(LayoutSettings, Graphset)}.
+	 */
+	private record AutoEngine() implements LayoutEngine {
+		@Override
+		public String getName() {
+			return AUTO;
+		}
+
+		@Override
+		public LayoutStats layout(
+			Graphset graph,
+			LayoutSettings layoutSettings,
+			long deadlineNanos,
+			LayoutProgressListener progressListener,
+			LayoutTelemetry telemetry
+		) {
+			return ENGINES.get(selectBySize(graph.getVertexCount(), graph.getEdgeCount())).layout(
+				graph,
+				layoutSettings,
+				deadlineNanos,
+				progressListener,
+				telemetry
+			);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes a canonical fingerprint of everything which determines the result of
+ * a full layout, used as the key of the {@link LayoutCache}.
+ *
+ * <p>
+ * The fingerprint is a SHA-256 hash of:
+ * <ul>
+ * <li>Every vertex ID (sorted), with whether it is locked or fetched</li>
+ * <li>The position of every locked vertex</li>
+ * <li>Every edge as a (source, target, property) triple (sorted)</li>
+ * <li>Every {@link LayoutSettings} value which changes the result, the time
+ * budget is left out since only complete layouts are cached</li>
+ * </ul>
+ * Unlocked vertex positions are left out, a full layout starts every unlocked
+ * vertex at a random position so they don't change the result. Sorting makes
+ * the fingerprint independent of the order the graphset holds its vertices and
+ * edges in.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutCache
+ */
+public final class LayoutFingerprint {
+
+	/** Separates each value hashed, so adjacent values can't run together. */
+	private static final char SEPARATOR = '\u001F';
+
+	private LayoutFingerprint() {}
+
+	/**
+	 * Computes the fingerprint of laying out a graphset with the settings.
+	 *
+	 * @param graph    the graphset to be laid out
+	 * @param settings the settings it will be laid out with
+	 * @return the hex encoded fingerprint
+	 */
+	public static String of(Graphset graph, LayoutSettings settings) {
+		Hasher hasher = Hashing.sha256().newHasher();
+
+		List<Vertex> vertices = new ArrayList<>(graph.getVertices());
+		vertices.sort(Comparator.comparing(Vertex::getId));
+		hasher.putInt(vertices.size());
+		for (Vertex vertex : vertices) {
+			putString(hasher, vertex.getId());
+			hasher.putBoolean(vertex.isLocked()).putBoolean(vertex.isFetched());
+			Point3D position = vertex.getPosition();
+			if (vertex.isLocked() && position != null) {
+				hasher.putDouble(position.getX()).putDouble(position.getY()).putDouble(position.getZ());
+			}
+		}
+
+		List<Edge> edges = new ArrayList<>(graph.getEdges());
+		edges.sort(
+			Comparator.comparing(Edge::getSourceID, Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(Edge::getTargetID, Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(Edge::getPropertyID, Comparator.nullsFirst(Comparator.naturalOrder()))
+		);
+		hasher.putInt(edges.size());
+		for (Edge edge : edges) {
+			putString(hasher, edge.getSourceID());
+			putString(hasher, edge.getTargetID());
+			putString(hasher, edge.getPropertyID());
+		}
+
+		hasher.putBoolean(settings.isPrefers3D());
+		putNumber(hasher, settings.getAttractionMultiplier());
+		putNumber(hasher, settings.getRepulsionMultiplier());
+		putNumber(hasher, settings.getVertexDensity());
+		putNumber(hasher, settings.getMaxLayoutIterations());
+		putNumber(hasher, settings.getMaxIterationMovement());
+		putNumber(hasher, settings.getTemperatureCurveMultiplier());
+		putNumber(hasher, settings.getBarnesHutTheta());
+		putNumber(hasher, settings.getBarnesHutThreshold());
+		hasher.putBoolean(settings.isVectorizedForces());
+		putString(hasher, settings.getLayoutEngine());
+		putNumber(hasher, settings.getConvergenceThreshold());
+		putNumber(hasher, settings.getConvergenceIterations());
+		putString(hasher, settings.getRepulsionMode());
+		putNumber(hasher, settings.getSeed());
+		putString(hasher, settings.getInitialPlacement());
+		putString(hasher, settings.getLayoutPrecision());
+		hasher.putBoolean(settings.isAdaptiveTemperatures());
+
+		return hasher.hash().toString();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	private static void putString(Hasher hasher, String value) {
+		hasher.putString(String.valueOf(value), StandardCharsets.UTF_8).putChar(SEPARATOR);
+	}
+
+	/**
+	 * Hashes a setting by its double value, so the same setting deserialized as an
+	 * Integer or a Double hashes the same.
+	 */
+	private static void putNumber(Hasher hasher, Number value) {
+		hasher.putDouble(value != null ? value.doubleValue() : Double.NaN);
+	}
+}
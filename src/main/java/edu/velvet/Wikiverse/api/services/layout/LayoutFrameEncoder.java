@@ -0,0 +1,173 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutFrame;
+import edu.velvet.Wikiverse.api.models.core.LayoutFrame.VertexPosition;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the positions of a running layout into the {@link LayoutFrame}s of a
+ * stream, deciding which iterations get a frame and which vertices each frame
+ * includes.
+ *
+ * <p>
+ * Frames are:
+ * <ul>
+ * <li><b>Sampled</b> every {@code frameInterval} iterations</li>
+ * <li><b>Throttled</b> to at most {@code maxFrameRate} frames per second,
+ * sampled iterations which come too soon after the previous frame are
+ * skipped</li>
+ * <li><b>Delta encoded</b>, the first frame is a keyframe holding every vertex
+ * and each later frame only holds the vertices which moved further than
+ * {@code minFrameDelta} from the position last sent for them</li>
+ * </ul>
+ *
+ * <p>
+ * An encoder holds the positions last sent to one client, so each stream needs
+ * its own.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutFrame
+ * @see LayoutStreamService
+ */
+public class LayoutFrameEncoder {
+
+	private final int frameInterval;
+	private final long minFrameNanos;
+	private final double minFrameDeltaSq;
+
+	/** When the previous frame was encoded, by {@link System#nanoTime()}. */
+	private long lastFrameNanos;
+
+	/**
+	 * The QID and position last sent for each vertex (by layout index),
+	 * {@code null} until the keyframe has been encoded
+	 */
+	private String[] sentIDs;
+	private double[] sentX;
+	private double[] sentY;
+	private double[] sentZ;
+
+	/**
+	 * Creates an encoder for a single stream.
+	 *
+	 * @param frameInterval the number of iterations between sampled frames
+	 * @param maxFrameRate  the most frames per second, 0 for no limit
+	 * @param minFrameDelta the distance a vertex must move before it is included
+	 *                      in a delta frame
+	 */
+	public LayoutFrameEncoder(int frameInterval, double maxFrameRate, double minFrameDelta) {
+		this.frameInterval = Math.max(1, frameInterval);
+		this.minFrameNanos = maxFrameRate > 0 ? (long) (1_000_000_000L / maxFrameRate) : 0L;
+		this.minFrameDeltaSq = minFrameDelta * minFrameDelta;
+	}
+
+	/**
+	 * Encodes the frame for an iteration of the layout, if the iteration is due a
+	 * frame.
+	 *
+	 * @param progress  the progress of the iteration
+	 * @param positions the working positions after the iteration
+	 * @param nowNanos  the current {@link System#nanoTime()}
+	 * @return the frame, or {@code null} if the iteration isn't sampled or comes
+	 *         too soon after the previous frame
+	 */
+	public LayoutFrame next(LayoutProgress progress, LayoutPositions positions, long nowNanos) {
+		if (progress.iteration() % frameInterval != 0) {
+			return null;
+		}
+		if (sentIDs != null && nowNanos - lastFrameNanos < minFrameNanos) {
+			return null;
+		}
+		lastFrameNanos = nowNanos;
+
+		if (sentIDs == null) {
+			int size = positions.size();
+			sentIDs = new String[size];
+			sentX = new double[size];
+			sentY = new double[size];
+			sentZ = new double[size];
+			List<VertexPosition> vertices = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				sentIDs[i] = positions.getID(i);
+				vertices.add(record(i, positions.getX(i), positions.getY(i), positions.getZ(i)));
+			}
+			return new LayoutFrame(progress, true, vertices, null);
+		}
+
+		List<VertexPosition> vertices = new ArrayList<>();
+		for (int i = 0; i < sentIDs.length; i++) {
+			double x = positions.getX(i);
+			double y = positions.getY(i);
+			double z = positions.getZ(i);
+			if (hasMoved(i, x, y, z)) {
+				vertices.add(record(i, x, y, z));
+			}
+		}
+		return new LayoutFrame(progress, false, vertices, null);
+	}
+
+	/**
+	 * Encodes the final frame of the stream from the laid out graphset, holding
+	 * every vertex which moved since the previous frame (or every vertex if no
+	 * frame has been encoded yet) so the client ends on the exact final layout.
+	 *
+	 * @param graph the laid out graphset
+	 * @param stats the stats of the finished layout
+	 * @return the final frame
+	 */
+	public LayoutFrame last(Graphset graph, LayoutStats stats) {
+		Map<String, Integer> indexByID = new HashMap<>();
+		if (sentIDs != null) {
+			for (int i = 0; i < sentIDs.length; i++) {
+				indexByID.put(sentIDs[i], i);
+			}
+		}
+
+		List<VertexPosition> vertices = new ArrayList<>();
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			if (position == null) {
+				continue;
+			}
+			Integer index = indexByID.get(vertex.getId());
+			if (index == null || hasMoved(index, position.getX(), position.getY(), position.getZ())) {
+				vertices.add(new VertexPosition(vertex.getId(), position.getX(), position.getY(), position.getZ()));
+			}
+		}
+		return new LayoutFrame(null, sentIDs == null, vertices, stats);
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Checks whether a vertex has moved further than {@code minFrameDelta} from
+	 * the position last sent for it.
+	 */
+	private boolean hasMoved(int index, double x, double y, double z) {
+		double ox = x - sentX[index];
+		double oy = y - sentY[index];
+		double oz = z - sentZ[index];
+		return ox * ox + oy * oy + oz * oz > minFrameDeltaSq;
+	}
+
+	/**
+	 * Records the position as sent for the vertex and builds its frame entry.
+	 */
+	private VertexPosition record(int index, double x, double y, double z) {
+		sentX[index] = x;
+		sentY[index] = y;
+		sentZ[index] = z;
+		return new VertexPosition(sentIDs[index], x, y, z);
+	}
+}
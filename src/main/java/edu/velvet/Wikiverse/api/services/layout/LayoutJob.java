@@ -0,0 +1,243 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.requests.LayoutRequest;
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+/**
+ * A layout submitted to the {@link LayoutService} to run in the background,
+ * tracked by its job ID until its result expires.
+ *
+ * <p>
+ * A job moves through the following states:
+ * <ul>
+ * <li>{@link Status#QUEUED} - waiting for a free layout worker</li>
+ * <li>{@link Status#RUNNING} - being laid out, with the latest
+ * {@link LayoutProgress} available to poll</li>
+ * <li>{@link Status#COMPLETED} - finished, the laid out {@link LayoutRequest}
+ * is the result</li>
+ * <li>{@link Status#FAILED} - the layout threw, the error describes why</li>
+ * <li>{@link Status#CANCELLED} - the job was cancelled, if it had started its
+ * request holds the positions reached so far</li>
+ * </ul>
+ *
+ * <p>
+ * A job is written by the worker running it and read by the request threads
+ * polling it, so every mutable field is {@code volatile}.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutService
+ * @see LayoutProgress
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public class LayoutJob {
+
+	/**
+	 * The states a layout job moves through.
+	 */
+	public enum Status {
+		/** Waiting for a free layout worker. */
+		QUEUED,
+		/** Being laid out. */
+		RUNNING,
+		/** Finished, the result is available. */
+		COMPLETED,
+		/** The layout threw before it finished. */
+		FAILED,
+		/** The job was cancelled before it finished. */
+		CANCELLED,
+	}
+
+	private final String jobID;
+	private final Instant submittedAt;
+	private volatile Instant startedAt;
+	private volatile Instant finishedAt;
+	private volatile Status status = Status.QUEUED;
+	private volatile LayoutProgress progress;
+	private volatile WikiverseError error;
+
+	/** The request being laid out, and the result once the job has completed. */
+	@JsonIgnore
+	private final LayoutRequest request;
+
+	/** The task running this job on the layout service's workers. */
+	@JsonIgnore
+	private volatile Future<?> task;
+
+	/**
+	 * Creates a queued job for the request.
+	 *
+	 * @param jobID   the unique ID of the job
+	 * @param request the request to lay out
+	 */
+	public LayoutJob(String jobID, LayoutRequest request) {
+		this.jobID = jobID;
+		this.request = request;
+		this.submittedAt = Instant.now();
+	}
+
+	/**
+	 * Gets the unique ID of this job.
+	 *
+	 * @return the job ID
+	 */
+	public String getJobID() {
+		return jobID;
+	}
+
+	/**
+	 * Gets the current state of this job.
+	 *
+	 * @return the job status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Checks whether this job has finished, either completing, failing or being
+	 * cancelled.
+	 *
+	 * @return {@code true} if the job is no longer queued or running
+	 */
+	@JsonIgnore
+	public boolean isFinished() {
+		return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+	}
+
+	/**
+	 * Cancels this job. A queued job is dropped before it starts, a running job
+	 * has its worker interrupted so the layout stops after its current iteration
+	 * with {@link edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason#CANCELLED}.
+	 * Cancelling a finished job does nothing.
+	 */
+	public void cancel() {
+		Future<?> running = task;
+		if (running != null && running.cancel(true) && status == Status.QUEUED) {
+			markFinished(Status.CANCELLED);
+		}
+	}
+
+	/**
+	 * Gets the progress reported after the most recent iteration.
+	 *
+	 * @return the latest progress, or {@code null} if no iteration has completed
+	 */
+	public LayoutProgress getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Gets the error which failed this job.
+	 *
+	 * @return the error, or {@code null} unless the job has failed
+	 */
+	public WikiverseError getError() {
+		return error;
+	}
+
+	/**
+	 * Gets the request this job lays out, which holds the laid out graphset and
+	 * stats once the job has completed.
+	 *
+	 * @return the layout request
+	 */
+	public LayoutRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * Gets when this job was submitted.
+	 *
+	 * @return the submission timestamp
+	 */
+	public Instant getSubmittedAt() {
+		return submittedAt;
+	}
+
+	/**
+	 * Gets when a worker started this job.
+	 *
+	 * @return the start timestamp, or {@code null} while queued
+	 */
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Gets when this job completed or failed.
+	 *
+	 * @return the finish timestamp, or {@code null} until the job has finished
+	 */
+	public Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("LayoutJob{");
+		sb.append("jobID=").append(jobID).append(", ");
+		sb.append("status=").append(status).append(", ");
+		sb.append("progress=").append(progress);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Attaches the task running this job, so it can be cancelled.
+	 *
+	 * @param task the task submitted to the layout service's workers
+	 */
+	void attach(Future<?> task) {
+		this.task = task;
+	}
+
+	/**
+	 * Marks this job as picked up by a worker.
+	 */
+	void markRunning() {
+		this.startedAt = Instant.now();
+		this.status = Status.RUNNING;
+	}
+
+	/**
+	 * Records the progress of the running layout, called after each iteration.
+	 *
+	 * @param progress the state of the layout after its latest iteration
+	 */
+	void updateProgress(LayoutProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Marks this job as finished, its request now holds the result (or the
+	 * positions reached before it was cancelled).
+	 *
+	 * @param status either {@link Status#COMPLETED} or {@link Status#CANCELLED}
+	 */
+	void markFinished(Status status) {
+		this.finishedAt = Instant.now();
+		this.status = status;
+	}
+
+	/**
+	 * Marks this job as failed.
+	 *
+	 * @param error the error describing why the layout failed
+	 */
+	void markFailed(WikiverseError error) {
+		this.error = error;
+		this.finishedAt = Instant.now();
+		this.status = Status.FAILED;
+	}
+}
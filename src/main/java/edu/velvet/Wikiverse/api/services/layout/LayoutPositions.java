@@ -0,0 +1,57 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+/**
+ * A read-only view of the working position of every vertex in a running
+ * layout, by layout index.
+ *
+ * <p>
+ * The view reads straight from the layout's arrays, so it is only valid (and
+ * only consistent) during the {@link LayoutProgressListener} call it was
+ * passed to. Anything which needs the positions afterward should copy them.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutProgressListener
+ * @see LayoutState
+ */
+public interface LayoutPositions {
+	/**
+	 * Gets the number of vertices in the layout.
+	 *
+	 * @return the vertex count
+	 */
+	int size();
+
+	/**
+	 * Gets the QID of the vertex at an index.
+	 *
+	 * @param index the layout index of the vertex
+	 * @return the vertex's QID
+	 */
+	String getID(int index);
+
+	/**
+	 * Gets the current x position of the vertex at an index.
+	 *
+	 * @param index the layout index of the vertex
+	 * @return the x position
+	 */
+	double getX(int index);
+
+	/**
+	 * Gets the current y position of the vertex at an index.
+	 *
+	 * @param index the layout index of the vertex
+	 * @return the y position
+	 */
+	double getY(int index);
+
+	/**
+	 * Gets the current z position of the vertex at an index.
+	 *
+	 * @param index the layout index of the vertex
+	 * @return the z position
+	 */
+	double getZ(int index);
+}
@@ -0,0 +1,28 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+
+/**
+ * Receives a {@link LayoutProgress} snapshot, and a view of the working
+ * positions, after each iteration of a layout.
+ *
+ * <p>
+ * Listeners are called on the thread running the layout, between iterations,
+ * so they should return quickly and hand anything slow off to another thread.
+ * The {@link LayoutPositions} are only valid for the duration of the call.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout#withProgressListener(LayoutProgressListener)
+ */
+@FunctionalInterface
+public interface LayoutProgressListener {
+	/**
+	 * Called once an iteration of the layout has completed.
+	 *
+	 * @param progress  the state of the layout after the iteration
+	 * @param positions the working position of every vertex after the iteration
+	 */
+	void onProgress(LayoutProgress progress, LayoutPositions positions);
+}
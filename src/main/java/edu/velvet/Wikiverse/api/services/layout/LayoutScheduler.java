@@ -0,0 +1,251 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service limiting how many layouts run at once, so concurrent requests queue
+ * for the CPU instead of all slowing each other down.
+ *
+ * <p>
+ * Each layout run through the scheduler:
+ * <ul>
+ * <li>Starts straight away while fewer than
+ * {@code wikiverse.api.layout.scheduler.max-concurrent} layouts are running (by
+ * default one per available processor) and nothing is waiting</li>
+ * <li>Otherwise waits on the calling thread, and is started once a running
+ * layout finishes, cheapest first by its {@link #estimateCost(Graphset,
+ * LayoutSettings) estimated cost}, so a small graph isn't stuck behind every
+ * large one queued before it. Layouts of the same cost start in the order they
+ * arrived</li>
+ * </ul>
+ *
+ * <p>
+ * The number of queued ({@value #QUEUED_GAUGE}) and running
+ * ({@value #RUNNING_GAUGE}) layouts, and the time each layout waited to start
+ * ({@value #WAIT_TIMER}), are published to Micrometer.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutService
+ */
+@Service
+public class LayoutScheduler {
+
+	/** Number of layouts waiting to start. */
+	public static final String QUEUED_GAUGE = "wikiverse.layout.scheduler.queued";
+
+	/** Number of layouts running. */
+	public static final String RUNNING_GAUGE = "wikiverse.layout.scheduler.running";
+
+	/** Time each layout waited before it started. */
+	public static final String WAIT_TIMER = "wikiverse.layout.scheduler.wait";
+
+	private final int maxConcurrent;
+	private final MeterRegistry registry;
+
+	/** Layouts waiting for a slot, cheapest (then earliest) first. */
+	private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+		Comparator.comparingLong(Ticket::cost).thenComparingLong(Ticket::sequence)
+	);
+
+	private int running = 0;
+	private long sequence = 0;
+
+	/**
+	 * Creates a layout scheduler from the {@code wikiverse.api.layout.scheduler.*}
+	 * application properties.
+	 *
+	 * @param maxConcurrent the most layouts which may run at once, 0 or less for
+	 *                      one per available processor
+	 * @param registry      the registry the queue metrics are published to, or
+	 *                      {@code null} to not publish metrics
+	 */
+	public LayoutScheduler(
+		@Value("${wikiverse.api.layout.scheduler.max-concurrent:0}") int maxConcurrent,
+		MeterRegistry registry
+	) {
+		this.maxConcurrent = FR3DLayout.resolveParallelism(maxConcurrent);
+		this.registry = registry;
+		if (registry != null) {
+			registry.gauge(QUEUED_GAUGE, this, LayoutScheduler::getQueuedCount);
+			registry.gauge(RUNNING_GAUGE, this, LayoutScheduler::getRunningCount);
+		}
+	}
+
+	/**
+	 * Estimates the cost of laying out a graphset from scratch as {@code
+	 * vertices² × iterations}, the work of the exact repulsion. It only ranks
+	 * layouts against each other, so it doesn't matter that approximations and
+	 * early stopping make most layouts cheaper than this.
+	 *
+	 * <p>
+	 * A layout starting from a {@link PivotMDS} placement only runs a short
+	 * refinement, so it is costed with the iterations of that refinement.
+	 *
+	 * @param graph    the graphset to lay out
+	 * @param settings the settings to lay out with
+	 * @return the estimated cost of the layout
+	 */
+	public static long estimateCost(Graphset graph, LayoutSettings settings) {
+		long vertices = graph.getVertexCount();
+		long iterations = settings.getMaxLayoutIterations().longValue();
+		if (PivotMDS.PLACEMENT_NAME.equals(settings.getInitialPlacement())) {
+			iterations = Math.min(iterations, FR3DLayout.PIVOT_MDS_ITERATIONS);
+		}
+		return estimateCost(vertices, vertices, iterations);
+	}
+
+	/**
+	 * Estimates the cost of a layout which only moves some of the vertices of a
+	 * graphset, e.g. a {@link LocalLayout} or {@link IncrementalLayout}, as {@code
+	 * moved vertices × vertices × iterations}: the repulsion every vertex exerts
+	 * on each moving one.
+	 *
+	 * @param movedVertices the number of vertices the layout moves
+	 * @param vertices      the number of vertices in the graphset
+	 * @param iterations    the most iterations the layout runs
+	 * @return the estimated cost of the layout
+	 */
+	public static long estimateCost(long movedVertices, long vertices, long iterations) {
+		return movedVertices * vertices * Math.max(1, iterations);
+	}
+
+	/**
+	 * Runs a layout on the calling thread once a slot is free, waiting for
+	 * cheaper and earlier layouts to start first.
+	 *
+	 * <p>
+	 * If the thread is interrupted while waiting (e.g. its job was cancelled) the
+	 * layout runs without a slot, with the thread still interrupted, so it stops
+	 * as cancelled on its first iteration.
+	 *
+	 * @param <T>    the result of the layout
+	 * @param cost   the estimated cost of the layout, see
+	 *               {@link #estimateCost(Graphset, LayoutSettings)}
+	 * @param layout runs the layout
+	 * @return the result of the layout
+	 */
+	public <T> T run(long cost, Supplier<T> layout) {
+		long start = System.nanoTime();
+		boolean acquired = acquire(cost);
+		if (registry != null) {
+			registry.timer(WAIT_TIMER).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		try {
+			return layout.get();
+		} finally {
+			if (acquired) {
+				release();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of layouts waiting to start.
+	 *
+	 * @return the queue depth
+	 */
+	public synchronized int getQueuedCount() {
+		return waiting.size();
+	}
+
+	/**
+	 * Gets the number of layouts running.
+	 *
+	 * @return the running layout count
+	 */
+	public synchronized int getRunningCount() {
+		return running;
+	}
+
+	/**
+	 * Gets the most layouts which may run at once.
+	 *
+	 * @return the concurrency limit
+	 */
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Takes a slot, waiting in the queue until one is handed over when none is
+	 * free.
+	 *
+	 * @param cost the estimated cost of the layout
+	 * @return {@code true} if a slot was taken, {@code false} if the thread was
+	 *         interrupted before one was handed over
+	 */
+	private synchronized boolean acquire(long cost) {
+		if (running < maxConcurrent && waiting.isEmpty()) {
+			running++;
+			return true;
+		}
+
+		Ticket ticket = new Ticket(cost, sequence++);
+		waiting.add(ticket);
+		try {
+			while (!ticket.granted) {
+				wait();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if (ticket.granted) {
+				return true;
+			}
+			waiting.remove(ticket);
+			return false;
+		}
+	}
+
+	/**
+	 * Frees a slot, handing it straight to the cheapest waiting layout.
+	 */
+	private synchronized void release() {
+		running--;
+		Ticket next = waiting.poll();
+		if (next != null) {
+			next.granted = true;
+			running++;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * A layout waiting for a slot, ordered by its cost then the order it arrived
+	 * in.
+	 */
+	private static final class Ticket {
+
+		private final long cost;
+		private final long sequence;
+
+		/** Set once a slot has been handed to this layout. */
+		private boolean granted = false;
+
+		Ticket(long cost, long sequence) {
+			this.cost = cost;
+			this.sequence = sequence;
+		}
+
+		long cost() {
+			return cost;
+		}
+
+		long sequence() {
+			return sequence;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
+import edu.velvet.Wikiverse.api.models.requests.LayoutRequest;
+import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
+import io.vavr.control.Either;
+import jakarta.annotation.PreDestroy;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for running layouts in the background, so a large layout
+ * doesn't hold a request thread for its whole duration.
+ *
+ * <p>
+ * This service provides methods to:
+ * <ul>
+ * <li>Submit a {@link LayoutRequest} as a {@link LayoutJob}, returning its job
+ * ID straight away</li>
+ * <li>Look up a job to poll its status, progress and result</li>
+ * <li>Stream a layout's intermediate positions to a client, see
+ * {@link LayoutStreamService}</li>
+ * </ul>
+ *
+ * <p>
+ * Jobs run on a fixed number of workers with a bounded queue, once both are
+ * full new jobs are turned away with a
+ * {@link WikiverseError.LayoutServiceError.LayoutQueueFull} error instead of
+ * piling up. Once on a worker, each job also waits for the
+ * {@link LayoutScheduler}, so jobs and layouts run on request threads share the
+ * same limit on concurrent layouts. Jobs are kept for a fixed time after they
+ * were last written to (submitted, started or finished), after which their
+ * result expires.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutJob
+ * @see LayoutRequest
+ */
+@Service
+public class LayoutService {
+
+	/** The source identifier used for errors and logging. */
+	private final String SOURCE = "LayoutService.java";
+
+	/** The logger instance for recording job submission and completion. */
+	private final ProcessLogger logger = new ProcessLogger("layout-service.log");
+
+	/** Runs the submitted jobs on a fixed number of workers. */
+	private final ThreadPoolExecutor executor;
+
+	/** Every job which hasn't yet expired, by job ID. */
+	private final Cache<String, LayoutJob> jobs;
+
+	/** Finished layouts reused by identical jobs, or {@code null} to not cache. */
+	private final LayoutCache layoutCache;
+
+	/**
+	 * Shares the CPU between jobs and request threads, or {@code null} to run
+	 * jobs as soon as a worker is free.
+	 */
+	private final LayoutScheduler layoutScheduler;
+
+	/**
+	 * Creates a layout service from the {@code wikiverse.api.layout.jobs.*}
+	 * application properties.
+	 *
+	 * @param layoutCache     the cache of finished layouts, or {@code null} to
+	 *                        always run the layout
+	 * @param layoutScheduler limits how many layouts run at once across jobs and
+	 *                        requests, or {@code null} to not limit them
+	 * @param workers         the number of jobs which may run at once
+	 * @param queueCapacity   the number of jobs which may wait for a worker
+	 * @param resultTtl       the seconds a job is kept after it was last written
+	 *                        to
+	 * @param maxRetained     the most jobs kept at once, the least recently used
+	 *                        are evicted first
+	 */
+	public LayoutService(
+		LayoutCache layoutCache,
+		LayoutScheduler layoutScheduler,
+		@Value("${wikiverse.api.layout.jobs.workers:2}") int workers,
+		@Value("${wikiverse.api.layout.jobs.queue-capacity:16}") int queueCapacity,
+		@Value("${wikiverse.api.layout.jobs.result-ttl-seconds:600}") long resultTtl,
+		@Value("${wikiverse.api.layout.jobs.max-retained:256}") long maxRetained
+	) {
+		this.executor = new ThreadPoolExecutor(
+			workers,
+			workers,
+			0L,
+			TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity),
+			new ThreadFactoryBuilder().setNameFormat("layout-job-%d").setDaemon(true).build()
+		);
+		this.jobs = CacheBuilder.newBuilder()
+			.expireAfterWrite(resultTtl, TimeUnit.SECONDS)
+			.maximumSize(maxRetained)
+			.build();
+		this.layoutCache = layoutCache;
+		this.layoutScheduler = layoutScheduler;
+	}
+
+	/**
+	 * Submits a layout to run in the background.
+	 *
+	 * @param request the request to lay out, updated in place by the job
+	 * @return Either a LayoutQueueFull error if every worker is busy and the queue
+	 *         is full, or the queued job
+	 */
+	public Either<WikiverseError, LayoutJob> submit(LayoutRequest request) {
+		return submit(request, null, null);
+	}
+
+	/**
+	 * Submits a layout to run in the background, reporting its progress to a
+	 * listener as well as the job.
+	 *
+	 * @param request          the request to lay out, updated in place by the job
+	 * @param progressListener notified after each iteration on the worker thread,
+	 *                         or {@code null}
+	 * @param onFinished       called on the worker thread once the job has
+	 *                         completed, failed or been cancelled while running, or
+	 *                         {@code null}
+	 * @return Either a LayoutQueueFull error if every worker is busy and the queue
+	 *         is full, or the queued job
+	 */
+	public Either<WikiverseError, LayoutJob> submit(
+		LayoutRequest request,
+		LayoutProgressListener progressListener,
+		Consumer<LayoutJob> onFinished
+	) {
+		LayoutJob job = new LayoutJob(UUID.randomUUID().toString(), request);
+		jobs.put(job.getJobID(), job);
+		try {
+			job.attach(executor.submit(() -> run(job, progressListener, onFinished)));
+		} catch (RejectedExecutionException e) {
+			jobs.invalidate(job.getJobID());
+			return Either.left(
+				new WikiverseError.LayoutServiceError.LayoutQueueFull(
+					"Layout queue is full (" + executor.getQueue().size() + " jobs waiting), try again later",
+					SOURCE
+				)
+			);
+		}
+		logger.logInfo("Submitted " + job);
+		return Either.right(job);
+	}
+
+	/**
+	 * Looks up a previously submitted job.
+	 *
+	 * @param jobID the ID returned when the job was submitted
+	 * @return Either a LayoutJobNotFound error if there is no such job (or it has
+	 *         expired), or the job
+	 */
+	public Either<WikiverseError, LayoutJob> getJob(String jobID) {
+		LayoutJob job = jobID == null ? null : jobs.getIfPresent(jobID);
+		return job == null
+			? Either.left(new WikiverseError.LayoutServiceError.LayoutJobNotFound(jobID))
+			: Either.right(job);
+	}
+
+	/**
+	 * Stops accepting jobs and interrupts any running layouts on shutdown.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Runs a job on the current worker once the scheduler starts it, recording
+	 * its progress and outcome. The job is written back to the cache when it
+	 * starts and finishes so its result is kept for the full TTL after it
+	 * completes. The job is marked failed if the layout throws, including an
+	 * {@link Error}, which is rethrown once the job is finished.
+	 *
+	 * @param job              the job to run
+	 * @param progressListener notified after each iteration, or {@code null}
+	 * @param onFinished       called once the job has finished, or {@code null}
+	 */
+	private void run(LayoutJob job, LayoutProgressListener progressListener, Consumer<LayoutJob> onFinished) {
+		job.markRunning();
+		jobs.put(job.getJobID(), job);
+		try {
+			LayoutRequest request = job.getRequest();
+			// The request schedules its own layout, so a local relayout is costed by its
+			// moving region and a cached layout doesn't wait at all
+			LayoutStats stats = request
+				.updateLayout(layoutCache, layoutScheduler, (progress, positions) -> {
+					job.updateProgress(progress);
+					if (progressListener != null) {
+						progressListener.onProgress(progress, positions);
+					}
+				})
+				.getLayoutStats();
+			boolean cancelled = stats != null && stats.getStopReason() == StopReason.CANCELLED;
+			job.markFinished(cancelled ? LayoutJob.Status.CANCELLED : LayoutJob.Status.COMPLETED);
+		} catch (RuntimeException | Error e) {
+			// Errors (running out of memory on a large graphset) fail the job too, so it
+			// isn't left RUNNING and any stream following it still hears it finished
+			job.markFailed(
+				new WikiverseError.LayoutServiceError.LayoutJobFailed(
+					"Layout failed: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()),
+					SOURCE,
+					e.getStackTrace()
+				)
+			);
+			if (e instanceof Error) {
+				throw e;
+			}
+		} finally {
+			jobs.put(job.getJobID(), job);
+			logger.logInfo("Finished " + job);
+			if (onFinished != null) {
+				onFinished.accept(job);
+			}
+		}
+	}
+}
@@ -0,0 +1,424 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Structure-of-arrays storage for the working state of a force-directed
+ * layout.
+ *
+ * <p>
+ * Each {@link Vertex} in the {@link Graphset} is assigned an int index once, when
+ * the state is built. From then on the layout reads and writes positions and
+ * accumulated displacements through flat primitive arrays instead of hashing
+ * vertices or allocating {@link Point3D} objects in the inner loops:
+ * <ul>
+ * <li>{@code x}, {@code y}, {@code z} hold the current position of each
+ * vertex, a planar (2D) state has no {@code z} and every vertex sits at
+ * {@code z = 0}</li>
+ * <li>{@code dx}, {@code dy}, {@code dz} hold the displacement accumulated
+ * during the current iteration</li>
+ * <li>{@code locked} and {@code movable} cache the per-vertex flags checked
+ * on every iteration</li>
+ * <li>{@code edges} holds the source and target index of each {@link Edge},
+ * resolved once so the attraction phase never looks vertices up by ID</li>
+ * </ul>
+ *
+ * <p>
+ * Vertices are indexed in QID order and edges in endpoint order, rather than
+ * the (unordered) order the graphset holds them in, so the same graphset always
+ * sums its forces in the same order and lays out bitwise identically.
+ *
+ * <p>
+ * Results are only copied back to each {@link Vertex#getPosition()} once the
+ * layout has finished, see {@link #writePositions()}. While the layout runs the
+ * state is read by {@link LayoutProgressListener}s as {@link LayoutPositions}.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ */
+public class LayoutState implements LayoutPositions {
+
+	/**
+	 * The vertices being laid out, indexed by their layout index, or {@code null}
+	 * when the state isn't backed by a graphset.
+	 */
+	final Vertex[] vertices;
+
+	/** Lookup of each vertex's layout index by its QID. */
+	final Map<String, Integer> indexByID;
+
+	/** The number of vertices in the layout. */
+	final int size;
+
+	/** Whether the layout is 2D, in which case {@code z} and {@code dz} are {@code null}. */
+	final boolean planar;
+
+	/** Current position of each vertex. */
+	final double[] x;
+	final double[] y;
+	final double[] z;
+
+	/** Displacement accumulated for each vertex during the current iteration. */
+	final double[] dx;
+	final double[] dy;
+	final double[] dz;
+
+	/** Whether each vertex is locked in place. */
+	final boolean[] locked;
+
+	/** Whether each vertex is moved by the layout (unlocked and fetched). */
+	final boolean[] movable;
+
+	/**
+	 * Endpoint indices of each edge, flattened as {@code [source0, target0,
+	 * source1, target1, ...]}. Edges with an endpoint missing from the layout are
+	 * dropped.
+	 */
+	final int[] edges;
+
+	/** The number of edges in {@code edges}. */
+	final int edgeCount;
+
+	/**
+	 * Builds the layout state for every vertex in the graphset.
+	 * <p>
+	 * Locked vertices keep their current position, every other vertex is given the
+	 * position returned by {@code initialPosition}. Each edge is then resolved to
+	 * the indices of its endpoints.
+	 * </p>
+	 *
+	 * @param graph           the graphset to lay out
+	 * @param initialPosition supplies the starting position of each unlocked vertex
+	 */
+	public LayoutState(Graphset graph, Function<Vertex, Point3D> initialPosition) {
+		this(graph, initialPosition, false);
+	}
+
+	/**
+	 * Builds the layout state for every vertex in the graphset, in 2D or 3D.
+	 *
+	 * @param graph           the graphset to lay out
+	 * @param initialPosition supplies the starting position of each unlocked vertex
+	 * @param planar          whether to lay out in 2D, dropping the z axis
+	 */
+	public LayoutState(Graphset graph, Function<Vertex, Point3D> initialPosition, boolean planar) {
+		this.vertices = graph.getVertices().toArray(new Vertex[0]);
+		Arrays.sort(vertices, Comparator.comparing(Vertex::getId));
+		this.size = vertices.length;
+		this.indexByID = new HashMap<>(size * 2);
+		this.planar = planar;
+		this.x = new double[size];
+		this.y = new double[size];
+		this.z = planar ? null : new double[size];
+		this.dx = new double[size];
+		this.dy = new double[size];
+		this.dz = planar ? null : new double[size];
+		this.locked = new boolean[size];
+		this.movable = new boolean[size];
+
+		for (int i = 0; i < size; i++) {
+			Vertex v = vertices[i];
+			indexByID.put(v.getId(), i);
+			locked[i] = v.isLocked();
+			movable[i] = !v.isLocked() && v.isFetched();
+
+			Point3D start = locked[i] && v.getPosition() != null ? v.getPosition() : initialPosition.apply(v);
+			x[i] = start.getX();
+			y[i] = start.getY();
+			if (!planar) {
+				z[i] = start.getZ();
+			}
+		}
+
+		// Pack each edge's endpoints into a single long so edges sort by source, then target
+		long[] resolved = new long[graph.getEdges().size()];
+		int count = 0;
+		for (Edge e : graph.getEdges()) {
+			Integer source = indexByID.get(e.getSourceID());
+			Integer target = indexByID.get(e.getTargetID());
+			if (source == null || target == null) {
+				// Endpoint isn't part of the layout, skip the edge
+				continue;
+			}
+			resolved[count++] = ((long) source << 32) | target;
+		}
+		Arrays.sort(resolved, 0, count);
+
+		this.edges = new int[count * 2];
+		for (int i = 0; i < count; i++) {
+			edges[2 * i] = (int) (resolved[i] >>> 32);
+			edges[2 * i + 1] = (int) resolved[i];
+		}
+		this.edgeCount = count;
+	}
+
+	/**
+	 * Builds an empty layout state which isn't backed by a {@link Graphset}, used
+	 * for the coarsened levels of a {@link MultilevelLayout}. Positions start at the
+	 * origin and are filled in by the caller, and {@link #writePositions()} has
+	 * nothing to write to.
+	 *
+	 * @param locked    whether each vertex is locked in place
+	 * @param edges     the flattened endpoint indices of each edge
+	 * @param edgeCount the number of edges in {@code edges}
+	 * @param planar    whether to lay out in 2D, dropping the z axis
+	 */
+	LayoutState(boolean[] locked, int[] edges, int edgeCount, boolean planar) {
+		this.vertices = null;
+		this.size = locked.length;
+		this.indexByID = Map.of();
+		this.planar = planar;
+		this.x = new double[size];
+		this.y = new double[size];
+		this.z = planar ? null : new double[size];
+		this.dx = new double[size];
+		this.dy = new double[size];
+		this.dz = planar ? null : new double[size];
+		this.locked = locked;
+		this.movable = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			movable[i] = !locked[i];
+		}
+		this.edges = edges;
+		this.edgeCount = edgeCount;
+	}
+
+	/**
+	 * Builds a view of an existing state in which only some of its vertices move,
+	 * sharing its positions and displacements, see {@link #restrictTo(boolean[])}.
+	 *
+	 * @param state     the state to view
+	 * @param movable   whether each vertex is moved by the layout
+	 * @param edges     the flattened endpoint indices of the edges kept
+	 * @param edgeCount the number of edges in {@code edges}
+	 */
+	private LayoutState(LayoutState state, boolean[] movable, int[] edges, int edgeCount) {
+		this.vertices = state.vertices;
+		this.indexByID = state.indexByID;
+		this.size = state.size;
+		this.planar = state.planar;
+		this.x = state.x;
+		this.y = state.y;
+		this.z = state.z;
+		this.dx = state.dx;
+		this.dy = state.dy;
+		this.dz = state.dz;
+		this.locked = state.locked;
+		this.movable = movable;
+		this.edges = edges;
+		this.edgeCount = edgeCount;
+	}
+
+	/**
+	 * Gets the layout index of the vertex with the given QID.
+	 *
+	 * @param QID the vertex ID to look up
+	 * @return the layout index, or -1 if the vertex is not part of the layout
+	 */
+	public int indexOf(String QID) {
+		Integer index = QID != null ? indexByID.get(QID) : null;
+		return index != null ? index : -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String getID(int index) {
+		return vertices[index].getId();
+	}
+
+	@Override
+	public double getX(int index) {
+		return x[index];
+	}
+
+	@Override
+	public double getY(int index) {
+		return y[index];
+	}
+
+	@Override
+	public double getZ(int index) {
+		return planar ? 0.0 : z[index];
+	}
+
+	/**
+	 * Counts the vertices which are moved by the layout.
+	 *
+	 * @return the number of movable vertices
+	 */
+	int movableCount() {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			count += movable[i] ? 1 : 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of edges with both endpoints in the layout.
+	 *
+	 * @return the edge count
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Builds the deduplicated neighbour list of each vertex from the resolved
+	 * edges, ignoring self loops.
+	 *
+	 * @return the neighbour indices of each vertex, by layout index
+	 */
+	int[][] buildAdjacency() {
+		int[] degree = new int[size];
+		Set<Long> seen = new HashSet<>();
+		int[] unique = new int[edgeCount * 2];
+		int uniqueCount = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			int s = edges[2 * e];
+			int t = edges[2 * e + 1];
+			if (s == t || !seen.add(edgeKey(s, t))) {
+				continue;
+			}
+			unique[2 * uniqueCount] = s;
+			unique[2 * uniqueCount + 1] = t;
+			uniqueCount++;
+			degree[s]++;
+			degree[t]++;
+		}
+
+		int[][] adjacency = new int[size][];
+		for (int i = 0; i < size; i++) {
+			adjacency[i] = new int[degree[i]];
+		}
+		int[] fill = new int[size];
+		for (int e = 0; e < uniqueCount; e++) {
+			int s = unique[2 * e];
+			int t = unique[2 * e + 1];
+			adjacency[s][fill[s]++] = t;
+			adjacency[t][fill[t]++] = s;
+		}
+		return adjacency;
+	}
+
+	/**
+	 * Finds every vertex within {@code hops} edges of the seed vertices. Each hop
+	 * is a single pass over the resolved edges, rather than building the
+	 * adjacency of the whole graph for a search which only reaches a small part of
+	 * it.
+	 *
+	 * @param seeds the layout indices of the vertices the search starts from
+	 * @param hops  the most edges between a seed and a vertex found
+	 * @return whether each vertex is within reach of a seed, by layout index
+	 */
+	boolean[] findNeighbourhood(int[] seeds, int hops) {
+		boolean[] found = new boolean[size];
+		boolean[] reached = new boolean[size];
+		boolean growing = seeds.length > 0;
+		for (int seed : seeds) {
+			found[seed] = true;
+		}
+
+		for (int hop = 0; hop < hops && growing; hop++) {
+			growing = false;
+			for (int e = 0; e < edgeCount; e++) {
+				int s = edges[2 * e];
+				int t = edges[2 * e + 1];
+				if (found[s] != found[t]) {
+					reached[found[s] ? t : s] = true;
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				if (reached[i]) {
+					found[i] = true;
+					reached[i] = false;
+					growing = true;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Restricts the layout to a region of this state. Vertices outside the region
+	 * stay where they are, just as locked vertices do, but keep their (unlocked)
+	 * repulsion, so they still push the vertices which move. Edges between two
+	 * vertices which don't move are dropped, as their attraction moves nothing.
+	 *
+	 * @param region whether each vertex may move, by layout index
+	 * @return a view of this state, sharing its positions, in which only the
+	 *         movable vertices of the region move
+	 */
+	LayoutState restrictTo(boolean[] region) {
+		boolean[] restricted = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			restricted[i] = movable[i] && region[i];
+		}
+
+		int[] kept = new int[edgeCount * 2];
+		int keptCount = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			int s = edges[2 * e];
+			int t = edges[2 * e + 1];
+			if (restricted[s] || restricted[t]) {
+				kept[2 * keptCount] = s;
+				kept[2 * keptCount + 1] = t;
+				keptCount++;
+			}
+		}
+		return new LayoutState(this, restricted, Arrays.copyOf(kept, keptCount * 2), keptCount);
+	}
+
+	/**
+	 * Key identifying an undirected edge between two vertex indices.
+	 *
+	 * @param a the index of one endpoint
+	 * @param b the index of the other endpoint
+	 * @return a key which is the same for {@code (a, b)} and {@code (b, a)}
+	 */
+	static long edgeKey(int a, int b) {
+		return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+	}
+
+	/**
+	 * Resets the accumulated displacement of every vertex to 0.
+	 */
+	public void clearDisplacements() {
+		Arrays.fill(dx, 0.0);
+		Arrays.fill(dy, 0.0);
+		if (!planar) {
+			Arrays.fill(dz, 0.0);
+		}
+	}
+
+	/**
+	 * Copies the current position of every unlocked vertex back to its
+	 * {@link Vertex#getPosition()}.
+	 */
+	public void writePositions() {
+		if (vertices == null) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!locked[i]) {
+				vertices[i].getPosition().setLocation(x[i], y[i], getZ(i));
+			}
+		}
+	}
+}
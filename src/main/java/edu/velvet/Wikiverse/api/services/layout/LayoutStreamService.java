@@ -0,0 +1,206 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.LayoutFrame;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.requests.LayoutRequest;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service responsible for streaming a layout to a client as Server-Sent
+ * Events while it runs, so the client can animate the layout converging
+ * instead of waiting on a frozen canvas.
+ *
+ * <p>
+ * Each stream runs as a {@link LayoutJob} on the {@link LayoutService}'s
+ * workers and sends the following events:
+ * <ul>
+ * <li>{@code frame} - a {@link LayoutFrame} of the vertices which moved,
+ * sampled and throttled by a {@link LayoutFrameEncoder}</li>
+ * <li>{@code complete} - the final {@link LayoutFrame}, with the layout's
+ * stats, after which the stream is closed</li>
+ * <li>{@code error} - a {@link WikiverseError} if the layout couldn't be
+ * queued or failed, after which the stream is closed</li>
+ * </ul>
+ *
+ * <p>
+ * When the client disconnects (or the stream times out) the job is cancelled,
+ * so no more CPU is spent on a layout nobody is waiting for. A disconnect is
+ * noticed by the next frame which fails to send.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see LayoutService
+ * @see LayoutFrameEncoder
+ */
+@Service
+public class LayoutStreamService {
+
+	private final LayoutService layoutService;
+	private final int frameInterval;
+	private final double maxFrameRate;
+	private final double minFrameDelta;
+	private final long timeoutMillis;
+
+	/**
+	 * Creates a layout stream service from the
+	 * {@code wikiverse.api.layout.stream.*} application properties.
+	 *
+	 * @param layoutService  the service to run the streamed layouts on
+	 * @param frameInterval  the number of iterations between sampled frames
+	 * @param maxFrameRate   the most frames per second sent to a client, 0 for no
+	 *                       limit
+	 * @param minFrameDelta  the distance a vertex must move before it is sent
+	 *                       again
+	 * @param timeoutSeconds the seconds after which a stream is closed
+	 */
+	public LayoutStreamService(
+		LayoutService layoutService,
+		@Value("${wikiverse.api.layout.stream.frame-interval:5}") int frameInterval,
+		@Value("${wikiverse.api.layout.stream.max-frame-rate:20}") double maxFrameRate,
+		@Value("${wikiverse.api.layout.stream.min-frame-delta:0.5}") double minFrameDelta,
+		@Value("${wikiverse.api.layout.stream.timeout-seconds:300}") long timeoutSeconds
+	) {
+		this.layoutService = layoutService;
+		this.frameInterval = frameInterval;
+		this.maxFrameRate = maxFrameRate;
+		this.minFrameDelta = minFrameDelta;
+		this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+	}
+
+	/**
+	 * Submits a layout and streams its frames to the returned emitter.
+	 *
+	 * @param request the request to lay out
+	 * @return the emitter the layout's events are sent to
+	 */
+	public SseEmitter stream(LayoutRequest request) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		LayoutStream stream = new LayoutStream(
+			emitter,
+			new LayoutFrameEncoder(frameInterval, maxFrameRate, minFrameDelta),
+			request.isPlanar()
+		);
+		layoutService
+			.submit(request, stream, stream::finish)
+			.fold(
+				error -> {
+					stream.fail(error);
+					return null;
+				},
+				job -> {
+					stream.attach(job);
+					return null;
+				}
+			);
+		return emitter;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * A single client's stream, sending the frames of its layout job until the
+	 * job finishes or the client goes away.
+	 */
+	private static final class LayoutStream implements LayoutProgressListener {
+
+		private final SseEmitter emitter;
+		private final LayoutFrameEncoder encoder;
+		private final boolean planar;
+		private volatile LayoutJob job;
+		private volatile boolean closed = false;
+
+		LayoutStream(SseEmitter emitter, LayoutFrameEncoder encoder, boolean planar) {
+			this.emitter = emitter;
+			this.encoder = encoder;
+			this.planar = planar;
+			emitter.onCompletion(this::close);
+			emitter.onTimeout(this::close);
+			emitter.onError(error -> close());
+		}
+
+		@Override
+		public void onProgress(LayoutProgress progress, LayoutPositions positions) {
+			if (closed) {
+				return;
+			}
+			LayoutFrame frame = encoder.next(progress, positions, System.nanoTime());
+			if (frame != null) {
+				send("frame", frame);
+			}
+		}
+
+		/**
+		 * Tracks the submitted job, cancelling it straight away if the client has
+		 * already gone.
+		 */
+		void attach(LayoutJob job) {
+			this.job = job;
+			if (closed) {
+				job.cancel();
+			}
+		}
+
+		/**
+		 * Sends the final frame, or the error which failed the job, and closes the
+		 * stream. The job is detached first so closing the stream doesn't cancel
+		 * it.
+		 */
+		void finish(LayoutJob job) {
+			this.job = null;
+			if (closed) {
+				return;
+			}
+			if (job.getStatus() == LayoutJob.Status.FAILED) {
+				fail(job.getError());
+				return;
+			}
+			LayoutRequest request = job.getRequest();
+			send("complete", encoder.last(request.getGraphset(), request.getLayoutStats()));
+			emitter.complete();
+		}
+
+		/**
+		 * Sends the error and closes the stream.
+		 */
+		void fail(WikiverseError error) {
+			send("error", error);
+			emitter.complete();
+		}
+
+		/**
+		 * Sends an event, written with the {@link Point3D.Planar} view for a planar
+		 * layout so its frames leave out z as the JSON responses do.
+		 */
+		private void send(String event, Object data) {
+			Object body = data;
+			if (planar) {
+				MappingJacksonValue view = new MappingJacksonValue(data);
+				view.setSerializationView(Point3D.Planar.class);
+				body = view;
+			}
+			try {
+				emitter.send(SseEmitter.event().name(event).data(body));
+			} catch (IOException | IllegalStateException e) {
+				// Client has disconnected, or the emitter has already completed
+				close();
+			}
+		}
+
+		private void close() {
+			closed = true;
+			LayoutJob running = job;
+			if (running != null) {
+				running.cancel();
+			}
+		}
+	}
+}
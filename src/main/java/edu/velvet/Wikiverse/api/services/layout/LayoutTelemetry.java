@@ -0,0 +1,156 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service publishing layout telemetry as Micrometer metrics, in place of
+ * logging the state of every layout on every iteration.
+ *
+ * <p>
+ * Two kinds of records are published:
+ * <ul>
+ * <li><b>Run summaries</b> - for every layout run, its duration
+ * ({@value #RUN_TIMER}, tagged by engine and stop reason), iterations and
+ * vertex count</li>
+ * <li><b>Iteration samples</b> - for the first iteration of each layout and
+ * every {@code wikiverse.api.layout.telemetry.sample-interval} iterations
+ * after it, the energy, largest displacement and temperature of the
+ * iteration, and the time spent in each phase ({@value #PHASE_TIMER}, tagged
+ * by phase)</li>
+ * </ul>
+ *
+ * <p>
+ * Verbose tracing, logging the full state of a layout on every iteration, is
+ * only on when {@code wikiverse.api.debug} is set. Layouts aren't Spring beans,
+ * so the telemetry is passed from the controller into each request, as the
+ * {@link LayoutCache} and {@link LayoutScheduler} are, and on to the layouts
+ * it runs. Layouts given no telemetry (e.g. in unit tests) publish nothing.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ * @see ComponentLayout
+ */
+@Service
+public class LayoutTelemetry {
+
+	/** Duration of each layout run, tagged by engine and stop reason. */
+	public static final String RUN_TIMER = "wikiverse.layout.run";
+
+	/** Iterations of each layout run, tagged by engine. */
+	public static final String RUN_ITERATIONS = "wikiverse.layout.run.iterations";
+
+	/** Vertex count of each layout run, tagged by engine. */
+	public static final String RUN_VERTICES = "wikiverse.layout.run.vertices";
+
+	/** Energy (sum of squared vertex movement) of each sampled iteration. */
+	public static final String ITERATION_ENERGY = "wikiverse.layout.iteration.energy";
+
+	/** Largest single vertex movement of each sampled iteration. */
+	public static final String ITERATION_DISPLACEMENT = "wikiverse.layout.iteration.displacement";
+
+	/** Temperature following each sampled iteration. */
+	public static final String ITERATION_TEMPERATURE = "wikiverse.layout.iteration.temperature";
+
+	/** Time spent in each phase of a sampled iteration, tagged by phase. */
+	public static final String PHASE_TIMER = "wikiverse.layout.iteration.phase";
+
+	/** Telemetry which publishes nothing and never traces. */
+	static final LayoutTelemetry DISABLED = new LayoutTelemetry(false, 0, null);
+
+	private final boolean debug;
+	private final int sampleInterval;
+	private final MeterRegistry registry;
+
+	/**
+	 * Creates the layout telemetry from the {@code wikiverse.api.debug} and
+	 * {@code wikiverse.api.layout.telemetry.*} application properties.
+	 *
+	 * @param debug          whether to trace every iteration of every layout
+	 * @param sampleInterval the iterations between samples, 0 or less to only
+	 *                       sample the first iteration
+	 * @param registry       the registry metrics are published to, or
+	 *                       {@code null} to not publish metrics
+	 */
+	public LayoutTelemetry(
+		@Value("${wikiverse.api.debug:false}") boolean debug,
+		@Value("${wikiverse.api.layout.telemetry.sample-interval:10}") int sampleInterval,
+		MeterRegistry registry
+	) {
+		this.debug = debug;
+		this.sampleInterval = sampleInterval;
+		this.registry = registry;
+	}
+
+	/**
+	 * Checks whether layouts log their full state on every iteration.
+	 *
+	 * @return {@code true} when {@code wikiverse.api.debug} is set
+	 */
+	public boolean isTracing() {
+		return debug;
+	}
+
+	/**
+	 * Checks whether an iteration is sampled, the first iteration of a layout and
+	 * every {@code sampleInterval} iterations after it.
+	 *
+	 * @param iteration the iteration, counting from 1
+	 * @return {@code true} if the iteration should be recorded
+	 */
+	public boolean isSampled(int iteration) {
+		if (registry == null) {
+			return false;
+		}
+		return iteration == 1 || (sampleInterval > 0 && iteration % sampleInterval == 0);
+	}
+
+	/**
+	 * Records a sampled iteration of a layout, skipping iterations which aren't
+	 * sampled.
+	 *
+	 * @param progress        the state of the layout after the iteration
+	 * @param repulsionNanos  time spent calculating repulsion
+	 * @param attractionNanos time spent calculating attraction
+	 * @param positionNanos   time spent moving vertices and cooling
+	 */
+	public void recordIteration(LayoutProgress progress, long repulsionNanos, long attractionNanos, long positionNanos) {
+		if (!isSampled(progress.iteration())) {
+			return;
+		}
+		registry.summary(ITERATION_ENERGY, "engine", progress.engine()).record(progress.energy());
+		registry.summary(ITERATION_DISPLACEMENT, "engine", progress.engine()).record(progress.maxDisplacement());
+		registry.summary(ITERATION_TEMPERATURE, "engine", progress.engine()).record(progress.temperature());
+		registry.timer(PHASE_TIMER, "phase", "repulsion").record(repulsionNanos, TimeUnit.NANOSECONDS);
+		registry.timer(PHASE_TIMER, "phase", "attraction").record(attractionNanos, TimeUnit.NANOSECONDS);
+		registry.timer(PHASE_TIMER, "phase", "positions").record(positionNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the summary of a finished layout run.
+	 *
+	 * @param stats         how the layout finished, ignored when {@code null}
+	 * @param vertexCount   the vertices laid out
+	 * @param durationNanos how long the layout ran
+	 */
+	public void recordRun(LayoutStats stats, int vertexCount, long durationNanos) {
+		if (registry == null || stats == null) {
+			return;
+		}
+		String stopReason = stats.getStopReason() == null
+			? "none"
+			: stats.getStopReason().name().toLowerCase(Locale.ROOT);
+		registry
+			.timer(RUN_TIMER, "engine", stats.getEngine(), "stop", stopReason)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+		registry.summary(RUN_ITERATIONS, "engine", stats.getEngine()).record(stats.getIterations());
+		registry.summary(RUN_VERTICES, "engine", stats.getEngine()).record(vertexCount);
+	}
+}
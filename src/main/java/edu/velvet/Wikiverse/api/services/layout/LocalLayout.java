@@ -0,0 +1,260 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
+import java.util.Collection;
+
+/**
+ * Localized relayout of a graphset which has already been laid out, moving
+ * only the vertices around the ones which changed.
+ *
+ * <p>
+ * When a single vertex is expanded or moved only its neighbourhood needs to
+ * settle, yet a full layout re-simulates every unlocked vertex. This layout
+ * instead:
+ * <ul>
+ * <li>Starts every vertex from its current {@link Vertex#getPosition()}, except
+ * vertices which have no position yet (still on the origin, e.g. the new
+ * neighbours of an expanded vertex), which are placed next to their placed
+ * neighbours as an {@link IncrementalLayout} places them, and moved</li>
+ * <li>Moves only the changed vertices and every vertex within
+ * {@link LayoutSettings#getLocalLayoutHops()} hops of them</li>
+ * <li>Holds every other vertex in place, as if it were locked, while it still
+ * repels the vertices which move (see {@link LayoutState#restrictTo(boolean[])})</li>
+ * <li>Runs a short, low temperature {@link FR3DLayout} pass over the moving
+ * region</li>
+ * </ul>
+ *
+ * <p>
+ * Only the attraction of edges touching the region, and the repulsion acting on
+ * the vertices in it, are calculated on each iteration, so the cost of the
+ * layout grows with the size of the change rather than the size of the graph.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ * @see IncrementalLayout
+ */
+public class LocalLayout {
+
+	/** Name reported in the {@link LayoutStats} of a localized relayout. */
+	public static final String ENGINE_NAME = "local";
+
+	/** Iterations run over the moving region. */
+	private static final int LOCAL_ITERATIONS = 30;
+
+	/** Factor applied to the starting temperature of the localized pass. */
+	private static final double LOCAL_TEMPERATURE_SCALE = 0.1;
+
+	private final ProcessLogger logger = new ProcessLogger("LocalLayout.log");
+
+	private final LayoutSettings layoutSettings;
+	private final LayoutState state;
+	private final int movedVertexCount;
+	private final int newVertexCount;
+	private final long deadlineNanos;
+
+	/** Notified after each iteration, {@code null} when nothing is listening. */
+	private LayoutProgressListener progressListener;
+
+	/** Receives the sampled iterations and the run of this layout. */
+	private LayoutTelemetry telemetry = LayoutTelemetry.DISABLED;
+
+	/** How the layout finished, {@code null} until it has run. */
+	private LayoutStats stats;
+
+	/**
+	 * Creates a localized relayout of the graph around the vertices with an ID in
+	 * {@code changedIDs}. IDs which aren't in the graph are ignored.
+	 *
+	 * @param graph          the laid out graphset to relayout
+	 * @param layoutSettings the settings to lay out with
+	 * @param changedIDs     the IDs of the vertices which changed
+	 */
+	public LocalLayout(Graphset graph, LayoutSettings layoutSettings, Collection<String> changedIDs) {
+		this.layoutSettings = layoutSettings;
+		this.deadlineNanos = FR3DLayout.calculateDeadline(layoutSettings);
+		LayoutState full = new LayoutState(graph, Vertex::getPosition, !layoutSettings.isPrefers3D());
+
+		int[] changed = changedIDs.stream().mapToInt(full::indexOf).filter(i -> i >= 0).distinct().toArray();
+		int hops = Math.max(0, layoutSettings.getLocalLayoutHops().intValue());
+		boolean[] region = full.findNeighbourhood(changed, hops);
+		boolean[] reach = hops > 0 ? region : full.findNeighbourhood(changed, 1);
+		this.newVertexCount = placeNewVertices(full, reach, region, layoutSettings);
+		this.state = full.restrictTo(region);
+		this.movedVertexCount = state.movableCount();
+	}
+
+	/**
+	 * Executes the localized relayout for the provided graph.
+	 * <p>
+	 * After completing the layout, the vertices in the moving region are updated
+	 * to their final computed locations, every other vertex is left where it was.
+	 * </p>
+	 *
+	 * @param graph the {@link Graphset} to arrange; must be the graphset this
+	 *              layout was constructed with
+	 */
+	public void runLayout(Graphset graph) {
+		long start = System.nanoTime();
+		FR3DLayout layout = new FR3DLayout(state, layoutSettings, selectRepulsion())
+			.withDeadline(deadlineNanos)
+			.withEngineName(ENGINE_NAME)
+			.withProgressListener(progressListener)
+			.withTelemetry(telemetry)
+			.refine(LOCAL_ITERATIONS, LOCAL_TEMPERATURE_SCALE);
+		if (movedVertexCount > 0) {
+			layout.run();
+		}
+
+		LayoutStats result = layout.getStats();
+		stats = new LayoutStats(
+			ENGINE_NAME,
+			movedVertexCount > 0 ? result.getStopReason() : LayoutStats.StopReason.CONVERGED,
+			result.getIterations(),
+			result.getEnergy(),
+			result.getMaxDisplacement()
+		);
+		state.writePositions();
+		telemetry.recordRun(stats, movedVertexCount, System.nanoTime() - start);
+		logger.logInfo(this.toString());
+	}
+
+	/**
+	 * Reports the progress of this layout to the listener after each iteration.
+	 *
+	 * @param progressListener the listener to notify, or {@code null} to stop
+	 *                         reporting progress
+	 * @return this layout
+	 */
+	public LocalLayout withProgressListener(LayoutProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Publishes the sampled iterations and the run of this layout to the given
+	 * telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this layout
+	 */
+	public LocalLayout withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry != null ? telemetry : LayoutTelemetry.DISABLED;
+		return this;
+	}
+
+	/**
+	 * Gets the stats describing how this layout finished.
+	 *
+	 * @return the layout stats, or {@code null} if the layout hasn't run
+	 */
+	public LayoutStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Gets the number of vertices which had no position before this layout, and
+	 * were placed next to their neighbours.
+	 *
+	 * @return the new vertex count
+	 */
+	public int getNewVertexCount() {
+		return newVertexCount;
+	}
+
+	/**
+	 * Estimates the cost of this layout for the {@link LayoutScheduler}, which
+	 * grows with the moving region rather than the whole graph.
+	 *
+	 * @return the estimated cost of the layout
+	 */
+	public long estimateCost() {
+		int iterations = Math.min(layoutSettings.getMaxLayoutIterations().intValue(), LOCAL_ITERATIONS);
+		return LayoutScheduler.estimateCost(movedVertexCount, state.size, iterations);
+	}
+
+	/**
+	 * Gets the number of vertices the layout moves, the changed vertices and their
+	 * neighbourhood less any locked (or unfetched) vertex.
+	 *
+	 * @return the moved vertex count
+	 */
+	public int getMovedVertexCount() {
+		return movedVertexCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("LocalLayout{");
+		sb.append("vertexCount=").append(state.size).append(", ");
+		sb.append("movedVertexCount=").append(movedVertexCount).append(", ");
+		sb.append("newVertexCount=").append(newVertexCount).append(", ");
+		sb.append("edgeCount=").append(state.edgeCount).append(", ");
+		sb.append("stats=").append(stats);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Places the vertices which have no position yet, those added when a vertex
+	 * was expanded, as an {@link IncrementalLayout} would: next to their placed
+	 * neighbours rather than stacked on the origin, where the localized pass
+	 * couldn't pull them apart. An unlocked vertex near the change still sitting
+	 * exactly on the origin counts as unplaced, and is added to the moving region
+	 * even when the region is limited to the changed vertices.
+	 *
+	 * @param full           the state of the whole graph
+	 * @param reach          whether each vertex is near enough to the change to be
+	 *                       one of its new vertices
+	 * @param region         whether each vertex is in the moving region, updated
+	 *                       with the placed vertices
+	 * @param layoutSettings the settings to place with
+	 * @return the number of vertices placed
+	 */
+	private static int placeNewVertices(
+		LayoutState full,
+		boolean[] reach,
+		boolean[] region,
+		LayoutSettings layoutSettings
+	) {
+		boolean[] placed = new boolean[full.size];
+		int unplaced = 0;
+		for (int i = 0; i < full.size; i++) {
+			boolean onOrigin = full.x[i] == 0.0 && full.y[i] == 0.0 && full.getZ(i) == 0.0;
+			placed[i] = !reach[i] || !full.movable[i] || !onOrigin;
+			if (!placed[i]) {
+				region[i] = true;
+				unplaced++;
+			}
+		}
+		if (unplaced > 0) {
+			IncrementalLayout.placeNewVertices(full, placed, layoutSettings);
+		}
+		return unplaced;
+	}
+
+	/**
+	 * Picks the exact repulsion while fewer vertices move than the Barnes-Hut
+	 * threshold, as the moving vertices are the only ones repulsion is calculated
+	 * for. Streaming every position past a handful of moving vertices is cheaper
+	 * than rebuilding a tree over the whole graph on every iteration, which is
+	 * left to the settings once the region is large.
+	 *
+	 * @return how the repulsion of the moving region is computed
+	 */
+	private FR3DLayout.Repulsion selectRepulsion() {
+		return movedVertexCount < layoutSettings.getBarnesHutThreshold().intValue()
+			? FR3DLayout.Repulsion.EXACT
+			: FR3DLayout.Repulsion.SETTINGS;
+	}
+}
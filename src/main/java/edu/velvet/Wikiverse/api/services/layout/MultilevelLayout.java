@@ -0,0 +1,544 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.RandomPoint3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import edu.velvet.Wikiverse.api.services.logging.ProcessLogger;
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Multilevel (coarsen-refine) force-directed layout for large graphsets.
+ *
+ * <p>
+ * A flat {@link FR3DLayout} run moves every vertex a short distance per
+ * iteration, so on graphs above a few thousand vertices it runs out of
+ * iterations long before the layout settles. This engine instead:
+ * <ul>
+ * <li><b>Coarsens</b> the graph repeatedly, each level merging degree-1
+ * vertices into their only neighbour and matching the remaining vertices with
+ * one of their neighbours, until the graph stops shrinking or reaches
+ * {@link #MIN_COARSE_SIZE} vertices</li>
+ * <li><b>Lays out</b> the coarsest level with a full {@link FR3DLayout}
+ * run</li>
+ * <li><b>Refines</b> back up each level, placing every vertex near the
+ * position of the vertex it was merged into, then running a short, cooler
+ * {@link FR3DLayout} pass to untangle the new detail</li>
+ * </ul>
+ *
+ * <p>
+ * When the time budget runs out part way through, the remaining levels are
+ * still placed from the coarser level (without any refinement passes) so every
+ * vertex ends up with a position.
+ * </p>
+ *
+ * <p>
+ * Locked vertices are never matched with other vertices (only degree-1
+ * neighbours are merged into them), and keep their position on every level.
+ * Since the layout dimensions grow with the vertex count, positions are scaled
+ * up between levels to match the finer level's dimensions.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ * @see LayoutSettings#getLayoutEngine()
+ */
+public class MultilevelLayout {
+
+	/** Name used to select this engine with {@link LayoutSettings#getLayoutEngine()}. */
+	public static final String ENGINE_NAME = "multilevel";
+
+	/** Coarsening stops once a level has this many vertices or fewer. */
+	static final int MIN_COARSE_SIZE = 64;
+
+	/** Coarsening stops once a level keeps more than this fraction of vertices. */
+	private static final double MIN_COARSENING_RATIO = 0.85;
+
+	/** Upper bound on the number of levels built. */
+	private static final int MAX_LEVELS = 32;
+
+	/** Iterations run on each level while refining. */
+	private static final int REFINEMENT_ITERATIONS = 15;
+
+	/** Factor applied to the starting temperature of each refinement pass. */
+	private static final double REFINEMENT_TEMPERATURE_SCALE = 0.25;
+
+	/** Fraction of the ideal edge length used to spread merged vertices apart. */
+	private static final double PLACEMENT_SPREAD = 0.5;
+
+	/** Prefix of the random stream keys used to spread merged vertices apart. */
+	private static final String SPREAD_STREAM = "spread:";
+
+	private final ProcessLogger logger = new ProcessLogger("MultilevelLayout.log");
+
+	private final LayoutSettings layoutSettings;
+	private final double vertexDensity;
+
+	/**
+	 * Seed of every random stream, each vertex draws from a stream keyed by its
+	 * QID (or its level and index once coarsened) so the result never depends on
+	 * the order or thread positions are drawn on
+	 */
+	private final long seed;
+
+	/**
+	 * Deadline shared by the layout of every level, so coarsening and refinement
+	 * all count toward {@link LayoutSettings#getLayoutTimeBudgetMillis()}
+	 */
+	private long deadlineNanos;
+
+	/**
+	 * Each level of the layout, from the original graph (index 0) to the
+	 * coarsest level
+	 */
+	private final List<Level> levels = new ArrayList<>();
+
+	/**
+	 * Notified after each iteration of every level, {@code null} when nothing is
+	 * listening
+	 */
+	private LayoutProgressListener progressListener;
+
+	/** Receives the sampled iterations of every level. */
+	private LayoutTelemetry telemetry = LayoutTelemetry.DISABLED;
+
+	/**
+	 * Iterations completed by the levels already laid out, added to the progress
+	 * reported for the level being laid out
+	 */
+	private int completedIterations = 0;
+
+	/**
+	 * How the final (finest) level finished, with the iterations of every level
+	 * summed, {@code null} until the layout has run
+	 */
+	private LayoutStats stats;
+
+	public MultilevelLayout(Graphset graph, LayoutSettings layoutSettings) {
+		this.layoutSettings = layoutSettings;
+		this.vertexDensity = layoutSettings.getVertexDensity().doubleValue();
+		this.deadlineNanos = FR3DLayout.calculateDeadline(layoutSettings);
+		this.seed = layoutSettings.getSeed().longValue();
+
+		Dimension dimensions = FR3DLayout.calculateLayoutDimensions(graph.getVertexCount(), vertexDensity);
+		RandomPoint3D<Vertex> randomPoint = new RandomPoint3D<>(dimensions, seed, Vertex::getId);
+		levels.add(new Level(new LayoutState(graph, randomPoint, !layoutSettings.isPrefers3D())));
+
+		Level finer = levels.get(0);
+		while (levels.size() < MAX_LEVELS && finer.state.size > MIN_COARSE_SIZE) {
+			Level coarser = coarsen(finer);
+			if (coarser == null) {
+				break;
+			}
+			levels.add(coarser);
+			finer = coarser;
+		}
+	}
+
+	/**
+	 * Executes the multilevel layout for the provided graph, laying out the
+	 * coarsest level and refining each level back up to the original graph.
+	 * <p>
+	 * After completing the layout, all unlocked vertex positions in the given
+	 * {@link Graphset} are updated to their final computed locations.
+	 * </p>
+	 *
+	 * @param graph the {@link Graphset} to arrange; must be the graphset this
+	 *              layout was constructed with
+	 */
+	public void runLayout(Graphset graph) {
+		Level coarsest = levels.get(levels.size() - 1);
+		FR3DLayout layout = new FR3DLayout(coarsest.state, layoutSettings)
+			.withEngineName(ENGINE_NAME)
+			.withDeadline(deadlineNanos)
+			.withProgressListener(levelProgressListener(levels.size() - 1))
+			.withTelemetry(telemetry);
+		layout.run();
+		completedIterations = layout.getStats().getIterations();
+
+		for (int l = levels.size() - 2; l >= 0; l--) {
+			Level finer = levels.get(l);
+			placeFromCoarser(finer, levels.get(l + 1), l);
+			layout = new FR3DLayout(finer.state, layoutSettings)
+				.withEngineName(ENGINE_NAME)
+				.withDeadline(deadlineNanos)
+				.withProgressListener(levelProgressListener(l))
+				.withTelemetry(telemetry)
+				.refine(REFINEMENT_ITERATIONS, REFINEMENT_TEMPERATURE_SCALE);
+			layout.run();
+			completedIterations += layout.getStats().getIterations();
+		}
+
+		LayoutStats finest = layout.getStats();
+		stats = new LayoutStats(
+			ENGINE_NAME,
+			finest.getStopReason(),
+			completedIterations,
+			finest.getEnergy(),
+			finest.getMaxDisplacement()
+		);
+		levels.get(0).state.writePositions();
+		logger.logInfo(this.toString());
+	}
+
+	/**
+	 * Reports the progress of this layout to the listener after each iteration of
+	 * every level, with the iterations counted across all the levels laid out so
+	 * far.
+	 *
+	 * @param progressListener the listener to notify, or {@code null} to stop
+	 *                         reporting progress
+	 * @return this layout
+	 */
+	public MultilevelLayout withProgressListener(LayoutProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Publishes the sampled iterations of every level to the given telemetry.
+	 *
+	 * @param telemetry the telemetry to publish to, or {@code null} to publish
+	 *                  nothing
+	 * @return this layout
+	 */
+	public MultilevelLayout withTelemetry(LayoutTelemetry telemetry) {
+		this.telemetry = telemetry != null ? telemetry : LayoutTelemetry.DISABLED;
+		return this;
+	}
+
+	/**
+	 * Shares a deadline with other layouts, used by engines which run several
+	 * layouts under the one time budget.
+	 *
+	 * @param deadlineNanos the {@link System#nanoTime()} after which to stop
+	 * @return this layout
+	 */
+	MultilevelLayout withDeadline(long deadlineNanos) {
+		this.deadlineNanos = deadlineNanos;
+		return this;
+	}
+
+	/**
+	 * Gets the stats describing how this layout finished, where the stop reason is
+	 * that of the final (finest) level and the iterations of every level are
+	 * summed.
+	 *
+	 * @return the layout stats, or {@code null} if the layout hasn't run
+	 */
+	public LayoutStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Gets the number of levels built, including the original graph.
+	 *
+	 * @return the level count
+	 */
+	public int getLevelCount() {
+		return levels.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("MultilevelLayout{");
+		sb.append("levels=").append(levels.size()).append(", ");
+		sb.append("levelSizes=[");
+		for (int l = 0; l < levels.size(); l++) {
+			sb.append(l == 0 ? "" : ", ").append(levels.get(l).state.size);
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Wraps the {@code progressListener} for a level about to be laid out,
+	 * reporting this engine and the iterations of the finished levels as well.
+	 * Positions are reported for every vertex of the original graph, each taking
+	 * the (rescaled) position of the vertex it was merged into on the level.
+	 *
+	 * @param level the index of the level about to be laid out
+	 * @return the listener for the level, or {@code null} when nothing is
+	 *         listening
+	 */
+	private LayoutProgressListener levelProgressListener(int level) {
+		if (progressListener == null) {
+			return null;
+		}
+		LayoutState finest = levels.get(0).state;
+		LayoutPositions positions = level == 0 ? finest : new ProjectedPositions(finest, level);
+		return (progress, ignored) ->
+			progressListener.onProgress(
+				new LayoutProgress(
+					ENGINE_NAME,
+					completedIterations + progress.iteration(),
+					progress.maxIterations(),
+					progress.temperature(),
+					progress.energy(),
+					progress.maxDisplacement()
+				),
+				positions
+			);
+	}
+
+	/**
+	 * Builds the next coarser level by merging vertices of the finer level.
+	 * <p>
+	 * Degree-1 vertices are merged into their neighbour, then every remaining
+	 * vertex is matched with its unmatched neighbour of lowest degree. Locked
+	 * vertices are never matched, and a coarse vertex is locked when it contains a
+	 * locked vertex.
+	 * </p>
+	 *
+	 * @param finer the level to coarsen
+	 * @return the coarser level, or {@code null} if the level did not shrink
+	 *         enough to be worth adding
+	 */
+	private Level coarsen(Level finer) {
+		LayoutState fine = finer.state;
+		int n = fine.size;
+		int[][] adjacency = fine.buildAdjacency();
+
+		boolean[] leaf = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			leaf[i] = !fine.locked[i] && adjacency[i].length == 1 && adjacency[adjacency[i][0]].length > 1;
+		}
+
+		// Match every non-leaf with its lowest degree unmatched neighbour...
+		int[] clusterOf = new int[n];
+		Arrays.fill(clusterOf, -1);
+		int coarseSize = 0;
+		for (int i = 0; i < n; i++) {
+			if (leaf[i] || clusterOf[i] >= 0) {
+				continue;
+			}
+			int cluster = coarseSize++;
+			clusterOf[i] = cluster;
+			if (fine.locked[i]) {
+				continue;
+			}
+
+			int match = -1;
+			for (int neighbour : adjacency[i]) {
+				if (leaf[neighbour] || fine.locked[neighbour] || clusterOf[neighbour] >= 0) {
+					continue;
+				}
+				if (match < 0 || adjacency[neighbour].length < adjacency[match].length) {
+					match = neighbour;
+				}
+			}
+			if (match >= 0) {
+				clusterOf[match] = cluster;
+			}
+		}
+
+		// ...then merge each leaf into its neighbour
+		for (int i = 0; i < n; i++) {
+			if (leaf[i]) {
+				clusterOf[i] = clusterOf[adjacency[i][0]];
+			}
+		}
+
+		if (coarseSize > n * MIN_COARSENING_RATIO) {
+			return null;
+		}
+
+		boolean[] locked = new boolean[coarseSize];
+		for (int i = 0; i < n; i++) {
+			locked[clusterOf[i]] |= fine.locked[i];
+		}
+
+		Set<Long> seen = new HashSet<>();
+		int[] edges = new int[fine.edgeCount * 2];
+		int edgeCount = 0;
+		for (int e = 0; e < fine.edgeCount; e++) {
+			int s = clusterOf[fine.edges[2 * e]];
+			int t = clusterOf[fine.edges[2 * e + 1]];
+			if (s == t || !seen.add(LayoutState.edgeKey(s, t))) {
+				continue;
+			}
+			edges[2 * edgeCount] = s;
+			edges[2 * edgeCount + 1] = t;
+			edgeCount++;
+		}
+
+		LayoutState coarse = new LayoutState(locked, Arrays.copyOf(edges, edgeCount * 2), edgeCount, fine.planar);
+		finer.clusterOf = clusterOf;
+		seedCoarsePositions(fine, coarse, clusterOf, levels.size());
+		return new Level(coarse);
+	}
+
+	/**
+	 * Seeds the starting positions of a newly coarsened level. Locked vertices
+	 * keep their (scaled) position, every other vertex is placed randomly within
+	 * the level's dimensions.
+	 *
+	 * @param fine      the finer level
+	 * @param coarse    the coarser level to seed
+	 * @param clusterOf the coarse vertex each fine vertex was merged into
+	 * @param level     the index the coarser level will be added at
+	 */
+	private void seedCoarsePositions(LayoutState fine, LayoutState coarse, int[] clusterOf, int level) {
+		RandomPoint3D<Integer> randomPoint = new RandomPoint3D<>(
+			dimensionsOf(coarse),
+			seed,
+			c -> streamKey(coarse, level, c)
+		);
+		for (int c = 0; c < coarse.size; c++) {
+			if (!coarse.locked[c]) {
+				Point3D start = randomPoint.apply(c);
+				coarse.x[c] = start.getX();
+				coarse.y[c] = start.getY();
+				if (!coarse.planar) {
+					coarse.z[c] = start.getZ();
+				}
+			}
+		}
+
+		double scale = scaleBetween(fine, coarse);
+		for (int i = 0; i < fine.size; i++) {
+			if (fine.locked[i]) {
+				int c = clusterOf[i];
+				coarse.x[c] = fine.x[i] * scale;
+				coarse.y[c] = fine.y[i] * scale;
+				if (!coarse.planar) {
+					coarse.z[c] = fine.z[i] * scale;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Places every unlocked vertex of the finer level at the (scaled up) position
+	 * of the coarse vertex it was merged into, spread randomly by a fraction of
+	 * the finer level's ideal edge length so merged vertices don't start on top of
+	 * each other.
+	 *
+	 * @param finer   the level to place
+	 * @param coarser the already laid out coarser level
+	 * @param level   the index of the finer level
+	 */
+	private void placeFromCoarser(Level finer, Level coarser, int level) {
+		LayoutState fine = finer.state;
+		LayoutState coarse = coarser.state;
+		double scale = scaleBetween(coarse, fine);
+		Dimension dimensions = dimensionsOf(fine);
+		double spread = PLACEMENT_SPREAD * Math.sqrt((dimensions.getHeight() * dimensions.getWidth()) / fine.size);
+
+		for (int i = 0; i < fine.size; i++) {
+			if (fine.locked[i]) {
+				continue;
+			}
+			int c = finer.clusterOf[i];
+			Random random = RandomPoint3D.streamFor(seed, SPREAD_STREAM + streamKey(fine, level, i));
+			fine.x[i] = coarse.x[c] * scale + (random.nextDouble() - 0.5) * spread;
+			fine.y[i] = coarse.y[c] * scale + (random.nextDouble() - 0.5) * spread;
+			if (!fine.planar) {
+				fine.z[i] = coarse.z[c] * scale + (random.nextDouble() - 0.5) * spread;
+			}
+		}
+	}
+
+	/**
+	 * Gets the key of a vertex's random stream, its QID on the original graph or
+	 * its level and index on a coarsened one.
+	 */
+	private static String streamKey(LayoutState state, int level, int i) {
+		return state.vertices != null ? state.vertices[i].getId() : level + ":" + i;
+	}
+
+	/**
+	 * Gets the layout dimensions {@link FR3DLayout} uses for a level of this size.
+	 */
+	private Dimension dimensionsOf(LayoutState state) {
+		return FR3DLayout.calculateLayoutDimensions(state.size, vertexDensity);
+	}
+
+	/**
+	 * Gets the factor which maps a position in the {@code from} level's dimensions
+	 * onto the {@code to} level's dimensions.
+	 */
+	private double scaleBetween(LayoutState from, LayoutState to) {
+		return dimensionsOf(to).getHeight() / dimensionsOf(from).getHeight();
+	}
+
+	/**
+	 * The positions of a coarse level seen from the original graph, where each
+	 * vertex takes the position of the vertex it was merged into on that level,
+	 * scaled to the original graph's dimensions.
+	 */
+	private final class ProjectedPositions implements LayoutPositions {
+
+		private final LayoutState finest;
+		private final LayoutState coarse;
+		private final int[] coarseIndex;
+		private final double scale;
+
+		ProjectedPositions(LayoutState finest, int level) {
+			this.finest = finest;
+			this.coarse = levels.get(level).state;
+			this.scale = scaleBetween(coarse, finest);
+			this.coarseIndex = new int[finest.size];
+			for (int i = 0; i < finest.size; i++) {
+				int index = i;
+				for (int l = 0; l < level; l++) {
+					index = levels.get(l).clusterOf[index];
+				}
+				coarseIndex[i] = index;
+			}
+		}
+
+		@Override
+		public int size() {
+			return finest.size;
+		}
+
+		@Override
+		public String getID(int index) {
+			return finest.getID(index);
+		}
+
+		@Override
+		public double getX(int index) {
+			return finest.locked[index] ? finest.x[index] : coarse.x[coarseIndex[index]] * scale;
+		}
+
+		@Override
+		public double getY(int index) {
+			return finest.locked[index] ? finest.y[index] : coarse.y[coarseIndex[index]] * scale;
+		}
+
+		@Override
+		public double getZ(int index) {
+			return finest.locked[index] ? finest.getZ(index) : coarse.getZ(coarseIndex[index]) * scale;
+		}
+	}
+
+	/**
+	 * A single level of the layout, and the coarse vertex each of its vertices was
+	 * merged into on the next coarser level ({@code null} for the coarsest).
+	 */
+	private static final class Level {
+
+		private final LayoutState state;
+		private int[] clusterOf;
+
+		Level(LayoutState state) {
+			this.state = state;
+		}
+	}
+}
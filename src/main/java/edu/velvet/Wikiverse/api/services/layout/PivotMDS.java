@@ -0,0 +1,360 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.RandomPoint3D;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Places the vertices of a {@link LayoutState} using Pivot MDS (Brandes &amp;
+ * Pich), an approximation of classical multidimensional scaling which embeds
+ * the graph so the distance between vertices follows their graph (hop)
+ * distance. Used as the starting positions of a full {@link FR3DLayout} in
+ * place of random positions, leaving the layout to refine an already untangled
+ * graph.
+ *
+ * <p>
+ * The embedding is built in four steps:
+ * <ul>
+ * <li>Pick a few pivot vertices, starting at a locked vertex (the origin) when
+ * there is one, then repeatedly the vertex furthest from every pivot picked so
+ * far</li>
+ * <li>Run a breadth-first search from each pivot, giving the hop distance of
+ * every vertex to every pivot</li>
+ * <li>Double centre the squared distances, and find the top 3 (2 in 2D)
+ * eigenvectors of the small pivots x pivots matrix {@code C^T C} by power
+ * iteration</li>
+ * <li>Project each vertex's distances onto the eigenvectors, then scale the
+ * embedding to the layout's ideal edge length and move it so the first pivot
+ * sits at its locked position</li>
+ * </ul>
+ *
+ * <p>
+ * With {@code k} pivots this costs {@code O(k * (V + E))} for the searches and
+ * {@code O(k^2 * V)} for the matrix, so far less than a single exact
+ * repulsion pass on large graphs. Locked vertices keep their positions, and
+ * the power iteration is started from the layout seed so the same graph is
+ * always placed the same way.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see FR3DLayout
+ * @see LayoutSettings#getInitialPlacement()
+ */
+public class PivotMDS {
+
+	/** Name used to select this placement with {@link LayoutSettings#getInitialPlacement()}. */
+	public static final String PLACEMENT_NAME = "pivot-mds";
+
+	/** Number of pivots used, fewer when the graph has fewer vertices. */
+	static final int DEFAULT_PIVOTS = 50;
+
+	/** Upper bound on the power iterations run for each eigenvector. */
+	private static final int MAX_POWER_ITERATIONS = 200;
+
+	/** Change in an eigenvector below which the power iteration stops. */
+	private static final double POWER_TOLERANCE = 1e-9;
+
+	/** Key of the random stream the power iteration starts from. */
+	private static final String POWER_STREAM = "pivot-mds";
+
+	private final LayoutState state;
+	private final int dimensions;
+	private final long seed;
+
+	/** The layout index of each pivot, in the order they were picked. */
+	private final int[] pivots;
+
+	/**
+	 * Hop distance from each pivot (row) to each vertex (column), vertices a pivot
+	 * can't reach are given one more than the furthest vertex it can
+	 */
+	private final int[][] distances;
+
+	/**
+	 * Picks the pivots of the state and runs a breadth-first search from each.
+	 *
+	 * @param state      the state to place, positions are only written by
+	 *                   {@link #place(double)}
+	 * @param pivotCount the number of pivots to use, at most the vertex count
+	 * @param seed       the seed the power iteration starts from
+	 */
+	public PivotMDS(LayoutState state, int pivotCount, long seed) {
+		this.state = state;
+		this.dimensions = state.planar ? 2 : 3;
+		this.seed = seed;
+
+		int[][] adjacency = state.buildAdjacency();
+		int count = Math.min(pivotCount, state.size);
+		this.pivots = new int[count];
+		this.distances = new int[count][];
+
+		int[] nearestPivot = new int[state.size];
+		Arrays.fill(nearestPivot, Integer.MAX_VALUE);
+		int next = firstPivot();
+		for (int p = 0; p < count; p++) {
+			pivots[p] = next;
+			distances[p] = breadthFirstSearch(adjacency, next);
+			next = 0;
+			for (int i = 0; i < state.size; i++) {
+				nearestPivot[i] = Math.min(nearestPivot[i], distances[p][i]);
+				if (nearestPivot[i] > nearestPivot[next]) {
+					next = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the embedding to the position of every unlocked vertex. Graphs with
+	 * fewer vertices than dimensions plus one, or no edges to measure the scale
+	 * by, keep their current positions.
+	 *
+	 * @param edgeLength the ideal edge length of the layout, the embedding is
+	 *                   scaled so its average edge is this long
+	 * @return {@code true} if the positions were written
+	 */
+	public boolean place(double edgeLength) {
+		if (pivots.length <= dimensions || state.edgeCount == 0) {
+			return false;
+		}
+
+		double[][] centred = doubleCentre();
+		double[][] embedding = new double[dimensions][];
+		double[][] eigenvectors = topEigenvectors(gram(centred));
+		for (int d = 0; d < dimensions; d++) {
+			embedding[d] = project(centred, eigenvectors[d]);
+		}
+
+		double meanEdge = meanEdgeLength(embedding);
+		if (!(meanEdge > 0.0)) {
+			return false;
+		}
+		double scale = edgeLength / meanEdge;
+
+		// Anchor the first pivot, which is locked when the graph has a locked vertex
+		int anchor = pivots[0];
+		double[] offset = new double[] { state.x[anchor], state.y[anchor], state.getZ(anchor) };
+		for (int d = 0; d < dimensions; d++) {
+			offset[d] -= embedding[d][anchor] * scale;
+		}
+
+		for (int i = 0; i < state.size; i++) {
+			if (state.locked[i]) {
+				continue;
+			}
+			state.x[i] = embedding[0][i] * scale + offset[0];
+			state.y[i] = embedding[1][i] * scale + offset[1];
+			if (!state.planar) {
+				state.z[i] = embedding[2][i] * scale + offset[2];
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the layout index of each pivot, in the order they were picked.
+	 *
+	 * @return the pivot indices
+	 */
+	public int[] getPivots() {
+		return pivots.clone();
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Finds the first pivot, the first locked vertex or vertex 0 when none are.
+	 */
+	private int firstPivot() {
+		for (int i = 0; i < state.size; i++) {
+			if (state.locked[i]) {
+				return i;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Finds the hop distance of every vertex from the source, unreachable vertices
+	 * are placed one hop past the furthest reachable vertex.
+	 */
+	private int[] breadthFirstSearch(int[][] adjacency, int source) {
+		int[] distance = new int[state.size];
+		Arrays.fill(distance, -1);
+		int[] queue = new int[state.size];
+		int head = 0;
+		int tail = 0;
+		distance[source] = 0;
+		queue[tail++] = source;
+
+		int furthest = 0;
+		while (head < tail) {
+			int vertex = queue[head++];
+			furthest = distance[vertex];
+			for (int neighbour : adjacency[vertex]) {
+				if (distance[neighbour] < 0) {
+					distance[neighbour] = distance[vertex] + 1;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+
+		for (int i = 0; i < state.size; i++) {
+			if (distance[i] < 0) {
+				distance[i] = furthest + 1;
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * Double centres the squared distances, the pivot MDS counterpart of the
+	 * classical MDS matrix {@code B = -1/2 J D^2 J}.
+	 *
+	 * @return the centred matrix, by pivot (row) then vertex (column)
+	 */
+	private double[][] doubleCentre() {
+		int k = pivots.length;
+		int n = state.size;
+		double[] pivotMean = new double[k];
+		double[] vertexMean = new double[n];
+		double grandMean = 0.0;
+
+		for (int p = 0; p < k; p++) {
+			for (int i = 0; i < n; i++) {
+				double squared = (double) distances[p][i] * distances[p][i];
+				pivotMean[p] += squared / n;
+				vertexMean[i] += squared / k;
+				grandMean += squared / ((double) n * k);
+			}
+		}
+
+		double[][] centred = new double[k][n];
+		for (int p = 0; p < k; p++) {
+			for (int i = 0; i < n; i++) {
+				double squared = (double) distances[p][i] * distances[p][i];
+				centred[p][i] = -0.5 * (squared - pivotMean[p] - vertexMean[i] + grandMean);
+			}
+		}
+		return centred;
+	}
+
+	/**
+	 * Computes the pivots x pivots matrix {@code C^T C}.
+	 */
+	private double[][] gram(double[][] centred) {
+		int k = centred.length;
+		double[][] gram = new double[k][k];
+		for (int a = 0; a < k; a++) {
+			for (int b = a; b < k; b++) {
+				double sum = 0.0;
+				for (int i = 0; i < state.size; i++) {
+					sum += centred[a][i] * centred[b][i];
+				}
+				gram[a][b] = sum;
+				gram[b][a] = sum;
+			}
+		}
+		return gram;
+	}
+
+	/**
+	 * Finds the eigenvectors of the largest eigenvalues of the (symmetric) matrix
+	 * by power iteration, keeping each orthogonal to the ones found before it.
+	 */
+	private double[][] topEigenvectors(double[][] matrix) {
+		int k = matrix.length;
+		Random random = RandomPoint3D.streamFor(seed, POWER_STREAM);
+		double[][] eigenvectors = new double[dimensions][];
+
+		for (int d = 0; d < dimensions; d++) {
+			double[] vector = new double[k];
+			for (int a = 0; a < k; a++) {
+				vector[a] = random.nextDouble() - 0.5;
+			}
+			orthonormalize(vector, eigenvectors, d);
+
+			for (int iteration = 0; iteration < MAX_POWER_ITERATIONS; iteration++) {
+				double[] product = new double[k];
+				for (int a = 0; a < k; a++) {
+					double sum = 0.0;
+					for (int b = 0; b < k; b++) {
+						sum += matrix[a][b] * vector[b];
+					}
+					product[a] = sum;
+				}
+				orthonormalize(product, eigenvectors, d);
+
+				double change = 0.0;
+				for (int a = 0; a < k; a++) {
+					change += Math.abs(product[a] - vector[a]);
+				}
+				vector = product;
+				if (change < POWER_TOLERANCE) {
+					break;
+				}
+			}
+			eigenvectors[d] = vector;
+		}
+		return eigenvectors;
+	}
+
+	/**
+	 * Removes the components of the first {@code count} basis vectors from the
+	 * vector, then scales it to unit length.
+	 */
+	private static void orthonormalize(double[] vector, double[][] basis, int count) {
+		for (int b = 0; b < count; b++) {
+			double dot = 0.0;
+			for (int a = 0; a < vector.length; a++) {
+				dot += vector[a] * basis[b][a];
+			}
+			for (int a = 0; a < vector.length; a++) {
+				vector[a] -= dot * basis[b][a];
+			}
+		}
+
+		double length = 0.0;
+		for (double value : vector) {
+			length += value * value;
+		}
+		length = Math.sqrt(length);
+		if (length > 0.0) {
+			for (int a = 0; a < vector.length; a++) {
+				vector[a] /= length;
+			}
+		}
+	}
+
+	/**
+	 * Projects every vertex's centred distances onto an eigenvector, giving one
+	 * coordinate of the embedding.
+	 */
+	private double[] project(double[][] centred, double[] eigenvector) {
+		double[] coordinates = new double[state.size];
+		for (int p = 0; p < centred.length; p++) {
+			for (int i = 0; i < state.size; i++) {
+				coordinates[i] += centred[p][i] * eigenvector[p];
+			}
+		}
+		return coordinates;
+	}
+
+	private double meanEdgeLength(double[][] embedding) {
+		double total = 0.0;
+		for (int e = 0; e < state.edgeCount; e++) {
+			int s = state.edges[2 * e];
+			int t = state.edges[2 * e + 1];
+			double lengthSq = 0.0;
+			for (int d = 0; d < dimensions; d++) {
+				double delta = embedding[d][s] - embedding[d][t];
+				lengthSq += delta * delta;
+			}
+			total += Math.sqrt(lengthSq);
+		}
+		return total / state.edgeCount;
+	}
+}
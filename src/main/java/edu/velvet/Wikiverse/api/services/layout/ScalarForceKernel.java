@@ -0,0 +1,180 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+
+/**
+ * Scalar {@link ForceKernel} which evaluates the repulsion from one vertex at a
+ * time. This is the default kernel, and the fallback whenever the vectorized
+ * kernel is unavailable.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see ForceKernel
+ * @see VectorForceKernel
+ */
+public class ScalarForceKernel implements ForceKernel {
+
+	@Override
+	public void accumulateRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] zs,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	) {
+		final double x1 = xs[self];
+		final double y1 = ys[self];
+		final double z1 = zs[self];
+
+		for (int v2 = 0; v2 < size; v2++) {
+			if (self == v2) {
+				// Do not evaluate against self...
+				continue;
+			}
+
+			double deltaDistanceSq = Math.max(epsilon, Point3D.distanceSq(x1, y1, z1, xs[v2], ys[v2], zs[v2]));
+			double deltaDistance = Math.sqrt(deltaDistanceSq);
+
+			double force = forceSq / deltaDistanceSq;
+
+			if (Double.isNaN(force)) {
+				throw new RuntimeException("accumulateRepulsion() found NaN value for: force");
+			}
+
+			// Calculate normalized direction vector from v2 to v1 (repulsion pushes v1 away
+			// from v2)
+			double xDisplacement = ((x1 - xs[v2]) / deltaDistance) * force;
+			double yDisplacement = ((y1 - ys[v2]) / deltaDistance) * force;
+			double zDisplacement = ((z1 - zs[v2]) / deltaDistance) * force;
+
+			out[0] += weights[v2] * xDisplacement;
+			out[1] += weights[v2] * yDisplacement;
+			out[2] += weights[v2] * zDisplacement;
+		}
+	}
+
+	@Override
+	public void accumulatePlanarRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	) {
+		final double x1 = xs[self];
+		final double y1 = ys[self];
+
+		for (int v2 = 0; v2 < size; v2++) {
+			if (self == v2) {
+				continue;
+			}
+
+			double deltaX = x1 - xs[v2];
+			double deltaY = y1 - ys[v2];
+			double deltaDistanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY);
+			double scale = (weights[v2] * forceSq) / (deltaDistanceSq * Math.sqrt(deltaDistanceSq));
+
+			if (Double.isNaN(scale)) {
+				throw new RuntimeException("accumulatePlanarRepulsion() found NaN value for: force");
+			}
+
+			out[0] += deltaX * scale;
+			out[1] += deltaY * scale;
+		}
+	}
+
+	@Override
+	public void accumulateRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] zs,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	) {
+		final float x1 = xs[self];
+		final float y1 = ys[self];
+		final float z1 = zs[self];
+		float totalX = 0.0f;
+		float totalY = 0.0f;
+		float totalZ = 0.0f;
+
+		for (int v2 = 0; v2 < size; v2++) {
+			if (self == v2) {
+				continue;
+			}
+
+			float deltaX = x1 - xs[v2];
+			float deltaY = y1 - ys[v2];
+			float deltaZ = z1 - zs[v2];
+			float deltaDistanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+			float scale = (weights[v2] * forceSq) / (deltaDistanceSq * (float) Math.sqrt(deltaDistanceSq));
+
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+			totalZ += deltaZ * scale;
+		}
+
+		if (Float.isNaN(totalX) || Float.isNaN(totalY) || Float.isNaN(totalZ)) {
+			throw new RuntimeException("accumulateRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+		out[2] += totalZ;
+	}
+
+	@Override
+	public void accumulatePlanarRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	) {
+		final float x1 = xs[self];
+		final float y1 = ys[self];
+		float totalX = 0.0f;
+		float totalY = 0.0f;
+
+		for (int v2 = 0; v2 < size; v2++) {
+			if (self == v2) {
+				continue;
+			}
+
+			float deltaX = x1 - xs[v2];
+			float deltaY = y1 - ys[v2];
+			float deltaDistanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY);
+			float scale = (weights[v2] * forceSq) / (deltaDistanceSq * (float) Math.sqrt(deltaDistanceSq));
+
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+		}
+
+		if (Float.isNaN(totalX) || Float.isNaN(totalY)) {
+			throw new RuntimeException("accumulatePlanarRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+	}
+
+	@Override
+	public String getName() {
+		return "scalar";
+	}
+}
@@ -0,0 +1,277 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * A uniform grid (spatial hash) used for the grid variant of the
+ * Fruchterman-Reingold repulsion, where each vertex is only repelled by the
+ * vertices within a cutoff radius of it.
+ *
+ * <p>
+ * Space is split into cubic cells (squares in 2D) whose width equals the
+ * cutoff radius, so every body within the cutoff of a point lies in the point's
+ * own cell or one of its neighbours: 27 cells in 3D, or 9 in 2D. Rather than
+ * allocating every cell of the layout volume, cells are hashed into a table
+ * sized to the number of bodies, and bodies are counting sorted by their bucket
+ * so the bodies of a cell sit next to each other in memory.
+ *
+ * <p>
+ * The grid is rebuilt once per layout iteration, in place of the
+ * {@link BarnesHutOctree}:
+ * <ul>
+ * <li>{@link #rebuild(double[], double[], double[], double[], int)} buckets
+ * every body by the cell its position falls in</li>
+ * <li>{@link #accumulateRepulsion(int, double, double, double, double, double[])}
+ * sums the repulsion acting on a single body from the bodies within the cutoff
+ * radius</li>
+ * </ul>
+ *
+ * <p>
+ * Unlike the tree approximations, bodies past the cutoff contribute nothing,
+ * which trades the far-field repulsion for near-linear iterations on graphs of
+ * roughly uniform density. Storage is reused across rebuilds, and queries do
+ * not modify the grid so they can safely be run from multiple threads once it
+ * is built.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see BarnesHutOctree
+ * @see FR3DLayout
+ */
+public class UniformGrid {
+
+	/** Smallest hash table allocated, in buckets. */
+	private static final int MIN_TABLE_SIZE = 16;
+
+	/** Most distinct cells a query visits, the 3x3x3 neighbourhood of its own cell. */
+	private static final int MAX_NEIGHBOUR_CELLS = 27;
+
+	/** Minimum squared distance used to prevent 0/div errors. */
+	private final double epsilon;
+
+	/** Whether the grid is 2D, ignoring the z-coordinates. */
+	private final boolean planar;
+
+	/** Width of each cell, and the radius past which bodies don't repel. */
+	private final double cellSize;
+	private final double inverseCellSize;
+	private final double cutoffSq;
+
+	// Hash table, the bodies of bucket b are sorted[bucketStart[b] .. bucketStart[b + 1])
+	private int[] bucketStart;
+	private int[] bucketCursor;
+	private int mask;
+
+	// Body storage, sorted by bucket
+	private double[] sortedX;
+	private double[] sortedY;
+	private double[] sortedZ;
+	private double[] sortedWeight;
+	private int[] sortedBody;
+	private int[] bodyBucket;
+	private int bodyCount;
+
+	/**
+	 * Constructs an empty grid sized for the expected number of bodies.
+	 *
+	 * @param expectedBodies the number of bodies expected to be inserted, used to
+	 *                       size the initial storage
+	 * @param cutoff         the radius past which bodies don't repel, also used as
+	 *                       the width of each cell
+	 * @param planar         whether the grid is 2D, ignoring z-coordinates
+	 * @param epsilon        the minimum squared distance used when computing
+	 *                       forces to prevent 0/div errors
+	 */
+	public UniformGrid(int expectedBodies, double cutoff, boolean planar, double epsilon) {
+		if (!(cutoff > 0.0)) {
+			throw new IllegalArgumentException("UniformGrid cutoff must be positive, found: " + cutoff);
+		}
+		this.epsilon = epsilon;
+		this.planar = planar;
+		this.cellSize = cutoff;
+		this.inverseCellSize = 1.0 / cutoff;
+		this.cutoffSq = cutoff * cutoff;
+		allocateBodies(Math.max(1, expectedBodies));
+		allocateTable(tableSizeFor(expectedBodies));
+	}
+
+	/**
+	 * Clears the grid and buckets the first {@code count} bodies by the cell their
+	 * position falls in. Each body is identified by its index in the provided
+	 * arrays.
+	 *
+	 * @param xs      the x-coordinate of each body
+	 * @param ys      the y-coordinate of each body
+	 * @param zs      the z-coordinate of each body, ignored (and may be
+	 *                {@code null}) when the grid is planar
+	 * @param weights the weight (mass) each body contributes to repulsion
+	 * @param count   the number of bodies to insert
+	 */
+	public void rebuild(double[] xs, double[] ys, double[] zs, double[] weights, int count) {
+		ensureBodyCapacity(count);
+		int tableSize = tableSizeFor(count);
+		if (tableSize != bucketCursor.length) {
+			allocateTable(tableSize);
+		}
+		bodyCount = count;
+		Arrays.fill(bucketStart, 0);
+
+		// Count the bodies in each bucket, then prefix sum the counts into offsets
+		for (int i = 0; i < count; i++) {
+			int bucket = bucketOf(cellOf(xs[i]), cellOf(ys[i]), planar ? 0 : cellOf(zs[i]));
+			bodyBucket[i] = bucket;
+			bucketStart[bucket + 1]++;
+		}
+		for (int b = 0; b < tableSize; b++) {
+			bucketStart[b + 1] += bucketStart[b];
+		}
+		System.arraycopy(bucketStart, 0, bucketCursor, 0, tableSize);
+
+		for (int i = 0; i < count; i++) {
+			int slot = bucketCursor[bodyBucket[i]]++;
+			sortedX[slot] = xs[i];
+			sortedY[slot] = ys[i];
+			sortedZ[slot] = planar ? 0.0 : zs[i];
+			sortedWeight[slot] = weights[i];
+			sortedBody[slot] = i;
+		}
+	}
+
+	/**
+	 * Accumulates the repulsive displacement acting on a point from every body
+	 * within the cutoff radius into the provided output array. The force from each
+	 * body matches {@link ForceKernel#accumulateRepulsion}, bodies past the cutoff
+	 * are skipped entirely.
+	 *
+	 * @param self    the index of the body at the query point, excluded from the
+	 *                sum, or a negative value to include every body
+	 * @param x       the x-coordinate of the query point
+	 * @param y       the y-coordinate of the query point
+	 * @param z       the z-coordinate of the query point, ignored when the grid is
+	 *                planar
+	 * @param forceSq the squared repulsion force constant
+	 * @param out     an array of at least length 3, the x, y, z displacement is
+	 *                added to its contents (z is left untouched when planar)
+	 */
+	public void accumulateRepulsion(int self, double x, double y, double z, double forceSq, double[] out) {
+		if (bodyCount == 0) {
+			return;
+		}
+		if (planar) {
+			z = 0.0;
+		}
+
+		int cellX = cellOf(x);
+		int cellY = cellOf(y);
+		int cellZ = planar ? 0 : cellOf(z);
+		int depth = planar ? 0 : 1;
+
+		// Distinct neighbour cells can hash into the same bucket, which must only be
+		// walked once
+		int[] visited = new int[MAX_NEIGHBOUR_CELLS];
+		int visitedCount = 0;
+
+		for (int offsetX = -1; offsetX <= 1; offsetX++) {
+			for (int offsetY = -1; offsetY <= 1; offsetY++) {
+				for (int offsetZ = -depth; offsetZ <= depth; offsetZ++) {
+					int bucket = bucketOf(cellX + offsetX, cellY + offsetY, cellZ + offsetZ);
+					if (contains(visited, visitedCount, bucket)) {
+						continue;
+					}
+					visited[visitedCount++] = bucket;
+					accumulateBucket(bucket, self, x, y, z, forceSq, out);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the width of each cell, which is also the cutoff radius.
+	 *
+	 * @return the cell width in layout units
+	 */
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Adds the repulsion from every body in the bucket which is within the cutoff
+	 * radius of the query point.
+	 */
+	private void accumulateBucket(int bucket, int self, double x, double y, double z, double forceSq, double[] out) {
+		for (int slot = bucketStart[bucket]; slot < bucketStart[bucket + 1]; slot++) {
+			if (sortedBody[slot] == self) {
+				continue;
+			}
+			double deltaZ = z - sortedZ[slot];
+			double distanceSq = Point2D.distanceSq(x, y, sortedX[slot], sortedY[slot]) + deltaZ * deltaZ;
+			if (distanceSq > cutoffSq) {
+				continue;
+			}
+
+			double deltaDistanceSq = Math.max(epsilon, distanceSq);
+			double deltaDistance = Math.sqrt(deltaDistanceSq);
+			double scaledForce = (sortedWeight[slot] * forceSq) / (deltaDistanceSq * deltaDistance);
+
+			out[0] += (x - sortedX[slot]) * scaledForce;
+			out[1] += (y - sortedY[slot]) * scaledForce;
+			if (!planar) {
+				out[2] += deltaZ * scaledForce;
+			}
+		}
+	}
+
+	private int cellOf(double coordinate) {
+		return (int) Math.floor(coordinate * inverseCellSize);
+	}
+
+	/**
+	 * Hashes the cell coordinates into a bucket of the table.
+	 */
+	private int bucketOf(int cellX, int cellY, int cellZ) {
+		return ((cellX * 73856093) ^ (cellY * 19349663) ^ (cellZ * 83492791)) & mask;
+	}
+
+	private static boolean contains(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the table size for a body count, the next power of 2 at least twice
+	 * the count so most occupied cells get a bucket to themselves.
+	 */
+	private static int tableSizeFor(int count) {
+		return Math.max(MIN_TABLE_SIZE, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+	}
+
+	private void allocateTable(int tableSize) {
+		bucketStart = new int[tableSize + 1];
+		bucketCursor = new int[tableSize];
+		mask = tableSize - 1;
+	}
+
+	private void allocateBodies(int capacity) {
+		sortedX = new double[capacity];
+		sortedY = new double[capacity];
+		sortedZ = new double[capacity];
+		sortedWeight = new double[capacity];
+		sortedBody = new int[capacity];
+		bodyBucket = new int[capacity];
+	}
+
+	private void ensureBodyCapacity(int required) {
+		if (required > sortedX.length) {
+			allocateBodies(Math.max(required, sortedX.length * 2));
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized {@link ForceKernel} built on the JDK Vector API, which evaluates
+ * the repulsion from {@code SPECIES.length()} vertices per instruction (e.g. 4
+ * doubles per AVX2 register, 8 per AVX-512 register).
+ *
+ * <p>
+ * Each lane computes the same formula as the {@link ScalarForceKernel}, the
+ * displacement {@code (p1 - p2) * weight * forceSq / (d² * d)}, and the lanes
+ * are summed once per query. The vertex being pushed does not need to be
+ * skipped, its own lane has a delta of 0 and contributes nothing. Because the
+ * lanes are summed in a different order, results can differ from the scalar
+ * kernel in the last few bits. The single precision forms work the same way
+ * over {@code FloatVector}s, which hold twice as many lanes.
+ *
+ * <p>
+ * This class must only be loaded when {@link ForceKernel#isVectorAvailable()}
+ * is {@code true}, use {@link ForceKernel#select(boolean)} rather than
+ * constructing it directly.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see ForceKernel
+ * @see ScalarForceKernel
+ */
+public class VectorForceKernel implements ForceKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/** Twice the lanes of {@link #SPECIES}, used by the single precision forms. */
+	private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	@Override
+	public void accumulateRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] zs,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	) {
+		final double x1 = xs[self];
+		final double y1 = ys[self];
+		final double z1 = zs[self];
+
+		DoubleVector vx1 = DoubleVector.broadcast(SPECIES, x1);
+		DoubleVector vy1 = DoubleVector.broadcast(SPECIES, y1);
+		DoubleVector vz1 = DoubleVector.broadcast(SPECIES, z1);
+		DoubleVector sumX = DoubleVector.zero(SPECIES);
+		DoubleVector sumY = DoubleVector.zero(SPECIES);
+		DoubleVector sumZ = DoubleVector.zero(SPECIES);
+
+		int j = 0;
+		int bound = SPECIES.loopBound(size);
+		for (; j < bound; j += SPECIES.length()) {
+			DoubleVector deltaX = vx1.sub(DoubleVector.fromArray(SPECIES, xs, j));
+			DoubleVector deltaY = vy1.sub(DoubleVector.fromArray(SPECIES, ys, j));
+			DoubleVector deltaZ = vz1.sub(DoubleVector.fromArray(SPECIES, zs, j));
+
+			DoubleVector distanceSq = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).add(deltaZ.mul(deltaZ)).max(epsilon);
+			DoubleVector scale = DoubleVector.fromArray(SPECIES, weights, j)
+				.mul(forceSq)
+				.div(distanceSq.mul(distanceSq.sqrt()));
+
+			sumX = deltaX.fma(scale, sumX);
+			sumY = deltaY.fma(scale, sumY);
+			sumZ = deltaZ.fma(scale, sumZ);
+		}
+
+		double totalX = sumX.reduceLanes(VectorOperators.ADD);
+		double totalY = sumY.reduceLanes(VectorOperators.ADD);
+		double totalZ = sumZ.reduceLanes(VectorOperators.ADD);
+
+		// Remaining tail which doesn't fill a whole vector
+		for (; j < size; j++) {
+			double deltaX = x1 - xs[j];
+			double deltaY = y1 - ys[j];
+			double deltaZ = z1 - zs[j];
+			double distanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+			double scale = (weights[j] * forceSq) / (distanceSq * Math.sqrt(distanceSq));
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+			totalZ += deltaZ * scale;
+		}
+
+		if (Double.isNaN(totalX) || Double.isNaN(totalY) || Double.isNaN(totalZ)) {
+			throw new RuntimeException("accumulateRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+		out[2] += totalZ;
+	}
+
+	@Override
+	public void accumulatePlanarRepulsion(
+		double[] xs,
+		double[] ys,
+		double[] weights,
+		int size,
+		int self,
+		double forceSq,
+		double epsilon,
+		double[] out
+	) {
+		final double x1 = xs[self];
+		final double y1 = ys[self];
+
+		DoubleVector vx1 = DoubleVector.broadcast(SPECIES, x1);
+		DoubleVector vy1 = DoubleVector.broadcast(SPECIES, y1);
+		DoubleVector sumX = DoubleVector.zero(SPECIES);
+		DoubleVector sumY = DoubleVector.zero(SPECIES);
+
+		int j = 0;
+		int bound = SPECIES.loopBound(size);
+		for (; j < bound; j += SPECIES.length()) {
+			DoubleVector deltaX = vx1.sub(DoubleVector.fromArray(SPECIES, xs, j));
+			DoubleVector deltaY = vy1.sub(DoubleVector.fromArray(SPECIES, ys, j));
+
+			DoubleVector distanceSq = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).max(epsilon);
+			DoubleVector scale = DoubleVector.fromArray(SPECIES, weights, j)
+				.mul(forceSq)
+				.div(distanceSq.mul(distanceSq.sqrt()));
+
+			sumX = deltaX.fma(scale, sumX);
+			sumY = deltaY.fma(scale, sumY);
+		}
+
+		double totalX = sumX.reduceLanes(VectorOperators.ADD);
+		double totalY = sumY.reduceLanes(VectorOperators.ADD);
+
+		// Remaining tail which doesn't fill a whole vector
+		for (; j < size; j++) {
+			double deltaX = x1 - xs[j];
+			double deltaY = y1 - ys[j];
+			double distanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY);
+			double scale = (weights[j] * forceSq) / (distanceSq * Math.sqrt(distanceSq));
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+		}
+
+		if (Double.isNaN(totalX) || Double.isNaN(totalY)) {
+			throw new RuntimeException("accumulatePlanarRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+	}
+
+	@Override
+	public void accumulateRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] zs,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	) {
+		final float x1 = xs[self];
+		final float y1 = ys[self];
+		final float z1 = zs[self];
+
+		FloatVector vx1 = FloatVector.broadcast(FLOAT_SPECIES, x1);
+		FloatVector vy1 = FloatVector.broadcast(FLOAT_SPECIES, y1);
+		FloatVector vz1 = FloatVector.broadcast(FLOAT_SPECIES, z1);
+		FloatVector sumX = FloatVector.zero(FLOAT_SPECIES);
+		FloatVector sumY = FloatVector.zero(FLOAT_SPECIES);
+		FloatVector sumZ = FloatVector.zero(FLOAT_SPECIES);
+
+		int j = 0;
+		int bound = FLOAT_SPECIES.loopBound(size);
+		for (; j < bound; j += FLOAT_SPECIES.length()) {
+			FloatVector deltaX = vx1.sub(FloatVector.fromArray(FLOAT_SPECIES, xs, j));
+			FloatVector deltaY = vy1.sub(FloatVector.fromArray(FLOAT_SPECIES, ys, j));
+			FloatVector deltaZ = vz1.sub(FloatVector.fromArray(FLOAT_SPECIES, zs, j));
+
+			FloatVector distanceSq = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).add(deltaZ.mul(deltaZ)).max(epsilon);
+			FloatVector scale = FloatVector.fromArray(FLOAT_SPECIES, weights, j)
+				.mul(forceSq)
+				.div(distanceSq.mul(distanceSq.sqrt()));
+
+			sumX = deltaX.fma(scale, sumX);
+			sumY = deltaY.fma(scale, sumY);
+			sumZ = deltaZ.fma(scale, sumZ);
+		}
+
+		float totalX = sumX.reduceLanes(VectorOperators.ADD);
+		float totalY = sumY.reduceLanes(VectorOperators.ADD);
+		float totalZ = sumZ.reduceLanes(VectorOperators.ADD);
+
+		// Remaining tail which doesn't fill a whole vector
+		for (; j < size; j++) {
+			float deltaX = x1 - xs[j];
+			float deltaY = y1 - ys[j];
+			float deltaZ = z1 - zs[j];
+			float distanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+			float scale = (weights[j] * forceSq) / (distanceSq * (float) Math.sqrt(distanceSq));
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+			totalZ += deltaZ * scale;
+		}
+
+		if (Float.isNaN(totalX) || Float.isNaN(totalY) || Float.isNaN(totalZ)) {
+			throw new RuntimeException("accumulateRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+		out[2] += totalZ;
+	}
+
+	@Override
+	public void accumulatePlanarRepulsion(
+		float[] xs,
+		float[] ys,
+		float[] weights,
+		int size,
+		int self,
+		float forceSq,
+		float epsilon,
+		double[] out
+	) {
+		final float x1 = xs[self];
+		final float y1 = ys[self];
+
+		FloatVector vx1 = FloatVector.broadcast(FLOAT_SPECIES, x1);
+		FloatVector vy1 = FloatVector.broadcast(FLOAT_SPECIES, y1);
+		FloatVector sumX = FloatVector.zero(FLOAT_SPECIES);
+		FloatVector sumY = FloatVector.zero(FLOAT_SPECIES);
+
+		int j = 0;
+		int bound = FLOAT_SPECIES.loopBound(size);
+		for (; j < bound; j += FLOAT_SPECIES.length()) {
+			FloatVector deltaX = vx1.sub(FloatVector.fromArray(FLOAT_SPECIES, xs, j));
+			FloatVector deltaY = vy1.sub(FloatVector.fromArray(FLOAT_SPECIES, ys, j));
+
+			FloatVector distanceSq = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).max(epsilon);
+			FloatVector scale = FloatVector.fromArray(FLOAT_SPECIES, weights, j)
+				.mul(forceSq)
+				.div(distanceSq.mul(distanceSq.sqrt()));
+
+			sumX = deltaX.fma(scale, sumX);
+			sumY = deltaY.fma(scale, sumY);
+		}
+
+		float totalX = sumX.reduceLanes(VectorOperators.ADD);
+		float totalY = sumY.reduceLanes(VectorOperators.ADD);
+
+		// Remaining tail which doesn't fill a whole vector
+		for (; j < size; j++) {
+			float deltaX = x1 - xs[j];
+			float deltaY = y1 - ys[j];
+			float distanceSq = Math.max(epsilon, deltaX * deltaX + deltaY * deltaY);
+			float scale = (weights[j] * forceSq) / (distanceSq * (float) Math.sqrt(distanceSq));
+			totalX += deltaX * scale;
+			totalY += deltaY * scale;
+		}
+
+		if (Float.isNaN(totalX) || Float.isNaN(totalY)) {
+			throw new RuntimeException("accumulatePlanarRepulsion() found NaN value for: displacement");
+		}
+
+		out[0] += totalX;
+		out[1] += totalY;
+	}
+
+	@Override
+	public String getName() {
+		return "vector";
+	}
+}
@@ -0,0 +1,578 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import java.util.Arrays;
+
+/**
+ * A point octree over the positions of laid out vertices, used to resolve a
+ * click (a point or a ray cast from the camera) to the vertex it targets
+ * without scanning every vertex.
+ *
+ * <p>
+ * The tree recursively splits the layout volume into eight octants until each
+ * leaf holds at most {@value #LEAF_CAPACITY} points. Unlike the
+ * {@link BarnesHutOctree}, which is rebuilt from scratch on every layout
+ * iteration, this tree is kept between layouts and updated in place:
+ * <ul>
+ * <li>{@link #insert(int, double, double, double)} adds a point by its caller
+ * assigned index</li>
+ * <li>{@link #move(int, double, double, double)} updates a point which moved,
+ * only leaving its leaf when it has moved out of the leaf's cell</li>
+ * <li>{@link #remove(int)} drops a point</li>
+ * </ul>
+ * A point outside the root cell rebuilds the tree with bounds which fit every
+ * point, so the tree never has to be sized ahead of time.
+ *
+ * <p>
+ * Both queries descend the nearest cells first and skip any cell which can't
+ * hold a better target than the best found so far, visiting O(log n) cells
+ * for well spread vertices:
+ * <ul>
+ * <li>{@link #nearest(double, double, double, double)} finds the point closest
+ * to a position</li>
+ * <li>{@link #pick(double, double, double, double, double, double, double)}
+ * finds the first point along a ray which passes within a radius of it</li>
+ * </ul>
+ *
+ * <p>
+ * Points and nodes are stored in flat primitive arrays which grow as needed.
+ * The tree is not thread safe, callers guard updates against queries.
+ *
+ * @author @horaciovelvetine
+ * @version 1.0
+ * @since 1.0
+ * @see ClickTargetIndex
+ */
+public class VertexOctree {
+
+	/** Most points a leaf holds before it is split, unless it is at {@code MAX_DEPTH}. */
+	static final int LEAF_CAPACITY = 8;
+
+	/** Maximum subdivision depth, coincident points past this depth share a leaf. */
+	private static final int MAX_DEPTH = 24;
+
+	/** Marker for no node, no point, or the end of a leaf's point chain. */
+	private static final int NONE = -1;
+
+	/** Smallest half size of the root cell, so a single point still has a cell. */
+	private static final double MIN_HALF_SIZE = 1.0;
+
+	// Point storage, indexed by the caller assigned point index
+	private double[] pointX;
+	private double[] pointY;
+	private double[] pointZ;
+	private int[] pointLeaf;
+	private int[] nextPoint;
+	private int pointCount;
+
+	// Node storage, the root is always node 0
+	private double[] nodeCenterX;
+	private double[] nodeCenterY;
+	private double[] nodeCenterZ;
+	private double[] nodeHalfSize;
+	private int[] nodeParent;
+	private int[] nodeFirstChild;
+	private int[] nodeHead;
+	private int[] nodeCount;
+	private int[] nodeDepth;
+	private int nodes;
+
+	/**
+	 * Constructs an empty octree sized for the expected number of points.
+	 *
+	 * @param expectedPoints the number of points expected to be inserted, used to
+	 *                       size the initial storage
+	 */
+	public VertexOctree(int expectedPoints) {
+		int capacity = Math.max(16, expectedPoints);
+		pointX = new double[capacity];
+		pointY = new double[capacity];
+		pointZ = new double[capacity];
+		pointLeaf = new int[capacity];
+		nextPoint = new int[capacity];
+		Arrays.fill(pointLeaf, NONE);
+
+		int nodeCapacity = Math.max(16, capacity / 2);
+		nodeCenterX = new double[nodeCapacity];
+		nodeCenterY = new double[nodeCapacity];
+		nodeCenterZ = new double[nodeCapacity];
+		nodeHalfSize = new double[nodeCapacity];
+		nodeParent = new int[nodeCapacity];
+		nodeFirstChild = new int[nodeCapacity];
+		nodeHead = new int[nodeCapacity];
+		nodeCount = new int[nodeCapacity];
+		nodeDepth = new int[nodeCapacity];
+		resetRoot(0, 0, 0, MIN_HALF_SIZE);
+	}
+
+	/**
+	 * Gets the number of points in the tree.
+	 *
+	 * @return the point count
+	 */
+	public int size() {
+		return pointCount;
+	}
+
+	/**
+	 * Checks whether a point index is in the tree.
+	 *
+	 * @param point the caller assigned index
+	 * @return {@code true} if the point was inserted and hasn't been removed
+	 */
+	public boolean contains(int point) {
+		return point >= 0 && point < pointLeaf.length && pointLeaf[point] != NONE;
+	}
+
+	/**
+	 * Adds a point to the tree, rebuilding the tree around every point when it
+	 * lies outside the root cell.
+	 *
+	 * @param point the caller assigned index, which must not already be in the
+	 *              tree
+	 * @param x     the x position
+	 * @param y     the y position
+	 * @param z     the z position
+	 */
+	public void insert(int point, double x, double y, double z) {
+		ensurePointCapacity(point + 1);
+		pointX[point] = x;
+		pointY[point] = y;
+		pointZ[point] = z;
+		pointCount++;
+		if (!insideCell(0, x, y, z)) {
+			// Marks the point as present so the rebuild picks it up
+			pointLeaf[point] = 0;
+			rebuild();
+			return;
+		}
+		insertFrom(0, point);
+	}
+
+	/**
+	 * Moves a point already in the tree, leaving it in its leaf when it is still
+	 * inside the leaf's cell.
+	 *
+	 * @param point the caller assigned index
+	 * @param x     the new x position
+	 * @param y     the new y position
+	 * @param z     the new z position
+	 */
+	public void move(int point, double x, double y, double z) {
+		int leaf = pointLeaf[point];
+		if (insideCell(leaf, x, y, z)) {
+			pointX[point] = x;
+			pointY[point] = y;
+			pointZ[point] = z;
+			return;
+		}
+		remove(point);
+		insert(point, x, y, z);
+	}
+
+	/**
+	 * Drops a point from the tree. Emptied cells are kept, and reused when points
+	 * move back into them.
+	 *
+	 * @param point the caller assigned index
+	 */
+	public void remove(int point) {
+		int leaf = pointLeaf[point];
+		if (nodeHead[leaf] == point) {
+			nodeHead[leaf] = nextPoint[point];
+		} else {
+			int previous = nodeHead[leaf];
+			while (nextPoint[previous] != point) {
+				previous = nextPoint[previous];
+			}
+			nextPoint[previous] = nextPoint[point];
+		}
+		for (int node = leaf; node != NONE; node = nodeParent[node]) {
+			nodeCount[node]--;
+		}
+		pointLeaf[point] = NONE;
+		pointCount--;
+	}
+
+	/**
+	 * Finds the point closest to a position.
+	 *
+	 * @param x           the x position
+	 * @param y           the y position
+	 * @param z           the z position
+	 * @param maxDistance the furthest a point may be from the position
+	 * @return the index of the closest point, or -1 if none is within
+	 *         {@code maxDistance}
+	 */
+	public int nearest(double x, double y, double z, double maxDistance) {
+		double[] best = { maxDistance * maxDistance };
+		int[] bestPoint = { NONE };
+		nearestFrom(0, x, y, z, best, bestPoint);
+		return bestPoint[0];
+	}
+
+	/**
+	 * Finds the first point along a ray which passes within a radius of it, the
+	 * vertex a click cast from the camera lands on.
+	 *
+	 * @param originX    the x position the ray starts from
+	 * @param originY    the y position the ray starts from
+	 * @param originZ    the z position the ray starts from
+	 * @param directionX the x component of the ray's direction
+	 * @param directionY the y component of the ray's direction
+	 * @param directionZ the z component of the ray's direction
+	 * @param radius     the furthest a point may be from the ray
+	 * @return the index of the point closest to the origin along the ray, or -1
+	 *         if the ray passes no point within {@code radius}
+	 */
+	public int pick(
+		double originX,
+		double originY,
+		double originZ,
+		double directionX,
+		double directionY,
+		double directionZ,
+		double radius
+	) {
+		double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+		if (length == 0.0 || pointCount == 0) {
+			return NONE;
+		}
+		Ray ray = new Ray(
+			originX,
+			originY,
+			originZ,
+			directionX / length,
+			directionY / length,
+			directionZ / length,
+			radius
+		);
+		pickFrom(0, ray);
+		return ray.bestPoint;
+	}
+
+	// !PRIVATE ===================================================================>
+	// !PRIVATE ===================================================================>
+
+	/**
+	 * Rebuilds the tree around every point in it, sizing the root cell to their
+	 * bounds.
+	 */
+	private void rebuild() {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < pointLeaf.length; i++) {
+			if (pointLeaf[i] == NONE) {
+				continue;
+			}
+			minX = Math.min(minX, pointX[i]);
+			minY = Math.min(minY, pointY[i]);
+			minZ = Math.min(minZ, pointZ[i]);
+			maxX = Math.max(maxX, pointX[i]);
+			maxY = Math.max(maxY, pointY[i]);
+			maxZ = Math.max(maxZ, pointZ[i]);
+		}
+		double halfSize = Math.max(MIN_HALF_SIZE, Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) / 2);
+		// Padded so points moving a little past the current bounds don't rebuild again
+		resetRoot((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, halfSize * 1.25);
+
+		for (int i = 0; i < pointLeaf.length; i++) {
+			if (pointLeaf[i] != NONE) {
+				insertFrom(0, i);
+			}
+		}
+	}
+
+	private void resetRoot(double centerX, double centerY, double centerZ, double halfSize) {
+		nodes = 0;
+		allocateNode(NONE, centerX, centerY, centerZ, halfSize);
+	}
+
+	/**
+	 * Inserts a point into the leaf under {@code node} which holds its position,
+	 * splitting the leaf when it is full.
+	 */
+	private void insertFrom(int node, int point) {
+		while (true) {
+			nodeCount[node]++;
+			if (nodeFirstChild[node] == NONE) {
+				if (nodeCount[node] <= LEAF_CAPACITY || nodeDepth[node] >= MAX_DEPTH) {
+					nextPoint[point] = nodeHead[node];
+					nodeHead[node] = point;
+					pointLeaf[point] = node;
+					return;
+				}
+				split(node);
+			}
+			node = nodeFirstChild[node] + octantOf(node, pointX[point], pointY[point], pointZ[point]);
+		}
+	}
+
+	/**
+	 * Turns a full leaf into a branch, moving its points into the new children.
+	 */
+	private void split(int node) {
+		double quarter = nodeHalfSize[node] / 2;
+		int firstChild = nodes;
+		for (int octant = 0; octant < 8; octant++) {
+			allocateNode(
+				node,
+				nodeCenterX[node] + ((octant & 1) != 0 ? quarter : -quarter),
+				nodeCenterY[node] + ((octant & 2) != 0 ? quarter : -quarter),
+				nodeCenterZ[node] + ((octant & 4) != 0 ? quarter : -quarter),
+				quarter
+			);
+		}
+		nodeFirstChild[node] = firstChild;
+
+		int point = nodeHead[node];
+		nodeHead[node] = NONE;
+		while (point != NONE) {
+			int next = nextPoint[point];
+			int child = firstChild + octantOf(node, pointX[point], pointY[point], pointZ[point]);
+			nodeCount[child]++;
+			nextPoint[point] = nodeHead[child];
+			nodeHead[child] = point;
+			pointLeaf[point] = child;
+			point = next;
+		}
+	}
+
+	private int allocateNode(int parent, double centerX, double centerY, double centerZ, double halfSize) {
+		if (nodes == nodeCenterX.length) {
+			int capacity = nodes * 2;
+			nodeCenterX = Arrays.copyOf(nodeCenterX, capacity);
+			nodeCenterY = Arrays.copyOf(nodeCenterY, capacity);
+			nodeCenterZ = Arrays.copyOf(nodeCenterZ, capacity);
+			nodeHalfSize = Arrays.copyOf(nodeHalfSize, capacity);
+			nodeParent = Arrays.copyOf(nodeParent, capacity);
+			nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+			nodeHead = Arrays.copyOf(nodeHead, capacity);
+			nodeCount = Arrays.copyOf(nodeCount, capacity);
+			nodeDepth = Arrays.copyOf(nodeDepth, capacity);
+		}
+		int node = nodes++;
+		nodeCenterX[node] = centerX;
+		nodeCenterY[node] = centerY;
+		nodeCenterZ[node] = centerZ;
+		nodeHalfSize[node] = halfSize;
+		nodeParent[node] = parent;
+		nodeFirstChild[node] = NONE;
+		nodeHead[node] = NONE;
+		nodeCount[node] = 0;
+		nodeDepth[node] = parent == NONE ? 0 : nodeDepth[parent] + 1;
+		return node;
+	}
+
+	private void ensurePointCapacity(int required) {
+		if (required <= pointX.length) {
+			return;
+		}
+		int capacity = Math.max(required, pointX.length * 2);
+		int previous = pointLeaf.length;
+		pointX = Arrays.copyOf(pointX, capacity);
+		pointY = Arrays.copyOf(pointY, capacity);
+		pointZ = Arrays.copyOf(pointZ, capacity);
+		nextPoint = Arrays.copyOf(nextPoint, capacity);
+		pointLeaf = Arrays.copyOf(pointLeaf, capacity);
+		Arrays.fill(pointLeaf, previous, capacity, NONE);
+	}
+
+	private int octantOf(int node, double x, double y, double z) {
+		int octant = 0;
+		if (x >= nodeCenterX[node]) {
+			octant |= 1;
+		}
+		if (y >= nodeCenterY[node]) {
+			octant |= 2;
+		}
+		if (z >= nodeCenterZ[node]) {
+			octant |= 4;
+		}
+		return octant;
+	}
+
+	private boolean insideCell(int node, double x, double y, double z) {
+		double half = nodeHalfSize[node];
+		return (
+			Math.abs(x - nodeCenterX[node]) <= half &&
+			Math.abs(y - nodeCenterY[node]) <= half &&
+			Math.abs(z - nodeCenterZ[node]) <= half
+		);
+	}
+
+	/**
+	 * Squared distance from a position to the nearest point of a node's cell, 0
+	 * when the position is inside it.
+	 */
+	private double cellDistanceSq(int node, double x, double y, double z) {
+		double half = nodeHalfSize[node];
+		double dx = Math.max(0.0, Math.abs(x - nodeCenterX[node]) - half);
+		double dy = Math.max(0.0, Math.abs(y - nodeCenterY[node]) - half);
+		double dz = Math.max(0.0, Math.abs(z - nodeCenterZ[node]) - half);
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private void nearestFrom(int node, double x, double y, double z, double[] best, int[] bestPoint) {
+		if (nodeCount[node] == 0 || cellDistanceSq(node, x, y, z) > best[0]) {
+			return;
+		}
+		int firstChild = nodeFirstChild[node];
+		if (firstChild == NONE) {
+			for (int point = nodeHead[node]; point != NONE; point = nextPoint[point]) {
+				double dx = pointX[point] - x;
+				double dy = pointY[point] - y;
+				double dz = pointZ[point] - z;
+				double distanceSq = dx * dx + dy * dy + dz * dz;
+				if (distanceSq <= best[0]) {
+					best[0] = distanceSq;
+					bestPoint[0] = point;
+				}
+			}
+			return;
+		}
+
+		// Nearest octant first, so the best distance shrinks before the others
+		int near = octantOf(node, x, y, z);
+		nearestFrom(firstChild + near, x, y, z, best, bestPoint);
+		for (int octant = 0; octant < 8; octant++) {
+			if (octant != near) {
+				nearestFrom(firstChild + octant, x, y, z, best, bestPoint);
+			}
+		}
+	}
+
+	private void pickFrom(int node, Ray ray) {
+		if (nodeCount[node] == 0) {
+			return;
+		}
+		double entry = ray.entry(this, node);
+		if (entry > ray.bestT) {
+			return;
+		}
+		int firstChild = nodeFirstChild[node];
+		if (firstChild == NONE) {
+			for (int point = nodeHead[node]; point != NONE; point = nextPoint[point]) {
+				ray.test(point, pointX[point], pointY[point], pointZ[point]);
+			}
+			return;
+		}
+
+		// Children in the order the ray enters them, so the closest hit is found first
+		double[] entries = new double[8];
+		int[] order = new int[8];
+		int count = 0;
+		for (int octant = 0; octant < 8; octant++) {
+			int child = firstChild + octant;
+			if (nodeCount[child] == 0) {
+				continue;
+			}
+			double childEntry = ray.entry(this, child);
+			if (childEntry > ray.bestT) {
+				continue;
+			}
+			int i = count++;
+			while (i > 0 && entries[i - 1] > childEntry) {
+				entries[i] = entries[i - 1];
+				order[i] = order[i - 1];
+				i--;
+			}
+			entries[i] = childEntry;
+			order[i] = child;
+		}
+		for (int i = 0; i < count; i++) {
+			if (entries[i] <= ray.bestT) {
+				pickFrom(order[i], ray);
+			}
+		}
+	}
+
+	/**
+	 * A ray being picked against, with the closest point found along it so far.
+	 */
+	private static final class Ray {
+
+		private final double originX;
+		private final double originY;
+		private final double originZ;
+		private final double directionX;
+		private final double directionY;
+		private final double directionZ;
+		private final double radius;
+
+		private double bestT = Double.POSITIVE_INFINITY;
+		private int bestPoint = NONE;
+
+		/** Span of the ray inside the cell last passed to {@link #entry(VertexOctree, int)}. */
+		private double near;
+		private double far;
+
+		Ray(
+			double originX,
+			double originY,
+			double originZ,
+			double directionX,
+			double directionY,
+			double directionZ,
+			double radius
+		) {
+			this.originX = originX;
+			this.originY = originY;
+			this.originZ = originZ;
+			this.directionX = directionX;
+			this.directionY = directionY;
+			this.directionZ = directionZ;
+			this.radius = radius;
+		}
+
+		/**
+		 * Finds how far along the ray it enters a node's cell grown by the radius
+		 * (slab test), or infinity when it misses the cell or the cell is behind it.
+		 */
+		double entry(VertexOctree tree, int node) {
+			double half = tree.nodeHalfSize[node] + radius;
+			near = 0.0;
+			far = Double.POSITIVE_INFINITY;
+			boolean hit =
+				clip(originX - tree.nodeCenterX[node], directionX, half) &&
+				clip(originY - tree.nodeCenterY[node], directionY, half) &&
+				clip(originZ - tree.nodeCenterZ[node], directionZ, half);
+			return hit ? near : Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * Narrows the span of the ray inside a cell to the slab between
+		 * {@code -half} and {@code half} on one axis, relative to the cell's center.
+		 *
+		 * @return {@code false} once the span is empty
+		 */
+		private boolean clip(double origin, double direction, double half) {
+			if (direction == 0.0) {
+				return Math.abs(origin) <= half;
+			}
+			double t1 = (-half - origin) / direction;
+			double t2 = (half - origin) / direction;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+			return near <= far;
+		}
+
+		/**
+		 * Keeps the point if it is within the radius of the ray and closer along it
+		 * than the best point so far.
+		 */
+		void test(int point, double x, double y, double z) {
+			double dx = x - originX;
+			double dy = y - originY;
+			double dz = z - originZ;
+			double t = dx * directionX + dy * directionY + dz * directionZ;
+			if (t < 0.0 || t > bestT) {
+				return;
+			}
+			double offRaySq = dx * dx + dy * dy + dz * dz - t * t;
+			if (offRaySq <= radius * radius && (t < bestT || point < bestPoint)) {
+				bestT = t;
+				bestPoint = point;
+			}
+		}
+	}
+}
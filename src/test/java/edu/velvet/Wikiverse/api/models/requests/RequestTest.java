@@ -7,7 +7,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Metadata;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import org.junit.jupiter.api.BeforeEach;
@@ -494,4 +500,22 @@ class RequestTest {
 		assertTrue(request.isCompleted());
 		assertNull(request.getError());
 	}
+
+	@Test
+	@DisplayName("Should leave z out of the JSON only for a request laid out on a plane")
+	void shouldLeaveOutZOnlyForPlanarRequests() throws Exception {
+		Graphset graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		LayoutRequest spatial = new LayoutRequest(new Metadata("Q0", "en", "True"), graph);
+		LayoutRequest planar = new LayoutRequest(new Metadata("Q0", "en", "false"), graph);
+		ObjectMapper mapper = new ObjectMapper().configure(MapperFeature.DEFAULT_VIEW_INCLUSION, true);
+
+		assertFalse(request.isPlanar());
+		assertFalse(spatial.isPlanar());
+		assertTrue(planar.isPlanar());
+		assertTrue(mapper.writeValueAsString(spatial.getGraphset()).contains("\"z\":0.0"));
+		String planarJson = mapper.writerWithView(Point3D.Planar.class).writeValueAsString(planar.getGraphset());
+		assertFalse(planarJson.contains("\"z\""));
+		assertTrue(planarJson.contains("\"x\":0.0"));
+	}
 }
@@ -0,0 +1,114 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks FR3DLayout with the global cooling curve against adaptive vertex
+ * temperatures, on grid and random graphs of 1k and 5k vertices. Adaptive
+ * temperatures also bring their own step rule, moving each vertex its full
+ * displacement capped at its temperature, so a third arm runs that step rule
+ * with the global temperature ("global-steps"), separating the gain of the
+ * step rule from that of the temperatures themselves. Each layout
+ * first runs without convergence detection, to find the iterations it takes to
+ * reach a shared quality target, a distance correlation of
+ * {@value #TARGET_CORRELATION} measured every {@value #SAMPLE_INTERVAL}
+ * iterations (-1 when it never does). The step rules move vertices by very
+ * different amounts, so their energies can't share a target. It then runs with
+ * the default settings, reporting the iterations run, why it stopped, the time
+ * (ms) and the distance correlation of the result.
+ * Excluded from the default test run, use {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("Adaptive Temperature Benchmark")
+class AdaptiveTemperatureBenchmark {
+
+	private static final int[] SIZES = { 1_000, 5_000 };
+	private static final double TARGET_CORRELATION = 0.05;
+	private static final int SAMPLE_INTERVAL = 10;
+
+	@Test
+	@DisplayName("Should report iterations to a target quality, and to stop, for each temperature arm")
+	void shouldReportGlobalAgainstAdaptive() {
+		for (int size : SIZES) {
+			for (String shape : new String[] { "grid", "random" }) {
+				for (String temperatures : new String[] { "global", "global-steps", "adaptive" }) {
+					Graphset traced = graph(shape, size);
+					int toTarget = BenchmarkGraphs.iterationsToCorrelation(
+						traced,
+						layout(traced, temperatures, 0),
+						TARGET_CORRELATION,
+						SAMPLE_INTERVAL
+					);
+
+					Graphset graph = graph(shape, size);
+					long start = System.nanoTime();
+					FR3DLayout layout = layout(graph, temperatures, null);
+					layout.runLayout(graph);
+					double millis = (System.nanoTime() - start) / 1e6;
+					LayoutStats stats = layout.getStats();
+
+					System.out.printf(
+						"AdaptiveTemperatureBenchmark n=%d graph=%s temperatures=%s toTarget=%d iterations=%d stop=%s" +
+						" time=%.0fms correlation=%.3f%n",
+						size,
+						shape,
+						temperatures,
+						toTarget,
+						stats.getIterations(),
+						stats.getStopReason(),
+						millis,
+						BenchmarkGraphs.distanceCorrelation(graph)
+					);
+				}
+			}
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Graphset graph(String shape, int size) {
+		return "grid".equals(shape) ? BenchmarkGraphs.grid(size) : BenchmarkGraphs.randomGraph(size, 0.5);
+	}
+
+	private FR3DLayout layout(Graphset graph, String temperatures, Integer convergenceIterations) {
+		FR3DLayout layout = new FR3DLayout(graph, settings("adaptive".equals(temperatures), convergenceIterations));
+		return "global-steps".equals(temperatures) ? layout.withDisplacementSteps() : layout;
+	}
+
+	private LayoutSettings settings(boolean adaptive, Integer convergenceIterations) {
+		return new LayoutSettings(
+			true,
+			0.5,
+			0.5,
+			0.5,
+			250,
+			30,
+			30,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			convergenceIterations,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			adaptive
+		);
+	}
+}
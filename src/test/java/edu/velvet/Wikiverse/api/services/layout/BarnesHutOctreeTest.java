@@ -0,0 +1,168 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BarnesHutOctree class.
+ * Tests that the approximated repulsion matches the exact pairwise sum, that
+ * bodies are excluded from their own force, and that coincident bodies are
+ * handled without unbounded subdivision.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("BarnesHutOctree Tests")
+class BarnesHutOctreeTest {
+
+	private static final double EPSILON = 0.000001D;
+	private static final double FORCE_SQ = 25.0;
+
+	private double[] xs;
+	private double[] ys;
+	private double[] zs;
+	private BarnesHutOctree octree;
+
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(42);
+		int count = 500;
+		xs = new double[count];
+		ys = new double[count];
+		zs = new double[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = (random.nextDouble() - 0.5) * 1000;
+			ys[i] = (random.nextDouble() - 0.5) * 1000;
+			zs[i] = (random.nextDouble() - 0.5) * 1000;
+		}
+		octree = buildTree(xs, ys, zs);
+	}
+
+	@Test
+	@DisplayName("Should match the exact pairwise repulsion when theta is zero")
+	void shouldMatchExactRepulsionWhenThetaIsZero() {
+		for (int i = 0; i < xs.length; i += 50) {
+			double[] approx = new double[3];
+			octree.accumulateRepulsion(i, xs[i], ys[i], zs[i], 0.0, FORCE_SQ, approx);
+			double[] exact = exactRepulsion(i);
+
+			assertEquals(exact[0], approx[0], 1e-9);
+			assertEquals(exact[1], approx[1], 1e-9);
+			assertEquals(exact[2], approx[2], 1e-9);
+		}
+	}
+
+	@Test
+	@DisplayName("Should approximate the exact repulsion within tolerance")
+	void shouldApproximateExactRepulsionWithinTolerance() {
+		for (int i = 0; i < xs.length; i += 25) {
+			double[] approx = new double[3];
+			octree.accumulateRepulsion(i, xs[i], ys[i], zs[i], 0.5, FORCE_SQ, approx);
+			double[] exact = exactRepulsion(i);
+
+			double error = Math.sqrt(
+				Math.pow(exact[0] - approx[0], 2) + Math.pow(exact[1] - approx[1], 2) + Math.pow(exact[2] - approx[2], 2)
+			);
+			double magnitude = Math.sqrt(exact[0] * exact[0] + exact[1] * exact[1] + exact[2] * exact[2]);
+			assertTrue(error <= magnitude * 0.05, "Relative error too large for body " + i);
+		}
+	}
+
+	@Test
+	@DisplayName("Should exclude the queried body from its own repulsion")
+	void shouldExcludeQueriedBodyFromOwnRepulsion() {
+		BarnesHutOctree single = buildTree(new double[] { 10 }, new double[] { 10 }, new double[] { 10 });
+		double[] out = new double[3];
+		single.accumulateRepulsion(0, 10, 10, 10, 0.8, FORCE_SQ, out);
+
+		assertEquals(0.0, out[0]);
+		assertEquals(0.0, out[1]);
+		assertEquals(0.0, out[2]);
+	}
+
+	@Test
+	@DisplayName("Should handle coincident bodies without unbounded subdivision")
+	void shouldHandleCoincidentBodies() {
+		int count = 64;
+		BarnesHutOctree coincident = new BarnesHutOctree(count, EPSILON);
+		coincident.reset(5, 5, 5, 5, 5, 5);
+		for (int i = 0; i < count; i++) {
+			coincident.insert(i, 5, 5, 5, 1.0);
+		}
+
+		double[] out = new double[3];
+		coincident.accumulateRepulsion(0, 5, 5, 5, 0.8, FORCE_SQ, out);
+
+		assertTrue(coincident.getNodeCount() < 1000);
+		assertTrue(Double.isFinite(out[0]) && Double.isFinite(out[1]) && Double.isFinite(out[2]));
+	}
+
+	@Test
+	@DisplayName("Should weight bodies by their inserted weight")
+	void shouldWeightBodiesByInsertedWeight() {
+		BarnesHutOctree light = new BarnesHutOctree(2, EPSILON);
+		light.reset(0, 0, 0, 10, 0, 0);
+		light.insert(0, 0, 0, 0, 1.0);
+		light.insert(1, 10, 0, 0, 1.0);
+
+		BarnesHutOctree heavy = new BarnesHutOctree(2, EPSILON);
+		heavy.reset(0, 0, 0, 10, 0, 0);
+		heavy.insert(0, 0, 0, 0, 1.0);
+		heavy.insert(1, 10, 0, 0, 2.0);
+
+		double[] lightOut = new double[3];
+		double[] heavyOut = new double[3];
+		light.accumulateRepulsion(0, 0, 0, 0, 0.8, FORCE_SQ, lightOut);
+		heavy.accumulateRepulsion(0, 0, 0, 0, 0.8, FORCE_SQ, heavyOut);
+
+		assertTrue(lightOut[0] < 0.0);
+		assertEquals(lightOut[0] * 2.0, heavyOut[0], 1e-12);
+	}
+
+	// !PRIVATE ============================================================>
+
+	private BarnesHutOctree buildTree(double[] x, double[] y, double[] z) {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < x.length; i++) {
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			minZ = Math.min(minZ, z[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+			maxZ = Math.max(maxZ, z[i]);
+		}
+
+		BarnesHutOctree tree = new BarnesHutOctree(x.length, EPSILON);
+		tree.reset(minX, minY, minZ, maxX, maxY, maxZ);
+		for (int i = 0; i < x.length; i++) {
+			tree.insert(i, x[i], y[i], z[i], 1.0);
+		}
+		return tree;
+	}
+
+	private double[] exactRepulsion(int self) {
+		double[] out = new double[3];
+		for (int j = 0; j < xs.length; j++) {
+			if (j == self) {
+				continue;
+			}
+			double dx = xs[self] - xs[j];
+			double dy = ys[self] - ys[j];
+			double dz = zs[self] - zs[j];
+			double distanceSq = Math.max(EPSILON, dx * dx + dy * dy + dz * dz);
+			double distance = Math.sqrt(distanceSq);
+			double force = FORCE_SQ / distanceSq;
+			out[0] += (dx / distance) * force;
+			out[1] += (dy / distance) * force;
+			out[2] += (dz / distance) * force;
+		}
+		return out;
+	}
+}
@@ -0,0 +1,92 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BarnesHutQuadtree class.
+ * Tests that the approximated 2D repulsion matches both the exact pairwise sum
+ * and the planar force kernel.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("BarnesHutQuadtree Tests")
+class BarnesHutQuadtreeTest {
+
+	private static final double EPSILON = 0.000001D;
+	private static final double FORCE_SQ = 25.0;
+
+	private double[] xs;
+	private double[] ys;
+	private double[] weights;
+	private BarnesHutQuadtree quadtree;
+
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(42);
+		int count = 500;
+		xs = new double[count];
+		ys = new double[count];
+		weights = new double[count];
+		quadtree = new BarnesHutQuadtree(count, EPSILON);
+		quadtree.reset(-500, -500, 500, 500);
+		for (int i = 0; i < count; i++) {
+			xs[i] = (random.nextDouble() - 0.5) * 1000;
+			ys[i] = (random.nextDouble() - 0.5) * 1000;
+			weights[i] = 1.0;
+			quadtree.insert(i, xs[i], ys[i], weights[i]);
+		}
+	}
+
+	@Test
+	@DisplayName("Should match the planar force kernel when theta is zero")
+	void shouldMatchPlanarKernelWhenThetaIsZero() {
+		for (int i = 0; i < xs.length; i += 50) {
+			double[] approx = new double[2];
+			quadtree.accumulateRepulsion(i, xs[i], ys[i], 0.0, FORCE_SQ, approx);
+			double[] exact = new double[2];
+			new ScalarForceKernel().accumulatePlanarRepulsion(xs, ys, weights, xs.length, i, FORCE_SQ, EPSILON, exact);
+
+			assertEquals(exact[0], approx[0], 1e-9);
+			assertEquals(exact[1], approx[1], 1e-9);
+		}
+	}
+
+	@Test
+	@DisplayName("Should approximate the exact repulsion within tolerance")
+	void shouldApproximateExactRepulsionWithinTolerance() {
+		for (int i = 0; i < xs.length; i += 25) {
+			double[] approx = new double[2];
+			quadtree.accumulateRepulsion(i, xs[i], ys[i], 0.5, FORCE_SQ, approx);
+			double[] exact = new double[2];
+			new ScalarForceKernel().accumulatePlanarRepulsion(xs, ys, weights, xs.length, i, FORCE_SQ, EPSILON, exact);
+
+			double error = Math.hypot(exact[0] - approx[0], exact[1] - approx[1]);
+			assertTrue(error <= Math.hypot(exact[0], exact[1]) * 0.05, "Relative error too large for body " + i);
+		}
+	}
+
+	@Test
+	@DisplayName("Should handle coincident bodies without unbounded subdivision")
+	void shouldHandleCoincidentBodies() {
+		int count = 64;
+		BarnesHutQuadtree coincident = new BarnesHutQuadtree(count, EPSILON);
+		coincident.reset(5, 5, 5, 5);
+		for (int i = 0; i < count; i++) {
+			coincident.insert(i, 5, 5, 1.0);
+		}
+
+		double[] out = new double[2];
+		coincident.accumulateRepulsion(0, 5, 5, 0.8, FORCE_SQ, out);
+
+		assertTrue(coincident.getNodeCount() < 1000);
+		assertTrue(Double.isFinite(out[0]) && Double.isFinite(out[1]));
+	}
+}
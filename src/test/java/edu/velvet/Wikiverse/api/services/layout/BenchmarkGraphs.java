@@ -0,0 +1,151 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Graphs and layout quality measures shared by the layout benchmarks.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+final class BenchmarkGraphs {
+
+	private static final int SAMPLED_SOURCES = 20;
+
+	private BenchmarkGraphs() {}
+
+	/**
+	 * Builds a square grid graph of about the given size, with the corner vertex
+	 * locked at the origin.
+	 */
+	static Graphset grid(int size) {
+		int side = (int) Math.round(Math.sqrt(size));
+		Graphset graph = new Graphset();
+		for (int i = 0; i < side * side; i++) {
+			graph.getVertices().add(vertex(i));
+			if (i % side > 0) {
+				graph.getEdges().add(new Edge("Q" + (i - 1), "Q" + i, "P31", "H" + i));
+			}
+			if (i >= side) {
+				graph.getEdges().add(new Edge("Q" + (i - side), "Q" + i, "P31", "V" + i));
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Builds a random tree with {@code extraEdgesPerVertex} times as many extra
+	 * random edges again, with the first vertex locked at the origin.
+	 */
+	static Graphset randomGraph(int size, double extraEdgesPerVertex) {
+		Random random = new Random(size);
+		Graphset graph = new Graphset();
+		for (int i = 0; i < size; i++) {
+			graph.getVertices().add(vertex(i));
+			if (i > 0) {
+				graph.getEdges().add(new Edge("Q" + random.nextInt(i), "Q" + i, "P31", "T" + i));
+			}
+		}
+		for (int e = 0; e < size * extraEdgesPerVertex; e++) {
+			graph.getEdges().add(new Edge("Q" + random.nextInt(size), "Q" + random.nextInt(size), "P279", "E" + e));
+		}
+		return graph;
+	}
+
+	/**
+	 * Finds the Pearson correlation between the hop distance and the laid out
+	 * distance from a few sampled sources to every other vertex, 1 when the layout
+	 * follows the graph's structure exactly and around 0 for a random layout.
+	 */
+	static double distanceCorrelation(Graphset graph) {
+		LayoutState state = new LayoutState(graph, Vertex::getPosition, false);
+		int[][] adjacency = state.buildAdjacency();
+		Random random = new Random(1);
+		double n = 0, sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+
+		for (int s = 0; s < SAMPLED_SOURCES; s++) {
+			int source = random.nextInt(state.size);
+			int[] hops = new int[state.size];
+			Arrays.fill(hops, -1);
+			int[] queue = new int[state.size];
+			int head = 0, tail = 0;
+			hops[source] = 0;
+			queue[tail++] = source;
+			while (head < tail) {
+				int vertex = queue[head++];
+				for (int neighbour : adjacency[vertex]) {
+					if (hops[neighbour] < 0) {
+						hops[neighbour] = hops[vertex] + 1;
+						queue[tail++] = neighbour;
+					}
+				}
+			}
+
+			for (int i = 0; i < state.size; i++) {
+				if (hops[i] <= 0) {
+					continue;
+				}
+				double x = hops[i];
+				double y = Point3D.distance(
+					state.x[source],
+					state.y[source],
+					state.z[source],
+					state.x[i],
+					state.y[i],
+					state.z[i]
+				);
+				n++;
+				sumX += x;
+				sumY += y;
+				sumXX += x * x;
+				sumYY += y * y;
+				sumXY += x * y;
+			}
+		}
+		return (n * sumXY - sumX * sumY) / Math.sqrt((n * sumXX - sumX * sumX) * (n * sumYY - sumY * sumY));
+	}
+
+	/**
+	 * Runs a layout, measuring the {@link #distanceCorrelation(Graphset)} of its
+	 * positions every {@code interval} iterations, and finds the first measured
+	 * iteration which reached the target correlation, -1 when the layout never
+	 * reached it. A shared quality target compares layouts whose energies aren't
+	 * comparable, e.g. ones which move vertices by different step rules.
+	 */
+	static int iterationsToCorrelation(Graphset graph, FR3DLayout layout, double target, int interval) {
+		Map<String, Vertex> vertexByID = new HashMap<>();
+		for (Vertex vertex : graph.getVertices()) {
+			vertexByID.put(vertex.getId(), vertex);
+		}
+		int[] reached = { -1 };
+		layout
+			.withProgressListener((progress, positions) -> {
+				if (reached[0] >= 0 || progress.iteration() % interval != 0) {
+					return;
+				}
+				for (int i = 0; i < positions.size(); i++) {
+					vertexByID
+						.get(positions.getID(i))
+						.getPosition()
+						.setLocation(positions.getX(i), positions.getY(i), positions.getZ(i));
+				}
+				if (distanceCorrelation(graph) >= target) {
+					reached[0] = progress.iteration();
+				}
+			})
+			.runLayout(graph);
+		return reached[0];
+	}
+
+	private static Vertex vertex(int i) {
+		return new Vertex("Q" + i, "Label", "desc", "url", i == 0 ? new Point3D() : null, i == 0);
+	}
+}
@@ -0,0 +1,78 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.ClickTarget;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ClickTargetIndex class.
+ * Tests that re-indexing a graphset under its key picks up moved, added and
+ * removed vertices, and that unknown keys are answered with an error.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("ClickTargetIndex Tests")
+class ClickTargetIndexTest {
+
+	@Test
+	@DisplayName("Should resolve clicks against the latest positions after re-indexing under the same key")
+	void shouldResolveClicksAfterReindexing() {
+		ClickTargetIndex index = new ClickTargetIndex(16, 60);
+		Graphset graph = new Graphset();
+		graph.getVertices().add(vertex("Q1", 0, 0, 0));
+		graph.getVertices().add(vertex("Q2", 100, 0, 0));
+		String key = index.index(null, graph);
+
+		assertEquals("Q2", target(index.nearest(key, new Point3D(90, 0, 0), Double.POSITIVE_INFINITY)).vertexID());
+
+		graph.getVertexByID("Q2").getPosition().setLocation(-100, 0, 0);
+		graph.getVertices().add(vertex("Q3", 0, 100, 0));
+		graph.removeAnyEntitiesMatchingID("Q1");
+		assertEquals(key, index.index(key, graph));
+
+		assertEquals("Q2", target(index.nearest(key, new Point3D(-90, 0, 0), Double.POSITIVE_INFINITY)).vertexID());
+		assertEquals("Q3", target(index.nearest(key, new Point3D(0, 10, 0), Double.POSITIVE_INFINITY)).vertexID());
+		assertNull(target(index.nearest(key, new Point3D(100, 0, 0), 50.0)));
+
+		ClickTarget picked = target(index.pick(key, new Point3D(0, 500, 0), new Point3D(0, -1, 0), 5.0));
+		assertEquals("Q3", picked.vertexID());
+		assertEquals(400.0, picked.distance(), 1e-9);
+	}
+
+	@Test
+	@DisplayName("Should error for an unknown key, and index under a new key")
+	void shouldErrorForUnknownKey() {
+		ClickTargetIndex index = new ClickTargetIndex(16, 60);
+		Either<WikiverseError, ClickTarget> result = index.nearest("missing", new Point3D(), 1.0);
+		assertTrue(result.isLeft());
+		assertEquals(Integer.valueOf(404), result.getLeft().httpStatusCode());
+
+		Graphset graph = new Graphset();
+		graph.getVertices().add(vertex("Q1", 0, 0, 0));
+		assertNotEquals("missing", index.index("missing", graph));
+		assertEquals(1, index.size());
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Vertex vertex(String id, double x, double y, double z) {
+		return new Vertex(id, "Label", "desc", "url", new Point3D(x, y, z), false);
+	}
+
+	private ClickTarget target(Either<WikiverseError, ClickTarget> result) {
+		assertTrue(result.isRight());
+		return result.get();
+	}
+}
@@ -0,0 +1,166 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ComponentLayout class.
+ * Tests that a graphset is split into its connected components, and that the
+ * laid out components are packed around the locked origin without overlapping
+ * or leaving the layout volume, publishing to the telemetry the layout is given.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("ComponentLayout Tests")
+class ComponentLayoutTest {
+
+	private final LayoutSettings settings = new LayoutSettings("true");
+
+	@Test
+	@DisplayName("Should split a graphset into its connected components, largest first")
+	void shouldFindComponentsLargestFirst() {
+		Graphset graph = new Graphset();
+		addStar(graph, "A", 5, true);
+		addStar(graph, "B", 8, false);
+		graph.getVertices().add(new Vertex("C0", "Label", "desc", "url", null, false));
+		graph.getEdges().add(new Edge("C0", "Q-missing", "P31", "S-missing"));
+
+		List<Graphset> components = ComponentLayout.findComponents(graph);
+
+		assertEquals(3, components.size());
+		assertEquals(9, components.get(0).getVertexCount());
+		assertEquals(8, components.get(0).getEdges().size());
+		assertEquals(6, components.get(1).getVertexCount());
+		assertEquals(1, components.get(2).getVertexCount());
+		assertTrue(components.get(2).getEdges().isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should pack the laid out components around the locked origin without overlapping")
+	void shouldPackComponentsWithoutOverlap() {
+		Graphset graph = new Graphset();
+		addStar(graph, "A", 10, true);
+		addStar(graph, "B", 30, false);
+		addStar(graph, "C", 6, false);
+		graph.getVertices().add(new Vertex("D0", "Label", "desc", "url", null, false));
+
+		ComponentLayout layout = new ComponentLayout(graph, settings);
+		layout.runLayout(graph);
+		LayoutStats stats = layout.getStats();
+
+		assertEquals(4, layout.getComponentCount());
+		assertEquals(ComponentLayout.ENGINE_NAME, stats.getEngine());
+		assertTrue(stats.getIterations() > 0);
+		assertEquals(new Point3D(), graph.getVertexByID("A0").getPosition());
+
+		List<double[]> spheres = List.of(sphere(graph, "A"), sphere(graph, "B"), sphere(graph, "C"), sphere(graph, "D"));
+		for (int a = 0; a < spheres.size(); a++) {
+			for (int b = a + 1; b < spheres.size(); b++) {
+				double[] first = spheres.get(a);
+				double[] second = spheres.get(b);
+				double distance = Point3D.distance(first[0], first[1], first[2], second[0], second[1], second[2]);
+				assertTrue(distance >= first[3] + second[3], "components " + a + " and " + b + " overlap");
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should keep the packed components within the layout volume, even around an anchor by its edge")
+	void shouldPackComponentsWithinLayoutVolume() {
+		Graphset graph = new Graphset();
+		addStar(graph, "A", 0, true);
+		addStar(graph, "B", 5, false);
+		for (int i = 0; i < 12; i++) {
+			graph.getVertices().add(new Vertex("C" + i, "Label", "desc", "url", null, false));
+		}
+		double bound = FR3DLayout.calculateLayoutDimensions(graph.getVertexCount(), 0.5).getHeight();
+		graph.getVertexByID("A0").getPosition().setLocation(bound - 5, 0, 0);
+
+		new ComponentLayout(graph, settings).runLayout(graph);
+
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			double reach = Math.max(Math.abs(position.getX()), Math.abs(position.getY()));
+			reach = Math.max(reach, Math.abs(position.getZ()));
+			assertTrue(reach <= bound, vertex.getId() + " at " + position + " is past the bound " + bound);
+		}
+	}
+
+	@Test
+	@DisplayName("Should lay out a connected graphset with the selected engine alone")
+	void shouldUseSelectedEngineForSingleComponent() {
+		Graphset graph = new Graphset();
+		addStar(graph, "A", 10, true);
+
+		ComponentLayout layout = new ComponentLayout(graph, settings);
+		layout.runLayout(graph);
+
+		assertEquals(1, layout.getComponentCount());
+		assertEquals(FR3DLayout.ENGINE_NAME, layout.getStats().getEngine());
+	}
+
+	@Test
+	@DisplayName("Should publish its run, and its components' iterations, to the telemetry it is given")
+	void shouldPublishToGivenTelemetry() {
+		Graphset graph = new Graphset();
+		addStar(graph, "A", 10, true);
+		addStar(graph, "B", 12, false);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		LayoutTelemetry telemetry = new LayoutTelemetry(false, 10, registry);
+		new ComponentLayout(graph, settings).withTelemetry(telemetry).runLayout(graph);
+
+		assertEquals(1, registry.get(LayoutTelemetry.RUN_VERTICES).summary().count());
+		assertTrue(registry.get(LayoutTelemetry.ITERATION_ENERGY).summary().count() >= 2);
+	}
+
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Adds a star of the given number of leaves around a hub, with every vertex ID
+	 * starting with the prefix.
+	 */
+	private void addStar(Graphset graph, String prefix, int leaves, boolean lockHub) {
+		graph.getVertices().add(new Vertex(prefix + "0", "Hub", "desc", "url", new Point3D(), lockHub));
+		for (int i = 1; i <= leaves; i++) {
+			graph.getVertices().add(new Vertex(prefix + i, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge(prefix + "0", prefix + i, "P31", prefix + "S" + i));
+		}
+	}
+
+	/**
+	 * Finds the bounding sphere, as {x, y, z, radius}, of the vertices whose ID
+	 * starts with the prefix.
+	 */
+	private double[] sphere(Graphset graph, String prefix) {
+		List<Point3D> positions = graph
+			.getVertices()
+			.stream()
+			.filter(vertex -> vertex.getId().startsWith(prefix))
+			.map(Vertex::getPosition)
+			.toList();
+		double[] sphere = new double[4];
+		for (Point3D position : positions) {
+			sphere[0] += position.getX() / positions.size();
+			sphere[1] += position.getY() / positions.size();
+			sphere[2] += position.getZ() / positions.size();
+		}
+		for (Point3D position : positions) {
+			sphere[3] = Math.max(sphere[3], position.distance(sphere[0], sphere[1], sphere[2]));
+		}
+		return sphere;
+	}
+}
@@ -0,0 +1,311 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the FR3DLayout class.
+ * Tests that the layout stops early once it has converged or run out of time,
+ * and reports why it stopped and the iterations it used, returning the
+ * lowest-energy positions when it is cut short, and that the float32
+ * precision lays out within tolerance of double precision, and that adaptive
+ * vertex temperatures lay a graph out closer to its graph distances than the
+ * global cooling curve with the same step rule.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("FR3DLayout Tests")
+class FR3DLayoutTest {
+
+	private Graphset graph;
+
+	@BeforeEach
+	void setUp() {
+		graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		for (int i = 1; i <= 30; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+		}
+	}
+
+	@Test
+	@DisplayName("Should not report a stop reason before the layout has run")
+	void shouldNotReportStopReasonBeforeRunning() {
+		FR3DLayout layout = new FR3DLayout(graph, settings(250, 0.01, 10));
+
+		assertNull(layout.getStats().getStopReason());
+		assertEquals(0, layout.getStats().getIterations());
+	}
+
+	@Test
+	@DisplayName("Should stop once movement stays below the threshold for k iterations")
+	void shouldStopOnceConverged() {
+		for (Vertex vertex : graph.getVertices()) {
+			vertex.lock();
+		}
+		FR3DLayout layout = new FR3DLayout(graph, settings(250, 0.01, 4));
+		layout.runLayout(graph);
+		LayoutStats stats = layout.getStats();
+
+		assertEquals(StopReason.CONVERGED, stats.getStopReason());
+		assertEquals(4, stats.getIterations());
+		assertEquals(0.0, stats.getMaxDisplacement());
+	}
+
+	@Test
+	@DisplayName("Should run every iteration when convergence detection is disabled")
+	void shouldRunEveryIterationWhenConvergenceDisabled() {
+		FR3DLayout layout = new FR3DLayout(graph, settings(5, 0.01, 0));
+		layout.runLayout(graph);
+		LayoutStats stats = layout.getStats();
+
+		assertEquals(StopReason.MAX_ITERATIONS, stats.getStopReason());
+		assertEquals(6, stats.getIterations());
+		assertEquals(FR3DLayout.ENGINE_NAME, stats.getEngine());
+		assertFalse(stats.isPartial());
+	}
+
+	@Test
+	@DisplayName("Should return a partial layout once the time budget has run out")
+	void shouldReturnPartialLayoutOnceDeadlinePasses() {
+		FR3DLayout layout = new FR3DLayout(graph, settings(250, 0.01, 10)).withDeadline(System.nanoTime());
+		layout.runLayout(graph);
+		LayoutStats stats = layout.getStats();
+
+		assertEquals(StopReason.TIME_BUDGET, stats.getStopReason());
+		assertTrue(stats.isPartial());
+		assertEquals(0, stats.getIterations());
+		for (Vertex vertex : graph.getVertices()) {
+			assertNotNull(vertex.getPosition());
+		}
+	}
+
+	@Test
+	@DisplayName("Should return the lowest-energy positions when the layout is cancelled")
+	void shouldReturnLowestEnergyPositionsOnceCancelled() {
+		List<Double> energies = new ArrayList<>();
+		List<double[][]> positions = new ArrayList<>();
+		List<Vertex> vertices = new ArrayList<>();
+		FR3DLayout layout = new FR3DLayout(graph, settings(true, null, null, true, 250, 0.01, 0)).withProgressListener(
+			(progress, reached) -> {
+				LayoutState state = (LayoutState) reached;
+				energies.add(progress.energy());
+				positions.add(new double[][] { state.x.clone(), state.y.clone(), state.z.clone() });
+				if (vertices.isEmpty()) {
+					vertices.addAll(List.of(state.vertices));
+				}
+				if (progress.iteration() == 35) {
+					// Knock every vertex out of place, so the warming layout moves further
+					for (int i = 0; i < state.size; i++) {
+						if (state.movable[i]) {
+							state.x[i] += 50;
+						}
+					}
+				}
+				if (progress.iteration() == 45) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		);
+		layout.runLayout(graph);
+		Thread.interrupted();
+
+		int lowest = 0;
+		for (int i = 1; i < energies.size(); i++) {
+			lowest = energies.get(i) < energies.get(lowest) ? i : lowest;
+		}
+		assertEquals(StopReason.CANCELLED, layout.getStats().getStopReason());
+		assertTrue(lowest < energies.size() - 1, "the last iteration had the lowest energy");
+		assertEquals(energies.get(lowest).doubleValue(), layout.getStats().getEnergy());
+		double[][] expected = positions.get(lowest);
+		for (int i = 0; i < vertices.size(); i++) {
+			Point3D position = vertices.get(i).getPosition();
+			assertEquals(new Point3D(expected[0][i], expected[1][i], expected[2][i]), position);
+		}
+	}
+
+	@Test
+	@DisplayName("Should keep every vertex on the plane when the settings don't prefer 3D")
+	void shouldLayOutInPlaneWithout3D() {
+		FR3DLayout layout = new FR3DLayout(graph, settings(false, null, 50, 0.01, 0));
+		layout.runLayout(graph);
+
+		double spread = 0;
+		for (Vertex vertex : graph.getVertices()) {
+			assertEquals(0.0, vertex.getPosition().getZ());
+			spread = Math.max(spread, Math.hypot(vertex.getPosition().getX(), vertex.getPosition().getY()));
+		}
+		assertTrue(spread > 0);
+		assertTrue(layout.toString().contains("planar=true"));
+	}
+
+	@Test
+	@DisplayName("Should spread the vertices apart using grid repulsion")
+	void shouldSpreadVerticesWithGridRepulsion() {
+		FR3DLayout layout = new FR3DLayout(graph, settings(true, FR3DLayout.GRID_REPULSION, 50, 0.01, 0));
+		layout.runLayout(graph);
+
+		assertTrue(layout.toString().contains("grid=cutoff="));
+		for (int i = 1; i <= 30; i++) {
+			Point3D position = graph.getVertexByID("Q" + i).getPosition();
+			for (int j = i + 1; j <= 30; j++) {
+				assertTrue(position.distance(graph.getVertexByID("Q" + j).getPosition()) > 0.01);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should lay out within tolerance of double precision in float32 precision")
+	void shouldLayOutWithinToleranceInFloat32() {
+		Graphset single = new Graphset();
+		single.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		for (int i = 1; i <= 30; i++) {
+			single.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+			single.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+		}
+		FR3DLayout doubleLayout = new FR3DLayout(graph, settings(50, 0.01, 0));
+		LayoutSettings singleSettings = settings(true, null, FR3DLayout.FLOAT32_PRECISION, 50, 0.01, 0);
+		FR3DLayout singleLayout = new FR3DLayout(single, singleSettings);
+		doubleLayout.runLayout(graph);
+		singleLayout.runLayout(single);
+
+		assertTrue(singleLayout.toString().contains("precision=float32"));
+		assertEquals(doubleLayout.getStats().getIterations(), singleLayout.getStats().getIterations());
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D expected = vertex.getPosition();
+			Point3D actual = single.getVertexByID(vertex.getId()).getPosition();
+			assertEquals(0.0, expected.distance(actual), 1e-3 * Math.max(1.0, expected.distance(new Point3D())));
+		}
+	}
+
+	@Test
+	@DisplayName("Should sample the first and every interval iterations to the telemetry")
+	void shouldSampleIterationsToTelemetry() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		LayoutTelemetry telemetry = new LayoutTelemetry(false, 10, registry);
+		FR3DLayout layout = new FR3DLayout(graph, settings(25, 0.01, 0)).withTelemetry(telemetry);
+		layout.runLayout(graph);
+
+		int samples = 1 + layout.getStats().getIterations() / 10;
+		assertTrue(samples > 2);
+		assertEquals(samples, registry.get(LayoutTelemetry.ITERATION_ENERGY).summary().count());
+		assertEquals(samples, registry.get(LayoutTelemetry.PHASE_TIMER).tags("phase", "repulsion").timer().count());
+		assertFalse(telemetry.isTracing());
+	}
+
+	@Test
+	@DisplayName("Should lay a grid out closer to its graph distances with adaptive vertex temperatures")
+	void shouldImproveLayoutWithAdaptiveTemperatures() {
+		Graphset global = BenchmarkGraphs.grid(100);
+		Graphset adaptive = BenchmarkGraphs.grid(100);
+		// Same step rule in both, so only the temperatures differ
+		FR3DLayout globalLayout = new FR3DLayout(global, settings(true, null, null, false, 250, 0.01, 10))
+			.withDisplacementSteps();
+		FR3DLayout adaptiveLayout = new FR3DLayout(adaptive, settings(true, null, null, true, 250, 0.01, 10));
+		globalLayout.runLayout(global);
+		adaptiveLayout.runLayout(adaptive);
+
+		assertTrue(adaptiveLayout.toString().contains("adaptiveTemperatures=true"));
+		double globalCorrelation = BenchmarkGraphs.distanceCorrelation(global);
+		double adaptiveCorrelation = BenchmarkGraphs.distanceCorrelation(adaptive);
+		assertTrue(
+			adaptiveCorrelation > globalCorrelation + 0.3,
+			"adaptive " + adaptiveCorrelation + " against global " + globalCorrelation
+		);
+		for (Vertex vertex : adaptive.getVertices()) {
+			Point3D position = vertex.getPosition();
+			assertTrue(Double.isFinite(position.getX() + position.getY() + position.getZ()));
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private LayoutSettings settings(int maxIterations, double convergenceThreshold, int convergenceIterations) {
+		return settings(true, null, maxIterations, convergenceThreshold, convergenceIterations);
+	}
+
+	private LayoutSettings settings(
+		boolean prefers3D,
+		String repulsionMode,
+		int maxIterations,
+		double convergenceThreshold,
+		int convergenceIterations
+	) {
+		return settings(prefers3D, repulsionMode, null, maxIterations, convergenceThreshold, convergenceIterations);
+	}
+
+	private LayoutSettings settings(
+		boolean prefers3D,
+		String repulsionMode,
+		String layoutPrecision,
+		int maxIterations,
+		double convergenceThreshold,
+		int convergenceIterations
+	) {
+		return settings(
+			prefers3D,
+			repulsionMode,
+			layoutPrecision,
+			false,
+			maxIterations,
+			convergenceThreshold,
+			convergenceIterations
+		);
+	}
+
+	private LayoutSettings settings(
+		boolean prefers3D,
+		String repulsionMode,
+		String layoutPrecision,
+		boolean adaptiveTemperatures,
+		int maxIterations,
+		double convergenceThreshold,
+		int convergenceIterations
+	) {
+		return new LayoutSettings(
+			prefers3D,
+			0.5,
+			0.5,
+			0.5,
+			maxIterations,
+			30,
+			30,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			convergenceThreshold,
+			convergenceIterations,
+			null,
+			repulsionMode,
+			null,
+			null,
+			layoutPrecision,
+			null,
+			adaptiveTemperatures
+		);
+	}
+}
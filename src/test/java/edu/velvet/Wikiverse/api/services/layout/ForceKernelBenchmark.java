@@ -0,0 +1,176 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks the scalar and vectorized ForceKernel implementations, in double
+ * and single (float32) precision.
+ * Reports the time (ms) to calculate the exact repulsion for every vertex, the
+ * cost of one layout iteration without Barnes-Hut, and the largest error of
+ * the float32 displacement relative to the double one, at 1k, 5k and 20k
+ * vertices.
+ * Excluded from the default test run, use {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("ForceKernel Benchmark")
+class ForceKernelBenchmark {
+
+	private static final double EPSILON = 0.000001D;
+	private static final double FORCE_SQ = 25.0;
+	private static final int[] SIZES = { 1_000, 5_000, 20_000 };
+
+	@Test
+	@DisplayName("Should report ms per iteration for the scalar and vector kernels")
+	void shouldReportMillisPerIterationForEachKernel() {
+		assumeTrue(ForceKernel.isVectorAvailable(), "jdk.incubator.vector is not available");
+		ForceKernel scalar = new ScalarForceKernel();
+		ForceKernel vector = ForceKernel.select(true);
+
+		for (int size : SIZES) {
+			Bodies bodies = new Bodies(size);
+			int rounds = Math.max(1, 20_000 / size);
+
+			double[] scalarSum = iterate(scalar, bodies);
+			double[] vectorSum = iterate(vector, bodies);
+			double scalarMs = time(scalar, bodies, rounds, false);
+			double vectorMs = time(vector, bodies, rounds, false);
+			double scalarFloatMs = time(scalar, bodies, rounds, true);
+			double vectorFloatMs = time(vector, bodies, rounds, true);
+
+			System.out.printf(
+				"ForceKernelBenchmark n=%d scalar=%.2fms/iter vector=%.2fms/iter speedup=%.2fx " +
+				"scalar-f32=%.2fms/iter vector-f32=%.2fms/iter f32-speedup=%.2fx/%.2fx f32-error=%.2e%n",
+				size,
+				scalarMs,
+				vectorMs,
+				scalarMs / vectorMs,
+				scalarFloatMs,
+				vectorFloatMs,
+				scalarMs / scalarFloatMs,
+				vectorMs / vectorFloatMs,
+				maxRelativeError(vector, bodies)
+			);
+			// Both kernels should agree (up to summation order)
+			assertEquals(scalarSum[0], vectorSum[0], Math.abs(scalarSum[0]) * 1e-6 + 1e-6);
+			assertEquals(scalarSum[1], vectorSum[1], Math.abs(scalarSum[1]) * 1e-6 + 1e-6);
+			assertEquals(scalarSum[2], vectorSum[2], Math.abs(scalarSum[2]) * 1e-6 + 1e-6);
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private double time(ForceKernel kernel, Bodies bodies, int rounds, boolean singlePrecision) {
+		iterate(kernel, bodies, singlePrecision); // warm up
+		long start = System.nanoTime();
+		for (int r = 0; r < rounds; r++) {
+			iterate(kernel, bodies, singlePrecision);
+		}
+		return (System.nanoTime() - start) / 1e6 / rounds;
+	}
+
+	private double[] iterate(ForceKernel kernel, Bodies bodies) {
+		return iterate(kernel, bodies, false);
+	}
+
+	private double[] iterate(ForceKernel kernel, Bodies bodies, boolean singlePrecision) {
+		double[] total = new double[3];
+		double[] out = new double[3];
+		for (int i = 0; i < bodies.size; i++) {
+			out[0] = 0.0;
+			out[1] = 0.0;
+			out[2] = 0.0;
+			accumulate(kernel, bodies, i, singlePrecision, out);
+			total[0] += Math.abs(out[0]);
+			total[1] += Math.abs(out[1]);
+			total[2] += Math.abs(out[2]);
+		}
+		return total;
+	}
+
+	private void accumulate(ForceKernel kernel, Bodies bodies, int i, boolean singlePrecision, double[] out) {
+		if (singlePrecision) {
+			kernel.accumulateRepulsion(
+				bodies.xf,
+				bodies.yf,
+				bodies.zf,
+				bodies.wf,
+				bodies.size,
+				i,
+				(float) FORCE_SQ,
+				(float) EPSILON,
+				out
+			);
+		} else {
+			kernel.accumulateRepulsion(bodies.x, bodies.y, bodies.z, bodies.w, bodies.size, i, FORCE_SQ, EPSILON, out);
+		}
+	}
+
+	/**
+	 * Finds the largest difference between the float32 and double displacement of
+	 * any vertex, relative to the length of the double displacement.
+	 */
+	private double maxRelativeError(ForceKernel kernel, Bodies bodies) {
+		double maxError = 0.0;
+		for (int i = 0; i < bodies.size; i++) {
+			double[] expected = new double[3];
+			double[] actual = new double[3];
+			accumulate(kernel, bodies, i, false, expected);
+			accumulate(kernel, bodies, i, true, actual);
+			double errorSq = 0.0;
+			double lengthSq = 0.0;
+			for (int axis = 0; axis < 3; axis++) {
+				errorSq += (expected[axis] - actual[axis]) * (expected[axis] - actual[axis]);
+				lengthSq += expected[axis] * expected[axis];
+			}
+			maxError = Math.max(maxError, Math.sqrt(errorSq / lengthSq));
+		}
+		return maxError;
+	}
+
+	private static final class Bodies {
+
+		final int size;
+		final double[] x;
+		final double[] y;
+		final double[] z;
+		final double[] w;
+		final float[] xf;
+		final float[] yf;
+		final float[] zf;
+		final float[] wf;
+
+		Bodies(int size) {
+			Random random = new Random(size);
+			this.size = size;
+			this.x = new double[size];
+			this.y = new double[size];
+			this.z = new double[size];
+			this.w = new double[size];
+			this.xf = new float[size];
+			this.yf = new float[size];
+			this.zf = new float[size];
+			this.wf = new float[size];
+			double side = Math.cbrt(size) * 100;
+			for (int i = 0; i < size; i++) {
+				x[i] = (random.nextDouble() - 0.5) * side;
+				y[i] = (random.nextDouble() - 0.5) * side;
+				z[i] = (random.nextDouble() - 0.5) * side;
+				w[i] = i % 50 == 0 ? 2.0 : 1.0;
+				xf[i] = (float) x[i];
+				yf[i] = (float) y[i];
+				zf[i] = (float) z[i];
+				wf[i] = (float) w[i];
+			}
+		}
+	}
+}
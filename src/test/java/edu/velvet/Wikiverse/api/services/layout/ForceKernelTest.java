@@ -0,0 +1,140 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ForceKernel implementations.
+ * Tests that the vectorized kernel matches the scalar kernel, including the
+ * tail which doesn't fill a whole vector, that the float32 forms stay within
+ * single precision of the double forms, and that kernel selection falls back
+ * to the scalar kernel.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("ForceKernel Tests")
+class ForceKernelTest {
+
+	private static final double EPSILON = 0.000001D;
+	private static final double FORCE_SQ = 25.0;
+
+	private double[] xs;
+	private double[] ys;
+	private double[] zs;
+	private double[] weights;
+
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(42);
+		int count = 203; // not a multiple of any vector length
+		xs = new double[count];
+		ys = new double[count];
+		zs = new double[count];
+		weights = new double[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = (random.nextDouble() - 0.5) * 1000;
+			ys[i] = (random.nextDouble() - 0.5) * 1000;
+			zs[i] = (random.nextDouble() - 0.5) * 1000;
+			weights[i] = i % 10 == 0 ? 2.0 : 1.0;
+		}
+	}
+
+	@Test
+	@DisplayName("Should select the scalar kernel when vectorization is not requested")
+	void shouldSelectScalarKernelWhenNotRequested() {
+		assertInstanceOf(ScalarForceKernel.class, ForceKernel.select(false));
+	}
+
+	@Test
+	@DisplayName("Should match the scalar kernel with the vectorized kernel")
+	void shouldMatchScalarKernelWithVectorizedKernel() {
+		assumeTrue(ForceKernel.isVectorAvailable(), "jdk.incubator.vector is not available");
+		ForceKernel scalar = new ScalarForceKernel();
+		ForceKernel vector = ForceKernel.select(true);
+		assertInstanceOf(VectorForceKernel.class, vector);
+
+		for (int i = 0; i < xs.length; i++) {
+			double[] expected = new double[3];
+			double[] actual = new double[3];
+			scalar.accumulateRepulsion(xs, ys, zs, weights, xs.length, i, FORCE_SQ, EPSILON, expected);
+			vector.accumulateRepulsion(xs, ys, zs, weights, xs.length, i, FORCE_SQ, EPSILON, actual);
+
+			assertEquals(expected[0], actual[0], 1e-9);
+			assertEquals(expected[1], actual[1], 1e-9);
+			assertEquals(expected[2], actual[2], 1e-9);
+		}
+	}
+
+	@Test
+	@DisplayName("Should match the double kernels with the float32 kernels within single precision")
+	void shouldMatchDoubleKernelsWithFloatKernels() {
+		List<ForceKernel> kernels = new ArrayList<>(List.of(new ScalarForceKernel()));
+		if (ForceKernel.isVectorAvailable()) {
+			kernels.add(ForceKernel.select(true));
+		}
+		float[] xf = toFloat(xs);
+		float[] yf = toFloat(ys);
+		float[] zf = toFloat(zs);
+		float[] wf = toFloat(weights);
+
+		for (ForceKernel kernel : kernels) {
+			for (int i = 0; i < xs.length; i++) {
+				double[] expected = new double[3];
+				double[] actual = new double[3];
+				double[] planarExpected = new double[2];
+				double[] planarActual = new double[2];
+				kernel.accumulateRepulsion(xs, ys, zs, weights, xs.length, i, FORCE_SQ, EPSILON, expected);
+				kernel.accumulateRepulsion(xf, yf, zf, wf, xs.length, i, (float) FORCE_SQ, (float) EPSILON, actual);
+				kernel.accumulatePlanarRepulsion(xs, ys, weights, xs.length, i, FORCE_SQ, EPSILON, planarExpected);
+				kernel.accumulatePlanarRepulsion(
+					xf,
+					yf,
+					wf,
+					xs.length,
+					i,
+					(float) FORCE_SQ,
+					(float) EPSILON,
+					planarActual
+				);
+
+				assertTrue(relativeError(expected, actual) < 1e-4, kernel.getName() + " vertex " + i);
+				assertTrue(relativeError(planarExpected, planarActual) < 1e-4, kernel.getName() + " vertex " + i);
+			}
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private float[] toFloat(double[] values) {
+		float[] floats = new float[values.length];
+		for (int i = 0; i < values.length; i++) {
+			floats[i] = (float) values[i];
+		}
+		return floats;
+	}
+
+	/**
+	 * The distance between two displacements, relative to the length of the
+	 * expected one.
+	 */
+	private double relativeError(double[] expected, double[] actual) {
+		double error = 0.0;
+		double length = 0.0;
+		for (int axis = 0; axis < expected.length; axis++) {
+			error += (expected[axis] - actual[axis]) * (expected[axis] - actual[axis]);
+			length += expected[axis] * expected[axis];
+		}
+		return Math.sqrt(error / length);
+	}
+}
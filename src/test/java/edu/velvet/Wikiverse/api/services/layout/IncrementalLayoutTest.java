@@ -0,0 +1,88 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the IncrementalLayout class.
+ * Tests that previously placed vertices keep (roughly) their position, and that
+ * new vertices are placed near their already placed neighbours.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("IncrementalLayout Tests")
+class IncrementalLayoutTest {
+
+	private Graphset graph;
+	private Set<String> placedIDs;
+	private LayoutSettings settings;
+
+	@BeforeEach
+	void setUp() {
+		graph = new Graphset();
+		placedIDs = new HashSet<>();
+		settings = new LayoutSettings("true");
+
+		// A placed ring of vertices around the locked origin...
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		placedIDs.add("Q0");
+		for (int i = 1; i <= 20; i++) {
+			double angle = (2 * Math.PI * i) / 20;
+			Point3D position = new Point3D(Math.cos(angle) * 100, Math.sin(angle) * 100, 0);
+			graph.getVertices().add(new Vertex("Q" + i, "Placed", "desc", "url", position, false));
+			graph.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+			placedIDs.add("Q" + i);
+		}
+
+		// ...with two new vertices hanging off Q5, one behind the other
+		graph.getVertices().add(new Vertex("Q100", "New", "desc", "url", null, false));
+		graph.getVertices().add(new Vertex("Q101", "New", "desc", "url", null, false));
+		graph.getEdges().add(new Edge("Q5", "Q100", "P31", "N1"));
+		graph.getEdges().add(new Edge("Q100", "Q101", "P31", "N2"));
+	}
+
+	@Test
+	@DisplayName("Should only count vertices which were not already placed as new")
+	void shouldCountNewVertices() {
+		IncrementalLayout layout = new IncrementalLayout(graph, settings, placedIDs);
+
+		assertEquals(2, layout.getNewVertexCount());
+	}
+
+	@Test
+	@DisplayName("Should place new vertices near their placed neighbours")
+	void shouldPlaceNewVerticesNearTheirPlacedNeighbours() {
+		Point3D q5 = graph.getVertexByID("Q5").getPosition();
+		Point3D anchor = new Point3D(q5.getX(), q5.getY(), q5.getZ());
+		new IncrementalLayout(graph, settings, placedIDs).runLayout(graph);
+
+		Point3D first = graph.getVertexByID("Q100").getPosition();
+		Point3D second = graph.getVertexByID("Q101").getPosition();
+		assertTrue(first.distance(anchor) < 50, "New vertex should start next to its placed neighbour");
+		assertTrue(second.distance(anchor) < 100, "New vertex should start next to its new neighbour");
+	}
+
+	@Test
+	@DisplayName("Should keep placed vertices close to their existing position")
+	void shouldKeepPlacedVerticesCloseToExistingPosition() {
+		Point3D q12 = graph.getVertexByID("Q12").getPosition();
+		Point3D before = new Point3D(q12.getX(), q12.getY(), q12.getZ());
+		new IncrementalLayout(graph, settings, placedIDs).runLayout(graph);
+
+		assertTrue(graph.getVertexByID("Q12").getPosition().distance(before) < 50);
+		assertEquals(new Point3D(), graph.getVertexByID("Q0").getPosition());
+	}
+}
@@ -0,0 +1,110 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks writing a laid out graphset's positions with the
+ * LayoutBinaryWriter against serializing its vertices with Jackson, as the JSON
+ * layout response does. Reports the time (ms) and bytes of each, at 10k, 100k
+ * and 500k vertices. Excluded from the default test run, use
+ * {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("LayoutBinaryWriter Benchmark")
+class LayoutBinaryWriterBenchmark {
+
+	private static final int[] SIZES = { 10_000, 100_000, 500_000 };
+	private static final int ROUNDS = 5;
+
+	@Test
+	@DisplayName("Should report ms and bytes for JSON and binary positions")
+	void shouldReportJsonAgainstBinary() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		for (int size : SIZES) {
+			Graphset graph = graph(size);
+			CountingStream json = new CountingStream();
+			CountingStream binary = new CountingStream();
+			CountingStream single = new CountingStream();
+
+			double jsonMs = time(() -> mapper.writeValue(json, graph.getVertices()), json);
+			double binaryMs = time(() -> LayoutBinaryWriter.write(graph, false, binary), binary);
+			double singleMs = time(() -> LayoutBinaryWriter.write(graph, true, single), single);
+
+			System.out.printf(
+				"LayoutBinaryWriterBenchmark n=%d json=%.1fms/%dKB float64=%.1fms/%dKB float32=%.1fms/%dKB%n",
+				size,
+				jsonMs,
+				json.count / 1024,
+				binaryMs,
+				binary.count / 1024,
+				singleMs,
+				single.count / 1024
+			);
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private interface Write {
+		void run() throws IOException;
+	}
+
+	/**
+	 * Finds the average time of a write after a warm up, leaving the stream
+	 * counting the bytes of a single write.
+	 */
+	private double time(Write write, CountingStream stream) throws IOException {
+		write.run();
+		long start = System.nanoTime();
+		for (int r = 0; r < ROUNDS; r++) {
+			stream.count = 0;
+			write.run();
+		}
+		return (System.nanoTime() - start) / 1e6 / ROUNDS;
+	}
+
+	private Graphset graph(int size) {
+		Random random = new Random(size);
+		Graphset graph = new Graphset();
+		for (int i = 0; i < size; i++) {
+			Point3D position = new Point3D(
+				(random.nextDouble() - 0.5) * 1e5,
+				(random.nextDouble() - 0.5) * 1e5,
+				(random.nextDouble() - 0.5) * 1e5
+			);
+			graph.getVertices().add(new Vertex("Q" + i, "Label " + i, "desc", "url", position, false));
+		}
+		return graph;
+	}
+
+	/**
+	 * Discards everything written to it, counting the bytes.
+	 */
+	private static final class CountingStream extends OutputStream {
+
+		long count = 0;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
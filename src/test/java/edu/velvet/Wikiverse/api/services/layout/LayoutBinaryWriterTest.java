@@ -0,0 +1,139 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutBinaryWriter class.
+ * Tests that the header, QIDs and positions can be read back in both
+ * precisions, including payloads larger than the writer's buffer, and that the
+ * positions are aligned by a single pad after the QIDs.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutBinaryWriter Tests")
+class LayoutBinaryWriterTest {
+
+	@Test
+	@DisplayName("Should write the header, QIDs and float64 positions")
+	void shouldWriteDoublePositions() throws IOException {
+		Graphset graph = graph(3);
+		ByteBuffer payload = write(graph, false);
+
+		byte[] magic = new byte[4];
+		payload.get(magic);
+		assertArrayEquals("WVLB".getBytes(StandardCharsets.US_ASCII), magic);
+		assertEquals(LayoutBinaryWriter.VERSION, payload.get());
+		assertEquals(Double.BYTES, payload.get());
+		assertEquals(0, payload.getShort());
+		Map<String, double[]> positions = readPositions(payload, 3, false);
+
+		assertEquals(0, payload.remaining());
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			double[] read = positions.get(vertex.getId());
+			assertEquals(position.getX(), read[0]);
+			assertEquals(position.getY(), read[1]);
+			assertEquals(position.getZ(), read[2]);
+		}
+	}
+
+	@Test
+	@DisplayName("Should write float32 positions larger than the buffer")
+	void shouldWriteFloatPositionsAcrossChunks() throws IOException {
+		int count = LayoutBinaryWriter.CHUNK_BYTES / 8;
+		Graphset graph = graph(count);
+		ByteBuffer payload = write(graph, true);
+
+		assertTrue(payload.limit() > LayoutBinaryWriter.CHUNK_BYTES);
+		payload.position(5);
+		assertEquals(Float.BYTES, payload.get());
+		payload.position(8);
+		Map<String, double[]> positions = readPositions(payload, count, true);
+
+		assertEquals(count, positions.size());
+		assertEquals((float) (12 * 1.25), positions.get("Q12")[0]);
+		assertEquals((float) (-count * 0.1 + 0.1), positions.get("Q" + (count - 1))[2]);
+	}
+
+	@Test
+	@DisplayName("Should pad once after QIDs of mixed lengths so the positions start on a multiple of 8")
+	void shouldAlignPositionsAfterMixedLengthQIDs() throws IOException {
+		Graphset graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q1", "Label", "desc", "url", new Point3D(1, 2, 3), false));
+		graph.getVertices().add(new Vertex("Q12345", "Label", "desc", "url", new Point3D(4, 5, 6), false));
+		graph.getVertices().add(new Vertex("Q123", "Label", "desc", "url", new Point3D(7, 8, 9), false));
+		ByteBuffer payload = write(graph, false);
+
+		// 12 header bytes, then (2 + 2) + (2 + 6) + (2 + 4) QID bytes with no pad
+		// between them end at 30, padded once to 32
+		assertEquals(6, payload.getShort(16));
+		assertEquals(4, payload.getShort(24));
+		assertEquals(0, payload.getShort(30));
+		assertEquals(32 + 9 * Double.BYTES, payload.limit());
+		assertEquals(1.0, payload.getDouble(32));
+		assertEquals(4.0, payload.getDouble(32 + 3 * Double.BYTES));
+		assertEquals(9.0, payload.getDouble(32 + 8 * Double.BYTES));
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Graphset graph(int count) {
+		Graphset graph = new Graphset();
+		for (int i = 0; i < count; i++) {
+			Point3D position = new Point3D(i * 1.25, i * 3.5, -i * 0.1);
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", position, false));
+		}
+		return graph;
+	}
+
+	private ByteBuffer write(Graphset graph, boolean singlePrecision) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LayoutBinaryWriter.write(graph, singlePrecision, out);
+		return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads the vertex count, QIDs and positions following the first 8 bytes of
+	 * the header.
+	 */
+	private Map<String, double[]> readPositions(ByteBuffer payload, int count, boolean singlePrecision) {
+		assertEquals(count, payload.getInt());
+		String[] ids = new String[count];
+		for (int i = 0; i < count; i++) {
+			byte[] id = new byte[payload.getShort()];
+			payload.get(id);
+			ids[i] = new String(id, StandardCharsets.UTF_8);
+		}
+		while (payload.position() % 8 != 0) {
+			assertEquals(0, payload.get());
+		}
+
+		Map<String, double[]> positions = new HashMap<>();
+		for (String id : ids) {
+			positions.put(
+				id,
+				singlePrecision
+					? new double[] { payload.getFloat(), payload.getFloat(), payload.getFloat() }
+					: new double[] { payload.getDouble(), payload.getDouble(), payload.getDouble() }
+			);
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,142 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutCache and LayoutFingerprint classes.
+ * Tests that the fingerprint only depends on what changes a layout's result,
+ * including adaptive vertex temperatures, and that a cached layout is reused
+ * without running while a partial one is never stored.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutCache Tests")
+class LayoutCacheTest {
+
+	private final LayoutSettings settings = new LayoutSettings("true");
+
+	@Test
+	@DisplayName("Should fingerprint the same graph the same regardless of order and unlocked positions")
+	void shouldIgnoreOrderInFingerprint() {
+		Graphset reordered = new Graphset();
+		for (int i = 10; i >= 1; i--) {
+			reordered.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+			reordered.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", new Point3D(i, i, i), false));
+		}
+		reordered.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+
+		assertEquals(LayoutFingerprint.of(star(10), settings), LayoutFingerprint.of(reordered, settings));
+	}
+
+	@Test
+	@DisplayName("Should fingerprint a moved locked vertex or an extra edge differently")
+	void shouldChangeFingerprintWithLockedPositionsAndEdges() {
+		String fingerprint = LayoutFingerprint.of(star(10), settings);
+
+		Graphset moved = star(10);
+		moved.getVertexByID("Q0").getPosition().setLocation(1, 0, 0);
+		Graphset linked = star(10);
+		linked.getEdges().add(new Edge("Q1", "Q2", "P31", "S0"));
+
+		assertNotEquals(fingerprint, LayoutFingerprint.of(moved, settings));
+		assertNotEquals(fingerprint, LayoutFingerprint.of(linked, settings));
+	}
+
+	@Test
+	@DisplayName("Should fingerprint the same graph differently with adaptive vertex temperatures")
+	void shouldChangeFingerprintWithAdaptiveTemperatures() {
+		LayoutSettings adaptive = new LayoutSettings(
+			false,
+			0.5,
+			0.5,
+			0.5,
+			250,
+			30,
+			30,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			true
+		);
+
+		assertNotEquals(LayoutFingerprint.of(star(10), settings), LayoutFingerprint.of(star(10), adaptive));
+	}
+
+	@Test
+	@DisplayName("Should reuse the positions of an identical layout without running it again")
+	void shouldReuseCachedLayout() {
+		LayoutCache cache = new LayoutCache(true, 16, null);
+		AtomicInteger runs = new AtomicInteger();
+		Graphset first = star(10);
+		LayoutStats stats = cache.layout(first, settings, () -> runLayout(first, runs));
+
+		Graphset second = star(10);
+		LayoutStats cached = cache.layout(second, settings, () -> runLayout(second, runs));
+
+		assertEquals(1, runs.get());
+		assertFalse(stats.isCached());
+		assertTrue(cached.isCached());
+		assertEquals(stats.getIterations(), cached.getIterations());
+		for (Vertex vertex : first.getVertices()) {
+			assertEquals(vertex.getPosition(), second.getVertexByID(vertex.getId()).getPosition());
+		}
+	}
+
+	@Test
+	@DisplayName("Should not store a layout which stopped before finishing")
+	void shouldNotCachePartialLayouts() {
+		LayoutCache cache = new LayoutCache(true, 16, null);
+		LayoutStats partial = new LayoutStats(FR3DLayout.ENGINE_NAME, StopReason.TIME_BUDGET, 3, 0, 0);
+
+		cache.layout(star(10), settings, () -> partial);
+
+		assertEquals(0, cache.size());
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Graphset star(int leaves) {
+		Graphset graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		for (int i = 1; i <= leaves; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+		}
+		return graph;
+	}
+
+	private LayoutStats runLayout(Graphset graph, AtomicInteger runs) {
+		runs.incrementAndGet();
+		FR3DLayout layout = new FR3DLayout(graph, settings);
+		layout.runLayout(graph);
+		return layout.getStats();
+	}
+}
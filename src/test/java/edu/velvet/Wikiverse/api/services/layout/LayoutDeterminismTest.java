@@ -0,0 +1,126 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that every layout engine produces bitwise identical positions for the
+ * same graphset, settings and seed, regardless of how many threads it runs on.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("Layout Determinism Tests")
+class LayoutDeterminismTest {
+
+	@Test
+	@DisplayName("Should produce identical fr layouts for the same seed on any number of threads")
+	void shouldLayOutIdenticallyOnAnyNumberOfThreads() {
+		Map<String, List<Double>> serial = layOut(graph(3, 100), settings(FR3DLayout.ENGINE_NAME, 7, 1));
+		Map<String, List<Double>> parallel = layOut(graph(3, 100), settings(FR3DLayout.ENGINE_NAME, 7, 4));
+		Map<String, List<Double>> reseeded = layOut(graph(3, 100), settings(FR3DLayout.ENGINE_NAME, 8, 1));
+
+		assertEquals(serial, parallel);
+		assertNotEquals(serial, reseeded);
+	}
+
+	@Test
+	@DisplayName("Should produce identical multilevel layouts for the same seed")
+	void shouldLayOutMultilevelIdentically() {
+		LayoutSettings settings = settings(MultilevelLayout.ENGINE_NAME, 7, 1);
+
+		assertEquals(layOut(graph(1, 300), settings), layOut(graph(1, 300), settings));
+	}
+
+	@Test
+	@DisplayName("Should produce identical component layouts whether components run in parallel or not")
+	void shouldLayOutComponentsIdenticallyInParallel() {
+		Map<String, List<Double>> serial = layOut(graph(6, 80), settings(FR3DLayout.ENGINE_NAME, 7, 1));
+		Map<String, List<Double>> parallel = layOut(graph(6, 80), settings(FR3DLayout.ENGINE_NAME, 7, 4));
+
+		assertEquals(serial, parallel);
+	}
+
+	// !PRIVATE ============================================================>
+
+	private LayoutSettings settings(String engine, long seed, int parallelism) {
+		return new LayoutSettings(
+			true,
+			0.5,
+			0.5,
+			0.5,
+			60,
+			30,
+			30,
+			null,
+			50,
+			parallelism,
+			1,
+			null,
+			engine,
+			null,
+			null,
+			null,
+			null,
+			null,
+			seed,
+			null,
+			null,
+			null,
+			null
+		);
+	}
+
+	/**
+	 * Lays out the graphset and collects the resulting position of every vertex,
+	 * compared bit for bit by {@link Double#equals(Object)}.
+	 */
+	private Map<String, List<Double>> layOut(Graphset graph, LayoutSettings settings) {
+		new ComponentLayout(graph, settings).runLayout(graph);
+		Map<String, List<Double>> positions = new HashMap<>();
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			positions.put(vertex.getId(), List.of(position.getX(), position.getY(), position.getZ()));
+		}
+		return positions;
+	}
+
+	/**
+	 * Builds a graphset of separate components, each a chain of vertices with a
+	 * chord every few vertices. The first vertex of the first component is locked
+	 * at the origin.
+	 */
+	private Graphset graph(int components, int size) {
+		Graphset graph = new Graphset();
+		for (int c = 0; c < components; c++) {
+			for (int i = 0; i < size; i++) {
+				boolean origin = c == 0 && i == 0;
+				Point3D position = origin ? new Point3D() : null;
+				graph.getVertices().add(new Vertex(id(c, i), "Label", "desc", "url", position, origin));
+				if (i > 0) {
+					graph.getEdges().add(new Edge(id(c, i - 1), id(c, i), "P31", "S" + id(c, i)));
+				}
+				if (i >= 5 && i % 3 == 0) {
+					graph.getEdges().add(new Edge(id(c, i - 5), id(c, i), "P279", "T" + id(c, i)));
+				}
+			}
+		}
+		return graph;
+	}
+
+	private String id(int component, int index) {
+		return "Q" + component + "_" + index;
+	}
+}
@@ -0,0 +1,75 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks the exact, Barnes-Hut and multilevel engines against each other,
+ * used to calibrate the thresholds {@link LayoutEngines#AUTO} picks an engine
+ * by. Reports the time (ms), iterations and the correlation between the graph
+ * (hop) distance and the laid out distance of sampled vertex pairs, on grids
+ * and on random graphs with 1.5 and 5 edges per vertex, of 100 to 5k vertices. Excluded from
+ * the default test run, use {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("LayoutEngine Benchmark")
+class LayoutEngineBenchmark {
+
+	private static final int[] SIZES = { 100, 250, 500, 1_000, 2_000, 5_000 };
+	private static final String[] SHAPES = { "grid", "sparse", "dense" };
+	private static final String[] ENGINES = {
+		LayoutEngines.FR_EXACT,
+		LayoutEngines.FR_BARNES_HUT,
+		MultilevelLayout.ENGINE_NAME,
+	};
+
+	@Test
+	@DisplayName("Should report ms, iterations and distance correlation for each engine")
+	void shouldReportEachEngine() {
+		LayoutSettings settings = new LayoutSettings("True");
+		for (String shape : SHAPES) {
+			for (int size : SIZES) {
+				for (String engine : ENGINES) {
+					Graphset graph = graph(shape, size);
+					long start = System.nanoTime();
+					LayoutStats stats = LayoutEngines.get(engine).layout(graph, settings, Long.MAX_VALUE, null, null);
+					double millis = (System.nanoTime() - start) / 1e6;
+
+					System.out.printf(
+						"LayoutEngineBenchmark n=%d graph=%s edges=%d engine=%s auto=%s iterations=%d time=%.0fms correlation=%.3f%n",
+						graph.getVertexCount(),
+						shape,
+						graph.getEdgeCount(),
+						engine,
+						LayoutEngines.selectBySize(graph.getVertexCount(), graph.getEdgeCount()),
+						stats.getIterations(),
+						millis,
+						BenchmarkGraphs.distanceCorrelation(graph)
+					);
+				}
+			}
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Builds a grid, or a random tree with half (sparse) or four times (dense) as
+	 * many extra random edges again.
+	 */
+	private Graphset graph(String shape, int size) {
+		return switch (shape) {
+			case "grid" -> BenchmarkGraphs.grid(size);
+			case "sparse" -> BenchmarkGraphs.randomGraph(size, 0.5);
+			default -> BenchmarkGraphs.randomGraph(size, 4.0);
+		};
+	}
+}
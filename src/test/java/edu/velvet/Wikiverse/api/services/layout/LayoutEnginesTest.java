@@ -0,0 +1,101 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutEngines registry.
+ * Tests that the settings select the named engine, that auto picks an engine by
+ * the graph's size, and that unknown names fall back to the default engine.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutEngines Tests")
+class LayoutEnginesTest {
+
+	@Test
+	@DisplayName("Should pick the engine for auto by vertex and edge count")
+	void shouldPickEngineBySize() {
+		int small = LayoutEngines.AUTO_EXACT_MAX_VERTICES - 1;
+		int large = LayoutEngines.AUTO_EXACT_MAX_VERTICES;
+
+		assertEquals(LayoutEngines.FR_EXACT, LayoutEngines.selectBySize(small, small * 10));
+		assertEquals(MultilevelLayout.ENGINE_NAME, LayoutEngines.selectBySize(large, large * 2));
+		assertEquals(LayoutEngines.FR_BARNES_HUT, LayoutEngines.selectBySize(large, large * 10));
+		assertEquals(LayoutEngines.FR_EXACT, LayoutEngines.select(settings(LayoutEngines.AUTO), star(20)).getName());
+	}
+
+	@Test
+	@DisplayName("Should fall back to the default engine for an unknown name")
+	void shouldFallBackForUnknownEngine() {
+		assertEquals(FR3DLayout.ENGINE_NAME, LayoutEngines.select(settings("no-such-engine"), star(20)).getName());
+		assertEquals(FR3DLayout.ENGINE_NAME, LayoutEngines.select(settings(null), star(20)).getName());
+		assertTrue(LayoutEngines.getNames().contains(LayoutEngines.FR_2D));
+	}
+
+	@Test
+	@DisplayName("Should keep every vertex on the plane with the 2D engine, even when 3D is preferred")
+	void shouldLayOutInPlaneWith2DEngine() {
+		Graphset graph = star(20);
+		ComponentLayout layout = new ComponentLayout(graph, settings(LayoutEngines.FR_2D));
+		layout.runLayout(graph);
+
+		assertEquals(LayoutEngines.FR_2D, layout.getStats().getEngine());
+		for (Vertex vertex : graph.getVertices()) {
+			assertEquals(0.0, vertex.getPosition().getZ());
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private LayoutSettings settings(String engine) {
+		return new LayoutSettings(
+			true,
+			0.5,
+			0.5,
+			0.5,
+			50,
+			30,
+			30,
+			null,
+			null,
+			null,
+			null,
+			null,
+			engine,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null
+		);
+	}
+
+	/**
+	 * Builds a star graph around a centre vertex locked at the origin.
+	 */
+	private Graphset star(int size) {
+		Graphset graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		for (int i = 1; i < size; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+		}
+		return graph;
+	}
+}
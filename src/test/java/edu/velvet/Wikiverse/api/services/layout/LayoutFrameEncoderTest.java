@@ -0,0 +1,94 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutFrame;
+import edu.velvet.Wikiverse.api.models.core.LayoutProgress;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutFrameEncoder class.
+ * Tests that frames are sampled and throttled, and that only the first frame
+ * holds every vertex while later frames only hold the vertices which moved.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutFrameEncoder Tests")
+class LayoutFrameEncoderTest {
+
+	private static final long MILLI = 1_000_000L;
+
+	private Graphset graph;
+	private LayoutState state;
+
+	@BeforeEach
+	void setUp() {
+		graph = new Graphset();
+		for (int i = 0; i < 10; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", new Point3D(i * 10, 0, 0), false));
+		}
+		graph.getEdges().add(new Edge("Q0", "Q1", "P31", "S1"));
+		state = new LayoutState(graph, Vertex::getPosition);
+	}
+
+	@Test
+	@DisplayName("Should send every vertex first and only the vertices which moved after")
+	void shouldDeltaEncodeFrames() {
+		LayoutFrameEncoder encoder = new LayoutFrameEncoder(1, 0, 0.5);
+		LayoutFrame keyframe = encoder.next(progress(1), state, 0);
+
+		assertTrue(keyframe.isKeyframe());
+		assertEquals(10, keyframe.getVertices().size());
+
+		state.x[3] += 5;
+		state.y[7] += 0.1; // Below the minimum delta
+		LayoutFrame delta = encoder.next(progress(2), state, MILLI);
+
+		assertFalse(delta.isKeyframe());
+		assertEquals(1, delta.getVertices().size());
+		assertEquals(state.getID(3), delta.getVertices().get(0).id());
+	}
+
+	@Test
+	@DisplayName("Should only sample every nth iteration, at no more than the max frame rate")
+	void shouldSampleAndThrottleFrames() {
+		LayoutFrameEncoder encoder = new LayoutFrameEncoder(5, 10, 0.5);
+
+		assertNull(encoder.next(progress(4), state, 0));
+		assertNotNull(encoder.next(progress(5), state, 0));
+		// 10 fps allows a frame every 100ms
+		assertNull(encoder.next(progress(10), state, 50 * MILLI));
+		assertNotNull(encoder.next(progress(15), state, 150 * MILLI));
+	}
+
+	@Test
+	@DisplayName("Should end on a final frame holding the vertices moved since the last frame")
+	void shouldEncodeFinalFrameFromGraphset() {
+		LayoutFrameEncoder encoder = new LayoutFrameEncoder(1, 0, 0.5);
+		encoder.next(progress(1), state, 0);
+
+		graph.getVertices().iterator().next().getPosition().setLocation(500, 500, 500);
+		LayoutFrame last = encoder.last(graph, null);
+
+		assertFalse(last.isKeyframe());
+		assertEquals(1, last.getVertices().size());
+	}
+
+	// !PRIVATE ============================================================>
+
+	private LayoutProgress progress(int iteration) {
+		return new LayoutProgress(FR3DLayout.ENGINE_NAME, iteration, 300, 1.0, 0.0, 0.0);
+	}
+}
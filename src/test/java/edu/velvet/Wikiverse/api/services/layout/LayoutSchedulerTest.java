@@ -0,0 +1,119 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutScheduler class.
+ * Tests that queued layouts start cheapest first once a slot frees up, that
+ * the queue is published as metrics, and that the cost estimate grows with the
+ * size of the graph, or only the moving region of a local relayout.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutScheduler Tests")
+class LayoutSchedulerTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final LayoutScheduler scheduler = new LayoutScheduler(1, registry);
+
+	@Test
+	@DisplayName("Should start the cheapest queued layout first and publish the queue depth and wait time")
+	void shouldStartCheapestFirst() throws InterruptedException {
+		CountDownLatch blocking = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		Thread running = start(1, () -> {
+			started.countDown();
+			await(blocking);
+			order.add("running");
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread large = start(1_000, () -> order.add("large"));
+		awaitQueued(1);
+		Thread small = start(10, () -> order.add("small"));
+		awaitQueued(2);
+
+		assertEquals(1, scheduler.getRunningCount());
+		assertEquals(2.0, registry.get(LayoutScheduler.QUEUED_GAUGE).gauge().value());
+		blocking.countDown();
+		for (Thread thread : List.of(running, large, small)) {
+			thread.join(5_000);
+		}
+
+		assertEquals(List.of("running", "small", "large"), order);
+		assertEquals(0, scheduler.getQueuedCount());
+		assertEquals(0, scheduler.getRunningCount());
+		assertEquals(3, registry.get(LayoutScheduler.WAIT_TIMER).timer().count());
+	}
+
+	@Test
+	@DisplayName("Should estimate the cost of a layout as vertices squared times iterations")
+	void shouldEstimateCostFromVerticesAndIterations() {
+		LayoutSettings settings = new LayoutSettings("True");
+		long iterations = settings.getMaxLayoutIterations().longValue();
+
+		assertEquals(100L * 100L * iterations, LayoutScheduler.estimateCost(BenchmarkGraphs.grid(100), settings));
+		assertTrue(
+			LayoutScheduler.estimateCost(BenchmarkGraphs.grid(50), settings) <
+			LayoutScheduler.estimateCost(BenchmarkGraphs.grid(100), settings)
+		);
+	}
+
+	@Test
+	@DisplayName("Should cost a local relayout by its moving region rather than the whole graph")
+	void shouldEstimateLocalCostFromMovingRegion() {
+		Graphset graph = BenchmarkGraphs.grid(100);
+		LayoutSettings settings = new LayoutSettings("True");
+		LocalLayout layout = new LocalLayout(graph, settings, List.of("Q50"));
+
+		assertEquals(
+			(long) layout.getMovedVertexCount() * graph.getVertexCount() * 30,
+			layout.estimateCost()
+		);
+		assertTrue(layout.estimateCost() < LayoutScheduler.estimateCost(graph, settings));
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Thread start(long cost, Runnable layout) {
+		Thread thread = new Thread(() ->
+			scheduler.run(cost, () -> {
+				layout.run();
+				return null;
+			})
+		);
+		thread.start();
+		return thread;
+	}
+
+	private void awaitQueued(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (scheduler.getQueuedCount() < count && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(count, scheduler.getQueuedCount());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.WikiverseError;
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats.StopReason;
+import edu.velvet.Wikiverse.api.models.core.Metadata;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import edu.velvet.Wikiverse.api.models.requests.LayoutRequest;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutService class.
+ * Tests that submitted layouts run in the background, report their progress
+ * and stop once cancelled, and that a full queue or an unknown job ID is
+ * reported as an error.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutService Tests")
+class LayoutServiceTest {
+
+	private LayoutService service;
+	private Graphset graph;
+
+	@BeforeEach
+	void setUp() {
+		service = new LayoutService(null, null, 1, 1, 60, 16);
+		graph = new Graphset();
+		graph.getVertices().add(new Vertex("Q0", "Origin", "desc", "url", new Point3D(), true));
+		for (int i = 1; i <= 30; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge("Q0", "Q" + i, "P31", "S" + i));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	@DisplayName("Should run a submitted layout in the background and report its progress")
+	void shouldCompleteSubmittedJob() throws InterruptedException {
+		LayoutRequest request = new LayoutRequest(new Metadata("Q0", "en", "true"), graph);
+		LayoutJob job = service.submit(request).get();
+		awaitFinished(job);
+
+		assertEquals(LayoutJob.Status.COMPLETED, job.getStatus());
+		assertNotNull(job.getProgress());
+		assertEquals(request.getLayoutStats().getIterations(), job.getProgress().iteration());
+		assertTrue(service.getJob(job.getJobID()).isRight());
+	}
+
+	@Test
+	@DisplayName("Should turn jobs away once every worker is busy and the queue is full")
+	void shouldRejectJobsOnceQueueIsFull() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		LayoutJob running = service.submit(blockingRequest(release)).get();
+		LayoutJob queued = service.submit(blockingRequest(release)).get();
+
+		assertInstanceOf(
+			WikiverseError.LayoutServiceError.LayoutQueueFull.class,
+			service.submit(blockingRequest(release)).getLeft()
+		);
+
+		release.countDown();
+		awaitFinished(running);
+		awaitFinished(queued);
+		assertEquals(LayoutJob.Status.COMPLETED, queued.getStatus());
+	}
+
+	@Test
+	@DisplayName("Should stop a running layout once its job is cancelled")
+	void shouldStopRunningLayoutOnceCancelled() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		LayoutRequest request = new LayoutRequest(new Metadata("Q0", "en", "true"), graph);
+		LayoutJob job = service
+			.submit(
+				request,
+				(progress, positions) -> {
+					started.countDown();
+					// Hold the first iteration until the cancel interrupts this worker
+					long deadline = System.currentTimeMillis() + 10_000;
+					while (!Thread.currentThread().isInterrupted() && System.currentTimeMillis() < deadline) {
+						Thread.onSpinWait();
+					}
+				},
+				null
+			)
+			.get();
+
+		started.await();
+		job.cancel();
+		awaitFinished(job);
+
+		assertEquals(LayoutJob.Status.CANCELLED, job.getStatus());
+		assertEquals(StopReason.CANCELLED, request.getLayoutStats().getStopReason());
+		assertEquals(1, request.getLayoutStats().getIterations());
+		assertTrue(request.getLayoutStats().isPartial());
+	}
+
+	@Test
+	@DisplayName("Should report a failed layout and an unknown job ID as errors")
+	void shouldReportFailedAndUnknownJobs() throws InterruptedException {
+		LayoutJob job = service
+			.submit(
+				new LayoutRequest(new Metadata("Q0", "en", "true"), graph) {
+					@Override
+					public LayoutRequest updateLayout(
+						LayoutCache layoutCache,
+						LayoutScheduler layoutScheduler,
+						LayoutProgressListener progressListener
+					) {
+						throw new IllegalStateException("boom");
+					}
+				}
+			)
+			.get();
+		awaitFinished(job);
+
+		assertEquals(LayoutJob.Status.FAILED, job.getStatus());
+		assertInstanceOf(WikiverseError.LayoutServiceError.LayoutJobFailed.class, job.getError());
+		assertInstanceOf(WikiverseError.LayoutServiceError.LayoutJobNotFound.class, service.getJob("missing").getLeft());
+	}
+
+	@Test
+	@DisplayName("Should fail the job and still notify its listener when the layout throws an Error")
+	void shouldFailJobWhenLayoutThrowsError() throws InterruptedException {
+		CountDownLatch finished = new CountDownLatch(1);
+		LayoutJob job = service
+			.submit(
+				new LayoutRequest(new Metadata("Q0", "en", "true"), graph) {
+					@Override
+					public LayoutRequest updateLayout(
+						LayoutCache layoutCache,
+						LayoutScheduler layoutScheduler,
+						LayoutProgressListener progressListener
+					) {
+						throw new StackOverflowError();
+					}
+				},
+				null,
+				finishedJob -> finished.countDown()
+			)
+			.get();
+		awaitFinished(job);
+
+		assertEquals(LayoutJob.Status.FAILED, job.getStatus());
+		assertInstanceOf(WikiverseError.LayoutServiceError.LayoutJobFailed.class, job.getError());
+		assertTrue(finished.await(10, TimeUnit.SECONDS));
+	}
+
+	// !PRIVATE ============================================================>
+
+	private LayoutRequest blockingRequest(CountDownLatch release) {
+		return new LayoutRequest(new Metadata("Q0", "en", "true"), graph) {
+			@Override
+			public LayoutRequest updateLayout(
+				LayoutCache layoutCache,
+				LayoutScheduler layoutScheduler,
+				LayoutProgressListener progressListener
+			) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return this;
+			}
+		};
+	}
+
+	private void awaitFinished(LayoutJob job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(job.isFinished());
+	}
+}
@@ -0,0 +1,99 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutState class.
+ * Tests vertex indexing, edge resolution, initial position seeding and writing
+ * positions back to the underlying vertices.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LayoutState Tests")
+class LayoutStateTest {
+
+	private Graphset graph;
+	private Vertex origin;
+	private Vertex other;
+
+	@BeforeEach
+	void setUp() {
+		graph = new Graphset();
+		origin = new Vertex("Q1", "Origin", "desc", "url", new Point3D(1, 2, 3), true);
+		other = new Vertex("Q2", "Other", "desc", "url", null, false);
+		graph.getVertices().add(origin);
+		graph.getVertices().add(other);
+	}
+
+	@Test
+	@DisplayName("Should index every vertex by its ID")
+	void shouldIndexEveryVertexByID() {
+		LayoutState state = new LayoutState(graph, v -> new Point3D());
+
+		assertEquals(2, state.size());
+		assertTrue(state.indexOf("Q1") >= 0);
+		assertTrue(state.indexOf("Q2") >= 0);
+		assertEquals(-1, state.indexOf("Q3"));
+		assertEquals(-1, state.indexOf(null));
+	}
+
+	@Test
+	@DisplayName("Should resolve edges to endpoint indices and drop dangling edges")
+	void shouldResolveEdgesAndDropDanglingEdges() {
+		graph.getEdges().add(new Edge("Q1", "Q2", "P31", "S1"));
+		graph.getEdges().add(new Edge("Q2", "Q3", "P31", "S2"));
+		LayoutState state = new LayoutState(graph, v -> new Point3D());
+
+		assertEquals(1, state.edgeCount());
+		assertEquals(state.indexOf("Q1"), state.edges[0]);
+		assertEquals(state.indexOf("Q2"), state.edges[1]);
+	}
+
+	@Test
+	@DisplayName("Should keep locked positions and seed unlocked vertices")
+	void shouldKeepLockedPositionsAndSeedUnlockedVertices() {
+		LayoutState state = new LayoutState(graph, v -> new Point3D(7, 8, 9));
+		int o = state.indexOf("Q1");
+		int u = state.indexOf("Q2");
+
+		assertEquals(1.0, state.x[o]);
+		assertEquals(2.0, state.y[o]);
+		assertEquals(3.0, state.z[o]);
+		assertTrue(state.locked[o]);
+		assertFalse(state.movable[o]);
+
+		assertEquals(7.0, state.x[u]);
+		assertEquals(8.0, state.y[u]);
+		assertEquals(9.0, state.z[u]);
+		assertTrue(state.movable[u]);
+	}
+
+	@Test
+	@DisplayName("Should write positions back to unlocked vertices only")
+	void shouldWritePositionsBackToUnlockedVerticesOnly() {
+		LayoutState state = new LayoutState(graph, v -> new Point3D());
+		int o = state.indexOf("Q1");
+		int u = state.indexOf("Q2");
+		state.x[o] = 100;
+		state.x[u] = 42;
+		state.y[u] = 43;
+		state.z[u] = 44;
+
+		state.writePositions();
+
+		assertEquals(new Point3D(1, 2, 3), origin.getPosition());
+		assertEquals(new Point3D(42, 43, 44), other.getPosition());
+	}
+}
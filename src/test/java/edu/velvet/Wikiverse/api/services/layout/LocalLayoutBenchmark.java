@@ -0,0 +1,57 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks a localized relayout around one changed vertex against a full
+ * relayout of the same grid, of 1k to 100k vertices (the full relayout only up
+ * to 5k). Reports the time (ms) and vertices moved of each. Excluded from the
+ * default test run, use {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("LocalLayout Benchmark")
+class LocalLayoutBenchmark {
+
+	private static final int[] SIZES = { 1_000, 5_000, 20_000, 100_000 };
+	private static final int MAX_FULL_SIZE = 5_000;
+
+	@Test
+	@DisplayName("Should report ms and moved vertices for local and full relayouts")
+	void shouldReportLocalAgainstFull() {
+		LayoutSettings settings = new LayoutSettings("True");
+		for (int size : SIZES) {
+			Graphset graph = BenchmarkGraphs.grid(size);
+			new LocalLayout(graph, settings, List.of("Q" + size / 2)).runLayout(graph);
+
+			long start = System.nanoTime();
+			LocalLayout local = new LocalLayout(graph, settings, List.of("Q" + size / 2));
+			local.runLayout(graph);
+			double localMs = (System.nanoTime() - start) / 1e6;
+
+			double fullMs = Double.NaN;
+			if (size <= MAX_FULL_SIZE) {
+				start = System.nanoTime();
+				new ComponentLayout(graph, settings).runLayout(graph);
+				fullMs = (System.nanoTime() - start) / 1e6;
+			}
+
+			System.out.printf(
+				"LocalLayoutBenchmark n=%d moved=%d local=%.1fms iterations=%d full=%.0fms%n",
+				size,
+				local.getMovedVertexCount(),
+				localMs,
+				local.getStats().getIterations(),
+				fullMs
+			);
+		}
+	}
+}
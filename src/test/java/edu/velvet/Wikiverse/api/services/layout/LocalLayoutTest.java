@@ -0,0 +1,136 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LocalLayout class.
+ * Tests that a localized relayout only moves the changed vertices and their
+ * neighbourhood, places the new neighbours of an expanded vertex next to it,
+ * leaves the graph untouched when nothing in it changed, and reports its
+ * sampled iterations under its own engine name.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("LocalLayout Tests")
+class LocalLayoutTest {
+
+	private static final int SIDE = 10;
+
+	private Graphset graph;
+
+	@BeforeEach
+	void setUp() {
+		graph = BenchmarkGraphs.grid(SIDE * SIDE);
+		for (Vertex vertex : graph.getVertices()) {
+			int i = Integer.parseInt(vertex.getId().substring(1));
+			vertex.getPosition().setLocation((i % SIDE) * 50.0, (i / SIDE) * 50.0, 0.0);
+		}
+	}
+
+	@Test
+	@DisplayName("Should only move the changed vertices and those within the configured hops")
+	void shouldOnlyMoveNeighbourhood() {
+		Map<String, Point3D> before = positions();
+		LocalLayout layout = new LocalLayout(graph, new LayoutSettings("True"), List.of("Q55", "Q404"));
+		layout.runLayout(graph);
+
+		// Q55 sits at (5, 5) on the grid, so the default 2 hops reach 13 vertices
+		assertEquals(13, layout.getMovedVertexCount());
+		assertEquals(LocalLayout.ENGINE_NAME, layout.getStats().getEngine());
+		int moved = 0;
+		for (Vertex vertex : graph.getVertices()) {
+			int i = Integer.parseInt(vertex.getId().substring(1));
+			int hops = Math.abs(i % SIDE - 5) + Math.abs(i / SIDE - 5);
+			boolean unchanged = before.get(vertex.getId()).equals(vertex.getPosition());
+			if (hops > LayoutSettings.DEFAULT_LOCAL_LAYOUT_HOPS) {
+				assertTrue(unchanged, vertex.getId() + " is outside the neighbourhood but moved");
+			}
+			moved += unchanged ? 0 : 1;
+		}
+		assertTrue(moved > 0);
+	}
+
+	@Test
+	@DisplayName("Should leave every vertex in place when no changed vertex is in the graph")
+	void shouldLeaveGraphWhenNothingChanged() {
+		Map<String, Point3D> before = positions();
+		LocalLayout layout = new LocalLayout(graph, new LayoutSettings("True"), List.of("Q404"));
+		layout.runLayout(graph);
+
+		assertEquals(0, layout.getMovedVertexCount());
+		assertEquals(0, layout.getStats().getIterations());
+		for (Vertex vertex : graph.getVertices()) {
+			assertEquals(before.get(vertex.getId()), vertex.getPosition());
+		}
+	}
+
+	@Test
+	@DisplayName("Should place the unpositioned new neighbours of an expanded vertex apart and next to it")
+	void shouldPlaceNewNeighboursOfExpandedVertex() {
+		List<String> added = List.of("Q900", "Q901", "Q902", "Q903");
+		for (String id : added) {
+			graph.getVertices().add(new Vertex(id, "Label", "desc", "url", null, false));
+			graph.getEdges().add(new Edge("Q55", id, "P31", "N" + id));
+		}
+
+		LocalLayout layout = new LocalLayout(graph, new LayoutSettings("True"), List.of("Q55"));
+		layout.runLayout(graph);
+
+		assertEquals(added.size(), layout.getNewVertexCount());
+		Point3D expanded = graph.getVertexByID("Q55").getPosition();
+		for (String id : added) {
+			Point3D position = graph.getVertexByID(id).getPosition();
+			assertNotEquals(new Point3D(), position, id + " was left on the origin");
+			assertTrue(position.distance(expanded) < 4 * 50.0, id + " was placed away from Q55");
+			for (String other : added) {
+				if (!other.equals(id)) {
+					assertTrue(position.distance(graph.getVertexByID(other).getPosition()) > 1.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Should tag its sampled iterations with the local engine rather than fr")
+	void shouldTagSampledIterationsWithEngineName() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		LocalLayout layout = new LocalLayout(graph, new LayoutSettings("True"), List.of("Q55"))
+			.withTelemetry(new LayoutTelemetry(false, 1, registry));
+		layout.runLayout(graph);
+
+		assertEquals(
+			layout.getStats().getIterations(),
+			registry.get(LayoutTelemetry.ITERATION_ENERGY).tag("engine", LocalLayout.ENGINE_NAME).summary().count()
+		);
+		assertNull(registry.find(LayoutTelemetry.ITERATION_ENERGY).tag("engine", FR3DLayout.ENGINE_NAME).summary());
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Map<String, Point3D> positions() {
+		Map<String, Point3D> positions = new HashMap<>();
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			positions.put(vertex.getId(), new Point3D(position.getX(), position.getY(), position.getZ()));
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,86 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the MultilevelLayout class.
+ * Tests that large graphs are coarsened into multiple levels, that small graphs
+ * are laid out on a single level, and that locked vertices keep their position.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("MultilevelLayout Tests")
+class MultilevelLayoutTest {
+
+	private static final int GRID_SIDE = 30;
+
+	private Graphset graph;
+	private LayoutSettings settings;
+
+	@BeforeEach
+	void setUp() {
+		graph = new Graphset();
+		for (int i = 0; i < GRID_SIDE * GRID_SIDE; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", i == 0 ? new Point3D() : null, i == 0));
+		}
+		for (int row = 0; row < GRID_SIDE; row++) {
+			for (int col = 0; col < GRID_SIDE; col++) {
+				int i = row * GRID_SIDE + col;
+				if (col + 1 < GRID_SIDE) {
+					graph.getEdges().add(new Edge("Q" + i, "Q" + (i + 1), "P31", "R" + i));
+				}
+				if (row + 1 < GRID_SIDE) {
+					graph.getEdges().add(new Edge("Q" + i, "Q" + (i + GRID_SIDE), "P31", "C" + i));
+				}
+			}
+		}
+		settings = new LayoutSettings("true");
+	}
+
+	@Test
+	@DisplayName("Should coarsen large graphs into multiple levels")
+	void shouldCoarsenLargeGraphsIntoMultipleLevels() {
+		MultilevelLayout layout = new MultilevelLayout(graph, settings);
+
+		assertTrue(layout.getLevelCount() > 1);
+	}
+
+	@Test
+	@DisplayName("Should lay out small graphs on a single level")
+	void shouldLayOutSmallGraphsOnSingleLevel() {
+		Graphset small = new Graphset();
+		small.getVertices().add(new Vertex("Q1", "One", "desc", "url", null, false));
+		small.getVertices().add(new Vertex("Q2", "Two", "desc", "url", null, false));
+		small.getEdges().add(new Edge("Q1", "Q2", "P31", "S1"));
+
+		MultilevelLayout layout = new MultilevelLayout(small, settings);
+		layout.runLayout(small);
+
+		assertEquals(1, layout.getLevelCount());
+		assertTrue(Double.isFinite(small.getVertexByID("Q1").getPosition().getX()));
+	}
+
+	@Test
+	@DisplayName("Should place every vertex and keep locked vertices in place")
+	void shouldPlaceEveryVertexAndKeepLockedVerticesInPlace() {
+		new MultilevelLayout(graph, settings).runLayout(graph);
+
+		assertEquals(new Point3D(), graph.getVertexByID("Q0").getPosition());
+		for (Vertex vertex : graph.getVertices()) {
+			Point3D position = vertex.getPosition();
+			assertTrue(Double.isFinite(position.getX()) && Double.isFinite(position.getY()) && Double.isFinite(position.getZ()));
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.LayoutSettings;
+import edu.velvet.Wikiverse.api.models.core.LayoutStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Benchmarks FR3DLayout started from random positions against a PivotMDS
+ * placement, on grid and random graphs of 1k and 5k vertices. A pivot-mds
+ * start always stops at its refine cap, so comparing the iterations each start
+ * runs measures nothing. Each layout instead first runs without convergence
+ * detection, to find the iterations it takes to reach a shared quality target:
+ * a correlation of {@value #TARGET_CORRELATION} between the graph (hop)
+ * distance and the laid out distance of sampled vertex pairs (1 when the layout
+ * follows the graph's structure exactly, around 0 for a random layout),
+ * measured after every iteration (-1 when it never does). It then runs with the
+ * default settings, reporting the iterations run, why it stopped, the time (ms)
+ * including placement, and the correlation of the result. Excluded from the
+ * default test run, use {@code ./mvnw test -Pbenchmark}.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Tag("benchmark")
+@DisplayName("PivotMDS Benchmark")
+class PivotMDSBenchmark {
+
+	private static final int[] SIZES = { 1_000, 5_000 };
+	private static final String[] PLACEMENTS = { LayoutSettings.DEFAULT_INITIAL_PLACEMENT, PivotMDS.PLACEMENT_NAME };
+	private static final double TARGET_CORRELATION = 0.2;
+
+	@Test
+	@DisplayName("Should report iterations to a target quality, and to stop, for random and pivot-mds starts")
+	void shouldReportRandomAgainstPivotMDS() {
+		for (int size : SIZES) {
+			for (String shape : new String[] { "grid", "random" }) {
+				for (String placement : PLACEMENTS) {
+					Graphset traced = graph(shape, size);
+					int toTarget = BenchmarkGraphs.iterationsToCorrelation(
+						traced,
+						new FR3DLayout(traced, settings(placement, 0)),
+						TARGET_CORRELATION,
+						1
+					);
+
+					Graphset graph = graph(shape, size);
+					long start = System.nanoTime();
+					FR3DLayout layout = new FR3DLayout(graph, settings(placement, null));
+					layout.runLayout(graph);
+					double millis = (System.nanoTime() - start) / 1e6;
+					LayoutStats stats = layout.getStats();
+
+					System.out.printf(
+						"PivotMDSBenchmark n=%d graph=%s start=%s toTarget=%d iterations=%d stop=%s time=%.0fms" +
+						" correlation=%.3f%n",
+						size,
+						shape,
+						placement,
+						toTarget,
+						stats.getIterations(),
+						stats.getStopReason(),
+						millis,
+						BenchmarkGraphs.distanceCorrelation(graph)
+					);
+				}
+			}
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	private Graphset graph(String shape, int size) {
+		return "grid".equals(shape) ? BenchmarkGraphs.grid(size) : BenchmarkGraphs.randomGraph(size, 0.5);
+	}
+
+	private LayoutSettings settings(String initialPlacement, Integer convergenceIterations) {
+		return new LayoutSettings(
+			true,
+			0.5,
+			0.5,
+			0.5,
+			250,
+			30,
+			30,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			convergenceIterations,
+			null,
+			null,
+			null,
+			initialPlacement,
+			null,
+			null,
+			null
+		);
+	}
+}
@@ -0,0 +1,101 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.velvet.Wikiverse.api.models.core.Edge;
+import edu.velvet.Wikiverse.api.models.core.Graphset;
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import edu.velvet.Wikiverse.api.models.core.Vertex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PivotMDS class.
+ * Tests that the embedding starts from the locked origin, keeps it in place, and
+ * places vertices at distances which follow their graph distance.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("PivotMDS Tests")
+class PivotMDSTest {
+
+	private static final double EDGE_LENGTH = 10.0;
+
+	@Test
+	@DisplayName("Should start from the locked origin and leave it in place")
+	void shouldStartFromLockedOrigin() {
+		LayoutState state = new LayoutState(grid(12), vertex -> new Point3D(), false);
+		PivotMDS mds = new PivotMDS(state, 8, 7);
+
+		assertTrue(mds.place(EDGE_LENGTH));
+		int origin = state.indexOf("Q0_0");
+		assertEquals(origin, mds.getPivots()[0]);
+		assertEquals(8, mds.getPivots().length);
+		assertEquals(new Point3D(5, 5, 5), new Point3D(state.x[origin], state.y[origin], state.getZ(origin)));
+	}
+
+	@Test
+	@DisplayName("Should place vertices at distances that follow their graph distance")
+	void shouldPlaceByGraphDistance() {
+		LayoutState state = new LayoutState(grid(12), vertex -> new Point3D(), true);
+		new PivotMDS(state, 8, 7).place(EDGE_LENGTH);
+
+		int origin = state.indexOf("Q0_0");
+		double near = distance(state, origin, state.indexOf("Q1_1"));
+		double middle = distance(state, origin, state.indexOf("Q5_5"));
+		double far = distance(state, origin, state.indexOf("Q11_11"));
+
+		assertTrue(near < middle && middle < far);
+		assertEquals(EDGE_LENGTH * 11 * Math.sqrt(2), far, EDGE_LENGTH * 3);
+		assertNull(state.z);
+	}
+
+	@Test
+	@DisplayName("Should leave positions alone when the graph has no edges")
+	void shouldSkipGraphsWithoutEdges() {
+		Graphset graph = new Graphset();
+		for (int i = 0; i < 10; i++) {
+			graph.getVertices().add(new Vertex("Q" + i, "Label", "desc", "url", null, false));
+		}
+		LayoutState state = new LayoutState(graph, vertex -> new Point3D(1, 2, 3), false);
+
+		assertFalse(new PivotMDS(state, 8, 7).place(EDGE_LENGTH));
+		assertEquals(1.0, state.x[0]);
+	}
+
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Builds a square grid graph with the corner vertex locked at (5, 5, 5).
+	 */
+	private Graphset grid(int side) {
+		Graphset graph = new Graphset();
+		for (int row = 0; row < side; row++) {
+			for (int col = 0; col < side; col++) {
+				boolean origin = row == 0 && col == 0;
+				Point3D position = origin ? new Point3D(5, 5, 5) : null;
+				graph.getVertices().add(new Vertex(id(row, col), "Label", "desc", "url", position, origin));
+				if (col > 0) {
+					graph.getEdges().add(new Edge(id(row, col - 1), id(row, col), "P31", "H" + id(row, col)));
+				}
+				if (row > 0) {
+					graph.getEdges().add(new Edge(id(row - 1, col), id(row, col), "P31", "V" + id(row, col)));
+				}
+			}
+		}
+		return graph;
+	}
+
+	private String id(int row, int col) {
+		return "Q" + row + "_" + col;
+	}
+
+	private double distance(LayoutState state, int a, int b) {
+		return Point3D.distance(state.x[a], state.y[a], state.getZ(a), state.x[b], state.y[b], state.getZ(b));
+	}
+}
@@ -0,0 +1,102 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.velvet.Wikiverse.api.models.core.Point3D;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the UniformGrid class.
+ * Tests that the grid sums the repulsion from exactly the bodies within the
+ * cutoff radius, in both 3D and 2D.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("UniformGrid Tests")
+class UniformGridTest {
+
+	private static final double EPSILON = 0.000001D;
+	private static final double FORCE_SQ = 25.0;
+	private static final double CUTOFF = 60.0;
+
+	@Test
+	@DisplayName("Should match the pairwise repulsion from every body within the cutoff")
+	void shouldMatchPairwiseRepulsionWithinCutoff() {
+		double[][] bodies = randomBodies(800, false);
+		UniformGrid grid = new UniformGrid(10, CUTOFF, false, EPSILON);
+		grid.rebuild(bodies[0], bodies[1], bodies[2], bodies[3], bodies[0].length);
+
+		for (int i = 0; i < bodies[0].length; i += 40) {
+			double[] actual = new double[3];
+			grid.accumulateRepulsion(i, bodies[0][i], bodies[1][i], bodies[2][i], FORCE_SQ, actual);
+			double[] expected = pairwiseWithinCutoff(bodies, i);
+
+			assertEquals(expected[0], actual[0], 1e-9);
+			assertEquals(expected[1], actual[1], 1e-9);
+			assertEquals(expected[2], actual[2], 1e-9);
+		}
+	}
+
+	@Test
+	@DisplayName("Should ignore z and leave the z displacement untouched when planar")
+	void shouldIgnoreZWhenPlanar() {
+		double[][] bodies = randomBodies(400, true);
+		UniformGrid grid = new UniformGrid(bodies[0].length, CUTOFF, true, EPSILON);
+		grid.rebuild(bodies[0], bodies[1], null, bodies[3], bodies[0].length);
+
+		for (int i = 0; i < bodies[0].length; i += 40) {
+			double[] actual = new double[3];
+			grid.accumulateRepulsion(i, bodies[0][i], bodies[1][i], 100.0, FORCE_SQ, actual);
+			double[] expected = pairwiseWithinCutoff(bodies, i);
+
+			assertEquals(expected[0], actual[0], 1e-9);
+			assertEquals(expected[1], actual[1], 1e-9);
+			assertEquals(0.0, actual[2]);
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Creates random bodies as {xs, ys, zs, weights}, with every z left at 0 when
+	 * planar.
+	 */
+	private double[][] randomBodies(int count, boolean planar) {
+		Random random = new Random(42);
+		double[][] bodies = new double[4][count];
+		for (int i = 0; i < count; i++) {
+			bodies[0][i] = (random.nextDouble() - 0.5) * 600;
+			bodies[1][i] = (random.nextDouble() - 0.5) * 600;
+			bodies[2][i] = planar ? 0.0 : (random.nextDouble() - 0.5) * 600;
+			bodies[3][i] = random.nextBoolean() ? 1.0 : 2.0;
+		}
+		return bodies;
+	}
+
+	private double[] pairwiseWithinCutoff(double[][] bodies, int self) {
+		double[] out = new double[3];
+		for (int j = 0; j < bodies[0].length; j++) {
+			double distanceSq = Point3D.distanceSq(
+				bodies[0][self],
+				bodies[1][self],
+				bodies[2][self],
+				bodies[0][j],
+				bodies[1][j],
+				bodies[2][j]
+			);
+			if (j == self || distanceSq > CUTOFF * CUTOFF) {
+				continue;
+			}
+			double deltaDistanceSq = Math.max(EPSILON, distanceSq);
+			double scaledForce = (bodies[3][j] * FORCE_SQ) / (deltaDistanceSq * Math.sqrt(deltaDistanceSq));
+			out[0] += (bodies[0][self] - bodies[0][j]) * scaledForce;
+			out[1] += (bodies[1][self] - bodies[1][j]) * scaledForce;
+			out[2] += (bodies[2][self] - bodies[2][j]) * scaledForce;
+		}
+		return out;
+	}
+}
@@ -0,0 +1,158 @@
+package edu.velvet.Wikiverse.api.services.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the VertexOctree class.
+ * Tests that nearest point and ray pick queries find the same points as a scan
+ * over every point, including after points are moved (some well outside the
+ * root cell) and removed.
+ *
+ * @author The Wikiverse Team
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("VertexOctree Tests")
+class VertexOctreeTest {
+
+	private static final int POINTS = 2000;
+	private static final double PICK_RADIUS = 8.0;
+	private static final double UNBOUNDED = Double.POSITIVE_INFINITY;
+
+	@Test
+	@DisplayName("Should find the same nearest point as a linear scan")
+	void shouldFindSameNearestPointAsLinearScan() {
+		double[][] points = randomPoints(new Random(42));
+		VertexOctree octree = octreeOf(points);
+		Random random = new Random(7);
+
+		for (int i = 0; i < 200; i++) {
+			double x = (random.nextDouble() - 0.5) * 800;
+			double y = (random.nextDouble() - 0.5) * 800;
+			double z = (random.nextDouble() - 0.5) * 800;
+			assertEquals(scanNearest(points, x, y, z, UNBOUNDED), octree.nearest(x, y, z, UNBOUNDED));
+			assertEquals(scanNearest(points, x, y, z, 20.0), octree.nearest(x, y, z, 20.0));
+		}
+	}
+
+	@Test
+	@DisplayName("Should pick the same point as a linear scan along the ray")
+	void shouldPickSamePointAsLinearScan() {
+		double[][] points = randomPoints(new Random(42));
+		VertexOctree octree = octreeOf(points);
+		Random random = new Random(11);
+
+		for (int i = 0; i < 200; i++) {
+			double[] ray = randomRay(random);
+			assertEquals(scanPick(points, ray), octree.pick(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], PICK_RADIUS));
+		}
+	}
+
+	@Test
+	@DisplayName("Should match a linear scan after points are moved and removed")
+	void shouldMatchLinearScanAfterMovesAndRemoves() {
+		double[][] points = randomPoints(new Random(42));
+		VertexOctree octree = octreeOf(points);
+		Random random = new Random(13);
+
+		for (int i = 0; i < POINTS; i += 3) {
+			// Every tenth move lands well outside the root cell, forcing a rebuild
+			double spread = i % 10 == 0 ? 3000 : 600;
+			points[0][i] = (random.nextDouble() - 0.5) * spread;
+			points[1][i] = (random.nextDouble() - 0.5) * spread;
+			points[2][i] = (random.nextDouble() - 0.5) * spread;
+			octree.move(i, points[0][i], points[1][i], points[2][i]);
+		}
+		for (int i = 1; i < POINTS; i += 7) {
+			points[0][i] = Double.NaN;
+			octree.remove(i);
+		}
+		assertFalse(octree.contains(1));
+
+		for (int i = 0; i < 200; i++) {
+			double x = (random.nextDouble() - 0.5) * 800;
+			double y = (random.nextDouble() - 0.5) * 800;
+			double z = (random.nextDouble() - 0.5) * 800;
+			assertEquals(scanNearest(points, x, y, z, UNBOUNDED), octree.nearest(x, y, z, UNBOUNDED));
+
+			double[] ray = randomRay(random);
+			assertEquals(scanPick(points, ray), octree.pick(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], PICK_RADIUS));
+		}
+	}
+
+	// !PRIVATE ============================================================>
+
+	/**
+	 * Creates random points as {xs, ys, zs}.
+	 */
+	private double[][] randomPoints(Random random) {
+		double[][] points = new double[3][POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			points[0][i] = (random.nextDouble() - 0.5) * 600;
+			points[1][i] = (random.nextDouble() - 0.5) * 600;
+			points[2][i] = (random.nextDouble() - 0.5) * 600;
+		}
+		return points;
+	}
+
+	private VertexOctree octreeOf(double[][] points) {
+		VertexOctree octree = new VertexOctree(POINTS);
+		for (int i = 0; i < POINTS; i++) {
+			octree.insert(i, points[0][i], points[1][i], points[2][i]);
+		}
+		return octree;
+	}
+
+	/**
+	 * Creates a ray as {origin, direction} cast from outside the points toward
+	 * somewhere among them.
+	 */
+	private double[] randomRay(Random random) {
+		double[] ray = new double[6];
+		for (int axis = 0; axis < 3; axis++) {
+			ray[axis] = (random.nextDouble() - 0.5) * 2000;
+			ray[axis + 3] = (random.nextDouble() - 0.5) * 400 - ray[axis];
+		}
+		return ray;
+	}
+
+	/** Removed points are marked with a NaN x, which never compares as closer. */
+	private int scanNearest(double[][] points, double x, double y, double z, double maxDistance) {
+		int best = -1;
+		double bestSq = maxDistance * maxDistance;
+		for (int i = 0; i < POINTS; i++) {
+			double dx = points[0][i] - x;
+			double dy = points[1][i] - y;
+			double dz = points[2][i] - z;
+			double distanceSq = dx * dx + dy * dy + dz * dz;
+			if (distanceSq < bestSq) {
+				bestSq = distanceSq;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private int scanPick(double[][] points, double[] ray) {
+		double length = Math.sqrt(ray[3] * ray[3] + ray[4] * ray[4] + ray[5] * ray[5]);
+		int best = -1;
+		double bestT = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < POINTS; i++) {
+			double dx = points[0][i] - ray[0];
+			double dy = points[1][i] - ray[1];
+			double dz = points[2][i] - ray[2];
+			double t = (dx * ray[3] + dy * ray[4] + dz * ray[5]) / length;
+			double offRaySq = dx * dx + dy * dy + dz * dz - t * t;
+			if (t >= 0.0 && t < bestT && offRaySq <= PICK_RADIUS * PICK_RADIUS) {
+				bestT = t;
+				best = i;
+			}
+		}
+		return best;
+	}
+}